@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooFile;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+/**
+ * <code>FooLabelProvider</code> tests.
+ */
+public class FooLabelProviderTest
+    extends WorkspaceTestCase
+{
+    private IFooFile fooFile;
+    private FooLabelProvider labelProvider;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = FooModelCore.create(setUpProject("Test002")).getFooFile(
+            "test.foo");
+        ((FooFile)fooFile).close_();
+        labelProvider = new FooLabelProvider();
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        labelProvider.dispose();
+        super.tearDown();
+    }
+
+    public void testText() throws Exception
+    {
+        // the file is opened to get the parameter names
+        IFooDef def = fooFile.getDef("f", 2);
+        assertEquals("f(x, y)", labelProvider.getText(def));
+        assertEquals("f()", labelProvider.getText(fooFile.getDef("f", 0)));
+        assertEquals("f(x)", labelProvider.getText(fooFile.getDef("f", 1)));
+        assertEquals("x", labelProvider.getText(fooFile.getVar("x")));
+        assertEquals("test.foo", labelProvider.getText(fooFile));
+
+        def = fooFile.getDef("g", 1); // does not exist
+        assertEquals("g", labelProvider.getText(def));
+    }
+
+    public void testLazyText() throws Exception
+    {
+        IFooDef def = fooFile.getDef("f", 1);
+        System.setProperty(FooLazyContentProvider.LAZY_VIEWS_PROPERTY,
+            "true");
+        try
+        {
+            assertEquals("f(...)", labelProvider.getText(def));
+        }
+        finally
+        {
+            System.clearProperty(FooLazyContentProvider.LAZY_VIEWS_PROPERTY);
+        }
+        fooFile.getChildren();
+        assertEquals("f(x)", labelProvider.getText(def));
+    }
+
+    public void testInvalidation() throws Exception
+    {
+        IFooDef def = fooFile.getDef("f", 1);
+        assertEquals("f(x)", labelProvider.getText(def));
+
+        setContents("var x; var y; def f() {} def f(z) {} def f(x, y) {}");
+        assertEquals("f(z)", labelProvider.getText(def));
+
+        fooFile.getChildren();
+        setContents("var x; def f(a) {} def f(x, y) {}");
+        assertEquals("f(a)", labelProvider.getText(def));
+        def = fooFile.getDef("f", 2);
+        assertEquals("f(x, y)", labelProvider.getText(def));
+
+        def = fooFile.getDef("f", 1);
+        fooFile.getFile().delete(true, null);
+        assertEquals("f", labelProvider.getText(def));
+    }
+
+    private void setContents(String contents) throws Exception
+    {
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+    }
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.ElementChangeEvent;
+import org.eclipse.handly.model.impl.support.ElementDelta;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>AsyncElementChangeDispatcher</code> tests.
+ */
+public class AsyncElementChangeDispatcherTest
+    extends TestCase
+{
+    private IFooModel fooModel = FooModelCore.getFooModel();
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+    private CountDownLatch gate = new CountDownLatch(1);
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        gate.countDown();
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testOrder() throws Exception
+    {
+        AsyncElementChangeDispatcher dispatcher =
+            new AsyncElementChangeDispatcher(executor, 1000,
+                AsyncElementChangeDispatcher.OverflowPolicy.BLOCK);
+        RecordingListener listener = new RecordingListener(null);
+        IElementChangeListener wrapper = dispatcher.wrap(listener);
+        assertSame(wrapper, dispatcher.wrap(listener));
+        List<IElementChangeEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            IElementChangeEvent event = newEvent("file" + i + ".foo");
+            events.add(event);
+            wrapper.elementChanged(event);
+        }
+        awaitDelivery();
+        assertEquals(events, listener.events);
+    }
+
+    public void testSlowListener() throws Exception
+    {
+        AsyncElementChangeDispatcher dispatcher =
+            new AsyncElementChangeDispatcher(executor, 1,
+                AsyncElementChangeDispatcher.OverflowPolicy.DROP);
+        RecordingListener slow = new RecordingListener(gate);
+        RecordingListener fast = new RecordingListener(null);
+        IElementChangeListener slowWrapper = dispatcher.wrap(slow);
+        IElementChangeListener fastWrapper = dispatcher.wrap(fast);
+        for (int i = 0; i < 10; i++)
+        {
+            IElementChangeEvent event = newEvent("file" + i + ".foo");
+            slowWrapper.elementChanged(event); // does not block
+            fastWrapper.elementChanged(event);
+            fast.await(i + 1);
+        }
+        gate.countDown();
+        awaitDelivery();
+        // one event was queued while the first one was being delivered
+        assertEquals(2, slow.events.size());
+    }
+
+    public void testMerge() throws Exception
+    {
+        AsyncElementChangeDispatcher dispatcher =
+            new AsyncElementChangeDispatcher(executor, 1,
+                AsyncElementChangeDispatcher.OverflowPolicy.MERGE);
+        RecordingListener listener = new RecordingListener(gate);
+        IElementChangeListener wrapper = dispatcher.wrap(listener);
+        wrapper.elementChanged(newEvent("a.foo"));
+        listener.awaitStarted();
+        wrapper.elementChanged(newEvent("b.foo"));
+        wrapper.elementChanged(newEvent("c.foo"));
+        gate.countDown();
+        awaitDelivery();
+        assertEquals(2, listener.events.size());
+        IElementChangeEvent merged = listener.events.get(1);
+        assertNotNull(ElementDeltas.findDelta(merged.getDeltas()[0],
+            getFooFile("b.foo")));
+        assertNotNull(ElementDeltas.findDelta(merged.getDeltas()[0],
+            getFooFile("c.foo")));
+    }
+
+    public void testUnwrap() throws Exception
+    {
+        AsyncElementChangeDispatcher dispatcher =
+            new AsyncElementChangeDispatcher(executor, 10,
+                AsyncElementChangeDispatcher.OverflowPolicy.BLOCK);
+        RecordingListener listener = new RecordingListener(gate);
+        IElementChangeListener wrapper = dispatcher.wrap(listener);
+        wrapper.elementChanged(newEvent("a.foo"));
+        listener.awaitStarted();
+        wrapper.elementChanged(newEvent("b.foo"));
+        assertSame(wrapper, dispatcher.unwrap(listener));
+        assertNull(dispatcher.unwrap(listener));
+        gate.countDown();
+        awaitDelivery();
+        assertEquals(1, listener.events.size());
+    }
+
+    public void testMergeBounded() throws Exception
+    {
+        AsyncElementChangeDispatcher dispatcher =
+            new AsyncElementChangeDispatcher(executor, 1,
+                AsyncElementChangeDispatcher.OverflowPolicy.MERGE);
+        RecordingListener listener = new RecordingListener(gate);
+        IElementChangeListener wrapper = dispatcher.wrap(listener);
+        IFooFile a = getFooFile("a.foo");
+        wrapper.elementChanged(newReconcileEvent(a));
+        listener.awaitStarted();
+        wrapper.elementChanged(newReconcileEvent(a));
+        // no change event is queued: goes beyond the capacity
+        wrapper.elementChanged(newEvent("b.foo"));
+        // merged with the queued events of the same type
+        for (int i = 0; i < 10; i++)
+        {
+            wrapper.elementChanged(newReconcileEvent(a));
+            wrapper.elementChanged(newEvent("c.foo"));
+        }
+        gate.countDown();
+        awaitDelivery();
+        assertEquals(3, listener.events.size());
+
+        IElementChangeEvent reconcile = listener.events.get(1);
+        assertEquals(ElementChangeEvent.POST_RECONCILE, reconcile.getType());
+        assertEquals(1, reconcile.getDeltas().length);
+        assertEquals(a, ElementDeltas.getElement(reconcile.getDeltas()[0]));
+        assertEquals(IElementDeltaConstants.F_CONTENT
+            | IElementDeltaConstants.F_FINE_GRAINED, ElementDeltas.getFlags(
+                reconcile.getDeltas()[0]));
+
+        IElementChangeEvent change = listener.events.get(2);
+        assertEquals(ElementChangeEvent.POST_CHANGE, change.getType());
+        assertEquals(1, change.getDeltas().length);
+        assertNotNull(ElementDeltas.findDelta(change.getDeltas()[0],
+            getFooFile("b.foo")));
+        assertNotNull(ElementDeltas.findDelta(change.getDeltas()[0],
+            getFooFile("c.foo")));
+    }
+
+    /*
+     * Waits until all events queued so far have been delivered.
+     */
+    private void awaitDelivery() throws InterruptedException
+    {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private IElementChangeEvent newEvent(String fileName)
+    {
+        return new ElementChangeEvent(ElementChangeEvent.POST_CHANGE,
+            new ElementDelta.Builder(new ElementDelta(fooModel)).changed(
+                getFooFile(fileName),
+                IElementDeltaConstants.F_CONTENT).getDelta());
+    }
+
+    private static IElementChangeEvent newReconcileEvent(IFooFile fooFile)
+    {
+        return new ElementChangeEvent(ElementChangeEvent.POST_RECONCILE,
+            new ElementDelta.Builder(new ElementDelta(fooFile)).changed(
+                fooFile, IElementDeltaConstants.F_CONTENT
+                    | IElementDeltaConstants.F_FINE_GRAINED).getDelta());
+    }
+
+    private IFooFile getFooFile(String fileName)
+    {
+        return fooModel.getFooProject("Test").getFooFile(fileName);
+    }
+
+    private static class RecordingListener
+        implements IElementChangeListener
+    {
+        final List<IElementChangeEvent> events = Collections.synchronizedList(
+            new ArrayList<>());
+        private final CountDownLatch gate;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final Semaphore delivered = new Semaphore(0);
+        private int acquired;
+
+        RecordingListener(CountDownLatch gate)
+        {
+            this.gate = gate;
+        }
+
+        @Override
+        public void elementChanged(IElementChangeEvent event)
+        {
+            events.add(event);
+            started.countDown();
+            delivered.release();
+            if (gate != null)
+            {
+                try
+                {
+                    gate.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        void awaitStarted() throws InterruptedException
+        {
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+        }
+
+        void await(int eventCount) throws InterruptedException
+        {
+            assertTrue(delivered.tryAcquire(eventCount - acquired, 10,
+                TimeUnit.SECONDS));
+            acquired = eventCount;
+            assertEquals(eventCount, events.size());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Keeps benchmarks out of the regular test run.
+ * <p>
+ * A benchmark declares a <code>suite()</code> method that delegates to
+ * {@link #suite(Class)}. Its tests are run only if the system property
+ * {@value #PROPERTY} is set to <code>true</code>.
+ * </p>
+ */
+final class Benchmarks
+{
+    /**
+     * The system property enabling benchmarks.
+     */
+    static final String PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.tests.benchmarks";
+
+    /**
+     * Returns a suite of the tests of the given benchmark class if
+     * benchmarks are enabled, and an empty suite otherwise.
+     *
+     * @param benchmarkClass the benchmark class (not <code>null</code>)
+     * @return the suite (never <code>null</code>)
+     */
+    static Test suite(Class<? extends TestCase> benchmarkClass)
+    {
+        if (Boolean.getBoolean(PROPERTY))
+            return new TestSuite(benchmarkClass);
+        return new TestSuite(benchmarkClass.getName());
+    }
+
+    private Benchmarks()
+    {
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.lang.ref.WeakReference;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+
+/**
+ * Heap usage benchmark for compact storage of Foo file children.
+ * <p>
+ * Fills a <code>FooModelCache</code> with the bodies of a synthetic
+ * workspace of (by default) one million defs, once with regular
+ * <code>SourceElementBody</code> objects and once with compact per-file
+ * tables, and prints the retained heap per def for both. The number of
+ * defs is reduced if the maximum heap size is too small; it can be set
+ * explicitly with the <code>compactStructureBenchmark.defs</code> system
+ * property.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class CompactStructureBenchmark
+    extends TestCase
+{
+    private static final int DEFS_PER_FILE = 1000;
+    private static final String[] PARAMETER_NAMES = { "x", "y" };
+
+    private IFooProject fooProject;
+    private IFooFile[] fooFiles;
+    private IFooDef[][] fooDefs;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(CompactStructureBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        int defCount = Integer.getInteger("compactStructureBenchmark.defs", //$NON-NLS-1$
+            (int)Math.min(1_000_000, Runtime.getRuntime().maxMemory() / 500));
+        int fileCount = Math.max(defCount / DEFS_PER_FILE, 1);
+        String[] names = new String[DEFS_PER_FILE];
+        for (int j = 0; j < DEFS_PER_FILE; j++)
+            names[j] = "f" + j;
+        fooProject = FooModelCore.getFooModel().getFooProject("Synthetic");
+        fooFiles = new IFooFile[fileCount];
+        fooDefs = new IFooDef[fileCount][DEFS_PER_FILE];
+        for (int i = 0; i < fileCount; i++)
+        {
+            fooFiles[i] = fooProject.getFooFile("file" + i + ".foo");
+            for (int j = 0; j < DEFS_PER_FILE; j++)
+                fooDefs[i][j] = fooFiles[i].getDef(names[j], 2);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        fooDefs = null;
+        fooFiles = null;
+        super.tearDown();
+    }
+
+    public void testHeapUsage() throws Exception
+    {
+        long defCount = (long)fooFiles.length * DEFS_PER_FILE;
+
+        long before = usedMemory();
+        FooModelCache cache = fill(new FooModelCache(0, false));
+        long regular = usedMemory() - before;
+        assertNotNull(cache.peek(fooDefs[0][0]));
+        cache = null;
+
+        before = usedMemory();
+        cache = fill(new FooModelCache(0, true));
+        long compact = usedMemory() - before;
+        assertNotNull(cache.peek(fooDefs[0][0]));
+        cache = null;
+
+        System.out.println("CompactStructureBenchmark (" + defCount //$NON-NLS-1$
+            + " defs)"); //$NON-NLS-1$
+        System.out.println("regular: " + regular / defCount + " bytes/def"); //$NON-NLS-1$ //$NON-NLS-2$
+        System.out.println("compact: " + compact / defCount + " bytes/def"); //$NON-NLS-1$ //$NON-NLS-2$
+        assertTrue(compact < regular);
+    }
+
+    private FooModelCache fill(FooModelCache cache)
+    {
+        cache.setSoftStructureCache(null);
+        Body projectBody = new Body();
+        projectBody.setChildren(fooFiles);
+        cache.put(fooProject, projectBody); // make room for all files
+        for (int i = 0; i < fooFiles.length; i++)
+        {
+            SourceElementBody fileBody = new SourceElementBody();
+            fileBody.setChildren(fooDefs[i]);
+            cache.put(fooFiles[i], fileBody);
+            for (int j = 0; j < DEFS_PER_FILE; j++)
+            {
+                int offset = j * 20;
+                SourceElementBody body = new SourceElementBody();
+                body.setFullRange(new TextRange(offset, 18));
+                body.setIdentifyingRange(new TextRange(offset + 4, 3));
+                body.set(IFooDef.PARAMETER_NAMES, PARAMETER_NAMES.clone());
+                cache.put(fooDefs[i][j], body);
+            }
+        }
+        return cache;
+    }
+
+    private static long usedMemory()
+    {
+        // rather than sleeping, wait until collections have cleared
+        // a few weakly reachable objects, or give up after a while
+        for (int i = 0; i < 3; i++)
+        {
+            WeakReference<Object> sentinel = new WeakReference<>(new Object());
+            for (int j = 0; j < 100 && sentinel.get() != null; j++)
+                System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
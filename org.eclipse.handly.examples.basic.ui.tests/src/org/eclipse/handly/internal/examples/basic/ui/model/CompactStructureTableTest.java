@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooVar;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>CompactStructureTable</code> tests.
+ */
+public class CompactStructureTableTest
+    extends TestCase
+{
+    private IFooFile fooFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = FooModelCore.getFooModel().getFooProject(
+            "Test").getFooFile("test.foo");
+    }
+
+    public void testRoundTrip() throws Exception
+    {
+        CompactStructureTable table = new CompactStructureTable(0);
+        IFooVar var = fooFile.getVar("x");
+        IFooDef def = fooFile.getDef("f", 2);
+        assertNull(table.get(def));
+        assertNull(table.remove(def));
+
+        SourceElementBody varBody = newBody(0, 6, 4, 1, (String[])null);
+        SourceElementBody defBody = newBody(7, 20, 11, 1, "x", "y");
+        assertFalse(table.put(var, varBody));
+        assertFalse(table.put(def, defBody));
+        assertEquals(2, table.size());
+
+        assertSame(varBody, table.get(var));
+        assertSame(defBody, table.get(def));
+
+        SourceElementBody newDefBody = newBody(7, 18, 11, 1, "z");
+        assertTrue(table.put(def, newDefBody));
+        assertEquals(2, table.size());
+        assertSame(newDefBody, table.get(def));
+
+        assertSame(varBody, table.remove(var));
+        assertEquals(1, table.size());
+        assertNull(table.get(var));
+        assertSame(newDefBody, table.remove(def));
+        assertEquals(0, table.size());
+        assertNull(table.get(def));
+    }
+
+    public void testMaterialize() throws Exception
+    {
+        CompactStructureTable table = new CompactStructureTable(0);
+        IFooDef def = fooFile.getDef("f", 2);
+        table.put(def, newBody(7, 20, 11, 1, "x", "y"));
+        // the body put in the table may be gone, so just check the contents
+        SourceElementBody body = table.get(def);
+        assertEquals(new TextRange(7, 20), body.getFullRange());
+        assertEquals(new TextRange(11, 1), body.getIdentifyingRange());
+        assertTrue(Arrays.equals(new String[] { "x", "y" }, body.get(
+            IFooDef.PARAMETER_NAMES)));
+        assertSame(body, table.get(def));
+        assertSame(body, table.remove(def));
+    }
+
+    public void testGrow() throws Exception
+    {
+        CompactStructureTable table = new CompactStructureTable(0);
+        SourceElementBody[] bodies = new SourceElementBody[100];
+        for (int i = 0; i < bodies.length; i++)
+        {
+            bodies[i] = newBody(i * 10, 5, i * 10 + 4, 1, "p" + i);
+            table.put(fooFile.getDef("f", i), bodies[i]);
+        }
+        for (int i = 0; i < bodies.length; i += 2)
+            table.remove(fooFile.getDef("f", i));
+        for (int i = 100; i < 200; i++)
+            table.put(fooFile.getDef("f", i), newBody(i * 10, 5, i * 10
+                + 4, 1));
+        assertEquals(150, table.size());
+        for (int i = 1; i < bodies.length; i += 2)
+        {
+            SourceElementBody body = table.get(fooFile.getDef("f", i));
+            assertEquals(bodies[i].getFullRange(), body.getFullRange());
+            assertEquals(bodies[i].getIdentifyingRange(),
+                body.getIdentifyingRange());
+            assertTrue(Arrays.equals(bodies[i].get(IFooDef.PARAMETER_NAMES),
+                body.get(IFooDef.PARAMETER_NAMES)));
+        }
+        for (int i = 0; i < bodies.length; i += 2)
+            assertNull(table.get(fooFile.getDef("f", i)));
+    }
+
+    public void testRecentBodies() throws Exception
+    {
+        CompactStructureTable table = new CompactStructureTable(0);
+        for (int i = 0; i < 100; i++)
+            table.put(fooFile.getDef("f", i), newBody(i * 10, 5, i * 10 + 4,
+                1));
+        // only a few bodies are remembered, but a row accessed repeatedly
+        // returns the same body
+        IFooDef def = fooFile.getDef("f", 0);
+        SourceElementBody body = table.get(def);
+        assertEquals(new TextRange(0, 5), body.getFullRange());
+        assertSame(body, table.get(def));
+        assertSame(body, table.remove(def));
+        assertNull(table.get(def));
+    }
+
+    public void testParamPool() throws Exception
+    {
+        CompactStructureTable table = new CompactStructureTable(10);
+        IFooDef def = fooFile.getDef("f", 3);
+        for (int i = 0; i < 1000; i++)
+            table.put(def, newBody(0, 10, 4, 1, "x" + i, "y", "z"));
+        assertEquals(3, table.getParamPoolSize());
+
+        for (int i = 0; i < 1000; i++)
+        {
+            String[] names = new String[3 + i % 2];
+            Arrays.fill(names, "x" + i);
+            table.put(def, newBody(0, 10, 4, 1, names));
+            assertTrue(table.getParamPoolSize() <= 2 * 4);
+        }
+        assertTrue(Arrays.equals(new String[] { "x999", "x999", "x999",
+            "x999" }, table.get(def).get(IFooDef.PARAMETER_NAMES)));
+
+        table.remove(def);
+        assertEquals(0, table.getParamPoolSize());
+    }
+
+    private static SourceElementBody newBody(int offset, int length,
+        int idOffset, int idLength, String... parameterNames)
+    {
+        SourceElementBody body = new SourceElementBody();
+        body.setFullRange(new TextRange(offset, length));
+        body.setIdentifyingRange(new TextRange(idOffset, idLength));
+        if (parameterNames != null)
+            body.set(IFooDef.PARAMETER_NAMES, parameterNames);
+        return body;
+    }
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>ConcurrentReadFooModelCache</code> tests.
+ */
+public class ConcurrentReadFooModelCacheTest
+    extends TestCase
+{
+    private IFooProject fooProject;
+    private IFooFile fooFile;
+    private IFooDef def;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooProject = FooModelCore.getFooModel().getFooProject("Test");
+        fooFile = fooProject.getFooFile("a.foo");
+        def = fooFile.getDef("f", 0);
+    }
+
+    public void testMirror() throws Exception
+    {
+        ConcurrentReadFooModelCache cache = new ConcurrentReadFooModelCache(
+            new FooModelCache(), true);
+        SourceElementBody fileBody = newFileBody();
+        cache.put(fooFile, fileBody);
+        assertSame(fileBody, cache.getConcurrently(fooFile));
+
+        SourceElementBody defBody = new SourceElementBody();
+        cache.put(def, defBody);
+        assertNull(cache.getConcurrently(def)); // children are not mirrored
+        assertSame(defBody, cache.get(def));
+
+        cache.setEnabled(false);
+        assertNull(cache.getConcurrently(fooFile));
+        cache.setEnabled(true);
+
+        SourceElementBody newFileBody = newFileBody();
+        cache.put(fooFile, newFileBody);
+        assertSame(newFileBody, cache.getConcurrently(fooFile));
+
+        cache.remove(def);
+        cache.remove(fooFile);
+        assertNull(cache.getConcurrently(fooFile));
+        assertNull(cache.peek(fooFile));
+    }
+
+    public void testReplay() throws Exception
+    {
+        FooModelMetrics metrics = new FooModelMetrics();
+        ConcurrentReadFooModelCache cache = new ConcurrentReadFooModelCache(
+            new InstrumentedFooModelCache(new FooModelCache(), metrics),
+            true);
+        cache.put(fooFile, newFileBody());
+        assertNotNull(cache.getConcurrently(fooFile));
+        assertNotNull(cache.getConcurrently(fooFile));
+        assertEquals(0, metrics.fileHits.sum());
+
+        // the reads are replayed to the underlying cache under the lock
+        cache.put(def, new SourceElementBody());
+        assertEquals(2, metrics.fileHits.sum());
+        cache.put(def, new SourceElementBody());
+        assertEquals(2, metrics.fileHits.sum());
+    }
+
+    private SourceElementBody newFileBody()
+    {
+        SourceElementBody body = new SourceElementBody();
+        body.setChildren(new IElement[] { def });
+        return body;
+    }
+}
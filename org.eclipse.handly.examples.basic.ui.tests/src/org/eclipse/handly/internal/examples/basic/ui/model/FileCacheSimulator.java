@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.core.runtime.Path;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.model.IElement;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+
+/**
+ * Trace-driven simulator of Foo file cache policies.
+ * <p>
+ * Replays a trace of Foo file accesses against an LRU cache (the policy
+ * of the default file cache) and a {@link TinyLfuElementCache} of several
+ * sizes, and prints the hit ratios. The trace is read from the file given
+ * by the <code>fileCacheSimulator.trace</code> system property, one
+ * full path of a Foo file (e.g. <code>/Project/file.foo</code>) per line.
+ * If the property is not set, a synthetic trace is used that mixes
+ * skewed accesses to a hot set of files (as by open editors) with
+ * periodic workspace-wide scans (as by a search).
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FileCacheSimulator
+    extends TestCase
+{
+    private static final Object BODY = new Object();
+    private static final int[] CACHE_SIZES = { 50, 100, 200, 400 };
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FileCacheSimulator.class);
+    }
+
+    public void testHitRatios() throws Exception
+    {
+        String tracePath = System.getProperty("fileCacheSimulator.trace"); //$NON-NLS-1$
+        List<IElement> trace = tracePath != null ? readTrace(tracePath)
+            : syntheticTrace();
+
+        System.out.println("FileCacheSimulator (" + trace.size() //$NON-NLS-1$
+            + " accesses, hit ratio %)"); //$NON-NLS-1$
+        System.out.println("size\tLRU\tW-TinyLFU"); //$NON-NLS-1$
+        for (int size : CACHE_SIZES)
+        {
+            double lru = simulateLru(trace, size);
+            double tinyLfu = simulateTinyLfu(trace, size);
+            System.out.printf("%d\t%.1f\t%.1f%n", size, lru * 100, //$NON-NLS-1$
+                tinyLfu * 100);
+            if (tracePath == null)
+                assertTrue(tinyLfu > lru);
+        }
+    }
+
+    private static double simulateLru(List<IElement> trace, int maxSize)
+    {
+        Map<IElement, Object> cache = new LinkedHashMap<IElement, Object>(16,
+            0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<IElement, Object> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+        int hits = 0;
+        for (IElement element : trace)
+        {
+            if (cache.get(element) != null)
+                hits++;
+            else
+                cache.put(element, BODY);
+        }
+        return (double)hits / trace.size();
+    }
+
+    private static double simulateTinyLfu(List<IElement> trace, int maxSize)
+    {
+        TinyLfuElementCache cache = new TinyLfuElementCacheTest.TestCache(
+            maxSize, null);
+        int hits = 0;
+        for (IElement element : trace)
+        {
+            if (cache.get(element) != null)
+                hits++;
+            else
+                cache.put(element, BODY);
+        }
+        return (double)hits / trace.size();
+    }
+
+    private static List<IElement> readTrace(String tracePath)
+        throws IOException
+    {
+        IFooModel fooModel = FooModelCore.getFooModel();
+        Map<String, IElement> elements = new HashMap<>();
+        List<IElement> trace = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(tracePath),
+            StandardCharsets.UTF_8))
+        {
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+            IElement element = elements.computeIfAbsent(line, k ->
+            {
+                Path path = new Path(k);
+                return fooModel.getFooProject(path.segment(0)).getFooFile(
+                    path.removeFirstSegments(1).toString());
+            });
+            if (element != null)
+                trace.add(element);
+        }
+        return trace;
+    }
+
+    private static List<IElement> syntheticTrace()
+    {
+        IElement[] files = new IElement[5000];
+        for (int i = 0; i < files.length; i++)
+            files[i] = FooModelCore.getFooModel().getFooProject(
+                "Project" + i / 500).getFooFile("file" + i + ".foo");
+        Random random = new Random(42);
+        List<IElement> trace = new ArrayList<>();
+        for (int phase = 0; phase < 10; phase++)
+        {
+            for (int i = 0; i < 20000; i++)
+            {
+                // Zipf-like skew over a hot set of 300 files
+                int rank = (int)Math.pow(300, random.nextDouble());
+                trace.add(files[rank - 1]);
+            }
+            for (IElement file : files)
+                trace.add(file); // workspace-wide scan
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.ElementDelta;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooDeltaCoalescer</code> tests.
+ */
+public class FooDeltaCoalescerTest
+    extends TestCase
+{
+    private IFooModel fooModel = FooModelCore.getFooModel();
+    private IFooProject fooProject = fooModel.getFooProject("Test");
+    private IFooFile fooFile = fooProject.getFooFile("a.foo");
+    private IFooFile fooFile2 = fooProject.getFooFile("b.foo");
+    private FooModelMetrics metrics = new FooModelMetrics();
+    private List<IElementDelta> fired = new ArrayList<>();
+    private FooDeltaCoalescer coalescer = new FooDeltaCoalescer(60_000, 3,
+        fired::add, metrics);
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        coalescer.dispose();
+        super.tearDown();
+    }
+
+    public void testAddedThenRemoved() throws Exception
+    {
+        coalescer.add(newDeltaBuilder().added(fooFile).getDelta());
+        coalescer.add(newDeltaBuilder().removed(fooFile).getDelta());
+        coalescer.flush();
+        assertTrue(fired.isEmpty());
+        assertEquals(2, metrics.deltas.sum());
+        assertEquals(0, metrics.deltaEvents.sum());
+    }
+
+    public void testRemovedThenAdded() throws Exception
+    {
+        coalescer.add(newDeltaBuilder().removed(fooFile).getDelta());
+        coalescer.add(newDeltaBuilder().added(fooFile).getDelta());
+        coalescer.flush();
+        assertEquals(1, fired.size());
+        IElementDelta delta = ElementDeltas.findDelta(fired.get(0), fooFile);
+        assertEquals(IElementDeltaConstants.CHANGED, ElementDeltas.getKind(
+            delta));
+        assertTrue((ElementDeltas.getFlags(delta)
+            & IElementDeltaConstants.F_CONTENT) != 0);
+    }
+
+    public void testMove() throws Exception
+    {
+        coalescer.add(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        coalescer.add(newDeltaBuilder().movedTo(fooFile2, fooFile).movedFrom(
+            fooFile, fooFile2).getDelta());
+        coalescer.flush();
+        assertEquals(1, fired.size());
+        IElementDelta delta = ElementDeltas.findDelta(fired.get(0), fooFile);
+        assertEquals(IElementDeltaConstants.REMOVED, ElementDeltas.getKind(
+            delta));
+        assertEquals(fooFile2, ElementDeltas.getMovedToElement(delta));
+        delta = ElementDeltas.findDelta(fired.get(0), fooFile2);
+        assertEquals(IElementDeltaConstants.ADDED, ElementDeltas.getKind(
+            delta));
+        assertEquals(fooFile, ElementDeltas.getMovedFromElement(delta));
+    }
+
+    public void testFineGrainedThenCoarse() throws Exception
+    {
+        coalescer.add(newDeltaBuilder().added(fooFile.getVar("x")).changed(
+            fooFile, IElementDeltaConstants.F_CONTENT
+                | IElementDeltaConstants.F_FINE_GRAINED).getDelta());
+        coalescer.add(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        coalescer.flush();
+        assertEquals(1, fired.size());
+        IElementDelta delta = ElementDeltas.findDelta(fired.get(0), fooFile);
+        assertEquals(IElementDeltaConstants.F_CONTENT, ElementDeltas.getFlags(
+            delta));
+        assertEquals(0, ElementDeltas.getAffectedChildren(delta).length);
+    }
+
+    public void testBatchSize() throws Exception
+    {
+        coalescer.add(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        coalescer.add(newDeltaBuilder().changed(fooFile2,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        assertTrue(fired.isEmpty());
+        coalescer.add(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        assertEquals(1, fired.size()); // without waiting for the quiet window
+        assertEquals(2, ElementDeltas.getAffectedChildren(
+            ElementDeltas.findDelta(fired.get(0), fooProject)).length);
+        assertEquals(3, metrics.deltas.sum());
+        assertEquals(1, metrics.deltaEvents.sum());
+    }
+
+    public void testMergeScoped() throws Exception
+    {
+        ElementDelta projectDelta = new ElementDelta(fooProject);
+        IElementDelta delta = FooDeltaCoalescer.merge(Arrays.asList(
+            new ElementDelta.Builder(projectDelta).added(fooFile).getDelta(),
+            new ElementDelta.Builder(new ElementDelta(fooProject)).removed(
+                fooFile2).getDelta()));
+        assertEquals(fooProject, ElementDeltas.getElement(delta));
+        assertEquals(IElementDeltaConstants.ADDED, ElementDeltas.getKind(
+            ElementDeltas.findDelta(delta, fooFile)));
+        assertEquals(IElementDeltaConstants.REMOVED, ElementDeltas.getKind(
+            ElementDeltas.findDelta(delta, fooFile2)));
+
+        // the scope element itself has been removed
+        IElementDelta removed = ElementDeltas.getAffectedChildren(
+            newDeltaBuilder().removed(fooProject).getDelta())[0];
+        assertSame(removed, FooDeltaCoalescer.merge(Arrays.asList(
+            projectDelta, removed)));
+    }
+
+    public void testQuietWindow() throws Exception
+    {
+        long[] now = { 0 };
+        List<Long> delays = new ArrayList<>();
+        FooDeltaCoalescer coalescer = new FooDeltaCoalescer(100, 1000,
+            fired::add, metrics, () -> now[0], delays::add);
+        coalescer.add(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        assertEquals(Arrays.asList(100L), delays);
+
+        now[0] = 60;
+        coalescer.add(newDeltaBuilder().changed(fooFile2,
+            IElementDeltaConstants.F_CONTENT).getDelta());
+        now[0] = 100;
+        coalescer.flushIfQuiet(); // the second delta restarts the window
+        assertTrue(fired.isEmpty());
+        assertEquals(Arrays.asList(100L, 100L, 60L), delays);
+
+        now[0] = 160;
+        coalescer.flushIfQuiet();
+        assertEquals(1, fired.size());
+        assertEquals(2, ElementDeltas.getAffectedChildren(
+            ElementDeltas.findDelta(fired.get(0), fooProject)).length);
+        assertEquals(2, metrics.deltas.sum());
+        assertEquals(1, metrics.deltaEvents.sum());
+
+        coalescer.flushIfQuiet(); // nothing is queued
+        assertEquals(1, fired.size());
+        assertEquals(3, delays.size());
+        coalescer.dispose();
+    }
+
+    private ElementDelta.Builder newDeltaBuilder()
+    {
+        return new ElementDelta.Builder(new ElementDelta(fooModel));
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+import junit.framework.Test;
+
+/**
+ * Resource delta processing benchmark.
+ * <p>
+ * Changes many files that cannot contain Foo elements (files in a folder
+ * of a Foo project and files in a project that is not a Foo project)
+ * in one workspace operation, and prints the time it takes
+ * a <code>FooDeltaProcessor</code> to process the resulting resource delta,
+ * compared with the time of a complete walk of the delta.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooDeltaProcessorBenchmark
+    extends WorkspaceTestCase
+{
+    private static final int FILE_COUNT = 10000;
+    private static final int RUNS = 10;
+
+    private IFolder folder;
+    private IProject otherProject;
+    private int round;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooDeltaProcessorBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        folder = setUpProject("Test002").getFolder("gen");
+        otherProject = ResourcesPlugin.getWorkspace().getRoot().getProject(
+            "Other");
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            folder.create(true, true, null);
+            otherProject.create(null);
+            otherProject.open(null);
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+        writeFiles(); // create
+    }
+
+    public void testNonFooChurn() throws Exception
+    {
+        long[] nanos = new long[2];
+        IResourceChangeListener listener = new IResourceChangeListener()
+        {
+            @Override
+            public void resourceChanged(IResourceChangeEvent event)
+            {
+                IResourceDelta delta = event.getDelta();
+                try
+                {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < RUNS; i++)
+                        delta.accept(resourceDelta -> true);
+                    nanos[0] = (System.nanoTime() - start) / RUNS;
+                    start = System.nanoTime();
+                    for (int i = 0; i < RUNS; i++)
+                        delta.accept(new FooDeltaProcessor());
+                    nanos[1] = (System.nanoTime() - start) / RUNS;
+                }
+                catch (CoreException e)
+                {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(listener,
+            IResourceChangeEvent.POST_CHANGE);
+        try
+        {
+            writeFiles();
+        }
+        finally
+        {
+            ResourcesPlugin.getWorkspace().removeResourceChangeListener(
+                listener);
+        }
+        System.out.println("FooDeltaProcessorBenchmark (" + 2 * FILE_COUNT //$NON-NLS-1$
+            + " changed files)"); //$NON-NLS-1$
+        System.out.printf("complete walk: %.3f ms, delta processor: %.3f ms%n", //$NON-NLS-1$
+            nanos[0] / 1e6, nanos[1] / 1e6);
+    }
+
+    private void writeFiles() throws Exception
+    {
+        round++;
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            for (int i = 0; i < FILE_COUNT; i++)
+            {
+                writeFile(folder, "file" + i + ".foo");
+                writeFile(otherProject, "file" + i + ".foo");
+            }
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+    }
+
+    private void writeFile(IContainer container, String name)
+        throws CoreException
+    {
+        IFile file = container.getFile(new Path(name));
+        ByteArrayInputStream contents = new ByteArrayInputStream(("// round "
+            + round).getBytes(StandardCharsets.UTF_8));
+        if (file.exists())
+            file.setContents(contents, true, false, null);
+        else
+            file.create(contents, true, null);
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+
+/**
+ * <code>FooDeltaProcessor</code> tests.
+ */
+public class FooDeltaProcessorTest
+    extends WorkspaceTestCase
+{
+    private IProject project;
+    private IFolder folder;
+    private IProject otherProject;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        project = setUpProject("Test002");
+        folder = project.getFolder("gen");
+        otherProject = ResourcesPlugin.getWorkspace().getRoot().getProject(
+            "Other");
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            folder.create(true, true, null);
+            folder.getFolder("sub").create(true, true, null);
+            otherProject.create(null);
+            otherProject.open(null);
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+    }
+
+    public void testPruning() throws Exception
+    {
+        Set<IResource> visited = new HashSet<>();
+        IElementDelta[] result = new IElementDelta[1];
+        IResourceChangeListener listener = new IResourceChangeListener()
+        {
+            @Override
+            public void resourceChanged(IResourceChangeEvent event)
+            {
+                FooDeltaProcessor processor = new FooDeltaProcessor();
+                try
+                {
+                    event.getDelta().accept(delta ->
+                    {
+                        visited.add(delta.getResource());
+                        return processor.visit(delta);
+                    });
+                }
+                catch (CoreException e)
+                {
+                    throw new AssertionError(e);
+                }
+                result[0] = processor.getDelta();
+            }
+        };
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(listener,
+            IResourceChangeEvent.POST_CHANGE);
+        try
+        {
+            IWorkspaceRunnable runnable = monitor ->
+            {
+                writeFile(folder, "a.foo");
+                writeFile(folder.getFolder("sub"), "b.foo");
+                writeFile(otherProject, "c.foo");
+                writeFile(project, "readme.txt");
+                writeFile(project, "d.foo");
+            };
+            ResourcesPlugin.getWorkspace().run(runnable, null);
+        }
+        finally
+        {
+            ResourcesPlugin.getWorkspace().removeResourceChangeListener(
+                listener);
+        }
+
+        assertTrue(visited.contains(project));
+        assertTrue(visited.contains(folder));
+        assertTrue(visited.contains(otherProject));
+        assertTrue(visited.contains(project.getFile("readme.txt")));
+        assertTrue(visited.contains(project.getFile("d.foo")));
+        // subtrees that cannot contain Foo files are not visited
+        assertFalse(visited.contains(folder.getFile("a.foo")));
+        assertFalse(visited.contains(folder.getFolder("sub")));
+        assertFalse(visited.contains(otherProject.getFile("c.foo")));
+
+        IFooProject fooProject = FooModelCore.create(project);
+        IElementDelta projectDelta = ElementDeltas.findDelta(result[0],
+            fooProject);
+        assertNotNull(projectDelta);
+        IElementDelta[] children = ElementDeltas.getAffectedChildren(
+            projectDelta);
+        assertEquals(1, children.length);
+        assertEquals(fooProject.getFooFile("d.foo"), ElementDeltas.getElement(
+            children[0]));
+        assertEquals(IElementDeltaConstants.ADDED, ElementDeltas.getKind(
+            children[0]));
+        assertNull(ElementDeltas.findDelta(result[0], FooModelCore.create(
+            otherProject)));
+    }
+
+    private static void writeFile(IContainer container, String name)
+        throws CoreException
+    {
+        IFile file = container.getFile(new Path(name));
+        file.create(new ByteArrayInputStream("// test".getBytes(
+            StandardCharsets.UTF_8)), true, null);
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+import junit.framework.Test;
+
+/**
+ * Bulk open benchmark for Foo files.
+ * <p>
+ * Opens a project of synthetic Foo files with a <code>FooFileOpener</code>
+ * on fork-join pools of 1 up to the number of available processors
+ * threads, and prints the time and the speedup relative to one thread.
+ * Before each run, the files are rewritten with different contents,
+ * so that they are actually built rather than restored.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooFileOpenerBenchmark
+    extends WorkspaceTestCase
+{
+    private static final int FILE_COUNT = 500;
+    private static final int DEFS_PER_FILE = 200;
+
+    private IProject project;
+    private IFooProject fooProject;
+    private int round;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooFileOpenerBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        project = setUpProject("Test002");
+        fooProject = FooModelCore.create(project);
+        writeFiles(); // create
+    }
+
+    public void testScaling() throws Exception
+    {
+        run(1); // warm up
+        System.out.println("FooFileOpenerBenchmark (" + FILE_COUNT //$NON-NLS-1$
+            + " files)"); //$NON-NLS-1$
+        System.out.println("threads\tms\tspeedup"); //$NON-NLS-1$
+        long base = 0;
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2)
+        {
+            long millis = run(threads);
+            if (threads == 1)
+                base = millis;
+            System.out.printf("%d\t%d\t%.2f%n", threads, millis, //$NON-NLS-1$
+                (double)base / Math.max(millis, 1));
+        }
+    }
+
+    private long run(int threads) throws Exception
+    {
+        writeFiles(); // closes the files
+        IFooFile[] fooFiles = fooProject.getFooFiles();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            long start = System.nanoTime();
+            new FooFileOpener(pool).open(fooFiles, fooProject, null);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            for (IFooFile fooFile : fooFiles)
+                assertNotNull(((FooFile)fooFile).peekAtBody_());
+            return millis;
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private void writeFiles() throws Exception
+    {
+        round++;
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            for (int i = 0; i < FILE_COUNT; i++)
+            {
+                IFile file = project.getFile("file" + i + ".foo");
+                ByteArrayInputStream contents = new ByteArrayInputStream(
+                    contents(i).getBytes(StandardCharsets.UTF_8));
+                if (file.exists())
+                    file.setContents(contents, true, false, null);
+                else
+                    file.create(contents, true, null);
+            }
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+    }
+
+    private String contents(int fileIndex)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("// round ").append(round).append('\n');
+        for (int i = 0; i < DEFS_PER_FILE; i++)
+            sb.append("def f").append(fileIndex).append('_').append(i).append(
+                "(x, y) {}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.handly.examples.basic.foo.Module;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.xtext.resource.XtextResource;
+
+import junit.framework.Test;
+
+/**
+ * Structure building benchmark for Foo files.
+ * <p>
+ * Builds the structure of synthetic Foo files of several sizes, once with
+ * a <code>FooFileScanner</code> and once by parsing the file with Xtext
+ * and building the structure from the AST (as <code>FooFile</code> does
+ * when the scanner is disabled or the file has syntax errors), and prints
+ * the average time per file for both.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooFileScannerBenchmark
+    extends WorkspaceTestCase
+{
+    private static final int[] DECLARATION_COUNTS = { 10, 100, 1000 };
+    private static final long DURATION_MILLIS = 500;
+
+    private FooFile fooFile;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooFileScannerBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = (FooFile)FooModelCore.create(setUpProject(
+            "Test002")).getFooFile("test.foo");
+    }
+
+    public void testBuildTime() throws Exception
+    {
+        System.out.println("FooFileScannerBenchmark (us/file)"); //$NON-NLS-1$
+        System.out.println("decls\tscanner\tXtext"); //$NON-NLS-1$
+        for (int count : DECLARATION_COUNTS)
+        {
+            String contents = contents(count);
+            run(contents, false); // warm up
+            run(contents, true);
+            double scan = run(contents, false);
+            double parse = run(contents, true);
+            System.out.printf("%d\t%.1f\t%.1f%n", count, scan, parse); //$NON-NLS-1$
+            assertTrue(scan < parse);
+        }
+    }
+
+    private double run(String contents, boolean parse) throws Exception
+    {
+        long count = 0;
+        long start = System.nanoTime();
+        long deadline = start + DURATION_MILLIS * 1_000_000;
+        long now;
+        do
+        {
+            Map<IElement, Object> newElements = new HashMap<>();
+            SourceElementBody body = new SourceElementBody();
+            if (parse)
+            {
+                XtextResource resource = fooFile.parse(contents, "UTF-8");
+                Module module =
+                    (Module)resource.getParseResult().getRootASTElement();
+                new FooFileStructureBuilder(newElements,
+                    resource.getResourceServiceProvider()).buildStructure(
+                        fooFile, body, module);
+                fooFile.release(resource);
+            }
+            else
+            {
+                assertTrue(new FooFileScanner(contents).buildStructure(
+                    fooFile, body, new FooFileStructureBuilder(
+                        newElements)));
+            }
+            count++;
+        }
+        while ((now = System.nanoTime()) < deadline);
+        return (now - start) / 1000.0 / count;
+    }
+
+    private static String contents(int declarationCount)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("// synthetic\n");
+        int varCount = declarationCount / 5;
+        for (int i = 0; i < varCount; i++)
+            sb.append("var v").append(i).append(";\n");
+        for (int i = varCount; i < declarationCount; i++)
+        {
+            sb.append("/* def ").append(i).append(" */\n");
+            sb.append("def f").append(i).append("(x, y) {}\n");
+        }
+        return sb.toString();
+    }
+}
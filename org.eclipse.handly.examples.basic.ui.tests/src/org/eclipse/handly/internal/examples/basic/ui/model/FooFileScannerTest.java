@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.handly.examples.basic.foo.Module;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+import org.eclipse.xtext.resource.XtextResource;
+
+/**
+ * <code>FooFileScanner</code> tests.
+ */
+public class FooFileScannerTest
+    extends WorkspaceTestCase
+{
+    private FooFile fooFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = (FooFile)FooModelCore.create(setUpProject(
+            "Test002")).getFooFile("test.foo");
+    }
+
+    public void testSameStructure() throws Exception
+    {
+        assertSameStructure("");
+        assertSameStructure("  // comment only\n");
+        assertSameStructure("var x;\nvar y;\n\ndef f() {}\ndef f(x) {}\n"
+            + "def f(x, y) {}");
+        assertSameStructure("/* header */ var  a1 ;\r\nvar ^var; // var\n"
+            + "def ^def ( , x,y ) { /* empty */ }\n"
+            + "def g\t(_)\n{\n}// trailing");
+        assertSameStructure("var vars; var x; var x; def define() {} "
+            + "def f() {} def f() {} def f(a) {}");
+    }
+
+    public void testSyntaxErrors() throws Exception
+    {
+        assertSyntaxError("var;");
+        assertSyntaxError("var x");
+        assertSyntaxError("var var;");
+        assertSyntaxError("var 1x;");
+        assertSyntaxError("def f() {} var x;");
+        assertSyntaxError("def f(x y) {}");
+        assertSyntaxError("def f(x,) {}");
+        assertSyntaxError("def f() { x }");
+        assertSyntaxError("var x; /* unterminated");
+        assertSyntaxError("var x; #");
+        assertSyntaxError("var ^ x;");
+    }
+
+    private void assertSameStructure(String contents) throws Exception
+    {
+        Map<IElement, Object> scanned = new HashMap<>();
+        SourceElementBody scannedBody = new SourceElementBody();
+        assertTrue(contents, new FooFileScanner(contents).buildStructure(
+            fooFile, scannedBody, new FooFileStructureBuilder(scanned)));
+
+        Map<IElement, Object> parsed = new HashMap<>();
+        SourceElementBody parsedBody = new SourceElementBody();
+        XtextResource resource = fooFile.parse(contents, "UTF-8");
+        try
+        {
+            assertTrue(contents, resource.getErrors().isEmpty());
+            EObject root = resource.getParseResult().getRootASTElement();
+            if (root instanceof Module)
+                new FooFileStructureBuilder(parsed,
+                    resource.getResourceServiceProvider()).buildStructure(
+                        fooFile, parsedBody, (Module)root);
+            else
+                parsedBody.setChildren(new IElement[0]);
+        }
+        finally
+        {
+            fooFile.release(resource);
+        }
+
+        assertEquals(contents, Arrays.asList(parsedBody.getChildren()),
+            Arrays.asList(scannedBody.getChildren()));
+        assertEquals(contents, parsed.keySet(), scanned.keySet());
+        for (IElement child : parsedBody.getChildren())
+        {
+            SourceElementBody expected = (SourceElementBody)parsed.get(child);
+            SourceElementBody actual = (SourceElementBody)scanned.get(child);
+            assertEquals(contents, expected.getFullRange(),
+                actual.getFullRange());
+            assertEquals(contents, expected.getIdentifyingRange(),
+                actual.getIdentifyingRange());
+            assertTrue(contents, Arrays.equals(expected.get(
+                IFooDef.PARAMETER_NAMES), actual.get(
+                    IFooDef.PARAMETER_NAMES)));
+        }
+    }
+
+    private void assertSyntaxError(String contents) throws Exception
+    {
+        Map<IElement, Object> scanned = new HashMap<>();
+        SourceElementBody scannedBody = new SourceElementBody();
+        assertFalse(contents, new FooFileScanner(contents).buildStructure(
+            fooFile, scannedBody, new FooFileStructureBuilder(scanned)));
+        assertTrue(contents, scanned.isEmpty());
+
+        XtextResource resource = fooFile.parse(contents, "UTF-8");
+        try
+        {
+            assertFalse(contents, resource.getErrors().isEmpty());
+        }
+        finally
+        {
+            fooFile.release(resource);
+        }
+    }
+
+    private static void assertEquals(String message, TextRange expected,
+        TextRange actual)
+    {
+        if (expected == null || actual == null)
+        {
+            assertSame(message, expected, actual);
+            return;
+        }
+        assertEquals(message, expected.getOffset(), actual.getOffset());
+        assertEquals(message, expected.getLength(), actual.getLength());
+    }
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooFileStructureUpdater</code> tests.
+ * <p>
+ * Applies random edits to random Foo source texts and checks that
+ * whenever the structure is updated incrementally, the result is the same
+ * as that of a full build. (The full build with a <code>FooFileScanner</code>
+ * is checked against the Xtext-based build by <code>FooFileScannerTest</code>.)
+ * </p>
+ */
+public class FooFileStructureUpdaterTest
+    extends TestCase
+{
+    private static final String[] SNIPPETS = { "var x;", "var y;",
+        "def f(){}", "def f(a){}", "def g(a, b) {}", " ", "\n", "// c\n",
+        "/* c */", "x", "^", "(", ")", "{", "}", ";", ",", "var", "def", "/*",
+        "*/", "//", "a1", "_" };
+
+    private FooFile fooFile;
+    private Random random = new Random(42);
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = (FooFile)FooModelCore.getFooModel().getFooProject(
+            "Test").getFooFile("test.foo");
+    }
+
+    public void testEdits() throws Exception
+    {
+        assertUpdate("var x;\ndef f() {}", "var x;\nvar y;\ndef f() {}");
+        assertUpdate("var x;\ndef f() {}", "var x;\ndef f(a) {}");
+        assertUpdate("var x; var x;\ndef f() {}", "var x;\ndef f() {}");
+        assertUpdate("def f() {} def f() {}", "def f() {} def f() {} // c");
+        assertNoUpdate("var x; def f() {}", "var x; def f() {} var y;");
+        assertNoUpdate("var x; def f() {}", "var x; /* def f() {}");
+        assertNoUpdate("var x; // c\ndef f() {}", "var x; // cdef f() {}");
+        assertNoUpdate("var x; def f() {}", "var x; ^def f() {}");
+    }
+
+    public void testRandomEdits() throws Exception
+    {
+        int updates = 0;
+        int fullBuilds = 0;
+        for (int i = 0; i < 500; i++)
+        {
+            String text = randomText();
+            for (int j = 0; j < 30; j++)
+            {
+                int start = random.nextInt(text.length() + 1);
+                int end = Math.min(text.length(), start + random.nextInt(8));
+                String replacement = random.nextInt(3) == 0 ? ""
+                    : SNIPPETS[random.nextInt(SNIPPETS.length)];
+                String newText = text.substring(0, start) + replacement
+                    + text.substring(end);
+                Boolean updated = update(text, newText);
+                if (updated == null)
+                    continue; // the new text has syntax errors
+                if (updated)
+                    updates++;
+                else
+                    fullBuilds++;
+                text = newText;
+            }
+        }
+        assertTrue(updates > 5 * fullBuilds);
+    }
+
+    private void assertUpdate(String oldText, String newText)
+    {
+        assertEquals(Boolean.TRUE, update(oldText, newText));
+    }
+
+    private void assertNoUpdate(String oldText, String newText)
+    {
+        assertFalse(Boolean.TRUE.equals(update(oldText, newText)));
+    }
+
+    /*
+     * Returns null if the new text has syntax errors, or whether the structure
+     * has been updated incrementally. Fails if the result of the update
+     * differs from that of a full build.
+     */
+    private Boolean update(String oldText, String newText)
+    {
+        Map<IElement, Object> oldElements = new HashMap<>();
+        SourceElementBody oldBody = new SourceElementBody();
+        assertTrue(oldText, new FooFileScanner(oldText).buildStructure(
+            fooFile, oldBody, new FooFileStructureBuilder(oldElements)));
+
+        Map<IElement, Object> expected = new HashMap<>();
+        SourceElementBody expectedBody = new SourceElementBody();
+        boolean valid = new FooFileScanner(newText).buildStructure(fooFile,
+            expectedBody, new FooFileStructureBuilder(expected));
+
+        Map<IElement, Object> actual = new HashMap<>();
+        SourceElementBody actualBody = new SourceElementBody();
+        boolean updated = new FooFileStructureUpdater(actual).update(fooFile,
+            actualBody, newText, oldBody, oldText, oldElements::get);
+
+        String message = oldText + " -> " + newText;
+        if (!updated)
+        {
+            assertTrue(message, actual.isEmpty());
+            return valid ? false : null;
+        }
+        assertTrue(message, valid);
+        assertEquals(message, Arrays.asList(expectedBody.getChildren()),
+            Arrays.asList(actualBody.getChildren()));
+        assertEquals(message, expected.keySet(), actual.keySet());
+        for (IElement child : expectedBody.getChildren())
+        {
+            SourceElementBody x = (SourceElementBody)expected.get(child);
+            SourceElementBody y = (SourceElementBody)actual.get(child);
+            assertEquals(message, x.getFullRange().getOffset(),
+                y.getFullRange().getOffset());
+            assertEquals(message, x.getFullRange().getLength(),
+                y.getFullRange().getLength());
+            assertEquals(message, x.getIdentifyingRange().getOffset(),
+                y.getIdentifyingRange().getOffset());
+            assertEquals(message, x.getIdentifyingRange().getLength(),
+                y.getIdentifyingRange().getLength());
+            assertTrue(message, Arrays.equals(x.get(IFooDef.PARAMETER_NAMES),
+                y.get(IFooDef.PARAMETER_NAMES)));
+        }
+        return true;
+    }
+
+    private String randomText()
+    {
+        StringBuilder sb = new StringBuilder();
+        int varCount = random.nextInt(5);
+        for (int i = 0; i < varCount; i++)
+        {
+            sb.append(random.nextBoolean() ? "var x;"
+                : "var v" + random.nextInt(3) + ";");
+            sb.append(random.nextBoolean() ? "\n" : " /* c */ ");
+        }
+        int defCount = random.nextInt(6);
+        for (int i = 0; i < defCount; i++)
+        {
+            sb.append("def f" + random.nextInt(2) + "(");
+            sb.append(random.nextBoolean() ? "a" : "a, b");
+            sb.append(") { ");
+            sb.append(random.nextBoolean() ? "/* } */ " : "");
+            sb.append("}");
+            sb.append(random.nextBoolean() ? "\n" : " // c\n");
+        }
+        return sb.toString();
+    }
+}
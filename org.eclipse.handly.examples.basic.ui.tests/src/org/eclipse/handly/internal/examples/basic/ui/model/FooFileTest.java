@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 1C LLC.
+ * Copyright (c) 2014, 2026 1C LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,12 +12,21 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
 import org.eclipse.handly.examples.basic.ui.model.IFooDef;
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooProject;
 import org.eclipse.handly.examples.basic.ui.model.IFooVar;
 import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.xtext.resource.XtextResource;
 
 /**
  * <code>FooFile</code> tests.
@@ -65,4 +74,51 @@ public class FooFileTest
         assertEquals("y", parameterNames[1]);
         }
     }
+
+    public void testDigest() throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            sb.append("def \u00e9t\u00e9() {}\n"); // larger than the buffer
+        sb.append('\ud800'); // malformed
+        String contents = sb.toString();
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest(
+            contents.getBytes(StandardCharsets.UTF_8));
+        assertTrue(Arrays.equals(expected, FooFile.digest(contents)));
+        assertTrue(Arrays.equals(MessageDigest.getInstance("SHA-256").digest(
+            new byte[0]), FooFile.digest("")));
+    }
+
+    public void testChildAt() throws Exception
+    {
+        assertEquals(5, fooFile.getChildCount());
+        IElement[] children = fooFile.getChildren();
+        for (int i = 0; i < children.length; i++)
+            assertEquals(children[i], fooFile.getChildAt(i));
+        try
+        {
+            fooFile.getChildAt(5);
+            fail();
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+        }
+    }
+
+    public void testParseRelease() throws Exception
+    {
+        FooFile file = (FooFile)fooFile;
+        IFile underlyingFile = file.getFile();
+        String charset = underlyingFile.getCharset();
+        String contents = new String(Files.readAllBytes(
+            underlyingFile.getLocation().toFile().toPath()), charset);
+
+        XtextResource resource = file.parse(contents, charset);
+        ResourceSet resourceSet = resource.getResourceSet();
+        assertEquals(1, resourceSet.getResources().size());
+        assertFalse(resource.getContents().isEmpty());
+        file.release(resource);
+        assertTrue(resource.getContents().isEmpty());
+        assertTrue(resourceSet.getResources().isEmpty());
+    }
 }
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+import junit.framework.Test;
+
+/**
+ * Contention benchmark for reads of Foo Model bodies.
+ * <p>
+ * Opens a project of synthetic Foo files and lets 1 up to 32 threads
+ * call <code>getChildren()</code> on the files concurrently, through
+ * the regular element manager path, with reads without the lock
+ * disabled and then enabled. Prints the throughput of each run.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooModelCacheBenchmark
+    extends WorkspaceTestCase
+{
+    private static final int FILE_COUNT = 50;
+    private static final int READS_PER_THREAD = 1_000_000;
+
+    private IFooProject fooProject;
+    private boolean concurrentReads;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooModelCacheBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IProject project = setUpProject("Test002");
+        fooProject = FooModelCore.create(project);
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            for (int i = 0; i < FILE_COUNT; i++)
+            {
+                IFile file = project.getFile("file" + i + ".foo");
+                file.create(new ByteArrayInputStream(("def f" + i
+                    + "() {}\n").getBytes(StandardCharsets.UTF_8)), true,
+                    null);
+            }
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+        concurrentReads = FooModelManager.INSTANCE.isConcurrentReads();
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        FooModelManager.INSTANCE.setConcurrentReads(concurrentReads);
+        super.tearDown();
+    }
+
+    public void testContention() throws Exception
+    {
+        IFooFile[] fooFiles = fooProject.getFooFiles();
+        fooProject.openFooFiles(null);
+        run(fooFiles, 4); // warm up
+        System.out.println("FooModelCacheBenchmark (" + FILE_COUNT //$NON-NLS-1$
+            + " open files, " + READS_PER_THREAD //$NON-NLS-1$
+            + " reads per thread)"); //$NON-NLS-1$
+        System.out.println("threads\tlocked ops/ms\tlock-free ops/ms"); //$NON-NLS-1$
+        for (int threads = 1; threads <= 32; threads *= 2)
+        {
+            FooModelManager.INSTANCE.setConcurrentReads(false);
+            double locked = run(fooFiles, threads);
+            FooModelManager.INSTANCE.setConcurrentReads(true);
+            double lockFree = run(fooFiles, threads);
+            System.out.printf("%d\t%.0f\t%.0f%n", threads, locked, //$NON-NLS-1$
+                lockFree);
+        }
+    }
+
+    private static double run(IFooFile[] fooFiles, int threads)
+        throws Exception
+    {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] readers = new Thread[threads];
+        Exception[] failure = new Exception[1];
+        for (int t = 0; t < threads; t++)
+        {
+            int offset = t;
+            readers[t] = new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                    for (int i = 0; i < READS_PER_THREAD; i++)
+                        fooFiles[(i + offset) % fooFiles.length].getChildren();
+                }
+                catch (Exception e)
+                {
+                    failure[0] = e;
+                }
+            });
+            readers[t].start();
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread reader : readers)
+            reader.join();
+        long nanos = System.nanoTime() - startTime;
+        if (failure[0] != null)
+            throw failure[0];
+        return (double)threads * READS_PER_THREAD / Math.max(nanos / 1e6, 1);
+    }
+}
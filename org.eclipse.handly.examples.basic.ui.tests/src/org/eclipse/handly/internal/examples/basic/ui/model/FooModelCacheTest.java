@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * <code>FooModelCache</code> tests.
+ */
+public class FooModelCacheTest
+    extends WorkspaceTestCase
+{
+    private IFooFile fooFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IFooProject fooProject = FooModelCore.create(setUpProject("Test002"));
+        fooFile = fooProject.getFooFile("test.foo");
+    }
+
+    public void testWeightAccounting() throws Exception
+    {
+        FooModelCache cache = new FooModelCache(Long.MAX_VALUE);
+        assertTrue(cache.isWeighted());
+        assertEquals(0, cache.getFileWeight());
+
+        IFooDef def = fooFile.getDef("f", 1);
+        SourceElementBody defBody = new SourceElementBody();
+        defBody.setFullRange(new TextRange(0, 10));
+        defBody.set(IFooDef.PARAMETER_NAMES, new String[] { "x" });
+
+        SourceElementBody fileBody = new SourceElementBody();
+        fileBody.setChildren(new IElement[] { def });
+
+        cache.put(fooFile, fileBody);
+        long fileWeight = cache.getFileWeight(fooFile);
+        assertTrue(fileWeight > 0);
+        assertEquals(fileWeight, cache.getFileWeight());
+
+        cache.put(def, defBody);
+        long totalWeight = cache.getFileWeight(fooFile);
+        assertTrue(totalWeight > fileWeight);
+        assertEquals(totalWeight, cache.getFileWeight());
+
+        cache.remove(def); // kept for the soft cache and still weighed
+        assertEquals(totalWeight, cache.getFileWeight(fooFile));
+        cache.put(def, defBody);
+        assertEquals(totalWeight, cache.getFileWeight(fooFile));
+        cache.remove(def);
+        cache.setSoftStructureCache(null);
+        assertEquals(fileWeight, cache.getFileWeight(fooFile));
+
+        cache.put(def, defBody);
+        cache.remove(def);
+        assertEquals(fileWeight, cache.getFileWeight(fooFile));
+
+        cache.put(def, defBody);
+        cache.remove(fooFile);
+        assertEquals(0, cache.getFileWeight());
+        assertSame(defBody, cache.peek(def));
+    }
+
+    public void testEviction() throws Exception
+    {
+        TestFileCache fileCache = new TestFileCache(Long.MAX_VALUE);
+        FooModelCache cache = new FooModelCache(fileCache, false);
+        fileCache.modelCache = cache;
+        IFooProject fooProject = fooFile.getFooProject();
+        IFooFile[] files = new IFooFile[5];
+        for (int i = 0; i < files.length; i++)
+            files[i] = fooProject.getFooFile("file" + i + ".foo");
+
+        putFile(cache, files[0], 10);
+        long fileWeight = cache.getFileWeight(files[0]);
+        cache.remove(files[0]);
+        fileCache.setBudget(fileWeight * 3 + fileWeight / 2);
+
+        putFile(cache, files[0], 10);
+        putFile(cache, files[1], 10);
+        putFile(cache, files[2], 10);
+        assertNotNull(cache.get(files[0])); // files[1] is now the eldest
+        putFile(cache, files[3], 10);
+        assertNull(cache.peek(files[1]));
+        assertNotNull(cache.peek(files[0]));
+        assertNotNull(cache.peek(files[2]));
+        assertNotNull(cache.peek(files[3]));
+
+        putFile(cache, files[4], 10);
+        assertNull(cache.peek(files[2]));
+        assertEquals(3, cache.getFileCount());
+        assertTrue(cache.getFileWeight() <= fileCache.getBudget());
+
+        // a file heavier than the budget evicts all but itself
+        putFile(cache, files[1], 200);
+        assertEquals(1, cache.getFileCount());
+        assertNotNull(cache.peek(files[1]));
+    }
+
+    public void testSoftStructureCache() throws Exception
+    {
+        FooModelCache cache = new FooModelCache();
+
+        IFooDef def = fooFile.getDef("f", 0);
+        SourceElementBody defBody = new SourceElementBody();
+        SourceElementBody fileBody = new SourceElementBody();
+        fileBody.setChildren(new IElement[] { def });
+        fileBody.set(FooFile.MODIFICATION_STAMP, 1L);
+        // "Aa" and "BB" have the same String.hashCode()
+        byte[] digest = FooFile.digest("Aa");
+        fileBody.set(FooFile.CONTENTS_DIGEST, digest);
+
+        cache.put(fooFile, fileBody);
+        cache.put(def, defBody);
+        cache.remove(def); // children may be removed before their parent
+        cache.remove(fooFile);
+        assertNull(cache.peek(fooFile));
+
+        Map<IElement, Object> newElements = new HashMap<>();
+        assertFalse(cache.restoreStructure(fooFile, 2L, digest, newElements));
+        assertTrue(newElements.isEmpty());
+
+        cache.put(fooFile, fileBody);
+        cache.put(def, defBody);
+        cache.remove(fooFile);
+        cache.remove(def);
+
+        assertFalse(cache.restoreStructure(fooFile, 1L, FooFile.digest("BB"),
+            newElements));
+        assertTrue(newElements.isEmpty());
+
+        cache.put(fooFile, fileBody);
+        cache.put(def, defBody);
+        cache.remove(fooFile);
+        cache.remove(def);
+
+        assertTrue(cache.restoreStructure(fooFile, 1L, digest, newElements));
+        assertSame(fileBody, newElements.get(fooFile));
+        assertSame(defBody, newElements.get(def));
+
+        newElements.clear();
+        assertFalse(cache.restoreStructure(fooFile, 1L, digest, newElements));
+    }
+
+    public void testCountBounded() throws Exception
+    {
+        FooModelCache cache = new FooModelCache();
+        assertFalse(cache.isWeighted());
+        assertEquals(-1, cache.getFileBudget());
+        assertEquals(-1, cache.getFileWeight());
+    }
+
+    private static void putFile(FooModelCache cache, IFooFile file,
+        int defCount)
+    {
+        IElement[] defs = new IElement[defCount];
+        for (int i = 0; i < defCount; i++)
+            defs[i] = file.getDef("f" + i, 0);
+        SourceElementBody fileBody = new SourceElementBody();
+        fileBody.setChildren(defs);
+        for (IElement def : defs)
+        {
+            SourceElementBody defBody = new SourceElementBody();
+            defBody.setFullRange(new TextRange(0, 10));
+            cache.put(def, defBody);
+        }
+        cache.put(file, fileBody);
+    }
+
+    private static class TestFileCache
+        extends WeightedElementCache
+    {
+        FooModelCache modelCache;
+
+        TestFileCache(long budget)
+        {
+            super(budget);
+        }
+
+        @Override
+        void evict(IElement element)
+        {
+            // as the element manager does when the file is closed
+            for (IElement child : ((SourceElementBody)modelCache.peek(
+                element)).getChildren())
+            {
+                modelCache.remove(child);
+            }
+            modelCache.remove(element);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,7 +12,11 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
@@ -109,6 +113,128 @@ public class FooModelNotificationTest
             listener.delta);
     }
 
+    public void testFineGrainedNotification() throws Exception
+    {
+        IFooFile fooFile = fooModel.getFooProject("Test001").getFooFile(
+            "test.foo");
+        setContents(fooFile, "var x; var y; def f() {} def g(a) {}");
+        fooFile.getChildren(); // open the file
+
+        setContents(fooFile, "var y; var x; var z; def f(a) {} def g(b) {}");
+        assertDelta(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta(), listener.delta);
+        FooModelManager.INSTANCE.joinDifferencing();
+        assertDelta(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta(),
+            listener.delta); // the file is not re-opened just for the delta
+
+        fooFile.getChildren(); // the children's delta follows on open
+        FooModelManager.INSTANCE.joinDifferencing();
+        ElementDelta.Builder expected = newDeltaBuilder();
+        expected.removed(fooFile.getDef("f", 0));
+        expected.changed(fooFile.getVar("y"),
+            IElementDeltaConstants.F_REORDER); // x stays in place
+        expected.added(fooFile.getVar("z"));
+        expected.added(fooFile.getDef("f", 1));
+        expected.changed(fooFile.getDef("g", 1),
+            IElementDeltaConstants.F_CONTENT);
+        expected.changed(fooFile, IElementDeltaConstants.F_CONTENT
+            | IElementDeltaConstants.F_FINE_GRAINED);
+        assertDelta(expected.getDelta(), listener.delta);
+
+        // only the text ranges change
+        setContents(fooFile,
+            "var y;\nvar x;\nvar z;\ndef f(a) {}\ndef g(b) {}");
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        assertDelta(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT
+                | IElementDeltaConstants.F_FINE_GRAINED).getDelta(),
+            listener.delta);
+
+        // only one of the children has moved
+        setContents(fooFile,
+            "var x;\nvar z;\ndef f(a) {}\ndef g(b) {}\nvar y;");
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        assertDelta(newDeltaBuilder().changed(fooFile.getVar("y"),
+            IElementDeltaConstants.F_REORDER).changed(fooFile,
+                IElementDeltaConstants.F_CONTENT
+                    | IElementDeltaConstants.F_FINE_GRAINED).getDelta(),
+            listener.delta);
+
+        // the structure of a closed file is not known
+        ((FooFile)fooFile).close_();
+        setContents(fooFile, "var x;");
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        assertDelta(newDeltaBuilder().changed(fooFile,
+            IElementDeltaConstants.F_CONTENT).getDelta(), listener.delta);
+
+        // nor is the structure of a file that has been removed since
+        setContents(fooFile, "var y;");
+        fooFile.getFile().delete(true, null);
+        fooFile.getFile().create(new ByteArrayInputStream(
+            "var z;".getBytes(StandardCharsets.UTF_8)), true, null);
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        assertDelta(newDeltaBuilder().added(fooFile).getDelta(),
+            listener.delta);
+    }
+
+    public void testFilteredNotification() throws Exception
+    {
+        setUpProject("Test002");
+        IFooProject fooProject1 = fooModel.getFooProject("Test001");
+        IFooFile fooFile1 = fooProject1.getFooFile("test.foo");
+        IFooFile fooFile2 = fooModel.getFooProject("Test002").getFooFile(
+            "test.foo");
+        FooModelListener fileListener = new FooModelListener();
+        FooModelListener projectListener = new FooModelListener();
+        fooModel.addElementChangeListener(fileListener, fooFile1,
+            IElementDeltaConstants.CHANGED, IElementDeltaConstants.F_CONTENT);
+        fooModel.addElementChangeListener(projectListener, fooProject1,
+            IElementDeltaConstants.ADDED, 0);
+        try
+        {
+            fooFile2.getFile().touch(null);
+            assertNull(fileListener.delta);
+            assertNull(projectListener.delta);
+
+            fooFile1.getFile().touch(null);
+            assertEquals(fooFile1, fileListener.delta.getElement_());
+            assertEquals(IElementDeltaConstants.CHANGED,
+                fileListener.delta.getKind_());
+            assertEquals(IElementDeltaConstants.F_CONTENT,
+                fileListener.delta.getFlags_());
+            assertNull(projectListener.delta);
+
+            fooFile2.getFile().copy(new Path("/Test001/test1.foo"), true,
+                null);
+            assertEquals(fooProject1,
+                projectListener.delta.getElement_());
+            assertEquals(IElementDeltaConstants.ADDED,
+                projectListener.delta.getAffectedChildren_()[0].getKind_());
+
+            fooModel.removeElementChangeListener(fileListener);
+            fileListener.delta = null;
+            fooFile1.getFile().touch(null);
+            assertNull(fileListener.delta);
+        }
+        finally
+        {
+            fooModel.removeElementChangeListener(fileListener);
+            fooModel.removeElementChangeListener(projectListener);
+        }
+    }
+
+    private static void setContents(IFooFile fooFile, String contents)
+        throws CoreException
+    {
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+    }
+
     private ElementDelta.Builder newDeltaBuilder()
     {
         return new ElementDelta.Builder(new ElementDelta(fooModel));
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Properties;
+
+import org.eclipse.handly.internal.examples.basic.ui.model.AsyncElementChangeDispatcher.OverflowPolicy;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooModelOptions</code> tests.
+ */
+public class FooModelOptionsTest
+    extends TestCase
+{
+    public void testDefaults() throws Exception
+    {
+        FooModelOptions options = new FooModelOptions(new Properties());
+        assertEquals(0, options.getFileCacheBudget());
+        assertTrue(options.isSoftStructureCache());
+        assertFalse(options.isCompactStructure());
+        assertFalse(options.isFrequencyAwareCache());
+        assertTrue(options.isStructureStore());
+        assertTrue(options.isSymbolIndexStore());
+        assertFalse(options.isEagerSymbolIndex());
+        assertTrue(options.isFastScanner());
+        assertEquals(0, options.getDeltaQuietWindow());
+        assertEquals(100, options.getDeltaBatchSize());
+        assertFalse(options.isAsyncDispatch());
+        assertEquals(64, options.getDispatchQueueCapacity());
+        assertEquals(OverflowPolicy.MERGE,
+            options.getDispatchOverflowPolicy());
+        assertFalse(options.isConcurrentReads());
+    }
+
+    public void testValues() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty(FooModelOptions.SOFT_STRUCTURE_CACHE_PROPERTY,
+            "false");
+        properties.setProperty(FooModelOptions.FREQUENCY_AWARE_CACHE_PROPERTY,
+            "true");
+        properties.setProperty(FooModelOptions.EAGER_SYMBOL_INDEX_PROPERTY,
+            "true");
+        properties.setProperty(FooModelOptions.DELTA_QUIET_WINDOW_PROPERTY,
+            "50");
+        properties.setProperty(FooModelOptions.DELTA_BATCH_SIZE_PROPERTY,
+            "10");
+        properties.setProperty(
+            FooModelOptions.DISPATCH_OVERFLOW_POLICY_PROPERTY, "Drop");
+        properties.setProperty(FooModelOptions.CONCURRENT_READS_PROPERTY,
+            "true");
+        FooModelOptions options = new FooModelOptions(properties);
+        assertFalse(options.isSoftStructureCache());
+        assertTrue(options.isFrequencyAwareCache());
+        assertTrue(options.isEagerSymbolIndex());
+        assertEquals(50, options.getDeltaQuietWindow());
+        assertEquals(10, options.getDeltaBatchSize());
+        assertEquals(OverflowPolicy.DROP,
+            options.getDispatchOverflowPolicy());
+        assertTrue(options.isConcurrentReads());
+
+        // the file cache budget takes precedence over frequency awareness
+        properties.setProperty(FooModelOptions.FILE_CACHE_BUDGET_PROPERTY,
+            "1000000");
+        options = new FooModelOptions(properties);
+        assertEquals(1000000, options.getFileCacheBudget());
+        assertFalse(options.isFrequencyAwareCache());
+    }
+
+    public void testInvalidValues() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty(FooModelOptions.FILE_CACHE_BUDGET_PROPERTY,
+            "-1");
+        properties.setProperty(FooModelOptions.DELTA_QUIET_WINDOW_PROPERTY,
+            "soon");
+        properties.setProperty(FooModelOptions.DELTA_BATCH_SIZE_PROPERTY,
+            "0");
+        properties.setProperty(
+            FooModelOptions.DISPATCH_QUEUE_CAPACITY_PROPERTY, "9999999999");
+        properties.setProperty(
+            FooModelOptions.DISPATCH_OVERFLOW_POLICY_PROPERTY, "wait");
+        FooModelOptions options = new FooModelOptions(properties);
+        assertEquals(0, options.getFileCacheBudget());
+        assertEquals(0, options.getDeltaQuietWindow());
+        assertEquals(1, options.getDeltaBatchSize());
+        assertEquals(64, options.getDispatchQueueCapacity());
+        assertEquals(OverflowPolicy.MERGE,
+            options.getDispatchOverflowPolicy());
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+/**
+ * Foo Model statistics tests.
+ */
+public class FooModelStatisticsTest
+    extends WorkspaceTestCase
+{
+    private IFooFile fooFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IFooProject fooProject = FooModelCore.create(setUpProject("Test002"));
+        fooFile = fooProject.getFooFile("test.foo");
+    }
+
+    public void testStatistics() throws Exception
+    {
+        FooModelStatistics before =
+            FooModelManager.INSTANCE.getStatistics();
+
+        fooFile.getChildren();
+        fooFile.getChildren();
+
+        FooModelStatistics after = FooModelManager.INSTANCE.getStatistics();
+        assertEquals(before.getFileParseCount()
+            + before.getFileRestoreCount() + 1, after.getFileParseCount()
+                + after.getFileRestoreCount());
+        assertEquals(before.getChildBuildCount() + 5,
+            after.getChildBuildCount());
+        assertTrue(after.getFileHits() > before.getFileHits());
+        assertTrue(after.getFileMisses() > before.getFileMisses());
+        assertTrue(after.getFileCacheSize() > 0);
+        assertTrue(after.getChildrenCacheSize() >= 5);
+        assertEquals(LatencyHistogram.BUCKET_COUNT,
+            after.getFileParseHistogram().length);
+    }
+
+    public void testMBean() throws Exception
+    {
+        ObjectName name = new ObjectName(
+            FooModelStatisticsMXBean.OBJECT_NAME);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(
+            name));
+        fooFile.getChildren();
+        Long fileHits = (Long)ManagementFactory.getPlatformMBeanServer(
+            ).getAttribute(name, "FileHits");
+        assertTrue(fileHits > 0);
+    }
+
+    public void testLatencyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500); // < 1 us
+        histogram.record(1_500); // 1 us
+        histogram.record(3_000); // 3 us
+        histogram.record(10_000_000_000L); // 10 s
+        long[] buckets = histogram.getBuckets();
+        assertEquals(1, buckets[0]);
+        assertEquals(1, buckets[1]);
+        assertEquals(1, buckets[2]);
+        assertEquals(1, buckets[LatencyHistogram.BUCKET_COUNT - 1]);
+        assertEquals(4, histogram.getCount());
+        assertEquals(10_000_000_000L, histogram.getMaxNanos());
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1,
+            LatencyHistogram.getBucketBounds().length);
+    }
+}
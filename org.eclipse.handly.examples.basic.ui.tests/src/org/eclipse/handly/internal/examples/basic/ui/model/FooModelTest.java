@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 1C LLC.
+ * Copyright (c) 2014, 2026 1C LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,9 +12,14 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+
 import java.util.Arrays;
 
 import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
@@ -48,6 +53,8 @@ public class FooModelTest
         assertEquals(1, fooFiles.length);
         IFooFile fooFile = fooFiles[0];
         assertEquals("test.foo", fooFile.getName());
+        assertEquals(1, fooProject.getFooFileCount());
+        assertEquals(fooFile, fooProject.getFooFileAt(0));
 
         IFooProject fooProject2 = fooModel.getFooProject("Test002");
         assertFalse(fooProject2.exists());
@@ -103,4 +110,41 @@ public class FooModelTest
         fooProject = fooProjects[0];
         assertEquals("Test", fooProject.getName());
     }
+
+    public void testOpenFooFiles() throws Exception
+    {
+        FooFile fooFile = (FooFile)fooModel.getFooProject(
+            "Test001").getFooFile("test.foo");
+        fooFile.close_(EMPTY_CONTEXT);
+        assertNull(fooFile.peekAtBody_());
+        fooModel.openFooFiles(null);
+        assertNotNull(fooFile.peekAtBody_());
+
+        fooFile.close_(EMPTY_CONTEXT);
+        FooFile missing = (FooFile)fooFile.getParent().getFooFile(
+            "missing.foo");
+        try
+        {
+            fooModel.openFooFiles(new IFooFile[] { missing, fooFile }, null);
+            fail();
+        }
+        catch (CoreException e)
+        {
+            assertEquals(1, e.getStatus().getChildren().length);
+        }
+        assertNotNull(fooFile.peekAtBody_());
+
+        fooFile.close_(EMPTY_CONTEXT);
+        NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+        try
+        {
+            fooFile.getParent().openFooFiles(monitor);
+            fail();
+        }
+        catch (OperationCanceledException e)
+        {
+        }
+        assertNull(fooFile.peekAtBody_());
+    }
 }
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.CAMEL_CASE;
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.EXACT;
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.FUZZY;
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.NO_MATCH;
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.PREFIX;
+import static org.eclipse.handly.internal.examples.basic.ui.model.FooNameMatcher.PREFIX_IGNORE_CASE;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooNameMatcher</code> tests.
+ */
+public class FooNameMatcherTest
+    extends TestCase
+{
+    public void testPrefix()
+    {
+        assertEquals(EXACT, match("foo", "foo"));
+        assertEquals(PREFIX, match("fo", "foo"));
+        assertEquals(PREFIX_IGNORE_CASE, match("Fo", "foo"));
+        assertEquals(PREFIX_IGNORE_CASE, match("FOO", "foo"));
+        assertEquals(NO_MATCH, match("oo", "foo"));
+        assertEquals(NO_MATCH, match("", "foo"));
+    }
+
+    public void testCamelCase()
+    {
+        assertEquals(CAMEL_CASE, match("gFB", "getFooBar"));
+        assertEquals(CAMEL_CASE, match("getFB", "getFooBar"));
+        assertEquals(CAMEL_CASE, match("gFoB", "getFooBar"));
+        assertEquals(CAMEL_CASE, match("gB", "getFooBar"));
+        assertEquals(CAMEL_CASE, match("gFB", "get_foo_bar"));
+        assertEquals(NO_MATCH, match("gFB", "getBar"));
+        assertEquals(NO_MATCH, match("gBF", "getFooBar"));
+        assertEquals(NO_MATCH, match("fB", "getFooBar"));
+    }
+
+    public void testFuzzy()
+    {
+        assertEquals(NO_MATCH, match("fx", "foo")); // too short
+        assertEquals(FUZZY, match("fob", "foo"));
+        assertEquals(FUZZY, match("fooo", "foobar"));
+        assertEquals(FUZZY, match("fobar", "foobar"));
+        assertEquals(NO_MATCH, match("fxbxr", "foobar"));
+        assertEquals(FUZZY + 1, match("fobarr", "foobar"));
+        assertEquals(FUZZY + 1, match("gteFoo", "getFooBar")); // transposed
+        assertEquals(NO_MATCH, match("xyz", "foobar"));
+    }
+
+    private static int match(String pattern, String name)
+    {
+        return new FooNameMatcher(pattern).match(name);
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooNameTable</code> tests.
+ */
+public class FooNameTableTest
+    extends TestCase
+{
+    private static final String[] WORDS = { "get", "set", "foo", "bar", "baz",
+        "is", "item", "list", "node", "tree", "value", "key", "index" };
+
+    public void testPrefixBound()
+    {
+        FooNameTable table = table("bar", "Foo", "foo", "fooBar", "x");
+        assertEquals(1, table.findPrefixBound("fo", false));
+        assertEquals(4, table.findPrefixBound("fo", true));
+        assertEquals(3, table.findPrefixBound("FOOB", false));
+        assertEquals(4, table.findPrefixBound("FOOB", true));
+        assertEquals(5, table.findPrefixBound("y", false));
+        assertTrue(table.contains("Foo"));
+        assertTrue(table.contains("foo"));
+        assertFalse(table.contains("FOO"));
+    }
+
+    public void testCandidates()
+    {
+        FooNameTable table = table("getFooBar", "get_foo_bar", "getBar",
+            "gotFooBar", "setBar", "xyz");
+        BitSet candidates = table.findCandidates(new FooNameMatcher("gFB"), 0,
+            0);
+        assertTrue(candidates.get(indexOf(table, "getFooBar")));
+        assertTrue(candidates.get(indexOf(table, "get_foo_bar")));
+        assertFalse(candidates.get(indexOf(table, "setBar")));
+        assertFalse(candidates.get(indexOf(table, "xyz")));
+        candidates = table.findCandidates(new FooNameMatcher("getFooBsr"), 0,
+            0);
+        assertTrue(candidates.get(indexOf(table, "getFooBar")));
+        assertFalse(candidates.get(indexOf(table, "xyz")));
+        // the prefix range is excluded
+        int start = table.findPrefixBound("getF", false);
+        int end = table.findPrefixBound("getF", true);
+        candidates = table.findCandidates(new FooNameMatcher("getF"), start,
+            end);
+        assertFalse(candidates.get(indexOf(table, "getFooBar")));
+        assertTrue(candidates.get(indexOf(table, "get_foo_bar")));
+    }
+
+    public void testNoMissedMatches()
+    {
+        Random random = new Random(42);
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 5000; i++)
+            names.add(name(random));
+        FooNameTable table = table(names.toArray(new String[names.size()]));
+        String[] patterns = { "gFB", "gB", "sIK", "fob", "zzz", "getFooBsr",
+            "gteFoo", "fndItm", "itemLst", "GFB", "g_f", "hasNodeKe",
+            "lodTreeKeyIndexValue", "getFooBarBazTree1" };
+        for (String pattern : patterns)
+        {
+            FooNameMatcher matcher = new FooNameMatcher(pattern);
+            int start = table.findPrefixBound(pattern, false);
+            int end = table.findPrefixBound(pattern, true);
+            BitSet candidates = table.findCandidates(matcher, start, end);
+            for (int i = 0; i < table.size(); i++)
+            {
+                if (i >= start && i < end)
+                    assertFalse(pattern, candidates.get(i));
+                else if (matcher.match(
+                    table.getName(i)) != FooNameMatcher.NO_MATCH)
+                    assertTrue(pattern + ": " + table.getName(i),
+                        candidates.get(i));
+            }
+        }
+    }
+
+    private static String name(Random random)
+    {
+        StringBuilder sb = new StringBuilder();
+        boolean underscores = random.nextInt(4) == 0;
+        for (int j = 0, n = 1 + random.nextInt(4); j < n; j++)
+        {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (j > 0 && underscores)
+                sb.append('_');
+            else if (j > 0)
+                word = Character.toUpperCase(word.charAt(0))
+                    + word.substring(1);
+            sb.append(word);
+        }
+        if (random.nextInt(3) == 0)
+            sb.append(random.nextInt(100));
+        return sb.toString();
+    }
+
+    private static int indexOf(FooNameTable table, String name)
+    {
+        for (int i = 0; i < table.size(); i++)
+        {
+            if (table.getName(i).equals(name))
+                return i;
+        }
+        throw new AssertionError(name);
+    }
+
+    private static FooNameTable table(String... names)
+    {
+        Arrays.sort(names, String.CASE_INSENSITIVE_ORDER);
+        return new FooNameTable(0, names);
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+/**
+ * <code>FooProjectRegistry</code> tests.
+ */
+public class FooProjectRegistryTest
+    extends WorkspaceTestCase
+{
+    private FooProjectRegistry registry =
+        FooModelManager.INSTANCE.getProjectRegistry();
+    private IProject project;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        project = setUpProject("Test001");
+    }
+
+    public void testRegistry() throws Exception
+    {
+        assertTrue(registry.isFooProject("Test001"));
+        assertTrue(registry.hasFooNature(project));
+
+        IProjectDescription description = project.getDescription();
+        String[] oldNatures = description.getNatureIds();
+        description.setNatureIds(new String[0]);
+        project.setDescription(description, null);
+        assertFalse(registry.isFooProject("Test001"));
+        assertFalse(registry.hasFooNature(project));
+
+        description.setNatureIds(oldNatures);
+        project.setDescription(description, null);
+        assertTrue(registry.isFooProject("Test001"));
+        assertTrue(registry.hasFooNature(project));
+
+        project.close(null);
+        assertFalse(registry.isFooProject("Test001"));
+        assertFalse(registry.hasFooNature(project));
+
+        project.open(null);
+        assertTrue(registry.isFooProject("Test001"));
+
+        project.move(new Path("Test"), true, null);
+        assertFalse(registry.isFooProject("Test001"));
+        assertTrue(registry.isFooProject("Test"));
+
+        ResourcesPlugin.getWorkspace().getRoot().getProject("Test").delete(
+            true, null);
+        assertFalse(registry.isFooProject("Test"));
+    }
+}
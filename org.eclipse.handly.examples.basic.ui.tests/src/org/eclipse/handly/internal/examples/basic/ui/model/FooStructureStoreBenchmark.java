@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.xtext.resource.XtextResource;
+
+import junit.framework.Test;
+
+/**
+ * Cold open benchmark for the Foo structure store.
+ * <p>
+ * Compares the time it takes to obtain the structure of a project of
+ * synthetic Foo files as a cold open does, i.e. with the file contents
+ * read from disk and nothing cached in memory, without and with a
+ * structure store saved by a previous session. Without the store, the
+ * files are either parsed with Xtext or scanned with the fast scanner;
+ * with the store, the store is loaded from disk and the structure of each
+ * file is restored after its contents have been digested. Prints the time
+ * of each way and the speedup of the store relative to parsing and
+ * scanning. The Xtext time covers parsing only, so the speedup relative
+ * to it is a lower bound.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooStructureStoreBenchmark
+    extends WorkspaceTestCase
+{
+    private static final int FILE_COUNT = 500;
+    private static final int DEFS_PER_FILE = 200;
+
+    private IProject project;
+    private FooFile[] fooFiles;
+    private File storeFile;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooStructureStoreBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        project = setUpProject("Test002");
+        fooFiles = new FooFile[FILE_COUNT];
+        IWorkspaceRunnable runnable = monitor ->
+        {
+            for (int i = 0; i < FILE_COUNT; i++)
+            {
+                IFile file = project.getFile("file" + i + ".foo");
+                file.create(new ByteArrayInputStream(contents(i).getBytes(
+                    StandardCharsets.UTF_8)), true, null);
+                fooFiles[i] = (FooFile)FooModelCore.create(file);
+            }
+        };
+        ResourcesPlugin.getWorkspace().run(runnable, null);
+        storeFile = File.createTempFile("structures", null);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        storeFile.delete();
+        super.tearDown();
+    }
+
+    public void testColdOpen() throws Exception
+    {
+        saveStore(); // as a previous session would
+        run(); // warm up
+        System.out.println("FooStructureStoreBenchmark (" + FILE_COUNT //$NON-NLS-1$
+            + " files)"); //$NON-NLS-1$
+        run();
+    }
+
+    private void run() throws Exception
+    {
+        long parse = System.nanoTime();
+        for (FooFile fooFile : fooFiles)
+        {
+            XtextResource resource = fooFile.parse(readContents(fooFile),
+                fooFile.getFile().getCharset());
+            fooFile.release(resource);
+        }
+        parse = (System.nanoTime() - parse) / 1_000_000;
+
+        long scan = System.nanoTime();
+        for (FooFile fooFile : fooFiles)
+            fooFile.scanChildren(new HashMap<>());
+        scan = (System.nanoTime() - scan) / 1_000_000;
+
+        long load = System.nanoTime();
+        FooStructureStore store = new FooStructureStore();
+        store.load(storeFile, getRoot());
+        load = (System.nanoTime() - load) / 1_000_000;
+        assertEquals(FILE_COUNT, store.size());
+
+        long restore = System.nanoTime();
+        for (FooFile fooFile : fooFiles)
+        {
+            assertTrue(store.restore(fooFile,
+                fooFile.getFile().getModificationStamp(), FooFile.digest(
+                    readContents(fooFile)), new HashMap<>()));
+        }
+        restore = (System.nanoTime() - restore) / 1_000_000;
+
+        long stored = load + restore;
+        System.out.println("way\tms\tspeedup"); //$NON-NLS-1$
+        System.out.printf("parse\t%d%n", parse); //$NON-NLS-1$
+        System.out.printf("scan\t%d%n", scan); //$NON-NLS-1$
+        System.out.printf("store\t%d (load %d)\t%.2f vs parse, " //$NON-NLS-1$
+            + "%.2f vs scan%n", stored, load, //$NON-NLS-1$
+            (double)parse / Math.max(stored, 1), (double)scan / Math.max(
+                stored, 1));
+    }
+
+    private void saveStore() throws Exception
+    {
+        FooStructureStore store = new FooStructureStore();
+        for (FooFile fooFile : fooFiles)
+        {
+            Map<IElement, Object> newElements = new HashMap<>();
+            SourceElementBody body = new SourceElementBody();
+            body.setChildren(fooFile.scanChildren(newElements));
+            store.put(fooFile, fooFile.getFile().getModificationStamp(),
+                FooFile.digest(readContents(fooFile)), body, newElements);
+        }
+        store.save(storeFile, getRoot());
+    }
+
+    private static IWorkspaceRoot getRoot()
+    {
+        return ResourcesPlugin.getWorkspace().getRoot();
+    }
+
+    private static String readContents(FooFile fooFile) throws Exception
+    {
+        IFile file = fooFile.getFile();
+        StringBuilder contents = new StringBuilder();
+        try (Reader reader = new InputStreamReader(file.getContents(true),
+            file.getCharset()))
+        {
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) >= 0)
+                contents.append(buffer, 0, count);
+        }
+        return contents.toString();
+    }
+
+    private static String contents(int fileIndex)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < DEFS_PER_FILE; i++)
+            sb.append("def f").append(fileIndex).append('_').append(i).append(
+                "(x, y) {}\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * <code>FooStructureStore</code> tests.
+ */
+public class FooStructureStoreTest
+    extends WorkspaceTestCase
+{
+    private static final byte[] DIGEST = FooFile.digest("Aa");
+    private static final byte[] OTHER_DIGEST = FooFile.digest("BB");
+
+    private FooFile fooFile;
+    private File storeFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        IFooProject fooProject = FooModelCore.create(setUpProject("Test002"));
+        fooFile = (FooFile)fooProject.getFooFile("test.foo");
+        storeFile = File.createTempFile("structure", ".dat");
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        storeFile.delete();
+        super.tearDown();
+    }
+
+    public void testRestore() throws Exception
+    {
+        Map<IElement, Object> elements = new HashMap<>();
+        SourceElementBody body = buildStructure(elements);
+
+        FooStructureStore store = new FooStructureStore();
+        store.put(fooFile, 1, DIGEST, body, elements);
+
+        Map<IElement, Object> restored = new HashMap<>();
+        assertFalse(store.restore(fooFile, 2, DIGEST, restored));
+        assertFalse(store.restore(fooFile, 1, OTHER_DIGEST, restored));
+        assertTrue(restored.isEmpty());
+
+        assertTrue(store.restore(fooFile, 1, DIGEST, restored));
+        assertStructure(elements, restored);
+    }
+
+    public void testChildCount() throws Exception
+    {
+        Map<IElement, Object> elements = new HashMap<>();
+        SourceElementBody body = buildStructure(elements);
+
+        FooStructureStore store = new FooStructureStore();
+        assertEquals(-1, store.getChildCount(fooFile, 1));
+        store.put(fooFile, 1, DIGEST, body, elements);
+        assertEquals(3, store.getChildCount(fooFile, 1));
+        assertEquals(-1, store.getChildCount(fooFile, 2));
+
+        elements.clear();
+        store.put(fooFile, 2, OTHER_DIGEST, new SourceElementBody(), elements);
+        assertEquals(0, store.getChildCount(fooFile, 2));
+    }
+
+    public void testSaveAndLoad() throws Exception
+    {
+        Map<IElement, Object> elements = new HashMap<>();
+        SourceElementBody body = buildStructure(elements);
+
+        FooStructureStore store = new FooStructureStore();
+        store.put(fooFile, 1, DIGEST, body, elements);
+        FooFile missingFile = (FooFile)fooFile.getParent().getFooFile(
+            "missing.foo");
+        store.put(missingFile, 1, DIGEST, body, elements);
+        store.save(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+        assertEquals(1, store.size()); // entry for missing file dropped
+
+        FooStructureStore loaded = new FooStructureStore();
+        loaded.load(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+        assertEquals(1, loaded.size());
+        Map<IElement, Object> restored = new HashMap<>();
+        assertTrue(loaded.restore(fooFile, 1, DIGEST, restored));
+        assertStructure(elements, restored);
+
+        try (FileOutputStream out = new FileOutputStream(storeFile))
+        {
+            out.write(new byte[] { 0, 0, 0, 0, 0, 0, 0, 0 }); // unknown version
+        }
+        loaded = new FooStructureStore();
+        loaded.load(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+        assertEquals(0, loaded.size());
+
+        assertTrue(storeFile.delete());
+        loaded.load(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+        assertEquals(0, loaded.size());
+    }
+
+    public void testLoadMerge() throws Exception
+    {
+        Map<IElement, Object> elements = new HashMap<>();
+        SourceElementBody body = buildStructure(elements);
+
+        FooStructureStore store = new FooStructureStore();
+        store.put(fooFile, 1, DIGEST, body, elements);
+        store.save(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+
+        FooStructureStore loaded = new FooStructureStore();
+        loaded.put(fooFile, 2, OTHER_DIGEST, body, elements);
+        loaded.load(storeFile, ResourcesPlugin.getWorkspace().getRoot());
+        assertEquals(1, loaded.size());
+        Map<IElement, Object> restored = new HashMap<>();
+        assertFalse(loaded.restore(fooFile, 1, DIGEST, restored));
+        assertTrue(loaded.restore(fooFile, 2, OTHER_DIGEST, restored));
+    }
+
+    private SourceElementBody buildStructure(Map<IElement, Object> elements)
+    {
+        FooFileStructureBuilder builder = new FooFileStructureBuilder(
+            elements);
+        SourceElementBody body = new SourceElementBody();
+        builder.addVar(fooFile, body, "x", new TextRange(0, 6),
+            new TextRange(4, 1));
+        builder.addVar(fooFile, body, "x", null, null); // duplicate
+        builder.addDef(fooFile, body, "f", new String[] { "a", "b" },
+            new TextRange(8, 13), new TextRange(12, 1));
+        builder.complete(body);
+        elements.put(fooFile, body);
+        return body;
+    }
+
+    private void assertStructure(Map<IElement, Object> expected,
+        Map<IElement, Object> actual)
+    {
+        assertEquals(expected.keySet(), actual.keySet());
+        SourceElementBody body = (SourceElementBody)actual.get(fooFile);
+        IElement[] children = body.getChildren();
+        assertTrue(Arrays.equals(((SourceElementBody)expected.get(
+            fooFile)).getChildren(), children));
+        assertEquals(3, children.length);
+        assertEquals(Long.valueOf(1), body.get(FooFile.MODIFICATION_STAMP));
+        assertTrue(Arrays.equals(DIGEST, body.get(FooFile.CONTENTS_DIGEST)));
+        for (IElement child : children)
+        {
+            SourceElementBody expectedBody =
+                (SourceElementBody)expected.get(child);
+            SourceElementBody actualBody = (SourceElementBody)actual.get(child);
+            assertEquals(expectedBody.getFullRange(),
+                actualBody.getFullRange());
+            assertEquals(expectedBody.getIdentifyingRange(),
+                actualBody.getIdentifyingRange());
+            assertTrue(Arrays.equals(expectedBody.get(IFooDef.PARAMETER_NAMES),
+                actualBody.get(IFooDef.PARAMETER_NAMES)));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.handly.internal.examples.basic.ui.model.FooSymbolIndexFile.FileEntry;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooSymbolIndexFile.Symbol;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FooSymbolIndexFile</code> tests.
+ */
+public class FooSymbolIndexFileTest
+    extends TestCase
+{
+    private File indexFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        indexFile = File.createTempFile("symbols", ".idx");
+        Map<String, FileEntry> entries = new HashMap<>();
+        FileEntry a = new FileEntry(10);
+        a.symbols.add(new Symbol("x", FooSymbolIndexFile.VAR, 4));
+        a.symbols.add(new Symbol("f", 0, 11));
+        a.symbols.add(new Symbol("f", 1, 24));
+        entries.put("/p/a.foo", a);
+        FileEntry b = new FileEntry(20);
+        b.symbols.add(new Symbol("f", 2, 4));
+        b.symbols.add(new Symbol("\u00e9t\u00e9", 0, 30));
+        entries.put("/p/b.foo", b);
+        entries.put("/q/c.foo", new FileEntry(30));
+        FooSymbolIndexFile.write(indexFile, entries);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        indexFile.delete();
+        super.tearDown();
+    }
+
+    public void testFiles() throws Exception
+    {
+        FooSymbolIndexFile index = FooSymbolIndexFile.open(indexFile);
+        assertEquals(3, index.getFileCount());
+        int a = index.findFile("/p/a.foo");
+        assertEquals("/p/a.foo", index.getPath(a));
+        assertEquals(10, index.getStamp(a));
+        assertEquals(20, index.getStamp(index.findFile("/p/b.foo")));
+        assertEquals(30, index.getStamp(index.findFile("/q/c.foo")));
+        assertEquals(-1, index.findFile("/p/d.foo"));
+
+        int[] range = index.findFiles("/p/");
+        assertEquals(0, range[0]);
+        assertEquals(2, range[1]);
+        range = index.findFiles("/r/");
+        assertEquals(range[0], range[1]);
+    }
+
+    public void testPostings() throws Exception
+    {
+        FooSymbolIndexFile index = FooSymbolIndexFile.open(indexFile);
+        int a = index.findFile("/p/a.foo");
+        int b = index.findFile("/p/b.foo");
+        List<String> postings = new ArrayList<>();
+        index.findPostings("f", (fileId, arity, offset) -> postings.add(
+            fileId + ":" + arity + ":" + offset));
+        assertEquals(3, postings.size());
+        assertTrue(postings.contains(a + ":0:11"));
+        assertTrue(postings.contains(a + ":1:24"));
+        assertTrue(postings.contains(b + ":2:4"));
+
+        postings.clear();
+        index.findPostings("\u00e9t\u00e9", (fileId, arity, offset) ->
+            postings.add(fileId + ":" + arity + ":" + offset));
+        assertEquals(1, postings.size());
+        assertEquals(b + ":0:30", postings.get(0));
+
+        postings.clear();
+        index.findPostings("g", (fileId, arity, offset) -> postings.add(""));
+        assertTrue(postings.isEmpty());
+    }
+
+    public void testExport() throws Exception
+    {
+        FooSymbolIndexFile index = FooSymbolIndexFile.open(indexFile);
+        BitSet excluded = new BitSet();
+        excluded.set(index.findFile("/p/a.foo"));
+        Map<String, FileEntry> entries = new HashMap<>();
+        index.exportTo(entries, excluded);
+        assertEquals(2, entries.size());
+        assertFalse(entries.containsKey("/p/a.foo"));
+        FileEntry b = entries.get("/p/b.foo");
+        assertEquals(20, b.stamp);
+        assertEquals(2, b.symbols.size());
+        assertTrue(entries.get("/q/c.foo").symbols.isEmpty());
+    }
+
+    public void testGenerations() throws Exception
+    {
+        File directory = Files.createTempDirectory("symbols").toFile();
+        try
+        {
+            assertNull(FooSymbolIndexFile.openGeneration(directory));
+
+            Map<String, FileEntry> entries = new HashMap<>();
+            entries.put("/p/a.foo", new FileEntry(10));
+            FooSymbolIndexFile.writeGeneration(directory, entries);
+            FooSymbolIndexFile index = FooSymbolIndexFile.openGeneration(
+                directory);
+            assertEquals(10, index.getStamp(index.findFile("/p/a.foo")));
+
+            // the mapped generation is not replaced
+            entries.put("/p/a.foo", new FileEntry(20));
+            FooSymbolIndexFile.writeGeneration(directory, entries);
+            assertTrue(new File(directory, "symbols.0.idx").isFile());
+            assertTrue(new File(directory, "symbols.1.idx").isFile());
+            assertEquals(10, index.getStamp(index.findFile("/p/a.foo")));
+
+            // the previous generation is deleted on the next open
+            index = FooSymbolIndexFile.openGeneration(directory);
+            assertEquals(20, index.getStamp(index.findFile("/p/a.foo")));
+            assertFalse(new File(directory, "symbols.0.idx").exists());
+            assertTrue(new File(directory, "symbols.1.idx").isFile());
+        }
+        finally
+        {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    public void testInvalid() throws Exception
+    {
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw"))
+        {
+            file.seek(4);
+            file.writeInt(Integer.MAX_VALUE); // unknown version
+        }
+        assertNull(FooSymbolIndexFile.open(indexFile));
+
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw"))
+        {
+            file.setLength(8);
+        }
+        assertNull(FooSymbolIndexFile.open(indexFile));
+
+        indexFile.delete();
+        assertNull(FooSymbolIndexFile.open(indexFile));
+    }
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+
+/**
+ * <code>FooSymbolIndex</code> tests.
+ */
+public class FooSymbolIndexTest
+    extends WorkspaceTestCase
+{
+    private IFooModel fooModel = FooModelCore.getFooModel();
+    private IFooProject fooProject;
+    private IFooFile fooFile;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooProject = FooModelCore.create(setUpProject("Test002"));
+        fooFile = fooProject.getFooFile("test.foo");
+        awaitIndex();
+    }
+
+    public void testFind() throws Exception
+    {
+        IFooDef[] defs = fooModel.findDefs("f");
+        assertEquals(3, defs.length);
+        assertTrue(Arrays.asList(defs).contains(fooFile.getDef("f", 0)));
+        assertTrue(Arrays.asList(defs).contains(fooFile.getDef("f", 1)));
+        assertTrue(Arrays.asList(defs).contains(fooFile.getDef("f", 2)));
+
+        defs = fooModel.findDefs("f", 2);
+        assertEquals(1, defs.length);
+        assertEquals(fooFile.getDef("f", 2), defs[0]);
+        assertEquals(0, fooModel.findDefs("f", 3).length);
+        assertEquals(0, fooModel.findDefs("g").length);
+
+        assertEquals(1, fooModel.findVars("x").length);
+        assertEquals(fooFile.getVar("x"), fooModel.findVars("x")[0]);
+        assertEquals(0, fooModel.findVars("f").length);
+
+        // the index does not open Foo files
+        assertNull(((FooFile)fooFile).peekAtBody_());
+    }
+
+    public void testUpdate() throws Exception
+    {
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            "var z; def g(a) {}".getBytes(StandardCharsets.UTF_8)), true,
+            false, null);
+        awaitIndex();
+        assertEquals(0, fooModel.findVars("x").length);
+        assertEquals(0, fooModel.findDefs("f").length);
+        assertEquals(fooFile.getVar("z"), fooModel.findVars("z")[0]);
+        assertEquals(fooFile.getDef("g", 1), fooModel.findDefs("g", 1)[0]);
+
+        fooProject.getProject().close(null);
+        awaitIndex();
+        assertEquals(0, fooModel.findVars("z").length);
+
+        fooProject.getProject().open(null);
+        awaitIndex();
+        assertEquals(fooFile.getVar("z"), fooModel.findVars("z")[0]);
+
+        fooFile.getFile().delete(true, null);
+        awaitIndex();
+        assertEquals(0, fooModel.findVars("z").length);
+        assertEquals(0, fooModel.findDefs("g").length);
+    }
+
+    public void testSearch() throws Exception
+    {
+        IFooElement[] symbols = fooModel.searchSymbols("f", 10);
+        assertEquals(3, symbols.length);
+        assertTrue(Arrays.asList(symbols).contains(fooFile.getDef("f", 1)));
+        assertEquals(3, fooModel.searchSymbols("F", 10).length);
+        assertEquals(2, fooModel.searchSymbols("f", 2).length);
+        assertEquals(0, fooModel.searchSymbols("f", 0).length);
+        assertEquals(0, fooModel.searchSymbols("", 10).length);
+        assertEquals(fooFile.getVar("x"), fooModel.searchSymbols("x", 10)[0]);
+
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            "var fooBar; def fooBaz() {} def getFooBar(a) {} var fo;"
+                .getBytes(StandardCharsets.UTF_8)), true, false, null);
+        awaitIndex();
+        symbols = fooModel.searchSymbols("fo", 10);
+        assertEquals(3, symbols.length);
+        assertEquals(fooFile.getVar("fo"), symbols[0]); // exact match
+        assertEquals(fooFile.getVar("fooBar"), symbols[1]);
+        assertEquals(fooFile.getDef("fooBaz", 0), symbols[2]);
+
+        symbols = fooModel.searchSymbols("gFB", 10);
+        assertEquals(1, symbols.length);
+        assertEquals(fooFile.getDef("getFooBar", 1), symbols[0]);
+
+        symbols = fooModel.searchSymbols("fooBr", 10); // typo
+        assertEquals(2, symbols.length);
+        assertEquals(fooFile.getVar("fooBar"), symbols[0]);
+
+        assertEquals(2, fooModel.searchSymbols("FOOB", 10).length);
+
+        // a name that is removed and indexed again is found
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            "var x;".getBytes(StandardCharsets.UTF_8)), true, false, null);
+        awaitIndex();
+        assertEquals(0, fooModel.searchSymbols("fooBar", 10).length);
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            "var fooBar;".getBytes(StandardCharsets.UTF_8)), true, false,
+            null);
+        awaitIndex();
+        symbols = fooModel.searchSymbols("fooBar", 10);
+        assertEquals(1, symbols.length);
+        assertEquals(fooFile.getVar("fooBar"), symbols[0]);
+    }
+
+    public void testLazyBuild() throws Exception
+    {
+        File directory = Files.createTempDirectory("symbols").toFile();
+        FooSymbolIndex index = new FooSymbolIndex();
+        try
+        {
+            index.initialize(fooModel);
+            // an index that has not been built is not saved
+            index.save(directory);
+            assertEquals(0, directory.listFiles().length);
+
+            index.awaitIdle(); // builds the index
+            assertEquals(3, index.findDefs("f").length);
+            index.save(directory);
+            assertTrue(directory.listFiles().length > 0);
+        }
+        finally
+        {
+            index.dispose();
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    public void testBase() throws Exception
+    {
+        File directory = Files.createTempDirectory("symbols").toFile();
+        try
+        {
+            FooModelManager.INSTANCE.getSymbolIndex().save(directory);
+            FooSymbolIndexFile base = FooSymbolIndexFile.openGeneration(
+                directory);
+            assertTrue(base.findFile("/Test002/test.foo") >= 0);
+
+            FooSymbolIndex index = new FooSymbolIndex(base);
+            try
+            {
+                index.initialize(fooModel);
+                index.awaitIdle();
+                assertEquals(3, index.findDefs("f").length);
+                assertEquals(fooFile.getDef("f", 1), index.findDefs("f",
+                    1)[0]);
+                assertEquals(fooFile.getVar("y"), index.findVars("y")[0]);
+
+                // the index is not listening to deltas: the stale base
+                // entry is detected by its stamp and reindexed lazily
+                fooFile.getFile().setContents(new ByteArrayInputStream(
+                    "def g() {}".getBytes(StandardCharsets.UTF_8)), true,
+                    false, null);
+                assertEquals(0, index.findDefs("f").length);
+                index.awaitIdle();
+                assertEquals(0, index.findDefs("f").length);
+                assertEquals(fooFile.getDef("g", 0), index.findDefs("g")[0]);
+            }
+            finally
+            {
+                index.dispose();
+            }
+        }
+        finally
+        {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    private static void awaitIndex() throws InterruptedException
+    {
+        // deltas for open Foo files are fired in the background
+        FooModelManager.INSTANCE.joinDifferencing();
+        FooModelManager.INSTANCE.getSymbolIndex().awaitIdle();
+    }
+}
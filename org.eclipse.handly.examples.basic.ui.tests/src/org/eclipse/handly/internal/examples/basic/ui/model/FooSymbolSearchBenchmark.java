@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+
+/**
+ * Query latency benchmark for search of Foo symbols by pattern.
+ * <p>
+ * Builds a <code>FooNameTable</code> of a synthetic set of (by default)
+ * two hundred thousand distinct camel-case and underscore-separated names,
+ * which can be changed with the <code>symbolSearchBenchmark.names</code>
+ * system property. For camel-case and fuzzy patterns, it matches the
+ * candidates found by the table, as <code>FooSymbolIndex.search</code>
+ * does, and every name outside the prefix range, as a linear scan would,
+ * and prints the average query latency for both.
+ * </p>
+ * <p>
+ * Not run unless benchmarks are enabled; see {@link Benchmarks}.
+ * </p>
+ */
+public class FooSymbolSearchBenchmark
+    extends TestCase
+{
+    private static final String[] WORDS = { "get", "set", "is", "has", "to",
+        "from", "foo", "bar", "baz", "qux", "item", "list", "map", "node",
+        "tree", "value", "key", "index", "find", "load", "save", "update",
+        "create", "delete", "parse", "format", "buffer", "stream", "reader",
+        "writer", "cache", "entry" };
+    private static final String[] PATTERNS = { "gFB", "cNE", "uCE", "fob",
+        "nde", "gteFoo", "fndItm", "parseBuffr", "loadTreeNodeVal",
+        "createStreamReaderCache" };
+    private static final long DURATION_MILLIS = 500;
+
+    private FooNameTable table;
+
+    public static Test suite()
+    {
+        return Benchmarks.suite(FooSymbolSearchBenchmark.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        int count = Integer.getInteger("symbolSearchBenchmark.names", //$NON-NLS-1$
+            200_000);
+        Random random = new Random(42);
+        Set<String> names = new HashSet<>();
+        while (names.size() < count)
+            names.add(name(random));
+        String[] sorted = names.toArray(new String[names.size()]);
+        Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+        table = new FooNameTable(0, sorted);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        table = null;
+        super.tearDown();
+    }
+
+    public void testQueryLatency() throws Exception
+    {
+        System.out.println("FooSymbolSearchBenchmark (" + table.size() //$NON-NLS-1$
+            + " names, us/query)"); //$NON-NLS-1$
+        System.out.println("pattern\tmatches\tcandidates\tprefilter\tscan"); //$NON-NLS-1$
+        for (String pattern : PATTERNS)
+        {
+            run(pattern, false); // warm up
+            run(pattern, true);
+            double filtered = run(pattern, false);
+            double scan = run(pattern, true);
+            FooNameMatcher matcher = new FooNameMatcher(pattern);
+            int start = table.findPrefixBound(pattern, false);
+            int end = table.findPrefixBound(pattern, true);
+            System.out.printf("%s\t%d\t%d\t%.1f\t%.1f%n", pattern, //$NON-NLS-1$
+                match(matcher, start, end, null), table.findCandidates(
+                    matcher, start, end).cardinality(), filtered, scan);
+        }
+    }
+
+    private double run(String pattern, boolean scan)
+    {
+        long count = 0;
+        long start = System.nanoTime();
+        long deadline = start + DURATION_MILLIS * 1_000_000;
+        long now;
+        do
+        {
+            FooNameMatcher matcher = new FooNameMatcher(pattern);
+            int from = table.findPrefixBound(pattern, false);
+            int to = table.findPrefixBound(pattern, true);
+            match(matcher, from, to, scan ? null : table.findCandidates(
+                matcher, from, to));
+            count++;
+        }
+        while ((now = System.nanoTime()) < deadline);
+        return (now - start) / 1000.0 / count;
+    }
+
+    /*
+     * Matches the given candidates, or all names outside the given range
+     * if candidates is null, and returns the number of matches.
+     */
+    private int match(FooNameMatcher matcher, int from, int to,
+        BitSet candidates)
+    {
+        int matches = 0;
+        if (candidates == null)
+        {
+            candidates = new BitSet();
+            candidates.set(0, table.size());
+            candidates.clear(from, to);
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0;
+            i = candidates.nextSetBit(i + 1))
+        {
+            if (matcher.match(table.getName(i)) != FooNameMatcher.NO_MATCH)
+                matches++;
+        }
+        return matches;
+    }
+
+    private static String name(Random random)
+    {
+        StringBuilder sb = new StringBuilder();
+        boolean underscores = random.nextInt(4) == 0;
+        for (int j = 0, n = 1 + random.nextInt(4); j < n; j++)
+        {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (j > 0 && underscores)
+                sb.append('_');
+            else if (j > 0)
+                word = Character.toUpperCase(word.charAt(0))
+                    + word.substring(1);
+            sb.append(word);
+        }
+        sb.append(random.nextInt(1000));
+        return sb.toString();
+    }
+}
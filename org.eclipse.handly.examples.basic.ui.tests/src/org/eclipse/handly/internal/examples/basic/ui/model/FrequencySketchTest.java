@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>FrequencySketch</code> tests.
+ */
+public class FrequencySketchTest
+    extends TestCase
+{
+    public void testIncrement() throws Exception
+    {
+        FrequencySketch sketch = new FrequencySketch(16);
+        assertEquals(0, sketch.frequency("a"));
+        for (int i = 0; i < 5; i++)
+            sketch.increment("a");
+        assertTrue(sketch.frequency("a") >= 5);
+        for (int i = 0; i < 20; i++)
+            sketch.increment("b");
+        assertEquals(15, sketch.frequency("b"));
+    }
+
+    public void testEnsureCapacity() throws Exception
+    {
+        FrequencySketch sketch = new FrequencySketch(16);
+        String[] elements = new String[10];
+        for (int i = 0; i < elements.length; i++)
+        {
+            elements[i] = "e" + i;
+            for (int j = 0; j < i; j++)
+                sketch.increment(elements[i]);
+        }
+        int[] frequencies = new int[elements.length];
+        for (int i = 0; i < elements.length; i++)
+            frequencies[i] = sketch.frequency(elements[i]);
+
+        sketch.ensureCapacity(1000); // grows the sketch
+        for (int i = 0; i < elements.length; i++)
+            assertEquals(frequencies[i], sketch.frequency(elements[i]));
+    }
+}
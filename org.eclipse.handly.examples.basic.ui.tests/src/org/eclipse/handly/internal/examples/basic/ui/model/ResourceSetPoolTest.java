@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.ui.resource.IResourceSetProvider;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>ResourceSetPool</code> tests.
+ */
+public class ResourceSetPoolTest
+    extends TestCase
+{
+    private IProject project;
+    private int createdCount;
+    private IResourceSetProvider provider;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        project = ResourcesPlugin.getWorkspace().getRoot().getProject("Test");
+        provider = p ->
+        {
+            createdCount++;
+            return new ResourceSetImpl();
+        };
+    }
+
+    public void testReuse() throws Exception
+    {
+        ResourceSetPool pool = new ResourceSetPool();
+        for (int i = 0; i < 1000; i++)
+        {
+            ResourceSet resourceSet = pool.acquire(project, provider);
+            assertTrue(resourceSet.getResources().isEmpty());
+            resourceSet.getResources().add(new ResourceImpl(URI.createURI(
+                "platform:/resource/Test/test" + i + ".foo")));
+            pool.release(project, resourceSet);
+            assertTrue(resourceSet.getResources().isEmpty());
+        }
+        assertEquals(1, createdCount);
+        assertEquals(1, pool.idleCount());
+    }
+
+    public void testMaxIdle() throws Exception
+    {
+        ResourceSetPool pool = new ResourceSetPool();
+        List<ResourceSet> resourceSets = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            resourceSets.add(pool.acquire(project, provider));
+        assertEquals(5, createdCount);
+        for (ResourceSet resourceSet : resourceSets)
+            pool.release(project, resourceSet);
+        assertEquals(2, pool.idleCount());
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.IElement;
+
+import junit.framework.TestCase;
+
+/**
+ * <code>TinyLfuElementCache</code> tests.
+ */
+public class TinyLfuElementCacheTest
+    extends TestCase
+{
+    private static final Object BODY = new Object();
+
+    private IFooProject fooProject;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooProject = FooModelCore.getFooModel().getFooProject("Test");
+    }
+
+    public void testScanResistance() throws Exception
+    {
+        TinyLfuElementCache cache = new TestCache(100, null);
+        for (int round = 0; round < 10; round++)
+        {
+            for (int i = 0; i < 50; i++)
+                access(cache, file(i));
+        }
+        for (int i = 1000; i < 3000; i++)
+            access(cache, file(i)); // a one-time scan
+        assertEquals(100, cache.size());
+        int kept = 0;
+        for (int i = 0; i < 50; i++)
+        {
+            if (cache.peek(file(i)) != null)
+                kept++;
+        }
+        // frequencies are estimated, so a hot file may occasionally lose
+        assertTrue(kept >= 45); // LRU would keep none
+    }
+
+    public void testPinned() throws Exception
+    {
+        IElement pinned = file(0);
+        Predicate<IElement> predicate = e -> e.equals(pinned);
+        TinyLfuElementCache cache = new TestCache(10, predicate);
+        access(cache, pinned);
+        for (int i = 1; i < 1000; i++)
+            access(cache, file(i));
+        assertEquals(10, cache.size());
+        assertNotNull(cache.peek(pinned));
+    }
+
+    public void testUnpinned() throws Exception
+    {
+        Set<IElement> pinned = new HashSet<>();
+        pinned.add(file(0));
+        TinyLfuElementCache cache = new TestCache(10, pinned::contains);
+        access(cache, file(0));
+        for (int i = 1; i < 100; i++)
+            access(cache, file(i));
+        assertNotNull(cache.peek(file(0)));
+
+        pinned.clear();
+        for (int i = 100; i < 200; i++)
+            access(cache, file(i));
+        assertEquals(10, cache.size());
+        assertNull(cache.peek(file(0)));
+    }
+
+    public void testMaxSize() throws Exception
+    {
+        TinyLfuElementCache cache = new TestCache(10, null);
+        cache.ensureMaxSize(30, fooProject);
+        assertEquals(40, cache.maxSize());
+        for (int i = 0; i < 40; i++)
+            access(cache, file(i));
+        assertEquals(40, cache.size());
+        cache.resetMaxSize(10, fooProject);
+        assertEquals(10, cache.maxSize());
+        assertEquals(10, cache.size());
+    }
+
+    private IElement file(int i)
+    {
+        return fooProject.getFooFile("file" + i + ".foo");
+    }
+
+    private static void access(TinyLfuElementCache cache, IElement element)
+    {
+        if (cache.get(element) == null)
+            cache.put(element, BODY);
+    }
+
+    static class TestCache
+        extends TinyLfuElementCache
+    {
+        TestCache(int maxSize, Predicate<IElement> pinned)
+        {
+            super(maxSize, pinned);
+        }
+
+        @Override
+        void evict(IElement element)
+        {
+            remove(element);
+        }
+    }
+}
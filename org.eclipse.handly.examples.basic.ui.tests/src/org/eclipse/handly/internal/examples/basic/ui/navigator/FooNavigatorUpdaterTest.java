@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.navigator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.internal.examples.basic.ui.FooContentProvider;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooModelManager;
+import org.eclipse.handly.junit.WorkspaceTestCase;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * <code>FooNavigatorUpdater</code> tests.
+ */
+public class FooNavigatorUpdaterTest
+    extends WorkspaceTestCase
+{
+    private IFooModel fooModel = FooModelCore.getFooModel();
+    private IFooFile fooFile;
+    private Shell shell;
+    private TreeViewer viewer;
+    private FooNavigatorUpdater updater;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        super.setUp();
+        fooFile = FooModelCore.create(setUpProject("Test002")).getFooFile(
+            "test.foo");
+        shell = new Shell(Display.getDefault());
+        viewer = new TreeViewer(shell);
+        viewer.setContentProvider(new FooContentProvider());
+        viewer.setInput(fooModel);
+        viewer.expandAll();
+        updater = new FooNavigatorUpdater(viewer, false);
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        fooModel.removeElementChangeListener(updater);
+        shell.dispose();
+        super.tearDown();
+    }
+
+    public void testInsertRemove() throws Exception
+    {
+        assertItems(); // var x; var y; def f() {} def f(x) {} def f(x, y) {}
+
+        // the updater only gets the deltas for the children
+        setContents(
+            "var a; var x; def f() {} def c() {} def f(x, y) {} var b;");
+        fooModel.addElementChangeListener(updater);
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        processEvents();
+        assertItems();
+        assertNull(viewer.testFindItem(fooFile.getVar("y")));
+        assertNull(viewer.testFindItem(fooFile.getDef("f", 1)));
+
+        // the coarse delta refreshes the file, which makes the deltas
+        // for the children redundant
+        setContents("def d() {} var a; var x; var y; def f() {} var b;");
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        processEvents();
+        assertItems();
+    }
+
+    public void testReorder() throws Exception
+    {
+        fooModel.addElementChangeListener(updater);
+        setContents("def f(x, y) {} var y; def f() {} var x; def f(x) {}");
+        fooFile.getChildren();
+        FooModelManager.INSTANCE.joinDifferencing();
+        processEvents();
+        assertItems();
+    }
+
+    private void assertItems() throws Exception
+    {
+        Widget fileItem = viewer.testFindItem(fooFile);
+        assertTrue(fileItem instanceof TreeItem);
+        TreeItem[] items = ((TreeItem)fileItem).getItems();
+        IFooElement[] children = fooFile.getChildren();
+        assertEquals(children.length, items.length);
+        for (int i = 0; i < children.length; i++)
+            assertEquals(children[i], items[i].getData());
+    }
+
+    private void setContents(String contents) throws Exception
+    {
+        fooFile.getFile().setContents(new ByteArrayInputStream(
+            contents.getBytes(StandardCharsets.UTF_8)), true, false, null);
+    }
+
+    private static void processEvents()
+    {
+        Display display = Display.getCurrent();
+        while (display.readAndDispatch())
+        {
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -74,4 +74,27 @@ public interface IFooFile
      *  occurs while accessing its corresponding resource
      */
     IFooDef[] getDefs() throws CoreException;
+
+    /**
+     * Returns the number of variables and functions declared in this
+     * Foo file.
+     *
+     * @return the number of children of this Foo file
+     * @throws CoreException if this element does not exist or if an exception
+     *  occurs while accessing its corresponding resource
+     */
+    int getChildCount() throws CoreException;
+
+    /**
+     * Returns the variable or function at the given index in this Foo file.
+     * The children are indexed in the order in which they are returned by
+     * {@link #getChildren()}.
+     *
+     * @param index the index of the child
+     * @return the child at the given index (never <code>null</code>)
+     * @throws CoreException if this element does not exist or if an exception
+     *  occurs while accessing its corresponding resource
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    IFooElement getChildAt(int index) throws CoreException;
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -15,6 +15,8 @@ package org.eclipse.handly.examples.basic.ui.model;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.model.IElementChangeListener;
 
 /**
@@ -33,6 +35,12 @@ public interface IFooModel
      * elements in the Foo Model. The listener continues to receive notifications 
      * until it is removed.
      * </p>
+     * <p>
+     * Depending on the configuration of the Foo Model, the listener may be
+     * notified asynchronously, in a thread other than the one that changed
+     * the model. Each listener is notified of changes in the order they
+     * were made, one notification at a time.
+     * </p>
      *
      * @param listener the listener (not <code>null</code>)
      * @see #removeElementChangeListener(IElementChangeListener)
@@ -40,8 +48,39 @@ public interface IFooModel
     void addElementChangeListener(IElementChangeListener listener);
 
     /**
-     * Removes the given element change listener.
-     * Has no effect if an identical listener is not registered.
+     * Adds the given listener for changes to elements in the given scope
+     * of the Foo Model.
+     * <p>
+     * For each change that affects the scope element or its descendants,
+     * the listener is notified with an event whose delta is the delta for
+     * the scope element (or a delta for a descendant of the scope element,
+     * if no delta for the scope element is available, as for reconcile
+     * events), provided that the delta tree contains a delta of one of
+     * the given kinds that has one of the given flags. The listener
+     * is not notified of other changes.
+     * </p>
+     * <p>
+     * A listener may have several subscriptions. The subscriptions are
+     * removed along with the listener by {@link
+     * #removeElementChangeListener(IElementChangeListener)}.
+     * </p>
+     *
+     * @param listener the listener (not <code>null</code>)
+     * @param scope the scope element, e.g. a Foo project or a Foo file
+     *  (not <code>null</code>)
+     * @param kinds a bit mask of the delta kinds of interest, e.g.
+     *  <code>IElementDeltaConstants.ADDED |
+     *  IElementDeltaConstants.REMOVED</code>
+     * @param flags a bit mask of the delta flags of interest,
+     *  or 0 if all deltas of the given kinds are of interest
+     */
+    void addElementChangeListener(IElementChangeListener listener,
+        IFooElement scope, int kinds, long flags);
+
+    /**
+     * Removes the given element change listener, including all its
+     * subscriptions. Has no effect if an identical listener
+     * is not registered.
      *
      * @param listener the listener (not <code>null</code>)
      */
@@ -65,6 +104,101 @@ public interface IFooModel
      */
     IFooProject[] getFooProjects() throws CoreException;
 
+    /**
+     * Opens all Foo files in all Foo projects of this Foo Model.
+     * The files are opened in parallel; files that are already open are
+     * left as is. A failure to open a file does not prevent other files
+     * from being opened. Files that do not fit in the Foo Model cache may
+     * be closed again once all the files have been opened.
+     *
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     * @throws CoreException if some of the Foo files could not be opened
+     * @throws OperationCanceledException if this method is canceled
+     */
+    void openFooFiles(IProgressMonitor monitor) throws CoreException;
+
+    /**
+     * Opens the given Foo files, which may belong to different projects.
+     * The files are opened in parallel; files that are already open are
+     * left as is. A failure to open a file does not prevent other files
+     * from being opened. Files that do not fit in the Foo Model cache may
+     * be closed again once all the files have been opened.
+     *
+     * @param fooFiles the Foo files to open (not <code>null</code>)
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     * @throws CoreException if some of the Foo files could not be opened
+     * @throws OperationCanceledException if this method is canceled
+     */
+    void openFooFiles(IFooFile[] fooFiles, IProgressMonitor monitor)
+        throws CoreException;
+
+    /**
+     * Returns the functions with the given name defined in the Foo files
+     * of this Foo Model.
+     * <p>
+     * The functions are looked up in the workspace-wide symbol index, which
+     * is built in the background when it is first queried and kept up to date
+     * as the Foo Model changes, so Foo files are not opened by this method.
+     * While the index is being built or updated, the result may be incomplete
+     * or out of date.
+     * </p>
+     *
+     * @param name the name of the functions (not <code>null</code>)
+     * @return the functions with the given name (never <code>null</code>)
+     */
+    IFooDef[] findDefs(String name);
+
+    /**
+     * Returns the functions with the given name and the given arity defined
+     * in the Foo files of this Foo Model. The functions are looked up in
+     * the workspace-wide symbol index, as described in {@link
+     * #findDefs(String)}.
+     *
+     * @param name the name of the functions (not <code>null</code>)
+     * @param arity the arity of the functions
+     * @return the functions with the given name and arity
+     *  (never <code>null</code>)
+     */
+    IFooDef[] findDefs(String name, int arity);
+
+    /**
+     * Returns the variables with the given name declared in the Foo files
+     * of this Foo Model. The variables are looked up in the workspace-wide
+     * symbol index, as described in {@link #findDefs(String)}.
+     *
+     * @param name the name of the variables (not <code>null</code>)
+     * @return the variables with the given name (never <code>null</code>)
+     */
+    IFooVar[] findVars(String name);
+
+    /**
+     * Returns the functions and variables declared in the Foo files of this
+     * Foo Model whose names match the given pattern, best matches first.
+     * This method is intended to be called as the user types the pattern.
+     * <p>
+     * A name matches the pattern if the pattern is a prefix of the name
+     * (case-sensitive or not), a camel-case abbreviation of the name
+     * (e.g. <code>gFB</code> for <code>getFooBar</code>), or, for patterns
+     * of three or more characters, if the pattern is within one or two
+     * edits of a prefix of the name. Exact matches come first, followed by
+     * prefix, camel-case and fuzzy matches. Within each kind of match,
+     * shorter names come first, and symbols with names of the same length
+     * are ordered by the modification time of their file, most recent first.
+     * </p>
+     * <p>
+     * The symbols are looked up in the workspace-wide symbol index,
+     * as described in {@link #findDefs(String)}.
+     * </p>
+     *
+     * @param pattern the search pattern (not <code>null</code>)
+     * @param maxResults the maximum number of elements to return
+     *  (non-negative)
+     * @return the matching functions and variables (never <code>null</code>)
+     */
+    IFooElement[] searchSymbols(String pattern, int maxResults);
+
     /**
      * Returns the workspace associated with this Foo Model.
      * This is a handle-only method.
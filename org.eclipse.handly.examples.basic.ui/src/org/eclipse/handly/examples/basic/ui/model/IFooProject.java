@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,8 @@ package org.eclipse.handly.examples.basic.ui.model;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.handly.internal.examples.basic.ui.model.FooProjectNature;
 
 /**
@@ -55,6 +57,41 @@ public interface IFooProject
      */
     IFooFile[] getFooFiles() throws CoreException;
 
+    /**
+     * Returns the number of Foo files contained in this project.
+     *
+     * @return the number of Foo files contained in this project
+     * @throws CoreException if this element does not exist or if an exception
+     *  occurs while accessing its corresponding resource
+     */
+    int getFooFileCount() throws CoreException;
+
+    /**
+     * Returns the Foo file at the given index in this project. The Foo files
+     * are indexed in the order in which they are returned by {@link
+     * #getFooFiles()}.
+     *
+     * @param index the index of the Foo file
+     * @return the Foo file at the given index (never <code>null</code>)
+     * @throws CoreException if this element does not exist or if an exception
+     *  occurs while accessing its corresponding resource
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    IFooFile getFooFileAt(int index) throws CoreException;
+
+    /**
+     * Opens all Foo files contained in this project. The files are opened
+     * in parallel; files that are already open are left as is. A failure
+     * to open a file does not prevent other files from being opened.
+     *
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     * @throws CoreException if this element does not exist, or if some
+     *  of the Foo files could not be opened
+     * @throws OperationCanceledException if this method is canceled
+     */
+    void openFooFiles(IProgressMonitor monitor) throws CoreException;
+
     /**
      * Returns the <code>IProject</code> on which this <code>IFooProject</code>
      * was created. This is handle-only method.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 1C LLC.
+ * Copyright (c) 2014, 2026 1C LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,7 @@ package org.eclipse.handly.internal.examples.basic.ui;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooFile;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.Viewer;
 
@@ -58,6 +59,9 @@ public class FooContentProvider
     @Override
     public boolean hasChildren(Object element)
     {
+        // avoid opening a Foo file just to paint its node
+        if (element instanceof FooFile)
+            return ((FooFile)element).mayHaveChildren();
         return getChildren(element).length > 0;
     }
 
@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui;
+
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooFile;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ITreeViewerListener;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.ui.progress.DeferredTreeContentManager;
+import org.eclipse.ui.progress.IDeferredWorkbenchAdapter;
+import org.eclipse.ui.progress.IElementCollector;
+
+/**
+ * Foo content provider that never opens elements in the UI thread.
+ * <p>
+ * The children of an open element are taken from its body. For an element
+ * that is not open, a "pending" placeholder is returned, and the children
+ * are computed by a background job and added to the viewer in batches
+ * when they become available. The job is cancelled if the element is
+ * collapsed before the job has finished.
+ * </p>
+ */
+public class FooDeferredContentProvider
+    extends FooContentProvider
+{
+    private static final int BATCH_SIZE = 100;
+
+    private DeferredTreeContentManager manager;
+    private AbstractTreeViewer viewer;
+    private final ITreeViewerListener treeListener = new ITreeViewerListener()
+    {
+        @Override
+        public void treeExpanded(TreeExpansionEvent event)
+        {
+        }
+
+        @Override
+        public void treeCollapsed(TreeExpansionEvent event)
+        {
+            if (manager != null)
+                manager.cancel(event.getElement());
+        }
+    };
+
+    @Override
+    public Object[] getChildren(Object parentElement)
+    {
+        if (manager == null || !(parentElement instanceof Element))
+            return super.getChildren(parentElement);
+        Object body = ((Element)parentElement).peekAtBody_();
+        if (body instanceof Body)
+            return ((Body)body).getChildren();
+        return manager.getChildren(parentElement);
+    }
+
+    @Override
+    public boolean hasChildren(Object element)
+    {
+        if (manager == null || !(element instanceof Element))
+            return super.hasChildren(element);
+        Object body = ((Element)element).peekAtBody_();
+        if (body instanceof Body)
+            return ((Body)body).getChildren().length > 0;
+        if (element instanceof FooFile)
+            return ((FooFile)element).mayHaveChildren();
+        return true; // optimistically
+    }
+
+    @Override
+    public void inputChanged(Viewer viewer, Object oldInput, Object newInput)
+    {
+        if (viewer == this.viewer)
+            return;
+        disconnect();
+        if (viewer instanceof AbstractTreeViewer)
+        {
+            this.viewer = (AbstractTreeViewer)viewer;
+            this.viewer.addTreeListener(treeListener);
+            manager = new DeferredTreeContentManager(this.viewer)
+            {
+                @Override
+                protected IDeferredWorkbenchAdapter getAdapter(Object element)
+                {
+                    if (element instanceof IFooElement)
+                        return DeferredAdapter.INSTANCE;
+                    return super.getAdapter(element);
+                }
+            };
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        disconnect();
+        super.dispose();
+    }
+
+    private void disconnect()
+    {
+        if (viewer != null)
+        {
+            if (viewer.getControl() != null
+                && !viewer.getControl().isDisposed())
+                viewer.removeTreeListener(treeListener);
+            viewer = null;
+        }
+        manager = null;
+    }
+
+    /*
+     * Opens a Foo element in a background job and passes its children
+     * to the collector in batches.
+     */
+    private static class DeferredAdapter
+        implements IDeferredWorkbenchAdapter
+    {
+        static final DeferredAdapter INSTANCE = new DeferredAdapter();
+
+        @Override
+        public void fetchDeferredChildren(Object object,
+            IElementCollector collector, IProgressMonitor monitor)
+        {
+            try
+            {
+                Object[] children = getChildren(object);
+                for (int i = 0; i < children.length; i += BATCH_SIZE)
+                {
+                    if (monitor.isCanceled())
+                        return;
+                    collector.add(Arrays.copyOfRange(children, i, Math.min(
+                        i + BATCH_SIZE, children.length)), monitor);
+                }
+            }
+            finally
+            {
+                collector.done();
+            }
+        }
+
+        @Override
+        public boolean isContainer()
+        {
+            return true;
+        }
+
+        @Override
+        public ISchedulingRule getRule(Object object)
+        {
+            return null;
+        }
+
+        @Override
+        public Object[] getChildren(Object o)
+        {
+            try
+            {
+                return ((IFooElement)o).getChildren();
+            }
+            catch (CoreException e)
+            {
+                return NO_CHILDREN;
+            }
+        }
+
+        @Override
+        public ImageDescriptor getImageDescriptor(Object object)
+        {
+            return null;
+        }
+
+        @Override
+        public String getLabel(Object o)
+        {
+            return ((IFooElement)o).getName();
+        }
+
+        @Override
+        public Object getParent(Object o)
+        {
+            return ((IFooElement)o).getParent();
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 1C LLC.
+ * Copyright (c) 2014, 2026 1C LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,31 +12,93 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
 import org.eclipse.handly.examples.basic.ui.model.IFooDef;
 import org.eclipse.handly.examples.basic.ui.model.IFooElement;
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
 import org.eclipse.handly.examples.basic.ui.model.IFooProject;
 import org.eclipse.handly.examples.basic.ui.model.IFooVar;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.resource.ResourceManager;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.model.IWorkbenchAdapter;
-import org.eclipse.xtext.util.Strings;
 
 /**
  * Foo label provider.
+ * <p>
+ * The labels of functions and the images of projects and files are cached
+ * by element handle, grouped by parent, and invalidated by Foo element
+ * deltas, so that painting an element again neither allocates nor opens
+ * the Foo Model. Each instance listens to the Foo Model until it is
+ * disposed. If the parameter names of a function cannot be obtained without
+ * opening its file, the file is opened to compute the label, unless the
+ * {@link FooLazyContentProvider lazy mode} is enabled; in the lazy mode,
+ * a placeholder label is returned (and not cached), and the file is opened
+ * by a background job, after which the label is updated.
+ * </p>
  */
 public class FooLabelProvider
     extends LabelProvider
 {
     private ResourceManager resourceManager = new LocalResourceManager(
         JFaceResources.getResources());
+    private final LabelCache<String> texts = new LabelCache<>();
+    private final LabelCache<Image> images = new LabelCache<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    // functions shown with a placeholder label, by file; guarded by itself
+    private final Map<IElement, Set<IFooDef>> placeholders = new HashMap<>();
+    private final Job placeholderJob;
+    private final IElementChangeListener listener = this::modelChanged;
+    private volatile boolean disposed;
+
+    /**
+     * Creates a new Foo label provider.
+     */
+    public FooLabelProvider()
+    {
+        placeholderJob = new Job("Foo label update") //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                updatePlaceholders(monitor);
+                return Status.OK_STATUS;
+            }
+        };
+        placeholderJob.setSystem(true);
+        FooModelCore.getFooModel().addElementChangeListener(listener);
+    }
 
     @Override
     public String getText(Object element)
@@ -44,23 +106,24 @@ public class FooLabelProvider
         if (element instanceof IFooDef)
         {
             IFooDef def = (IFooDef)element;
-            if (def.getArity() == 0)
-                return def.getName() + "()";
-            try
-            {
-                return def.getName()
-                    + '('
-                    + Strings.concat(", ",
-                        Arrays.asList(def.getParameterNames())) + ')';
-            }
-            catch (CoreException e)
+            String text = texts.get(def);
+            if (text == null)
             {
+                boolean lazy = FooLazyContentProvider.isEnabled();
+                text = computeAndCacheText(def, !lazy);
+                if (text == null && lazy)
+                {
+                    schedulePlaceholderUpdate(def);
+                    return def.getName() + "(...)";
+                }
             }
+            if (text != null)
+                return text;
         }
         if (element instanceof IFooElement)
             return ((IFooElement)element).getName();
         return super.getText(element);
-    };
+    }
 
     @Override
     public Image getImage(Object element)
@@ -69,15 +132,21 @@ public class FooLabelProvider
             return Activator.getImage(Activator.IMG_OBJ_DEF);
         if (element instanceof IFooVar)
             return Activator.getImage(Activator.IMG_OBJ_VAR);
-        IResource resource = null;
         if (element instanceof IFooProject || element instanceof IFooFile)
-            resource = ((IFooElement)element).getResource();
-        if (resource != null)
         {
-            IWorkbenchAdapter adapter =
-                (IWorkbenchAdapter)resource.getAdapter(IWorkbenchAdapter.class);
-            if (adapter != null)
-                return (Image)resourceManager.get(adapter.getImageDescriptor(resource));
+            IFooElement fooElement = (IFooElement)element;
+            Image image = images.get(fooElement);
+            if (image == null)
+            {
+                long stamp = invalidations.get();
+                image = computeImage(fooElement);
+                if (image == null)
+                    return super.getImage(element);
+                images.put(fooElement, image);
+                if (invalidations.get() != stamp)
+                    images.remove(fooElement); // the image may be stale
+            }
+            return image;
         }
         return super.getImage(element);
     }
@@ -85,7 +154,265 @@ public class FooLabelProvider
     @Override
     public void dispose()
     {
+        disposed = true;
+        FooModelCore.getFooModel().removeElementChangeListener(listener);
+        placeholderJob.cancel();
+        texts.clear();
+        images.clear();
         resourceManager.dispose();
         super.dispose();
     }
+
+    private void modelChanged(IElementChangeEvent event)
+    {
+        List<IElement> subtrees = new ArrayList<>();
+        List<IElement> elements = new ArrayList<>();
+        for (IElementDelta delta : event.getDeltas())
+            collectInvalidated(delta, subtrees, elements);
+        if (subtrees.isEmpty() && elements.isEmpty())
+            return;
+        invalidate(subtrees, elements);
+    }
+
+    /*
+     * Collects the elements whose subtrees are affected by the given delta,
+     * and the elements that are affected by themselves.
+     */
+    private static void collectInvalidated(IElementDelta delta,
+        List<IElement> subtrees, List<IElement> elements)
+    {
+        IElement element = ElementDeltas.getElement(delta);
+        long flags = ElementDeltas.getFlags(delta);
+        if (ElementDeltas.getKind(delta) != IElementDeltaConstants.CHANGED
+            || ((flags & IElementDeltaConstants.F_CONTENT) != 0
+                && (flags & IElementDeltaConstants.F_FINE_GRAINED) == 0))
+        {
+            subtrees.add(element);
+            return; // the children are affected as well
+        }
+        if ((element instanceof IFooDef
+            && (flags & IElementDeltaConstants.F_CONTENT) != 0)
+            || (flags & ~(IElementDeltaConstants.F_CHILDREN
+                | IElementDeltaConstants.F_CONTENT
+                | IElementDeltaConstants.F_FINE_GRAINED
+                | IElementDeltaConstants.F_REORDER)) != 0)
+            elements.add(element);
+        for (IElementDelta child : ElementDeltas.getAffectedChildren(delta))
+            collectInvalidated(child, subtrees, elements);
+    }
+
+    /*
+     * Discards the cached labels and images of the given subtrees and
+     * elements, and notifies the viewers of the discarded entries.
+     */
+    private void invalidate(List<IElement> subtrees, List<IElement> elements)
+    {
+        invalidations.incrementAndGet();
+        List<IElement> invalidated = new ArrayList<>();
+        for (IElement element : subtrees)
+        {
+            texts.removeSubtree(element, invalidated);
+            images.removeSubtree(element, invalidated);
+        }
+        for (IElement element : elements)
+        {
+            boolean removed = texts.remove(element);
+            if (images.remove(element) || removed)
+                invalidated.add(element);
+        }
+        notifyChanged(invalidated.toArray());
+    }
+
+    private void notifyChanged(Object[] elements)
+    {
+        if (elements.length == 0 || !isListenerAttached())
+            return;
+        Display display = PlatformUI.getWorkbench().getDisplay();
+        if (display.isDisposed())
+            return;
+        display.asyncExec(() ->
+        {
+            if (!disposed)
+                fireLabelProviderChanged(new LabelProviderChangedEvent(this,
+                    elements));
+        });
+    }
+
+    private String computeAndCacheText(IFooDef def, boolean open)
+    {
+        long stamp = invalidations.get();
+        String text = computeText(def, open);
+        if (text != null)
+        {
+            texts.put(def, text);
+            if (invalidations.get() != stamp)
+                texts.remove(def); // the text may be stale
+        }
+        return text;
+    }
+
+    private void schedulePlaceholderUpdate(IFooDef def)
+    {
+        synchronized (placeholders)
+        {
+            placeholders.computeIfAbsent(Elements.getParent(def),
+                k -> new HashSet<>()).add(def);
+        }
+        placeholderJob.schedule();
+    }
+
+    /*
+     * Opens the files of the functions shown with a placeholder label,
+     * caches the labels of the functions, and updates them.
+     */
+    private void updatePlaceholders(IProgressMonitor monitor)
+    {
+        Map<IElement, Set<IFooDef>> pending;
+        synchronized (placeholders)
+        {
+            pending = new HashMap<>(placeholders);
+            placeholders.clear();
+        }
+        List<IElement> updated = new ArrayList<>();
+        for (Map.Entry<IElement, Set<IFooDef>> entry : pending.entrySet())
+        {
+            if (monitor.isCanceled() || disposed)
+                return;
+            try
+            {
+                ((IFooFile)entry.getKey()).getChildren(); // opens the file
+            }
+            catch (CoreException e)
+            {
+                continue; // the file no longer exists
+            }
+            for (IFooDef def : entry.getValue())
+            {
+                if (computeAndCacheText(def, false) != null)
+                    updated.add(def);
+            }
+        }
+        notifyChanged(updated.toArray());
+    }
+
+    /*
+     * Returns null if the parameter names of the given function cannot be
+     * obtained without opening its file and the file may not be opened,
+     * or if the function does not exist.
+     */
+    private static String computeText(IFooDef def, boolean open)
+    {
+        if (def.getArity() == 0)
+            return def.getName() + "()";
+        String[] parameterNames = null;
+        Object body = ((Element)def).peekAtBody_();
+        if (body instanceof SourceElementBody)
+            parameterNames = ((SourceElementBody)body).get(
+                IFooDef.PARAMETER_NAMES);
+        if (parameterNames == null && open)
+        {
+            try
+            {
+                parameterNames = def.getParameterNames(); // opens the file
+            }
+            catch (CoreException e)
+            {
+            }
+        }
+        if (parameterNames == null)
+            return null;
+        StringBuilder text = new StringBuilder(def.getName());
+        text.append('(');
+        for (int i = 0; i < parameterNames.length; i++)
+        {
+            if (i > 0)
+                text.append(", ");
+            text.append(parameterNames[i]);
+        }
+        return text.append(')').toString();
+    }
+
+    private Image computeImage(IFooElement element)
+    {
+        IResource resource = element.getResource();
+        if (resource == null)
+            return null;
+        IWorkbenchAdapter adapter =
+            (IWorkbenchAdapter)resource.getAdapter(IWorkbenchAdapter.class);
+        if (adapter == null)
+            return null;
+        return (Image)resourceManager.get(adapter.getImageDescriptor(resource));
+    }
+
+    /*
+     * Caches values by element, grouped by the parent of the element,
+     * so that the entries for a subtree are discarded without scanning
+     * every entry. The elements must have a parent.
+     */
+    private static class LabelCache<V>
+    {
+        private final Map<IElement, Map<IElement, V>> entries =
+            new ConcurrentHashMap<>();
+
+        V get(IElement element)
+        {
+            Map<IElement, V> siblings = entries.get(Elements.getParent(
+                element));
+            return siblings == null ? null : siblings.get(element);
+        }
+
+        void put(IElement element, V value)
+        {
+            entries.computeIfAbsent(Elements.getParent(element),
+                k -> new ConcurrentHashMap<>()).put(element, value);
+        }
+
+        boolean remove(IElement element)
+        {
+            IElement parent = Elements.getParent(element);
+            if (parent == null)
+                return false;
+            Map<IElement, V> siblings = entries.get(parent);
+            return siblings != null && siblings.remove(element) != null;
+        }
+
+        void removeSubtree(IElement element, List<IElement> removed)
+        {
+            if (remove(element))
+                removed.add(element);
+            Map<IElement, V> children = entries.remove(element);
+            if (children != null)
+                removed.addAll(children.keySet());
+            if (!(element instanceof IFooModel)
+                && !(element instanceof IFooProject))
+                return; // no grandchildren
+            Iterator<Map.Entry<IElement, Map<IElement, V>>> it =
+                entries.entrySet().iterator();
+            while (it.hasNext())
+            {
+                Map.Entry<IElement, Map<IElement, V>> entry = it.next();
+                if (isAncestor(element, entry.getKey()))
+                {
+                    removed.addAll(entry.getValue().keySet());
+                    it.remove();
+                }
+            }
+        }
+
+        void clear()
+        {
+            entries.clear();
+        }
+
+        private static boolean isAncestor(IElement ancestor, IElement element)
+        {
+            for (IElement e = Elements.getParent(element); e != null;
+                e = Elements.getParent(e))
+            {
+                if (e.equals(ancestor))
+                    return true;
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooFile;
+import org.eclipse.handly.internal.examples.basic.ui.model.FooProject;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.jface.viewers.ILazyTreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Lazy Foo content provider for a virtual tree viewer.
+ * <p>
+ * Only the children that become visible are requested from the model,
+ * one at a time, using index-based access, so the number of materialized
+ * tree items does not depend on the number of children of an element.
+ * A Foo file is never opened in the UI thread: if it is not open, it is
+ * given the child count known from the stored structure of the file, or
+ * a child count of one if it may have children, and it is opened by
+ * a background job when its children are requested. Likewise, a Foo
+ * project is never opened in the UI thread: if it is not open, it is
+ * given a child count of one, and its actual child count is computed
+ * by a background job right away.
+ * </p>
+ * <p>
+ * The lazy mode is enabled by the {@link #LAZY_VIEWS_PROPERTY} system
+ * property.
+ * </p>
+ */
+public class FooLazyContentProvider
+    extends FooContentProvider
+    implements ILazyTreeContentProvider
+{
+    /**
+     * System property that enables the lazy mode for the Foo Navigator
+     * and the Foo Outline page.
+     */
+    public static final String LAZY_VIEWS_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.lazyViews"; //$NON-NLS-1$
+
+    private TreeViewer viewer;
+    // the projects as of the last update of the model's child count
+    private IFooProject[] fooProjects;
+    // elements being opened in the background; accessed in the UI thread
+    private final Set<Element> opening = new HashSet<>();
+
+    /**
+     * Returns whether the lazy mode is enabled.
+     *
+     * @return <code>true</code> if the lazy mode is enabled,
+     *  and <code>false</code> otherwise
+     */
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean(LAZY_VIEWS_PROPERTY);
+    }
+
+    @Override
+    public void updateElement(Object parent, int index)
+    {
+        if (isNotOpen(parent))
+        {
+            open((Element)parent);
+            return;
+        }
+        Object child = getChildAt(parent, index);
+        if (child == null)
+            return;
+        viewer.replace(parent, index, child);
+        updateChildCount(child, -1);
+    }
+
+    @Override
+    public void updateChildCount(Object element, int currentChildCount)
+    {
+        int childCount;
+        if (isNotOpen(element))
+        {
+            if (element instanceof FooFile)
+            {
+                // defer opening the file until its children are requested
+                childCount = ((FooFile)element).getChildCountHint();
+                if (childCount < 0)
+                    childCount = 1;
+            }
+            else
+            {
+                childCount = 1;
+                open((Element)element);
+            }
+        }
+        else
+            childCount = getChildCount(element);
+        if (childCount != currentChildCount)
+            viewer.setChildCount(element, childCount);
+    }
+
+    @Override
+    public void inputChanged(Viewer viewer, Object oldInput, Object newInput)
+    {
+        this.viewer = (TreeViewer)viewer;
+        fooProjects = null;
+    }
+
+    private static boolean isNotOpen(Object element)
+    {
+        return (element instanceof FooFile || element instanceof FooProject)
+            && ((Element)element).peekAtBody_() == null;
+    }
+
+    /*
+     * Opens the given Foo file or Foo project in a background job,
+     * and then refreshes it.
+     */
+    private void open(Element element)
+    {
+        if (!opening.add(element))
+            return;
+        TreeViewer viewer = this.viewer;
+        Display display = viewer.getControl().getDisplay();
+        Job job = new Job("Opening " + element.getName_()) //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                int childCount = getChildCount(element); // opens the element
+                display.asyncExec(() ->
+                {
+                    opening.remove(element);
+                    if (viewer.getControl().isDisposed())
+                        return;
+                    viewer.setChildCount(element, childCount);
+                    viewer.refresh(element);
+                });
+                return Status.OK_STATUS;
+            }
+        };
+        job.setSystem(true);
+        job.schedule();
+    }
+
+    private int getChildCount(Object element)
+    {
+        try
+        {
+            if (element instanceof IFooModel)
+            {
+                fooProjects = ((IFooModel)element).getFooProjects();
+                return fooProjects.length;
+            }
+            if (element instanceof IFooProject)
+                return ((IFooProject)element).getFooFileCount();
+        }
+        catch (CoreException e)
+        {
+        }
+        if (element instanceof IFooFile)
+            return getFileChildCount((IFooFile)element);
+        return 0;
+    }
+
+    private static int getFileChildCount(IFooFile fooFile)
+    {
+        try
+        {
+            return fooFile.getChildCount();
+        }
+        catch (CoreException e)
+        {
+            return 0;
+        }
+    }
+
+    private Object getChildAt(Object parent, int index)
+    {
+        try
+        {
+            if (parent instanceof IFooModel)
+            {
+                if (fooProjects == null)
+                    fooProjects = ((IFooModel)parent).getFooProjects();
+                return fooProjects[index];
+            }
+            if (parent instanceof IFooProject)
+                return ((IFooProject)parent).getFooFileAt(index);
+            if (parent instanceof IFooFile)
+                return ((IFooFile)parent).getChildAt(index);
+        }
+        catch (CoreException | IndexOutOfBoundsException e)
+        {
+            // the element has changed; a refresh is on the way
+        }
+        return null;
+    }
+}
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.impl.support.ElementChangeEvent;
+
+/**
+ * Delivers element change events to listeners asynchronously.
+ * <p>
+ * Each registered listener gets a bounded queue of events, which is served
+ * by the given executor. Events are delivered to a listener one at a time,
+ * in the order they were fired; a slow listener does not delay the delivery
+ * of events to other listeners (as long as the executor has spare threads)
+ * or the thread that fires the events. If the queue of a listener is full,
+ * the {@link OverflowPolicy} applies.
+ * </p>
+ * <p>
+ * Holding on to Foo element events outside the dynamic scope of
+ * the notification is safe: the deltas of the Foo Model do not refer to
+ * resource deltas and are not modified after they have been fired.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class AsyncElementChangeDispatcher
+{
+    /**
+     * Specifies what happens when an event is fired while the queue
+     * of a listener is full.
+     */
+    enum OverflowPolicy
+    {
+        /**
+         * The firing thread waits until there is room in the queue, but
+         * no longer than one second; then the event is handled as with
+         * {@link #MERGE}. This applies backpressure while guarding
+         * against a listener that waits on the firing thread, but may
+         * stall the thread that fires resource change events.
+         */
+        BLOCK,
+
+        /**
+         * The event is merged with the newest queued event of the same type,
+         * which may thus be delivered ahead of queued events of other types.
+         * Deltas rooted at the same element, be it the Foo Model, the scope
+         * of a filtered subscription or a reconciled Foo file, are merged
+         * element by element. If no event of the same type is queued,
+         * the event is added to the queue, so the queue never holds more
+         * events than its capacity plus the number of event types less one.
+         */
+        MERGE,
+
+        /**
+         * The event is not delivered to the listener.
+         */
+        DROP
+    }
+
+    private static final long BLOCK_MILLIS = 1000;
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<IElementChangeListener, ListenerQueue> queues =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new dispatcher.
+     *
+     * @param executor the executor that delivers events
+     *  (not <code>null</code>)
+     * @param capacity the capacity of the event queue of a listener
+     *  (positive)
+     * @param overflowPolicy the policy to apply when a queue is full
+     *  (not <code>null</code>)
+     */
+    AsyncElementChangeDispatcher(Executor executor, int capacity,
+        OverflowPolicy overflowPolicy)
+    {
+        if (executor == null || overflowPolicy == null)
+            throw new IllegalArgumentException();
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns a listener that queues events for asynchronous delivery
+     * to the given listener. Returns the same listener for identical
+     * listeners, until it has been {@link #unwrap(IElementChangeListener)
+     * unwrapped}.
+     *
+     * @param listener a listener (not <code>null</code>)
+     * @return the queueing listener (never <code>null</code>)
+     */
+    IElementChangeListener wrap(IElementChangeListener listener)
+    {
+        if (listener == null)
+            throw new IllegalArgumentException();
+        return queues.computeIfAbsent(listener, ListenerQueue::new);
+    }
+
+    /**
+     * Stops the asynchronous delivery of events to the given listener and
+     * returns the listener that {@link #wrap(IElementChangeListener) wraps}
+     * it. Events that have not been delivered yet are discarded.
+     *
+     * @param listener a listener (not <code>null</code>)
+     * @return the queueing listener, or <code>null</code> if the given
+     *  listener has not been wrapped
+     */
+    IElementChangeListener unwrap(IElementChangeListener listener)
+    {
+        ListenerQueue queue = queues.remove(listener);
+        if (queue != null)
+            queue.dispose();
+        return queue;
+    }
+
+    /**
+     * Stops the asynchronous delivery of events to all listeners.
+     */
+    void dispose()
+    {
+        for (ListenerQueue queue : queues.values())
+            queue.dispose();
+        queues.clear();
+    }
+
+    /*
+     * Merges the given events of the same type. The deltas are grouped
+     * by their root element, and each group is merged into a single delta.
+     */
+    private static IElementChangeEvent merge(IElementChangeEvent first,
+        IElementChangeEvent second)
+    {
+        Map<IElement, List<IElementDelta>> deltasByRoot =
+            new LinkedHashMap<>();
+        for (IElementChangeEvent event : new IElementChangeEvent[] { first,
+            second })
+        {
+            for (IElementDelta delta : event.getDeltas())
+                deltasByRoot.computeIfAbsent(ElementDeltas.getElement(delta),
+                    root -> new ArrayList<>()).add(delta);
+        }
+        List<IElementDelta> result = new ArrayList<>(deltasByRoot.size());
+        for (List<IElementDelta> deltas : deltasByRoot.values())
+        {
+            if (deltas.size() == 1)
+                result.add(deltas.get(0));
+            else
+                result.add(FooDeltaCoalescer.merge(deltas));
+        }
+        return new ElementChangeEvent(first.getType(), result.toArray(
+            new IElementDelta[result.size()]));
+    }
+
+    private class ListenerQueue
+        implements IElementChangeListener, Runnable
+    {
+        private final IElementChangeListener listener;
+        private final LinkedList<IElementChangeEvent> events =
+            new LinkedList<>(); // guarded by this
+        private boolean scheduled; // guarded by this
+        private boolean disposed; // guarded by this
+
+        ListenerQueue(IElementChangeListener listener)
+        {
+            this.listener = listener;
+        }
+
+        @Override
+        public void elementChanged(IElementChangeEvent event)
+        {
+            boolean schedule;
+            synchronized (this)
+            {
+                if (!offer(event))
+                    return;
+                schedule = !scheduled;
+                scheduled = true;
+            }
+            if (schedule)
+                execute();
+        }
+
+        @Override
+        public void run()
+        {
+            for (;;)
+            {
+                IElementChangeEvent event;
+                synchronized (this)
+                {
+                    event = disposed ? null : events.poll();
+                    if (event == null)
+                    {
+                        scheduled = false;
+                        return;
+                    }
+                    notifyAll(); // there is room in the queue
+                }
+                SafeRunner.run(new ISafeRunnable()
+                {
+                    @Override
+                    public void run() throws Exception
+                    {
+                        listener.elementChanged(event);
+                    }
+
+                    @Override
+                    public void handleException(Throwable exception)
+                    {
+                        // already logged by the safe runner
+                    }
+                });
+            }
+        }
+
+        synchronized void dispose()
+        {
+            disposed = true;
+            events.clear();
+            notifyAll();
+        }
+
+        /*
+         * Adds the event to the queue according to the overflow policy.
+         * Returns whether the event has been added as a separate event.
+         */
+        private boolean offer(IElementChangeEvent event)
+        {
+            if (disposed)
+                return false;
+            if (events.size() >= capacity)
+            {
+                if (overflowPolicy == OverflowPolicy.DROP)
+                    return false;
+                if (overflowPolicy == OverflowPolicy.BLOCK && await())
+                {
+                    events.add(event);
+                    return true;
+                }
+                if (disposed)
+                    return false;
+                if (mergeIntoQueue(event))
+                    return false; // the queue is already scheduled
+            }
+            events.add(event);
+            return true;
+        }
+
+        /*
+         * Merges the event with the newest queued event of the same type.
+         * Returns false if there is no such event.
+         */
+        private boolean mergeIntoQueue(IElementChangeEvent event)
+        {
+            ListIterator<IElementChangeEvent> it = events.listIterator(
+                events.size());
+            while (it.hasPrevious())
+            {
+                IElementChangeEvent queued = it.previous();
+                if (queued.getType() == event.getType())
+                {
+                    it.set(merge(queued, event));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /*
+         * Waits until there is room in the queue. Returns false
+         * if the queue is still full or has been disposed.
+         */
+        private boolean await()
+        {
+            long deadline = System.currentTimeMillis() + BLOCK_MILLIS;
+            boolean interrupted = false;
+            try
+            {
+                long remaining;
+                while (!disposed && events.size() >= capacity
+                    && (remaining = deadline
+                        - System.currentTimeMillis()) > 0)
+                {
+                    try
+                    {
+                        wait(remaining);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        interrupted = true;
+                    }
+                }
+            }
+            finally
+            {
+                if (interrupted)
+                    Thread.currentThread().interrupt();
+            }
+            return !disposed && events.size() < capacity;
+        }
+
+        private void execute()
+        {
+            try
+            {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e)
+            {
+                // the dispatcher is shutting down
+                dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.snapshot.ISnapshot;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * A packed, struct-of-arrays table of the bodies of the children of
+ * a single Foo file.
+ * <p>
+ * Rather than keeping a {@link SourceElementBody} with two {@link TextRange}
+ * objects and a property map for each <code>FooVar</code> and
+ * <code>FooDef</code>, the table keeps the child handles (which carry
+ * the names and arities) along with the offsets and lengths of the ranges
+ * and indices into a shared pool of parameter names, all in flat arrays.
+ * Bodies are materialized on demand as views over the table. Only a few
+ * recently put or materialized bodies are remembered, in a small
+ * direct-mapped cache, so that the same body is returned for a row that
+ * is accessed repeatedly; otherwise, a new body is materialized, which
+ * is cheap. The table keeps nothing else per row.
+ * </p>
+ * <p>
+ * Only the full range, the identifying range, the snapshot, and
+ * the {@link IFooDef#PARAMETER_NAMES} property of the bodies are kept.
+ * The snapshot is shared by all rows of the table.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class CompactStructureTable
+{
+    private static final int RANGE_STRIDE = 4; // full offset, full length, identifying offset, identifying length
+    private static final int PARAMS_STRIDE = 2; // start, count
+    private static final int NO_RANGE = -1;
+    private static final int NO_PARAMS = -1;
+    private static final int DELETED = -1; // index slot marker
+    private static final int RECENT_SIZE = 8; // must be a power of 2
+
+    private IElement[] elements; // row -> child handle; null if removed
+    private int[] ranges; // row * RANGE_STRIDE -> range data
+    private int[] params; // row * PARAMS_STRIDE -> parameter name data
+    private String[] paramNames = new String[0]; // pool of parameter names
+    private int paramCount; // number of used pool slots
+    private int staleParamCount; // number of pool slots no longer referenced
+    private final SourceElementBody[] recentBodies =
+        new SourceElementBody[RECENT_SIZE]; // row & (RECENT_SIZE - 1) -> body
+    private final int[] recentRows = new int[RECENT_SIZE]; // row + 1; 0 if empty
+    private int[] index; // open-addressing hash index: slot -> row + 1; 0 if empty
+    private int rowCount; // number of used rows, including removed ones
+    private int size; // number of live rows
+    private ISnapshot snapshot;
+
+    /**
+     * Constructs a new table with room for the given number of rows.
+     *
+     * @param expectedSize the expected number of rows
+     */
+    CompactStructureTable(int expectedSize)
+    {
+        int capacity = Math.max(expectedSize, 4);
+        elements = new IElement[capacity];
+        ranges = new int[capacity * RANGE_STRIDE];
+        params = new int[capacity * PARAMS_STRIDE];
+        index = new int[tableSizeFor(capacity)];
+    }
+
+    /**
+     * Returns a body materialized from the row for the given element.
+     * The body is equal in contents, but not necessarily identical,
+     * to the body returned by a previous call.
+     *
+     * @param element the child element (not <code>null</code>)
+     * @return the body for the element, or <code>null</code>
+     *  if the table has no row for the element
+     */
+    SourceElementBody get(IElement element)
+    {
+        int row = find(element);
+        if (row < 0)
+            return null;
+        return view(row);
+    }
+
+    /**
+     * Stores the given body of the given element in this table, replacing
+     * the row for the element if there is one.
+     *
+     * @param element the child element (not <code>null</code>)
+     * @param body the body of the element (not <code>null</code>)
+     * @return <code>true</code> if the row for the element was replaced,
+     *  and <code>false</code> if a new row was added
+     */
+    boolean put(IElement element, SourceElementBody body)
+    {
+        if (body.getSnapshot() != null)
+            snapshot = body.getSnapshot();
+        int row = find(element);
+        boolean replaced = row >= 0;
+        if (!replaced)
+        {
+            if (rowCount == elements.length)
+                grow();
+            row = rowCount++;
+            elements[row] = element;
+            insert(element, row);
+            size++;
+        }
+        setRange(row * RANGE_STRIDE, body.getFullRange());
+        setRange(row * RANGE_STRIDE + 2, body.getIdentifyingRange());
+        setParamNames(row, body.get(IFooDef.PARAMETER_NAMES),
+            replaced);
+        remember(row, body);
+        return replaced;
+    }
+
+    /**
+     * Removes the row for the given element from this table.
+     *
+     * @param element the child element (not <code>null</code>)
+     * @return a body materialized from the removed row, or <code>null</code>
+     *  if the table had no row for the element
+     */
+    SourceElementBody remove(IElement element)
+    {
+        int slot = findSlot(element);
+        if (slot < 0)
+            return null;
+        int row = index[slot] - 1;
+        SourceElementBody body = view(row);
+        releaseParamNames(row);
+        index[slot] = DELETED;
+        elements[row] = null;
+        forget(row);
+        size--;
+        return body;
+    }
+
+    /**
+     * Returns the number of rows in this table.
+     *
+     * @return the number of rows
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots in use in the pool of parameter names,
+     * including the slots of parameter names no longer referenced from
+     * any row that have not been reclaimed yet.
+     *
+     * @return the number of parameter name slots in use
+     */
+    int getParamPoolSize()
+    {
+        return paramCount;
+    }
+
+    private SourceElementBody view(int row)
+    {
+        int i = row & (RECENT_SIZE - 1);
+        if (recentRows[i] == row + 1)
+            return recentBodies[i];
+        SourceElementBody body = materialize(row);
+        remember(row, body);
+        return body;
+    }
+
+    private void remember(int row, SourceElementBody body)
+    {
+        int i = row & (RECENT_SIZE - 1);
+        recentRows[i] = row + 1;
+        recentBodies[i] = body;
+    }
+
+    private void forget(int row)
+    {
+        int i = row & (RECENT_SIZE - 1);
+        if (recentRows[i] == row + 1)
+        {
+            recentRows[i] = 0;
+            recentBodies[i] = null;
+        }
+    }
+
+    private SourceElementBody materialize(int row)
+    {
+        SourceElementBody body = new SourceElementBody();
+        body.setFullRange(getRange(row * RANGE_STRIDE));
+        body.setIdentifyingRange(getRange(row * RANGE_STRIDE + 2));
+        int p = row * PARAMS_STRIDE;
+        if (params[p + 1] != NO_PARAMS)
+            body.set(IFooDef.PARAMETER_NAMES, Arrays.copyOfRange(paramNames,
+                params[p], params[p] + params[p + 1]));
+        if (snapshot != null)
+            body.setSnapshot(snapshot);
+        return body;
+    }
+
+    private TextRange getRange(int i)
+    {
+        if (ranges[i] == NO_RANGE)
+            return null;
+        return new TextRange(ranges[i], ranges[i + 1]);
+    }
+
+    private void setRange(int i, TextRange range)
+    {
+        if (range == null)
+        {
+            ranges[i] = NO_RANGE;
+            ranges[i + 1] = 0;
+        }
+        else
+        {
+            ranges[i] = range.getOffset();
+            ranges[i + 1] = range.getLength();
+        }
+    }
+
+    private void setParamNames(int row, String[] names, boolean replaced)
+    {
+        int p = row * PARAMS_STRIDE;
+        if (replaced && names != null && params[p + 1] != NO_PARAMS
+            && names.length <= params[p + 1])
+        {
+            // overwrite the old parameter names in place
+            int start = params[p], oldCount = params[p + 1];
+            System.arraycopy(names, 0, paramNames, start, names.length);
+            Arrays.fill(paramNames, start + names.length, start + oldCount,
+                null);
+            staleParamCount += oldCount - names.length;
+            params[p + 1] = names.length;
+            if (staleParamCount > paramCount / 2)
+                compactParamNames();
+            return;
+        }
+        if (replaced)
+            releaseParamNames(row);
+        if (names == null)
+            params[p + 1] = NO_PARAMS;
+        else
+        {
+            params[p] = addParamNames(names);
+            params[p + 1] = names.length;
+        }
+    }
+
+    private void releaseParamNames(int row)
+    {
+        int p = row * PARAMS_STRIDE;
+        if (params[p + 1] == NO_PARAMS)
+            return;
+        Arrays.fill(paramNames, params[p], params[p] + params[p + 1], null);
+        staleParamCount += params[p + 1];
+        params[p + 1] = NO_PARAMS;
+        if (staleParamCount > paramCount / 2)
+            compactParamNames();
+    }
+
+    private void compactParamNames()
+    {
+        String[] oldParamNames = paramNames;
+        paramNames = new String[paramCount - staleParamCount];
+        paramCount = 0;
+        staleParamCount = 0;
+        for (int row = 0; row < rowCount; row++)
+        {
+            int p = row * PARAMS_STRIDE;
+            int count = params[p + 1];
+            if (elements[row] == null || count == NO_PARAMS)
+                continue;
+            System.arraycopy(oldParamNames, params[p], paramNames, paramCount,
+                count);
+            params[p] = paramCount;
+            paramCount += count;
+        }
+    }
+
+    private int addParamNames(String[] names)
+    {
+        int start = paramCount;
+        if (paramCount + names.length > paramNames.length)
+            paramNames = Arrays.copyOf(paramNames, Math.max(paramCount
+                + names.length, paramNames.length * 2));
+        System.arraycopy(names, 0, paramNames, paramCount, names.length);
+        paramCount += names.length;
+        return start;
+    }
+
+    private int find(IElement element)
+    {
+        int slot = findSlot(element);
+        return slot < 0 ? -1 : index[slot] - 1;
+    }
+
+    private int findSlot(IElement element)
+    {
+        int mask = index.length - 1;
+        for (int slot = hash(element) & mask;; slot = (slot + 1) & mask)
+        {
+            int entry = index[slot];
+            if (entry == 0)
+                return -1;
+            if (entry != DELETED && element.equals(elements[entry - 1]))
+                return slot;
+        }
+    }
+
+    private void insert(IElement element, int row)
+    {
+        int mask = index.length - 1;
+        int slot = hash(element) & mask;
+        while (index[slot] > 0)
+            slot = (slot + 1) & mask;
+        index[slot] = row + 1;
+    }
+
+    private void grow()
+    {
+        // drop removed rows and stale parameter names while growing
+        int capacity = Math.max(size * 2, 4);
+        IElement[] oldElements = elements;
+        int[] oldRanges = ranges;
+        int[] oldParams = params;
+        String[] oldParamNames = paramNames;
+        int oldRowCount = rowCount;
+        elements = new IElement[capacity];
+        ranges = new int[capacity * RANGE_STRIDE];
+        params = new int[capacity * PARAMS_STRIDE];
+        paramNames = new String[paramCount - staleParamCount];
+        paramCount = 0;
+        staleParamCount = 0;
+        index = new int[tableSizeFor(capacity)];
+        rowCount = 0;
+        // rows are renumbered
+        Arrays.fill(recentRows, 0);
+        Arrays.fill(recentBodies, null);
+        for (int oldRow = 0; oldRow < oldRowCount; oldRow++)
+        {
+            IElement element = oldElements[oldRow];
+            if (element == null)
+                continue;
+            int row = rowCount++;
+            elements[row] = element;
+            insert(element, row);
+            System.arraycopy(oldRanges, oldRow * RANGE_STRIDE, ranges, row
+                * RANGE_STRIDE, RANGE_STRIDE);
+            int p = oldRow * PARAMS_STRIDE;
+            int count = oldParams[p + 1];
+            params[row * PARAMS_STRIDE + 1] = count;
+            if (count != NO_PARAMS)
+            {
+                params[row * PARAMS_STRIDE] = paramCount;
+                System.arraycopy(oldParamNames, oldParams[p], paramNames,
+                    paramCount, count);
+                paramCount += count;
+            }
+        }
+    }
+
+    private static int hash(IElement element)
+    {
+        int h = element.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity)
+    {
+        // keep the load factor of the index at most 1/2
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.IElement;
+
+/**
+ * A Foo Model cache that lets the bodies of the Foo model, Foo projects
+ * and Foo files be read without holding the element manager's lock.
+ * <p>
+ * The element manager guards every access to its body cache by its own
+ * lock, so a concurrent cache alone would not let readers proceed in
+ * parallel. Instead, this cache decorates another cache, which remains
+ * guarded by the element manager and makes all eviction decisions, and
+ * mirrors its model, project and file bodies in a concurrent map as they
+ * are put and removed under the lock, including on eviction. The bodies
+ * of children of Foo files are not mirrored, since there may be very many
+ * of them; reading them still takes the lock.
+ * </p>
+ * <p>
+ * A Foo element looks up its body with {@link #getConcurrently(IElement)}
+ * first, and takes the lock only on a miss. Such reads are recorded in
+ * a bounded buffer and replayed to the underlying cache the next time
+ * it is accessed under the lock, so that the underlying cache keeps its
+ * LRU or frequency-aware order; reads are dropped while the buffer
+ * is full, which makes that order approximate.
+ * </p>
+ * <p>
+ * A reader that does not take the lock may see the previous body of
+ * an element whose body is just being replaced. Bodies that the element
+ * manager holds in its temporary cache while an element is being opened
+ * are not mirrored; they are found by the locked lookup.
+ * </p>
+ *
+ * @threadsafe {@link #getConcurrently(IElement)} may be called without
+ *  holding the element manager's lock; other methods must be called
+ *  with the lock held
+ */
+class ConcurrentReadFooModelCache
+    implements IFooModelCache
+{
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    private final IFooModelCache cache;
+    private final Map<IElement, Object> bodies = new ConcurrentHashMap<>();
+    private final Queue<IElement> reads = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readCount = new AtomicInteger();
+    private volatile boolean enabled;
+
+    /**
+     * Constructs a cache that mirrors the given cache.
+     *
+     * @param cache the underlying cache (not <code>null</code>)
+     * @param enabled whether {@link #getConcurrently(IElement)} should
+     *  return the mirrored bodies
+     */
+    ConcurrentReadFooModelCache(IFooModelCache cache, boolean enabled)
+    {
+        if (cache == null)
+            throw new IllegalArgumentException();
+        this.cache = cache;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the body of the given element if it is in this cache and
+     * reads without the lock are enabled. Does not require the element
+     * manager's lock.
+     *
+     * @param element the element (not <code>null</code>)
+     * @return the body of the element, or <code>null</code> if the body
+     *  is not known without taking the lock
+     */
+    Object getConcurrently(IElement element)
+    {
+        if (!enabled)
+            return null;
+        Object body = bodies.get(element);
+        if (body != null && readCount.get() < READ_BUFFER_SIZE)
+        {
+            readCount.incrementAndGet();
+            reads.add(element);
+        }
+        return body;
+    }
+
+    /**
+     * Enables or disables reads without the lock. The bodies are mirrored
+     * either way.
+     *
+     * @param enabled whether {@link #getConcurrently(IElement)} should
+     *  return the mirrored bodies
+     */
+    void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether reads without the lock are enabled.
+     *
+     * @return <code>true</code> if reads without the lock are enabled,
+     *  and <code>false</code> otherwise
+     */
+    boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public Object get(IElement element)
+    {
+        replayReads();
+        return cache.get(element);
+    }
+
+    @Override
+    public Object peek(IElement element)
+    {
+        return cache.peek(element);
+    }
+
+    @Override
+    public void put(IElement element, Object body)
+    {
+        replayReads();
+        cache.put(element, body);
+        // the body may have been evicted right away
+        if (isMirrored(element) && cache.peek(element) == body)
+            bodies.put(element, body);
+    }
+
+    @Override
+    public void remove(IElement element)
+    {
+        bodies.remove(element);
+        cache.remove(element);
+    }
+
+    @Override
+    public boolean restoreStructure(IElement file, long stamp,
+        byte[] contentsDigest, Map<IElement, Object> newElements)
+    {
+        return cache.restoreStructure(file, stamp, contentsDigest,
+            newElements);
+    }
+
+    @Override
+    public void ensureFileCacheSize(int fileCount, IElement parent)
+    {
+        cache.ensureFileCacheSize(fileCount, parent);
+    }
+
+    @Override
+    public void releaseFileCacheSize(IElement parent)
+    {
+        cache.releaseFileCacheSize(parent);
+    }
+
+    @Override
+    public int getProjectCount()
+    {
+        return cache.getProjectCount();
+    }
+
+    @Override
+    public int getFileCount()
+    {
+        return cache.getFileCount();
+    }
+
+    @Override
+    public int getChildCount()
+    {
+        return cache.getChildCount();
+    }
+
+    @Override
+    public String toString()
+    {
+        return cache.toString();
+    }
+
+    private void replayReads()
+    {
+        IElement element;
+        while ((element = reads.poll()) != null)
+        {
+            readCount.decrementAndGet();
+            if (element instanceof IFooFile)
+                cache.get(element); // only files are evicted
+        }
+    }
+
+    private static boolean isMirrored(IElement element)
+    {
+        return element instanceof IFooModel || element instanceof IFooProject
+            || element instanceof IFooFile;
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * Estimates the retained heap size of Foo element bodies.
+ * <p>
+ * The estimates assume a 64-bit VM with compressed references. They are
+ * not meant to be exact; they only need to be proportional to the actual
+ * heap usage so that caches can be bounded by memory rather than by count.
+ * </p>
+ */
+final class FooBodyWeigher
+{
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+
+    private static final long CACHE_ENTRY = align(OBJECT_HEADER + 3
+        * REFERENCE + 4) + REFERENCE; // hash map node plus table slot
+    private static final long HANDLE = align(OBJECT_HEADER + 3 * REFERENCE
+        + 8);
+    private static final long BODY = align(OBJECT_HEADER + 5 * REFERENCE);
+    private static final long TEXT_RANGE = align(OBJECT_HEADER + 8);
+    private static final long PROPERTY_MAP = 48 + ARRAY_HEADER + 16
+        * REFERENCE;
+    private static final long PROPERTY_ENTRY = CACHE_ENTRY;
+
+    /**
+     * Returns the estimated number of bytes retained by the given element
+     * and its body in a body cache. The weight does not include the bodies
+     * of the element's children.
+     *
+     * @param element the element (not <code>null</code>)
+     * @param body the element's body (not <code>null</code>)
+     * @return the estimated weight in bytes
+     */
+    static long weigh(IElement element, Object body)
+    {
+        long weight = CACHE_ENTRY + HANDLE + weigh(Elements.getName(
+            element));
+        if (body instanceof Body)
+        {
+            weight += BODY;
+            IElement[] children = ((Body)body).getChildren();
+            weight += weighArray(children.length);
+        }
+        if (body instanceof SourceElementBody)
+        {
+            SourceElementBody sourceBody = (SourceElementBody)body;
+            weight += weigh(sourceBody.getFullRange());
+            weight += weigh(sourceBody.getIdentifyingRange());
+            String[] parameterNames = sourceBody.get(IFooDef.PARAMETER_NAMES);
+            if (parameterNames != null)
+            {
+                weight += PROPERTY_MAP + PROPERTY_ENTRY;
+                weight += weighArray(parameterNames.length);
+                for (String parameterName : parameterNames)
+                    weight += weigh(parameterName);
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by the given element
+     * and its body when the body is kept in a {@link CompactStructureTable}.
+     *
+     * @param element the element (not <code>null</code>)
+     * @param body the element's body (not <code>null</code>)
+     * @return the estimated weight in bytes
+     */
+    static long weighCompact(IElement element, Object body)
+    {
+        // handle reference, four range ints, two parameter ints, and two
+        // index slots (the index is kept at most half full); the few bodies
+        // a table remembers are not counted
+        long weight = HANDLE + weigh(Elements.getName(element)) + REFERENCE
+            + 4 * 4 + 2 * 4 + 2 * 4;
+        if (body instanceof SourceElementBody)
+        {
+            String[] parameterNames = ((SourceElementBody)body).get(
+                IFooDef.PARAMETER_NAMES);
+            if (parameterNames != null)
+            {
+                weight += (long)REFERENCE * parameterNames.length;
+                for (String parameterName : parameterNames)
+                    weight += weigh(parameterName);
+            }
+        }
+        return weight;
+    }
+
+    private static long weigh(TextRange range)
+    {
+        return range == null ? 0 : TEXT_RANGE;
+    }
+
+    private static long weigh(String s)
+    {
+        if (s == null)
+            return 0;
+        return align(OBJECT_HEADER + REFERENCE + 4) + align(ARRAY_HEADER + 2
+            * s.length());
+    }
+
+    private static long weighArray(int length)
+    {
+        return align(ARRAY_HEADER + (long)REFERENCE * length);
+    }
+
+    private static long align(long size)
+    {
+        return (size + 7) & ~7L;
+    }
+
+    private FooBodyWeigher()
+    {
+    }
+}
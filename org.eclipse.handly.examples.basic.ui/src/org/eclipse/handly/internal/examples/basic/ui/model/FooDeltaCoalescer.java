@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.ElementDelta;
+
+/**
+ * Merges Foo element deltas over a quiet window before they are fired.
+ * <p>
+ * Deltas are queued as they arrive. The queued deltas are merged into one
+ * delta and passed to the sink when no delta has arrived for the duration
+ * of the quiet window, or as soon as the number of queued deltas reaches
+ * the batch size. Merging follows the usual delta semantics: an element
+ * that is added and then removed does not appear in the merged delta, an
+ * element that is removed and then added is reported as changed, and moves
+ * are preserved. If the content of an element is reported as changed both
+ * with and without fine-grained child deltas, the merged delta reports
+ * a content change that is not fine-grained.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooDeltaCoalescer
+{
+    private final long quietMillis;
+    private final int batchSize;
+    private final Consumer<IElementDelta> sink;
+    private final FooModelMetrics metrics;
+    private final LongSupplier clock;
+    private final LongConsumer timer;
+    private final Object flushLock = new Object();
+    private final Job flushJob;
+    private List<IElementDelta> queue = new ArrayList<>(); // guarded by this
+    private long lastArrival; // guarded by this
+
+    /**
+     * Constructs a new delta coalescer.
+     *
+     * @param quietMillis the quiet window in milliseconds (positive)
+     * @param batchSize the maximum number of deltas to merge (positive)
+     * @param sink the consumer of merged deltas (not <code>null</code>)
+     * @param metrics the metrics to record merges to (not <code>null</code>)
+     */
+    FooDeltaCoalescer(long quietMillis, int batchSize,
+        Consumer<IElementDelta> sink, FooModelMetrics metrics)
+    {
+        this(quietMillis, batchSize, sink, metrics, System::currentTimeMillis,
+            null);
+    }
+
+    /**
+     * Constructs a new delta coalescer with the given time source and
+     * timer. Intended for tests, which may pass a manual clock and timer
+     * and call {@link #flushIfQuiet()} themselves.
+     *
+     * @param quietMillis the quiet window in milliseconds (positive)
+     * @param batchSize the maximum number of deltas to merge (positive)
+     * @param sink the consumer of merged deltas (not <code>null</code>)
+     * @param metrics the metrics to record merges to (not <code>null</code>)
+     * @param clock returns the current time in milliseconds
+     *  (not <code>null</code>)
+     * @param timer arranges for {@link #flushIfQuiet()} to be called after
+     *  the given number of milliseconds, or <code>null</code> to use
+     *  a background job
+     */
+    FooDeltaCoalescer(long quietMillis, int batchSize,
+        Consumer<IElementDelta> sink, FooModelMetrics metrics,
+        LongSupplier clock, LongConsumer timer)
+    {
+        if (quietMillis <= 0 || batchSize <= 0)
+            throw new IllegalArgumentException();
+        if (sink == null || metrics == null || clock == null)
+            throw new IllegalArgumentException();
+        this.quietMillis = quietMillis;
+        this.batchSize = batchSize;
+        this.sink = sink;
+        this.metrics = metrics;
+        this.clock = clock;
+        flushJob = new Job("Foo Model delta delivery") //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                flushIfQuiet();
+                return Status.OK_STATUS;
+            }
+        };
+        flushJob.setSystem(true);
+        this.timer = timer != null ? timer : flushJob::schedule;
+    }
+
+    /**
+     * Queues the given delta for delivery. If the queue has reached
+     * the batch size, the queued deltas are delivered in the calling thread.
+     *
+     * @param delta a Foo element delta (not <code>null</code>)
+     */
+    void add(IElementDelta delta)
+    {
+        boolean full;
+        synchronized (this)
+        {
+            queue.add(delta);
+            lastArrival = clock.getAsLong();
+            full = queue.size() >= batchSize;
+        }
+        if (full)
+            flush();
+        else
+            timer.accept(quietMillis);
+    }
+
+    /**
+     * Delivers the queued deltas if no delta has arrived for the duration
+     * of the quiet window, and otherwise arranges for this method to be
+     * called again when the quiet window will have passed.
+     */
+    void flushIfQuiet()
+    {
+        long remaining = getRemainingQuietMillis();
+        if (remaining > 0)
+            timer.accept(remaining); // a delta has arrived meanwhile
+        else
+            flush();
+    }
+
+    /**
+     * Merges the queued deltas and passes the result to the sink,
+     * unless it is empty.
+     */
+    void flush()
+    {
+        synchronized (flushLock) // preserves the order of delivery
+        {
+            List<IElementDelta> deltas;
+            synchronized (this)
+            {
+                if (queue.isEmpty())
+                    return;
+                deltas = queue;
+                queue = new ArrayList<>();
+            }
+            IElementDelta delta = merge(deltas);
+            boolean fired = !ElementDeltas.isEmpty(delta);
+            metrics.deltasDelivered(deltas.size(), fired);
+            if (fired)
+                sink.accept(delta);
+        }
+    }
+
+    /**
+     * Delivers the queued deltas and stops delayed delivery.
+     */
+    void dispose()
+    {
+        flushJob.cancel();
+        flush();
+    }
+
+    private synchronized long getRemainingQuietMillis()
+    {
+        if (queue.isEmpty())
+            return 0;
+        return lastArrival + quietMillis - clock.getAsLong();
+    }
+
+    /**
+     * Merges the given Foo element deltas, which are rooted at the same
+     * element, in order. If the root element itself has been added or
+     * removed, the merged delta is the last delta that reports so.
+     *
+     * @param deltas the deltas to merge (not <code>null</code>, not empty)
+     * @return the merged delta (never <code>null</code>)
+     */
+    static IElementDelta merge(List<IElementDelta> deltas)
+    {
+        for (int i = deltas.size() - 1; i >= 0; i--)
+        {
+            IElementDelta delta = deltas.get(i);
+            int kind = ElementDeltas.getKind(delta);
+            if (kind == IElementDeltaConstants.ADDED
+                || kind == IElementDeltaConstants.REMOVED)
+                return delta;
+        }
+        Set<IElement> coarseChanges = new HashSet<>();
+        for (IElementDelta delta : deltas)
+            collectCoarseChanges(delta, coarseChanges);
+        ElementDelta.Builder builder = new ElementDelta.Builder(
+            new ElementDelta(ElementDeltas.getElement(deltas.get(0))));
+        for (IElementDelta delta : deltas)
+            insert(builder, delta, coarseChanges);
+        return builder.getDelta();
+    }
+
+    private static void collectCoarseChanges(IElementDelta delta,
+        Set<IElement> result)
+    {
+        long flags = ElementDeltas.getFlags(delta);
+        if ((flags & IElementDeltaConstants.F_CONTENT) != 0
+            && (flags & IElementDeltaConstants.F_FINE_GRAINED) == 0)
+            result.add(ElementDeltas.getElement(delta));
+        for (IElementDelta child : ElementDeltas.getAffectedChildren(delta))
+            collectCoarseChanges(child, result);
+    }
+
+    private static void insert(ElementDelta.Builder builder,
+        IElementDelta delta, Set<IElement> coarseChanges)
+    {
+        IElement element = ElementDeltas.getElement(delta);
+        long flags = ElementDeltas.getFlags(delta)
+            & ~IElementDeltaConstants.F_CHILDREN;
+        switch (ElementDeltas.getKind(delta))
+        {
+        case IElementDeltaConstants.ADDED:
+            IElement movedFromElement = ElementDeltas.getMovedFromElement(
+                delta);
+            if (movedFromElement != null)
+                builder.movedTo(element, movedFromElement);
+            else
+                builder.added(element, flags);
+            return;
+
+        case IElementDeltaConstants.REMOVED:
+            IElement movedToElement = ElementDeltas.getMovedToElement(delta);
+            if (movedToElement != null)
+                builder.movedFrom(element, movedToElement);
+            else
+                builder.removed(element, flags);
+            return;
+
+        case IElementDeltaConstants.CHANGED:
+            boolean coarse = coarseChanges.contains(element);
+            if (coarse)
+                flags &= ~IElementDeltaConstants.F_FINE_GRAINED;
+            if (flags != 0)
+                builder.changed(element, flags);
+            if (coarse && (flags & IElementDeltaConstants.F_CONTENT) != 0)
+                return; // the child deltas would be incomplete
+            for (IElementDelta child : ElementDeltas.getAffectedChildren(
+                delta))
+                insert(builder, child, coarseChanges);
+            return;
+
+        default:
+            return;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,9 +12,9 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -41,13 +41,28 @@ import org.eclipse.handly.model.impl.support.ElementDelta;
  * This class is used by the <code>FooModelManager</code> to process 
  * resource deltas, convert them into Foo element deltas,
  * and update the Foo Model accordingly.
+ * <p>
+ * Subtrees that cannot contain Foo elements are not visited: the children
+ * of projects that are not Foo projects and of folders, since Foo files
+ * are only contained directly in Foo projects. Files that are not Foo
+ * files are skipped by their extension.
+ * </p>
+ * <p>
+ * Open Foo files whose contents have changed are not re-parsed during
+ * resource change notification. They are reported as changed with
+ * <code>F_CONTENT</code> and closed, and their structure is recorded,
+ * so that the deltas for their children can be built later by the
+ * recorded {@link #getDifferencers() differencers}.
+ * </p>
  */
 class FooDeltaProcessor
     implements IResourceDeltaVisitor
 {
     private ElementDelta.Builder builder = new ElementDelta.Builder(
         new ElementDelta(FooModelCore.getFooModel()));
-    private Set<String> oldFooProjectNames = new HashSet<String>();
+    private FooProjectRegistry projectRegistry =
+        FooModelManager.INSTANCE.getProjectRegistry();
+    private List<FooFileDifferencer> differencers = new ArrayList<>();
 
     /**
      * Returns the Foo element delta built from the resource delta. 
@@ -61,6 +76,21 @@ class FooDeltaProcessor
         return builder.getDelta();
     }
 
+    /**
+     * Returns the differencers for the open Foo files whose contents
+     * have changed. {@link #getDelta()} reports these files as changed
+     * with <code>F_CONTENT</code> only; the deltas for their children
+     * are to be built with {@link
+     * FooFileDifferencer#buildDelta(ElementDelta.Builder)} once the files
+     * have been opened again.
+     *
+     * @return the differencers (never <code>null</code>)
+     */
+    List<FooFileDifferencer> getDifferencers()
+    {
+        return differencers;
+    }
+
     @Override
     public boolean visit(IResourceDelta delta) throws CoreException
     {
@@ -72,6 +102,9 @@ class FooDeltaProcessor
         case IResource.PROJECT:
             return processProject(delta);
 
+        case IResource.FOLDER:
+            return false; // Foo files are only contained directly in projects
+
         case IResource.FILE:
             return processFile(delta);
 
@@ -82,12 +115,17 @@ class FooDeltaProcessor
 
     private boolean processRoot(IResourceDelta delta) throws CoreException
     {
-        initOldFooProjectNames();
         return true;
     }
 
     private boolean processProject(IResourceDelta delta) throws CoreException
     {
+        if (delta.getKind() != IResourceDelta.CHANGED || (delta.getFlags()
+            & (IResourceDelta.OPEN | IResourceDelta.DESCRIPTION)) != 0)
+        {
+            projectRegistry.invalidate((IProject)delta.getResource());
+        }
+
         switch (delta.getKind())
         {
         case IResourceDelta.ADDED:
@@ -108,7 +146,7 @@ class FooDeltaProcessor
         throws CoreException
     {
         IProject project = (IProject)delta.getResource();
-        if (project.hasNature(IFooProject.NATURE_ID))
+        if (projectRegistry.hasFooNature(project))
         {
             IFooProject fooProject = FooModelCore.create(project);
             addToModel(fooProject);
@@ -140,7 +178,7 @@ class FooDeltaProcessor
         {
             if (project.isOpen())
             {
-                if (project.hasNature(IFooProject.NATURE_ID))
+                if (projectRegistry.hasFooNature(project))
                 {
                     addToModel(fooProject);
                     builder.added(fooProject, IElementDeltaConstants.F_OPEN);
@@ -157,7 +195,7 @@ class FooDeltaProcessor
             return false;
         }
 
-        boolean isFooProject = project.hasNature(IFooProject.NATURE_ID);
+        boolean isFooProject = projectRegistry.hasFooNature(project);
         if ((delta.getFlags() & IResourceDelta.DESCRIPTION) != 0)
         {
             boolean wasFooProject = wasFooProject(project);
@@ -191,8 +229,8 @@ class FooDeltaProcessor
         if (isFooProject)
         {
             Body parentBody = findBody(fooProject.getParent());
-            IElement[] children = parentBody.getChildren();
-            if (!Arrays.asList(children).contains(fooProject))
+            if (parentBody != null && !Arrays.asList(
+                parentBody.getChildren()).contains(fooProject))
                 addToModel(fooProject); // in case the project was removed then added then changed
 
             return true;
@@ -205,6 +243,9 @@ class FooDeltaProcessor
 
     private boolean processFile(IResourceDelta delta)
     {
+        if (!IFooFile.EXT.equals(delta.getFullPath().getFileExtension()))
+            return false;
+
         switch (delta.getKind())
         {
         case IResourceDelta.ADDED:
@@ -241,6 +282,11 @@ class FooDeltaProcessor
         {
             removeFromModel(fooFile);
             translateRemovedDelta(delta, fooFile);
+            FooStructureStore store =
+                FooModelManager.INSTANCE.getStructureStore();
+            if (store != null)
+                store.remove((FooFile)fooFile);
+            FooModelManager.INSTANCE.discardDifferencer(fooFile);
         }
         return false;
     }
@@ -260,18 +306,9 @@ class FooDeltaProcessor
         return false;
     }
 
-    private void initOldFooProjectNames() throws CoreException
-    {
-        IFooProject[] fooProjects = FooModelCore.getFooModel().getFooProjects();
-        for (IFooProject fooProject : fooProjects)
-        {
-            oldFooProjectNames.add(fooProject.getName());
-        }
-    }
-
     private boolean wasFooProject(IProject project)
     {
-        return oldFooProjectNames.contains(project.getName());
+        return projectRegistry.isFooProject(project.getName());
     }
 
     private void addToModel(IElement element)
@@ -280,6 +317,9 @@ class FooDeltaProcessor
         if (parentBody != null)
             parentBody.addChild(element);
         close(element);
+        if (element instanceof IFooProject)
+            projectRegistry.fooProjectAdded(
+                ((IFooProject)element).getProject());
     }
 
     private void removeFromModel(IElement element)
@@ -288,6 +328,9 @@ class FooDeltaProcessor
         if (parentBody != null)
             parentBody.removeChild(element);
         close(element);
+        if (element instanceof IFooProject)
+            projectRegistry.fooProjectRemoved(
+                ((IFooProject)element).getProject());
     }
 
     private void translateAddedDelta(IResourceDelta delta, IFooElement element)
@@ -327,6 +370,8 @@ class FooDeltaProcessor
 
     private void contentChanged(IFooFile fooFile)
     {
+        FooModelManager.INSTANCE.fileEdited(fooFile);
+
         if (fooFile.isWorkingCopy())
         {
             builder.changed(fooFile, IElementDeltaConstants.F_CONTENT
@@ -334,8 +379,13 @@ class FooDeltaProcessor
             return;
         }
 
+        // the changes in the children of an open file are reported
+        // when the file is opened again
+        FooFileDifferencer differencer = FooFileDifferencer.record(fooFile);
         close(fooFile);
         builder.changed(fooFile, IElementDeltaConstants.F_CONTENT);
+        if (differencer != null)
+            differencers.add(differencer);
     }
 
     private static Body findBody(IElement element)
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.ElementChangeEvent;
+
+/**
+ * Routes element change events to filtered subscriptions.
+ * <p>
+ * A subscription specifies a scope element, delta kinds and delta flags.
+ * For each delta of an event, the subscriber receives an event with
+ * the delta for its scope element, provided that the scope has changed
+ * and the delta tree contains a delta that matches the kinds and flags.
+ * If the delta is rooted below the scope element, as is the case for
+ * reconcile events, the subscriber receives the delta as it is.
+ * </p>
+ * <p>
+ * Subscriptions are indexed by their scope element, so the cost of
+ * routing an event is proportional to the size of its delta and
+ * the number of matching subscriptions rather than the number of all
+ * subscriptions. The kinds and flags of the deltas in a subtree are
+ * summarized once per event, however many subscriptions test them.
+ * </p>
+ * <p>
+ * When the listeners are notified asynchronously, the routed events
+ * remain subject to the capacity of the listener queues: the deltas
+ * rooted at the same scope element are mergeable, see {@link
+ * AsyncElementChangeDispatcher.OverflowPolicy#MERGE}.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooElementChangeRouter
+    implements IElementChangeListener
+{
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private volatile Map<IElement, Subscription[]> subscriptions =
+        Collections.emptyMap(); // copy on write, guarded by this
+
+    /**
+     * Adds a subscription for the given listener.
+     *
+     * @param listener the subscribed listener (not <code>null</code>)
+     * @param target the listener to notify, which may be the subscribed
+     *  listener itself or a listener that delegates to it
+     *  (not <code>null</code>)
+     * @param scope the scope element (not <code>null</code>)
+     * @param kinds a bit mask of delta kinds
+     * @param flags a bit mask of delta flags, or 0 for any flags
+     */
+    synchronized void subscribe(IElementChangeListener listener,
+        IElementChangeListener target, IElement scope, int kinds, long flags)
+    {
+        if (listener == null || target == null || scope == null)
+            throw new IllegalArgumentException();
+        Map<IElement, Subscription[]> map = new HashMap<>(subscriptions);
+        Subscription[] subs = map.getOrDefault(scope, NO_SUBSCRIPTIONS);
+        subs = Arrays.copyOf(subs, subs.length + 1);
+        subs[subs.length - 1] = new Subscription(listener, target, kinds,
+            flags);
+        map.put(scope, subs);
+        subscriptions = map;
+    }
+
+    /**
+     * Removes all subscriptions for the given listener.
+     *
+     * @param listener the subscribed listener (not <code>null</code>)
+     */
+    synchronized void unsubscribe(IElementChangeListener listener)
+    {
+        Map<IElement, Subscription[]> map = new HashMap<>(
+            subscriptions.size() * 2);
+        boolean changed = false;
+        for (Map.Entry<IElement, Subscription[]> entry : subscriptions
+            .entrySet())
+        {
+            Subscription[] subs = entry.getValue();
+            Subscription[] rest = Arrays.stream(subs).filter(
+                s -> s.listener != listener).toArray(Subscription[]::new);
+            if (rest.length != subs.length)
+                changed = true;
+            if (rest.length > 0)
+                map.put(entry.getKey(), rest);
+        }
+        if (changed)
+            subscriptions = map;
+    }
+
+    @Override
+    public void elementChanged(IElementChangeEvent event)
+    {
+        Map<IElement, Subscription[]> subscriptions = this.subscriptions;
+        if (subscriptions.isEmpty())
+            return;
+        Map<IElementDelta, Summary> summaries = new IdentityHashMap<>();
+        for (IElementDelta delta : event.getDeltas())
+        {
+            IElement parent = Elements.getParent(ElementDeltas.getElement(
+                delta));
+            for (; parent != null; parent = Elements.getParent(parent))
+                notify(subscriptions.get(parent), event.getType(), delta,
+                    summaries);
+            route(subscriptions, event.getType(), delta, summaries);
+        }
+    }
+
+    private static void route(Map<IElement, Subscription[]> subscriptions,
+        int type, IElementDelta delta, Map<IElementDelta, Summary> summaries)
+    {
+        notify(subscriptions.get(ElementDeltas.getElement(delta)), type,
+            delta, summaries);
+        for (IElementDelta child : ElementDeltas.getAffectedChildren(delta))
+            route(subscriptions, type, child, summaries);
+    }
+
+    private static void notify(Subscription[] subs, int type,
+        IElementDelta delta, Map<IElementDelta, Summary> summaries)
+    {
+        if (subs == null)
+            return;
+        Summary summary = summarize(delta, summaries);
+        IElementChangeEvent event = null;
+        for (Subscription sub : subs)
+        {
+            if (!summary.matches(sub.kinds, sub.flags))
+                continue;
+            if (event == null)
+                event = new ElementChangeEvent(type, delta);
+            IElementChangeEvent e = event;
+            SafeRunner.run(new ISafeRunnable()
+            {
+                @Override
+                public void run() throws Exception
+                {
+                    sub.target.elementChanged(e);
+                }
+
+                @Override
+                public void handleException(Throwable exception)
+                {
+                    // already logged by the safe runner
+                }
+            });
+        }
+    }
+
+    /*
+     * Returns the summary of the given delta subtree. The summaries
+     * of all deltas in the subtree are memoized in the given map.
+     */
+    private static Summary summarize(IElementDelta delta,
+        Map<IElementDelta, Summary> summaries)
+    {
+        Summary summary = summaries.get(delta);
+        if (summary == null)
+        {
+            summary = new Summary();
+            summary.add(ElementDeltas.getKind(delta), ElementDeltas.getFlags(
+                delta));
+            for (IElementDelta child : ElementDeltas.getAffectedChildren(
+                delta))
+                summary.addAll(summarize(child, summaries));
+            summaries.put(delta, summary);
+        }
+        return summary;
+    }
+
+    private static class Subscription
+    {
+        final IElementChangeListener listener;
+        final IElementChangeListener target;
+        final int kinds;
+        final long flags;
+
+        Subscription(IElementChangeListener listener,
+            IElementChangeListener target, int kinds, long flags)
+        {
+            this.listener = listener;
+            this.target = target;
+            this.kinds = kinds;
+            this.flags = flags;
+        }
+    }
+
+    /*
+     * The kinds of the deltas in a subtree, and the union of the flags
+     * of the deltas of each kind.
+     */
+    private static class Summary
+    {
+        private static final int[] KINDS = { IElementDeltaConstants.ADDED,
+            IElementDeltaConstants.REMOVED, IElementDeltaConstants.CHANGED };
+
+        private int kinds;
+        private final long[] flags = new long[KINDS.length];
+
+        void add(int kind, long flags)
+        {
+            for (int i = 0; i < KINDS.length; i++)
+            {
+                if (kind == KINDS[i])
+                {
+                    this.kinds |= kind;
+                    this.flags[i] |= flags;
+                }
+            }
+        }
+
+        void addAll(Summary other)
+        {
+            kinds |= other.kinds;
+            for (int i = 0; i < KINDS.length; i++)
+                flags[i] |= other.flags[i];
+        }
+
+        /*
+         * Returns whether the subtree contains a delta of one of the given
+         * kinds that has one of the given flags, or any flags if 0.
+         */
+        boolean matches(int kinds, long flags)
+        {
+            for (int i = 0; i < KINDS.length; i++)
+            {
+                if ((kinds & this.kinds & KINDS[i]) != 0 && (flags == 0
+                    || (this.flags[i] & flags) != 0))
+                    return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,8 +12,17 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.Map;
 
@@ -26,16 +35,21 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.handly.context.IContext;
 import org.eclipse.handly.examples.basic.foo.Module;
 import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooVar;
 import org.eclipse.handly.internal.examples.basic.ui.Activator;
 import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.Element;
 import org.eclipse.handly.model.impl.support.SourceElementBody;
 import org.eclipse.handly.model.impl.support.WorkspaceSourceFile;
+import org.eclipse.handly.util.Property;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.ui.resource.IResourceSetProvider;
+import org.eclipse.xtext.util.LazyStringInputStream;
 
 /**
  * Represents a Foo source file.
@@ -44,6 +58,31 @@ public class FooFile
     extends WorkspaceSourceFile
     implements IFooFile, IFooElementInternal
 {
+    /**
+     * Modification stamp of the underlying file at the time
+     * the structure was built. Set on the Foo file body.
+     */
+    static final Property<Long> MODIFICATION_STAMP = Property.get(
+        "modificationStamp", Long.class); //$NON-NLS-1$
+
+    /**
+     * Digest of the source contents the structure was built from
+     * (see {@link #digest(String)}). Set on the Foo file body unless
+     * the structure was built from an AST or by reconciling a working copy.
+     */
+    static final Property<byte[]> CONTENTS_DIGEST = Property.get(
+        "contentsDigest", byte[].class); //$NON-NLS-1$
+
+    /**
+     * Source text the structure was built from. Set on the body of a working
+     * copy if the text has no syntax errors, so that the structure can be
+     * updated incrementally when the working copy is reconciled.
+     */
+    static final Property<String> SOURCE_TEXT = Property.get(
+        "sourceText", String.class); //$NON-NLS-1$
+
+    private static final int DIGEST_BUFFER_SIZE = 8192;
+
     /**
      * Constructs a handle for a Foo file with the given parent element 
      * and the given underlying workspace file.
@@ -86,28 +125,289 @@ public class FooFile
         return getChildren(IFooDef.class);
     }
 
+    @Override
+    public int getChildCount() throws CoreException
+    {
+        return getChildren().length;
+    }
+
+    @Override
+    public IFooElement getChildAt(int index) throws CoreException
+    {
+        return (IFooElement)getChildren()[index];
+    }
+
+    /**
+     * Returns whether this Foo file may have children, avoiding opening
+     * the file. The answer is taken from the cached body of the file if any,
+     * or else from the persisted structure of the file if it is up to date;
+     * otherwise, it is optimistically assumed that the file has children.
+     *
+     * @return <code>false</code> if this file is known to have no children,
+     *  and <code>true</code> otherwise
+     */
+    public boolean mayHaveChildren()
+    {
+        return getChildCountHint() != 0;
+    }
+
+    /**
+     * Returns the number of children of this Foo file if it is known without
+     * opening the file, i.e. from the cached body of the file if any, or else
+     * from the persisted structure of the file if it is up to date.
+     *
+     * @return the number of children, or -1 if it is not known
+     */
+    public int getChildCountHint()
+    {
+        Object body = peekAtBody_();
+        if (body instanceof Body)
+            return ((Body)body).getChildren().length;
+        FooStructureStore store = FooModelManager.INSTANCE.getStructureStore();
+        if (store != null)
+            return store.getChildCount(this, getFile().getModificationStamp());
+        return -1;
+    }
+
+    @Override
+    public Object findBody_()
+    {
+        // avoid the element manager's lock if possible
+        Object body = FooModelManager.INSTANCE.findBodyConcurrently(this);
+        return body != null ? body : super.findBody_();
+    }
+
+    @Override
+    public Object open_(IContext context, IProgressMonitor monitor)
+        throws CoreException
+    {
+        // reconciling a working copy opens it, too
+        Object body = super.open_(context, monitor);
+        FooModelManager.INSTANCE.fileOpened(this);
+        return body;
+    }
+
     @Override
 	public void buildSourceStructure_(IContext context,
 	    IProgressMonitor monitor) throws CoreException
     {
+        long start = System.nanoTime();
         Map<IElement, Object> newElements = context.get(NEW_ELEMENTS);
-        SourceElementBody body = new SourceElementBody();
+        String contents = context.get(SOURCE_CONTENTS);
+        long stamp = getFile().getModificationStamp();
 
         XtextResource resource = (XtextResource)context.get(SOURCE_AST);
-        if (resource == null)
+        FooStructureStore store = null;
+        byte[] contentsDigest = null;
+        // a reconciled working copy has just been built from other contents;
+        // do not digest on every keystroke
+        if (resource == null && !(isWorkingCopy() && peekAtBody_() != null))
         {
-            try
+            contentsDigest = digest(contents);
+            if (FooModelManager.INSTANCE.getModelCache().restoreStructure(this,
+                stamp, contentsDigest, newElements))
             {
-                resource = parse(context.get(SOURCE_CONTENTS),
-                    getFile().getCharset());
+                // the structure was evicted, but has not been reclaimed
+                recordRestore(start, newElements, false);
+                return;
             }
-            catch (IOException e)
+
+            store = FooModelManager.INSTANCE.getStructureStore();
+            if (store != null && store.restore(this, stamp, contentsDigest,
+                newElements))
             {
-                throw new CoreException(Activator.createErrorStatus(
-                    e.getMessage(), e));
+                // the structure was saved in a previous session
+                recordRestore(start, newElements, true);
+                return;
             }
         }
 
+        SourceElementBody body = new SourceElementBody();
+        body.set(MODIFICATION_STAMP, stamp);
+        if (contentsDigest != null)
+            body.set(CONTENTS_DIGEST, contentsDigest);
+
+        // use the AST or parse only if the text cannot be scanned
+        // without errors
+        if (updateStructure(contents, body, newElements) || scanStructure(
+            contents, body, newElements))
+        {
+            if (isWorkingCopy())
+                body.set(SOURCE_TEXT, contents); // for incremental updates
+        }
+        else if (resource != null)
+            buildStructure(resource, body, newElements);
+        else
+            parseStructure(contents, body, newElements);
+
+        newElements.put(this, body);
+
+        if (store != null)
+            store.put(this, stamp, contentsDigest, body, newElements);
+
+        if (context.get(SOURCE_AST) == null)
+            FooModelManager.INSTANCE.getMetrics().fileParsed(System.nanoTime()
+                - start, body.getChildren().length);
+    }
+
+    /**
+     * Builds the structure of this file from the contents of the underlying
+     * file and returns the children of this file according to the structure.
+     * Unlike opening this file, this method neither puts the structure
+     * into the Foo Model cache nor records any metrics.
+     *
+     * @param newElements a map that receives the bodies of the children
+     *  (not <code>null</code>)
+     * @return the children of this file (never <code>null</code>)
+     * @throws CoreException if the underlying file could not be read
+     *  or parsed
+     */
+    IElement[] scanChildren(Map<IElement, Object> newElements)
+        throws CoreException
+    {
+        String contents = readContents();
+        SourceElementBody body = new SourceElementBody();
+        if (!new FooFileScanner(contents).buildStructure(this, body,
+            new FooFileStructureBuilder(newElements)))
+            parseStructure(contents, body, newElements);
+        return body.getChildren();
+    }
+
+    /**
+     * Returns the SHA-256 digest of the given source contents. A structure
+     * is reused only if the digest of the current contents is equal to
+     * the digest of the contents it was built from, which matters for
+     * working copies, whose modification stamp does not change on edit.
+     * The contents are digested in their UTF-8 encoding, which is encoded
+     * through a small buffer rather than copied into a byte array.
+     *
+     * @param contents the source contents (not <code>null</code>)
+     * @return the digest of the contents (never <code>null</code>)
+     */
+    static byte[] digest(String contents)
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new AssertionError(e); // required on every Java platform
+        }
+        // replace malformed input as String.getBytes does
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer in = CharBuffer.wrap(contents);
+        ByteBuffer out = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+        CoderResult result;
+        do
+        {
+            result = encoder.encode(in, out, true);
+            out.flip();
+            digest.update(out);
+            out.clear();
+        }
+        while (result.isOverflow());
+        do
+        {
+            result = encoder.flush(out);
+            out.flip();
+            digest.update(out);
+            out.clear();
+        }
+        while (result.isOverflow());
+        return digest.digest();
+    }
+
+    @Override
+    public void close_(IContext context)
+    {
+        if (context.get(CLOSE_HINT) != CloseHint.CACHE_OVERFLOW)
+        {
+            super.close_(context);
+            return;
+        }
+        boolean wasOpen = peekAtBody_() != null;
+        super.close_(context);
+        if (wasOpen && peekAtBody_() == null)
+            FooModelManager.INSTANCE.getMetrics().fileEvicted();
+    }
+
+    private String readContents() throws CoreException
+    {
+        IFile file = getFile();
+        StringBuilder contents = new StringBuilder();
+        try (Reader reader = new InputStreamReader(file.getContents(true),
+            file.getCharset()))
+        {
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) >= 0)
+                contents.append(buffer, 0, count);
+        }
+        catch (IOException e)
+        {
+            throw new CoreException(Activator.createErrorStatus(
+                e.getMessage(), e));
+        }
+        return contents.toString();
+    }
+
+    private boolean updateStructure(String contents, SourceElementBody body,
+        Map<IElement, Object> newElements)
+    {
+        if (!isWorkingCopy()
+            || !FooModelManager.INSTANCE.isFastScannerEnabled())
+            return false;
+        Object oldBody = peekAtBody_();
+        if (!(oldBody instanceof SourceElementBody))
+            return false;
+        String oldContents = ((SourceElementBody)oldBody).get(SOURCE_TEXT);
+        if (oldContents == null)
+            return false;
+        return new FooFileStructureUpdater(newElements).update(this, body,
+            contents, (SourceElementBody)oldBody, oldContents,
+            child -> ((Element)child).peekAtBody_());
+    }
+
+    private boolean scanStructure(String contents, SourceElementBody body,
+        Map<IElement, Object> newElements)
+    {
+        if (!FooModelManager.INSTANCE.isFastScannerEnabled())
+            return false;
+        return new FooFileScanner(contents).buildStructure(this, body,
+            new FooFileStructureBuilder(newElements));
+    }
+
+    private void parseStructure(String contents, SourceElementBody body,
+        Map<IElement, Object> newElements) throws CoreException
+    {
+        XtextResource resource;
+        try
+        {
+            resource = parse(contents, getFile().getCharset());
+        }
+        catch (IOException e)
+        {
+            throw new CoreException(Activator.createErrorStatus(
+                e.getMessage(), e));
+        }
+        try
+        {
+            buildStructure(resource, body, newElements);
+        }
+        finally
+        {
+            // the structure does not refer to the AST; let it go
+            release(resource);
+        }
+    }
+
+    private void buildStructure(XtextResource resource,
+        SourceElementBody body, Map<IElement, Object> newElements)
+    {
         IParseResult parseResult = resource.getParseResult();
         if (parseResult != null)
         {
@@ -119,16 +419,24 @@ public class FooFile
                 builder.buildStructure(this, body, (Module)root);
             }
         }
+    }
 
-        newElements.put(this, body);
+    private void recordRestore(long start, Map<IElement, Object> newElements,
+        boolean fromStore)
+    {
+        Body body = (Body)newElements.get(this);
+        FooModelManager.INSTANCE.getMetrics().fileRestored(System.nanoTime()
+            - start, body.getChildren().length, fromStore);
     }
 
     /**
      * Returns a new <code>XtextResource</code> loaded from the given
-     * contents. The resource is created in a new <code>ResourceSet</code>
-     * obtained from the <code>IResourceSetProvider</code> corresponding
-     * to this file. The resource's encoding is set to the given value.
-     * This is a handle-only method.
+     * contents. The resource is created in an empty <code>ResourceSet</code>
+     * obtained from a pool of resource sets configured by the
+     * <code>IResourceSetProvider</code> corresponding to this file.
+     * The resource's encoding is set to the given value. The resource
+     * should be {@link #release(XtextResource) released} when it is
+     * no longer needed. This is a handle-only method.
      *
      * @param contents the contents to parse (not <code>null</code>)
      * @param encoding the encoding to be set for the created
@@ -142,15 +450,43 @@ public class FooFile
     {
         IResourceSetProvider resourceSetProvider =
             getResourceServiceProvider().get(IResourceSetProvider.class);
-        ResourceSet resourceSet = resourceSetProvider.get(
-            getFile().getProject());
+        ResourceSet resourceSet =
+            FooModelManager.INSTANCE.getResourceSetPool().acquire(
+                getFile().getProject(), resourceSetProvider);
         XtextResource resource = (XtextResource)resourceSet.createResource(
             getResourceUri());
-        resource.load(new ByteArrayInputStream(contents.getBytes(encoding)),
-            Collections.singletonMap(XtextResource.OPTION_ENCODING, encoding));
+        try
+        {
+            // the parser reads the string directly, without encoding it first
+            resource.load(new LazyStringInputStream(contents, encoding),
+                Collections.singletonMap(XtextResource.OPTION_ENCODING,
+                    encoding));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            release(resource);
+            throw e;
+        }
         return resource;
     }
 
+    /**
+     * Unloads the given resource returned by {@link #parse(String, String)}
+     * and returns its resource set to the pool. The resource must not be
+     * used after this method returns. This is a handle-only method.
+     *
+     * @param resource the resource to release (not <code>null</code>)
+     */
+    protected void release(XtextResource resource)
+    {
+        ResourceSet resourceSet = resource.getResourceSet();
+        if (resourceSet == null)
+            resource.unload();
+        else
+            FooModelManager.INSTANCE.getResourceSetPool().release(
+                getFile().getProject(), resourceSet);
+    }
+
     /**
      * Returns the <code>IResourceSetProvider</code> corresponding to
      * this file. This is a handle-only method.
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.handly.model.impl.support.ElementDelta;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+
+/**
+ * Computes fine-grained deltas for the children of a changed Foo file.
+ * <p>
+ * The differencer records the structure of an open Foo file before it is
+ * closed. Once the file has been opened again, it reports a child as
+ * <code>REMOVED</code> or <code>ADDED</code> if it is only present in the old
+ * or in the new structure, as <code>CHANGED</code> with
+ * <code>F_CONTENT</code> if the parameter names of a function have changed,
+ * and as <code>CHANGED</code> with <code>F_REORDER</code> if it has been
+ * moved relative to the other children present in both structures.
+ * The moved children are the ones outside a longest common subsequence
+ * of the old and the new order, so moving one child flags only that child.
+ * Mere changes in text ranges are not reported. The cost is
+ * <i>O(n log n)</i> in the number of children.
+ * </p>
+ */
+class FooFileDifferencer
+{
+    private final IFooFile fooFile;
+    private final IElement[] oldChildren;
+    private final Map<IElement, Object> oldBodies;
+
+    private FooFileDifferencer(IFooFile fooFile, IElement[] oldChildren,
+        Map<IElement, Object> oldBodies)
+    {
+        this.fooFile = fooFile;
+        this.oldChildren = oldChildren;
+        this.oldBodies = oldBodies;
+    }
+
+    /**
+     * Records the current structure of the given Foo file.
+     *
+     * @param fooFile a Foo file (not <code>null</code>)
+     * @return a differencer for the file, or <code>null</code>
+     *  if the file is not open
+     */
+    static FooFileDifferencer record(IFooFile fooFile)
+    {
+        Body body = (Body)((Element)fooFile).peekAtBody_();
+        if (body == null)
+            return null;
+        IElement[] children = body.getChildren();
+        Map<IElement, Object> bodies = new HashMap<>(children.length * 2);
+        for (IElement child : children)
+        {
+            Object childBody = ((Element)child).peekAtBody_();
+            if (childBody == null)
+                return null; // the structure is incomplete
+            bodies.put(child, childBody);
+        }
+        return new FooFileDifferencer(fooFile, children, bodies);
+    }
+
+    /**
+     * Returns the Foo file whose structure this differencer has recorded.
+     *
+     * @return the Foo file (never <code>null</code>)
+     */
+    IFooFile getFooFile()
+    {
+        return fooFile;
+    }
+
+    /**
+     * Reports the changes in the children of the Foo file with the given
+     * builder, opening the file if it is not open. The file itself is
+     * reported as changed with <code>F_CONTENT</code> and
+     * <code>F_FINE_GRAINED</code>.
+     *
+     * @param builder a delta builder (not <code>null</code>)
+     * @return <code>true</code> if the changes have been reported, and
+     *  <code>false</code> if the file could not be opened, in which case
+     *  nothing has been reported
+     */
+    boolean buildDelta(ElementDelta.Builder builder)
+    {
+        Body body;
+        try
+        {
+            body = (Body)((Element)fooFile).open_(EMPTY_CONTEXT, null);
+        }
+        catch (CoreException e)
+        {
+            return false;
+        }
+        IElement[] newChildren = body.getChildren();
+        Set<IElement> newSet = new HashSet<>(Arrays.asList(newChildren));
+
+        Map<IElement, Integer> oldPositions = new HashMap<>(
+            oldChildren.length * 2);
+        for (IElement oldChild : oldChildren)
+        {
+            if (newSet.contains(oldChild))
+                oldPositions.put(oldChild, oldPositions.size());
+            else
+                builder.removed(oldChild);
+        }
+        List<IElement> newCommon = new ArrayList<>(oldPositions.size());
+        for (IElement newChild : newChildren)
+        {
+            if (oldPositions.containsKey(newChild))
+                newCommon.add(newChild);
+        }
+        boolean[] moved = findMoved(newCommon, oldPositions);
+        int common = 0;
+        for (IElement newChild : newChildren)
+        {
+            Object oldBody = oldBodies.get(newChild);
+            if (oldBody == null)
+            {
+                builder.added(newChild);
+                continue;
+            }
+            int flags = 0;
+            if (moved[common++])
+                flags |= IElementDeltaConstants.F_REORDER;
+            if (isContentChanged(newChild, oldBody))
+                flags |= IElementDeltaConstants.F_CONTENT;
+            if (flags != 0)
+                builder.changed(newChild, flags);
+        }
+        builder.changed(fooFile, IElementDeltaConstants.F_CONTENT
+            | IElementDeltaConstants.F_FINE_GRAINED);
+        return true;
+    }
+
+    /*
+     * Given the children present in both structures in their new order,
+     * marks the ones that are not in a longest increasing subsequence of
+     * their old positions (found by patience sorting), i.e. the ones
+     * that have been moved.
+     */
+    private static boolean[] findMoved(List<IElement> newCommon,
+        Map<IElement, Integer> oldPositions)
+    {
+        int n = newCommon.size();
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++)
+            positions[i] = oldPositions.get(newCommon.get(i));
+        int[] tails = new int[n]; // index of the smallest tail of each length
+        int[] previous = new int[n]; // predecessor in the subsequence
+        int length = 0;
+        for (int i = 0; i < n; i++)
+        {
+            int low = 0, high = length;
+            while (low < high)
+            {
+                int mid = (low + high) >>> 1;
+                if (positions[tails[mid]] < positions[i])
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length)
+                length++;
+        }
+        boolean[] moved = new boolean[n];
+        Arrays.fill(moved, true);
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0;
+            i = previous[i])
+        {
+            moved[i] = false;
+        }
+        return moved;
+    }
+
+    private static boolean isContentChanged(IElement child, Object oldBody)
+    {
+        if (!(child instanceof IFooDef))
+            return false; // a variable has nothing but a name
+        Object newBody = ((Element)child).peekAtBody_();
+        if (!(newBody instanceof SourceElementBody)
+            || !(oldBody instanceof SourceElementBody))
+            return true;
+        return !Arrays.equals(((SourceElementBody)oldBody).get(
+            IFooDef.PARAMETER_NAMES), ((SourceElementBody)newBody).get(
+                IFooDef.PARAMETER_NAMES));
+    }
+}
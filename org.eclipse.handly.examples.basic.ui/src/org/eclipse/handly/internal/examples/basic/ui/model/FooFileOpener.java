@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import static org.eclipse.handly.context.Contexts.EMPTY_CONTEXT;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.internal.examples.basic.ui.Activator;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.Element;
+
+/**
+ * Opens Foo files in parallel on a fork-join pool.
+ * <p>
+ * The parent projects of the files are opened first, in the calling
+ * thread. The files are then opened by the pool, while the calling thread
+ * reports progress and polls the progress monitor for cancellation.
+ * Files that are already open are skipped. The file cache is enlarged
+ * to fit the files on behalf of the element that requested the bulk open.
+ * A Foo project keeps the room until it is closed; for the Foo model,
+ * which stays open, the room is released once the files have been opened,
+ * and the files that no longer fit are closed as usual.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooFileOpener
+{
+    private static final long POLL_MILLIS = 50;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new opener that uses the given pool.
+     *
+     * @param pool the fork-join pool to open Foo files on
+     *  (not <code>null</code>)
+     */
+    FooFileOpener(ForkJoinPool pool)
+    {
+        if (pool == null)
+            throw new IllegalArgumentException();
+        this.pool = pool;
+    }
+
+    /**
+     * Opens the given Foo files. A failure to open a file does not prevent
+     * other files from being opened.
+     *
+     * @param fooFiles the Foo files to open (not <code>null</code>)
+     * @param requestor the element on whose behalf the files are opened:
+     *  a Foo project or the Foo model (not <code>null</code>)
+     * @param monitor a progress monitor, or <code>null</code>
+     *  if progress reporting is not desired
+     * @throws CoreException if some of the files could not be opened;
+     *  the exception's status has a child status for each failure
+     * @throws OperationCanceledException if this method is canceled
+     */
+    void open(IFooFile[] fooFiles, IElement requestor,
+        IProgressMonitor monitor) throws CoreException
+    {
+        SubMonitor subMonitor = SubMonitor.convert(monitor, fooFiles.length);
+        Queue<IStatus> failures = new ConcurrentLinkedQueue<>();
+        FooFile[] toOpen = openParents(fooFiles, failures);
+        FooModelManager.INSTANCE.ensureFileCacheSize(fooFiles.length,
+            requestor);
+        try
+        {
+            openFiles(toOpen, failures, subMonitor);
+        }
+        finally
+        {
+            if (!(requestor instanceof IFooProject))
+                FooModelManager.INSTANCE.releaseFileCacheSize(requestor);
+        }
+
+        if (!failures.isEmpty())
+        {
+            throw new CoreException(new MultiStatus(Activator.PLUGIN_ID, 0,
+                failures.toArray(new IStatus[failures.size()]),
+                "Some Foo files could not be opened", null)); //$NON-NLS-1$
+        }
+    }
+
+    private void openFiles(FooFile[] toOpen, Queue<IStatus> failures,
+        SubMonitor subMonitor)
+    {
+        OpenTask task = new OpenTask(toOpen, 0, toOpen.length, Math.max(1,
+            toOpen.length / (pool.getParallelism() * 8)), failures);
+        pool.execute(task);
+        int reported = 0;
+        for (;;)
+        {
+            if (subMonitor.isCanceled())
+                task.canceled.set(true);
+            try
+            {
+                task.get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                break;
+            }
+            catch (TimeoutException e)
+            {
+                // report progress and check for cancellation
+            }
+            catch (InterruptedException e)
+            {
+                task.canceled.set(true);
+                Thread.currentThread().interrupt();
+                throw new OperationCanceledException();
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+                if (cause instanceof Error)
+                    throw (Error)cause;
+                throw new AssertionError(cause);
+            }
+            int done = task.done.get();
+            subMonitor.worked(done - reported);
+            reported = done;
+        }
+        subMonitor.worked(task.done.get() - reported);
+        if (task.canceled.get())
+            throw new OperationCanceledException();
+    }
+
+    private static FooFile[] openParents(IFooFile[] fooFiles,
+        Queue<IStatus> failures)
+    {
+        Set<IElement> openedParents = new HashSet<>();
+        Set<IElement> failedParents = new HashSet<>();
+        List<FooFile> result = new ArrayList<>(fooFiles.length);
+        for (IFooFile fooFile : fooFiles)
+        {
+            IElement parent = Elements.getParent(fooFile);
+            if (failedParents.contains(parent))
+                continue;
+            if (openedParents.add(parent))
+            {
+                try
+                {
+                    ((Element)parent).open_(EMPTY_CONTEXT, null);
+                }
+                catch (CoreException e)
+                {
+                    // the parent's files cannot be opened either
+                    failures.add(e.getStatus());
+                    failedParents.add(parent);
+                    continue;
+                }
+            }
+            result.add((FooFile)fooFile);
+        }
+        return result.toArray(new FooFile[result.size()]);
+    }
+
+    private static class OpenTask
+        extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        final AtomicInteger done;
+        final AtomicBoolean canceled;
+        private final FooFile[] fooFiles;
+        private final int start, end, batchSize;
+        private final Queue<IStatus> failures;
+
+        OpenTask(FooFile[] fooFiles, int start, int end, int batchSize,
+            Queue<IStatus> failures)
+        {
+            this(fooFiles, start, end, batchSize, failures,
+                new AtomicInteger(), new AtomicBoolean());
+        }
+
+        private OpenTask(FooFile[] fooFiles, int start, int end,
+            int batchSize, Queue<IStatus> failures, AtomicInteger done,
+            AtomicBoolean canceled)
+        {
+            this.fooFiles = fooFiles;
+            this.start = start;
+            this.end = end;
+            this.batchSize = batchSize;
+            this.failures = failures;
+            this.done = done;
+            this.canceled = canceled;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > batchSize)
+            {
+                int middle = (start + end) >>> 1;
+                invokeAll(new OpenTask(fooFiles, start, middle, batchSize,
+                    failures, done, canceled), new OpenTask(fooFiles, middle,
+                        end, batchSize, failures, done, canceled));
+                return;
+            }
+            for (int i = start; i < end && !canceled.get(); i++)
+            {
+                FooFile fooFile = fooFiles[i];
+                try
+                {
+                    if (fooFile.peekAtBody_() == null)
+                        fooFile.open_(EMPTY_CONTEXT, null);
+                }
+                catch (CoreException e)
+                {
+                    failures.add(e.getStatus());
+                }
+                done.incrementAndGet();
+            }
+        }
+    }
+}
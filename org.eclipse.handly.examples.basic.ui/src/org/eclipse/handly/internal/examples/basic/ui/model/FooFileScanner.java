@@ -0,0 +1,338 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * A single-pass scanner that builds the inner structure for a {@link FooFile}
+ * directly from its source text, without creating an AST.
+ * <p>
+ * The scanner recognizes the Foo grammar, including the hidden tokens
+ * (whitespace and comments) and escaped identifiers of the Xtext common
+ * terminals, and computes the same names and text ranges as the Xtext-based
+ * {@link FooFileStructureBuilder#buildStructure buildStructure}. If the text
+ * has a syntax error, nothing is built, so that the structure can be built
+ * from the (error-recovered) AST instead.
+ * </p>
+ * <p>
+ * The scanner can also be restricted to a region of the text that lies
+ * between two declarations, for an incremental update of the structure
+ * (see {@link FooFileStructureUpdater}). In that case, the region is also
+ * considered to have a syntax error if a token or a comment in the region
+ * could extend beyond its end.
+ * </p>
+ */
+class FooFileScanner
+{
+    private static final int ERROR = -1;
+    private static final int EOF = 0;
+    private static final int ID = 1;
+    private static final int VAR = 2;
+    private static final int DEF = 3;
+    private static final int LPAREN = 4;
+    private static final int RPAREN = 5;
+    private static final int LBRACE = 6;
+    private static final int RBRACE = 7;
+    private static final int COMMA = 8;
+    private static final int SEMICOLON = 9;
+
+    private final String text;
+    private final int end;
+    private final List<Declaration> declarations = new ArrayList<>();
+    private final List<String> parameterNames = new ArrayList<>();
+    private int pos;
+    private int tokenStart;
+
+    /**
+     * Constructs a new scanner for the given source text.
+     *
+     * @param text the source text of a Foo file (not <code>null</code>)
+     */
+    FooFileScanner(String text)
+    {
+        this(text, 0, text.length());
+    }
+
+    /**
+     * Constructs a new scanner for the given region of the given source
+     * text. The region must start at the beginning of the text or right
+     * after a declaration, and end at the end of the text or right before
+     * a declaration.
+     *
+     * @param text the source text of a Foo file (not <code>null</code>)
+     * @param start the start offset of the region (inclusive)
+     * @param end the end offset of the region (exclusive)
+     */
+    FooFileScanner(String text, int start, int end)
+    {
+        if (text == null)
+            throw new IllegalArgumentException();
+        if (start < 0 || start > end || end > text.length())
+            throw new IllegalArgumentException();
+        this.text = text;
+        this.end = end;
+        pos = start;
+    }
+
+    /**
+     * Scans the source text and builds the structure for the given
+     * {@link FooFile} with the given builder, unless the text has
+     * a syntax error.
+     *
+     * @param handle the handle to a Foo file (not <code>null</code>)
+     * @param body the body of the Foo file (not <code>null</code>)
+     * @param builder the structure builder (not <code>null</code>)
+     * @return <code>true</code> if the structure has been built,
+     *  and <code>false</code> if the text has a syntax error,
+     *  in which case nothing has been built
+     */
+    boolean buildStructure(FooFile handle, SourceElementBody body,
+        FooFileStructureBuilder builder)
+    {
+        if (!scan(true))
+            return false;
+        addDeclarations(handle, body, builder);
+        builder.complete(body);
+        return true;
+    }
+
+    /**
+     * Scans the text (or the region of the text) for declarations.
+     *
+     * @param varsAllowed whether variables may be declared; <code>false</code>
+     *  if the region follows a function declaration
+     * @return <code>true</code> if the text has been scanned successfully,
+     *  and <code>false</code> if it has a syntax error
+     */
+    boolean scan(boolean varsAllowed)
+    {
+        if (!scanModule(varsAllowed))
+            return false;
+        if (end > 0 && end < text.length())
+        {
+            // the last token must not run into the following declaration
+            char c = text.charAt(end - 1);
+            if (isIdPart(c) || c == '^')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the {@link #scan(boolean) scanned} text has
+     * function declarations.
+     *
+     * @return <code>true</code> if a function is declared,
+     *  and <code>false</code> otherwise
+     */
+    boolean hasDefs()
+    {
+        int size = declarations.size();
+        return size > 0 && declarations.get(size - 1).parameterNames != null;
+    }
+
+    /**
+     * Adds the {@link #scan(boolean) scanned} declarations as the next
+     * children of the given Foo file.
+     *
+     * @param handle the handle to a Foo file (not <code>null</code>)
+     * @param body the body of the Foo file (not <code>null</code>)
+     * @param builder the structure builder (not <code>null</code>)
+     */
+    void addDeclarations(FooFile handle, SourceElementBody body,
+        FooFileStructureBuilder builder)
+    {
+        for (Declaration d : declarations)
+        {
+            TextRange fullRange = new TextRange(d.start, d.end - d.start);
+            TextRange identifyingRange = new TextRange(d.nameStart, d.nameEnd
+                - d.nameStart);
+            if (d.parameterNames == null)
+                builder.addVar(handle, body, d.name, fullRange,
+                    identifyingRange);
+            else
+                builder.addDef(handle, body, d.name, d.parameterNames,
+                    fullRange, identifyingRange);
+        }
+    }
+
+    private boolean scanModule(boolean varsAllowed)
+    {
+        // Module: Var* Def*
+        int token = next();
+        while (token == VAR && varsAllowed)
+        {
+            // Var: 'var' ID ';'
+            int start = tokenStart;
+            if (next() != ID)
+                return false;
+            int nameStart = tokenStart;
+            int nameEnd = pos;
+            if (next() != SEMICOLON)
+                return false;
+            declarations.add(new Declaration(idValue(nameStart, nameEnd), null,
+                start, pos, nameStart, nameEnd));
+            token = next();
+        }
+        while (token == DEF)
+        {
+            // Def: 'def' ID '(' ID? (',' ID)* ')' '{' '}'
+            int start = tokenStart;
+            if (next() != ID)
+                return false;
+            int nameStart = tokenStart;
+            int nameEnd = pos;
+            if (next() != LPAREN)
+                return false;
+            parameterNames.clear();
+            token = next();
+            if (token == ID)
+            {
+                parameterNames.add(idValue(tokenStart, pos));
+                token = next();
+            }
+            while (token == COMMA)
+            {
+                if (next() != ID)
+                    return false;
+                parameterNames.add(idValue(tokenStart, pos));
+                token = next();
+            }
+            if (token != RPAREN || next() != LBRACE || next() != RBRACE)
+                return false;
+            declarations.add(new Declaration(idValue(nameStart, nameEnd),
+                parameterNames.toArray(new String[parameterNames.size()]),
+                start, pos, nameStart, nameEnd));
+            token = next();
+        }
+        return token == EOF;
+    }
+
+    private int next()
+    {
+        if (!skipHidden())
+            return ERROR;
+        tokenStart = pos;
+        if (pos == end)
+            return EOF;
+        char c = text.charAt(pos++);
+        switch (c)
+        {
+        case '(':
+            return LPAREN;
+        case ')':
+            return RPAREN;
+        case '{':
+            return LBRACE;
+        case '}':
+            return RBRACE;
+        case ',':
+            return COMMA;
+        case ';':
+            return SEMICOLON;
+        case '^':
+            if (pos == end || !isIdStart(text.charAt(pos)))
+                return ERROR;
+            pos++;
+            skipIdParts();
+            return ID; // an escaped keyword is an identifier
+        default:
+            if (!isIdStart(c))
+                return ERROR;
+            skipIdParts();
+            if (pos - tokenStart == 3)
+            {
+                if (text.startsWith("var", tokenStart)) //$NON-NLS-1$
+                    return VAR;
+                if (text.startsWith("def", tokenStart)) //$NON-NLS-1$
+                    return DEF;
+            }
+            return ID;
+        }
+    }
+
+    private boolean skipHidden()
+    {
+        while (pos < end)
+        {
+            char c = text.charAt(pos);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n')
+                pos++;
+            else if (c == '/' && pos + 1 < end && text.charAt(pos + 1) == '/')
+            {
+                pos += 2;
+                while (pos < end && (c = text.charAt(pos)) != '\n'
+                    && c != '\r')
+                    pos++;
+                if (pos == end && end < text.length())
+                    return false; // the comment runs beyond the region
+            }
+            else if (c == '/' && pos + 1 < end && text.charAt(pos + 1) == '*')
+            {
+                int close = text.indexOf("*/", pos + 2); //$NON-NLS-1$
+                if (close < 0 || close + 2 > end)
+                    return false; // unterminated comment
+                pos = close + 2;
+            }
+            else
+                break;
+        }
+        return true;
+    }
+
+    private void skipIdParts()
+    {
+        while (pos < end && isIdPart(text.charAt(pos)))
+            pos++;
+    }
+
+    private String idValue(int start, int end)
+    {
+        if (text.charAt(start) == '^')
+            start++;
+        return text.substring(start, end);
+    }
+
+    private static boolean isIdStart(char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdPart(char c)
+    {
+        return isIdStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static class Declaration
+    {
+        final String name;
+        final String[] parameterNames; // null for a variable
+        final int start, end, nameStart, nameEnd;
+
+        Declaration(String name, String[] parameterNames, int start, int end,
+            int nameStart, int nameEnd)
+        {
+            this.name = name;
+            this.parameterNames = parameterNames;
+            this.start = start;
+            this.end = end;
+            this.nameStart = nameStart;
+            this.nameEnd = nameEnd;
+        }
+    }
+}
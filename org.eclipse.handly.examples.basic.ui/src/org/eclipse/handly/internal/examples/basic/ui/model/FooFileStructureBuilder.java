@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -30,6 +30,13 @@ import org.eclipse.xtext.util.ITextRegion;
 
 /**
  * Builds the inner structure for a {@link FooFile}.
+ * <p>
+ * The structure can be built either from the {@link Module AST} of the file,
+ * or child by child with {@link #addVar addVar} and {@link #addDef addDef}
+ * followed by {@link #complete complete}. Children can be added with new
+ * bodies or with existing bodies, e.g. when the structure is updated
+ * incrementally.
+ * </p>
  */
 class FooFileStructureBuilder
 {
@@ -57,6 +64,21 @@ class FooFileStructureBuilder
             ILocationInFileProvider.class);
     }
 
+    /**
+     * Constructs a new Foo file structure builder that can only build
+     * the structure child by child.
+     *
+     * @param newElements the map to populate with structure elements
+     *  (not <code>null</code>)
+     */
+    FooFileStructureBuilder(Map<IElement, Object> newElements)
+    {
+        if (newElements == null)
+            throw new IllegalArgumentException();
+        this.newElements = newElements;
+        locationProvider = null;
+    }
+
     /**
      * Builds the structure for the given {@link FooFile} based on 
      * its {@link Module AST}.
@@ -67,10 +89,105 @@ class FooFileStructureBuilder
      */
     void buildStructure(FooFile handle, SourceElementBody body, Module module)
     {
+        if (locationProvider == null)
+            throw new IllegalStateException();
         for (Var var : module.getVars())
             buildStructure(handle, body, var);
         for (Def def : module.getDefs())
             buildStructure(handle, body, def);
+        complete(body);
+    }
+
+    /**
+     * Adds a variable with the given name and ranges as the next child
+     * of the given Foo file.
+     *
+     * @param parent the handle to a Foo file (not <code>null</code>)
+     * @param parentBody the body of the Foo file (not <code>null</code>)
+     * @param name the name of the variable (not <code>null</code>)
+     * @param fullRange the full range of the variable, or <code>null</code>
+     * @param identifyingRange the identifying range of the variable,
+     *  or <code>null</code>
+     */
+    void addVar(FooFile parent, Body parentBody, String name,
+        TextRange fullRange, TextRange identifyingRange)
+    {
+        SourceElementBody body = new SourceElementBody();
+        body.setFullRange(fullRange);
+        body.setIdentifyingRange(identifyingRange);
+        addVar(parent, parentBody, name, body);
+    }
+
+    /**
+     * Adds a variable with the given name and body as the next child
+     * of the given Foo file.
+     *
+     * @param parent the handle to a Foo file (not <code>null</code>)
+     * @param parentBody the body of the Foo file (not <code>null</code>)
+     * @param name the name of the variable (not <code>null</code>)
+     * @param body the body of the variable, such as the unchanged body
+     *  of a previous structure (not <code>null</code>)
+     */
+    void addVar(FooFile parent, Body parentBody, String name,
+        SourceElementBody body)
+    {
+        FooVar handle = new FooVar(parent, name);
+        helper.resolveDuplicates(handle);
+        newElements.put(handle, body);
+        helper.pushChild(parentBody, handle);
+    }
+
+    /**
+     * Adds a function with the given name, parameter names and ranges
+     * as the next child of the given Foo file.
+     *
+     * @param parent the handle to a Foo file (not <code>null</code>)
+     * @param parentBody the body of the Foo file (not <code>null</code>)
+     * @param name the name of the function (not <code>null</code>)
+     * @param parameterNames the parameter names of the function
+     *  (not <code>null</code>)
+     * @param fullRange the full range of the function, or <code>null</code>
+     * @param identifyingRange the identifying range of the function,
+     *  or <code>null</code>
+     */
+    void addDef(FooFile parent, Body parentBody, String name,
+        String[] parameterNames, TextRange fullRange,
+        TextRange identifyingRange)
+    {
+        SourceElementBody body = new SourceElementBody();
+        body.setFullRange(fullRange);
+        body.setIdentifyingRange(identifyingRange);
+        body.set(FooDef.PARAMETER_NAMES, parameterNames);
+        addDef(parent, parentBody, name, parameterNames.length, body);
+    }
+
+    /**
+     * Adds a function with the given name, arity and body as the next child
+     * of the given Foo file.
+     *
+     * @param parent the handle to a Foo file (not <code>null</code>)
+     * @param parentBody the body of the Foo file (not <code>null</code>)
+     * @param name the name of the function (not <code>null</code>)
+     * @param arity the arity of the function
+     * @param body the body of the function, such as the unchanged body
+     *  of a previous structure (not <code>null</code>)
+     */
+    void addDef(FooFile parent, Body parentBody, String name, int arity,
+        SourceElementBody body)
+    {
+        FooDef handle = new FooDef(parent, name, arity);
+        helper.resolveDuplicates(handle);
+        newElements.put(handle, body);
+        helper.pushChild(parentBody, handle);
+    }
+
+    /**
+     * Sets the children added so far as the children of the given body.
+     *
+     * @param body the body of a Foo file (not <code>null</code>)
+     */
+    void complete(Body body)
+    {
         body.setChildren(helper.popChildren(body).toArray(
             Elements.EMPTY_ARRAY));
     }
@@ -80,13 +197,8 @@ class FooFileStructureBuilder
         if (var.getName() == null || var.getName().isEmpty())
             return;
 
-        FooVar handle = new FooVar(parent, var.getName());
-        helper.resolveDuplicates(handle);
-        SourceElementBody body = new SourceElementBody();
-        body.setFullRange(getFullRange(var));
-        body.setIdentifyingRange(getIdentifyingRange(var));
-        newElements.put(handle, body);
-        helper.pushChild(parentBody, handle);
+        addVar(parent, parentBody, var.getName(), getFullRange(var),
+            getIdentifyingRange(var));
     }
 
     private void buildStructure(FooFile parent, Body parentBody, Def def)
@@ -94,16 +206,9 @@ class FooFileStructureBuilder
         if (def.getName() == null || def.getName().isEmpty())
             return;
 
-        int arity = def.getParams().size();
-        FooDef handle = new FooDef(parent, def.getName(), arity);
-        helper.resolveDuplicates(handle);
-        SourceElementBody body = new SourceElementBody();
-        body.setFullRange(getFullRange(def));
-        body.setIdentifyingRange(getIdentifyingRange(def));
-        body.set(FooDef.PARAMETER_NAMES, def.getParams().toArray(
-            new String[arity]));
-        newElements.put(handle, body);
-        helper.pushChild(parentBody, handle);
+        addDef(parent, parentBody, def.getName(), def.getParams().toArray(
+            new String[def.getParams().size()]), getFullRange(def),
+            getIdentifyingRange(def));
     }
 
     private TextRange getFullRange(EObject eObject)
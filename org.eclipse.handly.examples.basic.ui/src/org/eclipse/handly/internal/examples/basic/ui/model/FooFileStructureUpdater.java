@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * Incrementally updates the inner structure for a {@link FooFile}
+ * after an edit.
+ * <p>
+ * The edited region is found as the difference between the common prefix
+ * and the common suffix of the old and the new source text. Children that
+ * end before the edited region keep their bodies. Children that start after
+ * it get bodies with shifted text ranges (or keep their bodies if the length
+ * of the text has not changed). Only the text between these two groups of
+ * children is rescanned with a {@link FooFileScanner}. The result is the same
+ * as if the structure had been built from scratch; if this cannot be ensured,
+ * e.g. because the rescanned text has a syntax error, nothing is updated.
+ * </p>
+ * <p>
+ * The old structure must have been built from the old text without syntax
+ * errors, so that the text between its children consists of whitespace
+ * and comments only.
+ * </p>
+ */
+class FooFileStructureUpdater
+{
+    private final Map<IElement, Object> newElements;
+
+    /**
+     * Constructs a new Foo file structure updater.
+     *
+     * @param newElements the map to populate with structure elements
+     *  (not <code>null</code>)
+     */
+    FooFileStructureUpdater(Map<IElement, Object> newElements)
+    {
+        if (newElements == null)
+            throw new IllegalArgumentException();
+        this.newElements = newElements;
+    }
+
+    /**
+     * Updates the structure for the given {@link FooFile} from the given
+     * old structure.
+     *
+     * @param handle the handle to a Foo file (not <code>null</code>)
+     * @param body the new body of the Foo file (not <code>null</code>)
+     * @param text the new source text (not <code>null</code>)
+     * @param oldBody the old body of the Foo file (not <code>null</code>)
+     * @param oldText the source text the old structure was built from
+     *  (not <code>null</code>)
+     * @param oldBodies a function that returns the old body for a child
+     *  of the Foo file, or <code>null</code> if the body is not available
+     *  (not <code>null</code>)
+     * @return <code>true</code> if the structure has been updated,
+     *  and <code>false</code> if it has to be built from scratch,
+     *  in which case nothing has been updated
+     */
+    boolean update(FooFile handle, SourceElementBody body, String text,
+        SourceElementBody oldBody, String oldText,
+        Function<IElement, Object> oldBodies)
+    {
+        IElement[] oldChildren = oldBody.getChildren();
+        int childCount = oldChildren.length;
+        SourceElementBody[] oldChildBodies = new SourceElementBody[childCount];
+        for (int i = 0; i < childCount; i++)
+        {
+            Object childBody = oldBodies.apply(oldChildren[i]);
+            if (!(childBody instanceof SourceElementBody)
+                || ((SourceElementBody)childBody).getFullRange() == null)
+                return false;
+            oldChildBodies[i] = (SourceElementBody)childBody;
+        }
+
+        int oldLength = oldText.length();
+        int length = text.length();
+        int limit = Math.min(oldLength, length);
+        int prefix = 0;
+        while (prefix < limit && oldText.charAt(prefix) == text.charAt(
+            prefix))
+            prefix++;
+        int suffix = 0;
+        while (suffix < limit - prefix && oldText.charAt(oldLength - 1
+            - suffix) == text.charAt(length - 1 - suffix))
+            suffix++;
+        int delta = length - oldLength;
+
+        // children [first, last) intersect or touch the edited region
+        int first = 0;
+        while (first < childCount && end(oldChildBodies[first]) <= prefix)
+            first++;
+        int last = childCount;
+        while (last > first && oldChildBodies[last
+            - 1].getFullRange().getOffset() >= oldLength - suffix)
+            last--;
+
+        int regionStart = first > 0 ? end(oldChildBodies[first - 1]) : 0;
+        int regionEnd = last < childCount
+            ? oldChildBodies[last].getFullRange().getOffset() + delta : length;
+        FooFileScanner scanner = new FooFileScanner(text, regionStart,
+            regionEnd);
+        if (!scanner.scan(first == 0 || !isDef(oldChildren[first - 1])))
+            return false;
+        if (scanner.hasDefs() && last < childCount && !isDef(
+            oldChildren[last]))
+            return false; // a variable would follow a function
+
+        FooFileStructureBuilder builder = new FooFileStructureBuilder(
+            newElements);
+        for (int i = 0; i < first; i++)
+            addChild(builder, handle, body, oldChildren[i], oldChildBodies[i]);
+        scanner.addDeclarations(handle, body, builder);
+        for (int i = last; i < childCount; i++)
+            addChild(builder, handle, body, oldChildren[i], delta == 0
+                ? oldChildBodies[i] : shift(oldChildBodies[i], delta));
+        builder.complete(body);
+        return true;
+    }
+
+    private static void addChild(FooFileStructureBuilder builder,
+        FooFile parent, SourceElementBody parentBody, IElement child,
+        SourceElementBody body)
+    {
+        // the handle is recreated, since its occurrence count may change
+        if (isDef(child))
+            builder.addDef(parent, parentBody, Elements.getName(child),
+                ((FooDef)child).getArity(), body);
+        else
+            builder.addVar(parent, parentBody, Elements.getName(child), body);
+    }
+
+    private static SourceElementBody shift(SourceElementBody body, int delta)
+    {
+        SourceElementBody result = new SourceElementBody();
+        result.setFullRange(shift(body.getFullRange(), delta));
+        result.setIdentifyingRange(shift(body.getIdentifyingRange(), delta));
+        String[] parameterNames = body.get(IFooDef.PARAMETER_NAMES);
+        if (parameterNames != null)
+            result.set(IFooDef.PARAMETER_NAMES, parameterNames);
+        return result;
+    }
+
+    private static TextRange shift(TextRange range, int delta)
+    {
+        if (range == null)
+            return null;
+        return new TextRange(range.getOffset() + delta, range.getLength());
+    }
+
+    private static int end(SourceElementBody body)
+    {
+        TextRange range = body.getFullRange();
+        return range.getOffset() + range.getLength();
+    }
+
+    private static boolean isDef(IElement child)
+    {
+        return child instanceof FooDef;
+    }
+}
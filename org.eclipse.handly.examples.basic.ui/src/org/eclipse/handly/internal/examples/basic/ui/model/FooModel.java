@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,6 +13,7 @@
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.core.resources.IProject;
@@ -23,8 +24,12 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.handly.ApiLevel;
 import org.eclipse.handly.context.IContext;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooModel;
 import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.examples.basic.ui.model.IFooVar;
 import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.IElementChangeListener;
@@ -53,15 +58,21 @@ public class FooModel
     @Override
     public void addElementChangeListener(IElementChangeListener listener)
     {
-        FooModelManager.INSTANCE.getNotificationManager().addElementChangeListener(
-            listener);
+        FooModelManager.INSTANCE.addElementChangeListener(listener);
+    }
+
+    @Override
+    public void addElementChangeListener(IElementChangeListener listener,
+        IFooElement scope, int kinds, long flags)
+    {
+        FooModelManager.INSTANCE.addElementChangeListener(listener, scope,
+            kinds, flags);
     }
 
     @Override
     public void removeElementChangeListener(IElementChangeListener listener)
     {
-        FooModelManager.INSTANCE.getNotificationManager().removeElementChangeListener(
-            listener);
+        FooModelManager.INSTANCE.removeElementChangeListener(listener);
     }
 
     @Override
@@ -80,6 +91,60 @@ public class FooModel
         return result;
     }
 
+    @Override
+    public void openFooFiles(IProgressMonitor monitor) throws CoreException
+    {
+        List<IFooFile> fooFiles = new ArrayList<>();
+        for (IFooProject fooProject : getFooProjects())
+            Collections.addAll(fooFiles, fooProject.getFooFiles());
+        openFooFiles(fooFiles.toArray(new IFooFile[fooFiles.size()]),
+            monitor);
+    }
+
+    @Override
+    public void openFooFiles(IFooFile[] fooFiles, IProgressMonitor monitor)
+        throws CoreException
+    {
+        FooModelManager.INSTANCE.getFooFileOpener().open(fooFiles, this,
+            monitor);
+    }
+
+    @Override
+    public IFooDef[] findDefs(String name)
+    {
+        if (name == null)
+            throw new IllegalArgumentException();
+        return FooModelManager.INSTANCE.getSymbolIndex().findDefs(name);
+    }
+
+    @Override
+    public IFooDef[] findDefs(String name, int arity)
+    {
+        if (name == null)
+            throw new IllegalArgumentException();
+        return FooModelManager.INSTANCE.getSymbolIndex().findDefs(name,
+            arity);
+    }
+
+    @Override
+    public IFooVar[] findVars(String name)
+    {
+        if (name == null)
+            throw new IllegalArgumentException();
+        return FooModelManager.INSTANCE.getSymbolIndex().findVars(name);
+    }
+
+    @Override
+    public IFooElement[] searchSymbols(String pattern, int maxResults)
+    {
+        if (pattern == null)
+            throw new IllegalArgumentException();
+        if (maxResults < 0)
+            throw new IllegalArgumentException();
+        return FooModelManager.INSTANCE.getSymbolIndex().search(pattern,
+            maxResults);
+    }
+
     @Override
     public IWorkspace getWorkspace()
     {
@@ -104,6 +169,14 @@ public class FooModel
         return workspace.getRoot();
     }
 
+    @Override
+    public Object findBody_()
+    {
+        // avoid the element manager's lock if possible
+        Object body = FooModelManager.INSTANCE.findBodyConcurrently(this);
+        return body != null ? body : super.findBody_();
+    }
+
     @Override
 	public void validateExistence_(IContext context)
     {
@@ -114,11 +187,13 @@ public class FooModel
 	public void buildStructure_(IContext context, IProgressMonitor monitor)
         throws CoreException
     {
+        FooProjectRegistry projectRegistry =
+            FooModelManager.INSTANCE.getProjectRegistry();
         IProject[] projects = workspace.getRoot().getProjects();
         List<IFooProject> fooProjects = new ArrayList<>(projects.length);
         for (IProject project : projects)
         {
-            if (project.isOpen() && project.hasNature(IFooProject.NATURE_ID))
+            if (projectRegistry.hasFooNature(project))
             {
                 fooProjects.add(new FooProject(this, project));
             }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2018 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,20 +13,49 @@
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
 
 import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.examples.basic.ui.model.IFooModel;
 import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.Elements;
 import org.eclipse.handly.model.IElement;
 import org.eclipse.handly.model.impl.support.Body;
 import org.eclipse.handly.model.impl.support.ElementCache;
 import org.eclipse.handly.model.impl.support.IBodyCache;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
 
 /**
  * The Foo Model cache.
+ * <p>
+ * By default, the number of open Foo files is bounded. Alternatively,
+ * the cache can be created with a byte budget for open Foo files; in that
+ * case, Foo files are evicted based on the estimated retained size of
+ * their bodies together with the bodies of their children.
+ * </p>
+ * <p>
+ * The bodies of children of open Foo files can optionally be kept in
+ * a compact form, one {@link CompactStructureTable} per file, in which case
+ * they are materialized on demand.
+ * </p>
+ * <p>
+ * Open Foo files are bounded either by number, with an LRU or a
+ * frequency-aware ({@link TinyLfuElementCache W-TinyLFU}) policy,
+ * or by their estimated retained size.
+ * </p>
+ * <p>
+ * The structure of Foo files removed from the cache is kept in a second
+ * tier, a {@link SoftStructureCache}, so that it can be restored without
+ * reparsing if the file is reopened later and has not changed meanwhile.
+ * Since the bodies of children may be removed before the body of their
+ * file, a removed child body is kept until its file is removed or put
+ * again; in the memory-bounded mode, it still counts toward the weight
+ * of the file meanwhile.
+ * </p>
  */
 class FooModelCache
-    implements IBodyCache
+    implements IFooModelCache
 {
     private static final int DEFAULT_PROJECT_SIZE = 5;
     private static final int DEFAULT_FILE_SIZE = 100;
@@ -34,14 +63,95 @@ class FooModelCache
 
     private Object modelBody; // Foo model element's body
     private HashMap<IElement, Object> projectCache; // cache of open Foo projects
-    private ElementCache fileCache; // cache of open Foo files
+    private ElementCache fileCache; // cache of open Foo files (count-bounded mode)
+    private TinyLfuElementCache lfuFileCache; // cache of open Foo files (frequency-aware count-bounded mode)
+    private WeightedElementCache weightedFileCache; // cache of open Foo files (memory-bounded mode)
+    private IBodyCache files; // the cache of open Foo files in use
     private HashMap<IElement, Object> childrenCache; // cache of children of open Foo files
+    private HashMap<IElement, CompactStructureTable> childTables; // compact cache of children of open Foo files
+    private SoftStructureCache softCache = new SoftStructureCache(); // second tier for removed Foo files
+    private HashMap<IElement, Map<IElement, Object>> detachedChildren =
+        new HashMap<>(); // children removed before their Foo file
 
+    /**
+     * Constructs a Foo Model cache that bounds the number of open Foo files.
+     */
     public FooModelCache()
+    {
+        this(0, false);
+    }
+
+    /**
+     * Constructs a Foo Model cache that bounds the estimated retained size
+     * of open Foo files (including their children) by the given budget.
+     *
+     * @param fileBudget the maximum total weight of open Foo files in bytes
+     *  (must be positive)
+     */
+    public FooModelCache(long fileBudget)
+    {
+        this(fileBudget, false);
+        if (fileBudget <= 0)
+            throw new IllegalArgumentException();
+    }
+
+    /**
+     * Constructs a Foo Model cache.
+     *
+     * @param fileBudget the maximum total weight of open Foo files in bytes,
+     *  or <code>0</code> if the number of open Foo files is to be bounded
+     * @param compact whether the bodies of children of open Foo files
+     *  should be kept in compact per-file tables
+     */
+    public FooModelCache(long fileBudget, boolean compact)
+    {
+        this(fileBudget, compact, null);
+    }
+
+    /**
+     * Constructs a Foo Model cache.
+     *
+     * @param fileBudget the maximum total weight of open Foo files in bytes,
+     *  or <code>0</code> if the number of open Foo files is to be bounded
+     * @param compact whether the bodies of children of open Foo files
+     *  should be kept in compact per-file tables
+     * @param pinnedFiles if not <code>null</code>, the number of open
+     *  Foo files is bounded with a frequency-aware policy that never evicts
+     *  the files accepted by this predicate; must be <code>null</code>
+     *  if the file budget is positive
+     */
+    public FooModelCache(long fileBudget, boolean compact,
+        Predicate<IElement> pinnedFiles)
     {
         projectCache = new HashMap<>(DEFAULT_PROJECT_SIZE);
-        fileCache = new ElementCache(DEFAULT_FILE_SIZE);
-        childrenCache = new HashMap<>(DEFAULT_CHILDREN_SIZE);
+        if (fileBudget > 0)
+        {
+            if (pinnedFiles != null)
+                throw new IllegalArgumentException();
+            files = weightedFileCache = new WeightedElementCache(fileBudget);
+        }
+        else if (pinnedFiles != null)
+            files = lfuFileCache = new TinyLfuElementCache(DEFAULT_FILE_SIZE,
+                pinnedFiles);
+        else
+            files = fileCache = new ElementCache(DEFAULT_FILE_SIZE);
+        initChildrenCache(compact);
+    }
+
+    /**
+     * Constructs a memory-bounded Foo Model cache that keeps open Foo files
+     * in the given cache.
+     *
+     * @param weightedFileCache the cache of open Foo files
+     *  (not <code>null</code>)
+     * @param compact whether the bodies of children of open Foo files
+     *  should be kept in compact per-file tables
+     */
+    FooModelCache(WeightedElementCache weightedFileCache, boolean compact)
+    {
+        projectCache = new HashMap<>(DEFAULT_PROJECT_SIZE);
+        files = this.weightedFileCache = weightedFileCache;
+        initChildrenCache(compact);
     }
 
     @Override
@@ -52,9 +162,9 @@ class FooModelCache
         else if (element instanceof IFooProject)
             return projectCache.get(element);
         else if (element instanceof IFooFile)
-            return fileCache.get(element);
+            return files.get(element);
         else
-            return childrenCache.get(element);
+            return getChild(element);
     }
 
     @Override
@@ -65,9 +175,9 @@ class FooModelCache
         else if (element instanceof IFooProject)
             return projectCache.get(element);
         else if (element instanceof IFooFile)
-            return fileCache.peek(element);
+            return files.peek(element);
         else
-            return childrenCache.get(element);
+            return getChild(element);
     }
 
     @Override
@@ -78,27 +188,348 @@ class FooModelCache
         else if (element instanceof IFooProject)
         {
             projectCache.put(element, body);
-            fileCache.ensureMaxSize(((Body)body).getChildren().length, element);
+            ensureFileCacheSize(((Body)body).getChildren().length, element);
         }
         else if (element instanceof IFooFile)
-            fileCache.put(element, body);
+        {
+            detachedChildren.remove(element);
+            if (isWeighted())
+                weightedFileCache.put(element, body, weighFile(element,
+                    body));
+            else
+                files.put(element, body);
+        }
         else
-            childrenCache.put(element, body);
+        {
+            Object oldBody = putChild(element, body);
+            if (oldBody == null)
+                oldBody = undetach(element);
+            if (isWeighted())
+            {
+                long weight = weighChild(element, body);
+                if (oldBody != null)
+                    weight -= weighChild(element, oldBody);
+                weightedFileCache.addChildWeight(Elements.getParent(element),
+                    weight);
+            }
+        }
     }
 
     @Override
     public void remove(IElement element)
     {
         if (element instanceof IFooModel)
+        {
             modelBody = null;
+            releaseFileCacheSize(element);
+        }
         else if (element instanceof IFooProject)
         {
             projectCache.remove(element);
-            fileCache.resetMaxSize(DEFAULT_FILE_SIZE, element);
+            releaseFileCacheSize(element);
         }
         else if (element instanceof IFooFile)
-            fileCache.remove(element);
+        {
+            Object body = peek(element);
+            files.remove(element);
+            if (body != null)
+                archive(element, body);
+            if (isCompact())
+                childTables.remove(element);
+        }
+        else
+        {
+            Object oldBody = removeChild(element);
+            if (oldBody != null)
+            {
+                IElement parent = Elements.getParent(element);
+                if (softCache != null && peek(parent) != null)
+                {
+                    // the parent is probably being closed; keep the child
+                    // body until the parent body is removed and archived.
+                    // The body still counts toward the weight of the parent
+                    detachedChildren.computeIfAbsent(parent,
+                        k -> new HashMap<>()).put(element, oldBody);
+                }
+                else if (isWeighted())
+                    weightedFileCache.addChildWeight(parent, -weighChild(
+                        element, oldBody));
+            }
+        }
+    }
+
+    @Override
+    public boolean restoreStructure(IElement file, long stamp,
+        byte[] contentsDigest, Map<IElement, Object> newElements)
+    {
+        SoftStructureCache softCache = this.softCache;
+        if (softCache == null)
+            return false;
+        return softCache.restore(file, stamp, contentsDigest, newElements);
+    }
+
+    @Override
+    public void ensureFileCacheSize(int fileCount, IElement parent)
+    {
+        if (fileCache != null)
+            fileCache.ensureMaxSize(fileCount, parent);
+        else if (lfuFileCache != null)
+            lfuFileCache.ensureMaxSize(fileCount, parent);
+    }
+
+    @Override
+    public void releaseFileCacheSize(IElement parent)
+    {
+        if (fileCache != null)
+            fileCache.resetMaxSize(DEFAULT_FILE_SIZE, parent);
+        else if (lfuFileCache != null)
+            lfuFileCache.resetMaxSize(DEFAULT_FILE_SIZE, parent);
+    }
+
+    @Override
+    public int getProjectCount()
+    {
+        return projectCache.size();
+    }
+
+    @Override
+    public int getFileCount()
+    {
+        if (isWeighted())
+            return weightedFileCache.size();
+        else if (isFrequencyAware())
+            return lfuFileCache.size();
+        else
+            return fileCache.size();
+    }
+
+    @Override
+    public int getChildCount()
+    {
+        if (!isCompact())
+            return childrenCache.size();
+        int count = 0;
+        for (CompactStructureTable table : childTables.values())
+            count += table.size();
+        return count;
+    }
+
+    /**
+     * Sets the second-tier cache for the structure of removed Foo files.
+     *
+     * @param softCache the second-tier cache, or <code>null</code>
+     *  to disable the second tier
+     */
+    void setSoftStructureCache(SoftStructureCache softCache)
+    {
+        this.softCache = softCache;
+        if (isWeighted())
+        {
+            detachedChildren.forEach((parent, detached) ->
+            {
+                detached.forEach((child, body) ->
+                    weightedFileCache.addChildWeight(parent, -weighChild(child,
+                        body)));
+            });
+        }
+        detachedChildren.clear();
+    }
+
+    /**
+     * Returns whether this cache bounds open Foo files by their estimated
+     * retained size rather than by their number.
+     *
+     * @return <code>true</code> if this cache is memory-bounded,
+     *  and <code>false</code> if it is count-bounded
+     */
+    boolean isWeighted()
+    {
+        return weightedFileCache != null;
+    }
+
+    /**
+     * Returns whether this cache bounds the number of open Foo files
+     * with a frequency-aware policy.
+     *
+     * @return <code>true</code> if the file cache is frequency-aware,
+     *  and <code>false</code> otherwise
+     */
+    boolean isFrequencyAware()
+    {
+        return lfuFileCache != null;
+    }
+
+    /**
+     * Returns whether this cache keeps the bodies of children of open
+     * Foo files in compact per-file tables.
+     *
+     * @return <code>true</code> if children are kept in compact form,
+     *  and <code>false</code> otherwise
+     */
+    boolean isCompact()
+    {
+        return childTables != null;
+    }
+
+    /**
+     * Returns the maximum total weight of open Foo files in bytes,
+     * or <code>-1</code> if this cache is count-bounded.
+     *
+     * @return the file budget in bytes, or <code>-1</code>
+     */
+    long getFileBudget()
+    {
+        return isWeighted() ? weightedFileCache.getBudget() : -1;
+    }
+
+    /**
+     * Returns the estimated total weight of open Foo files (including their
+     * children) in bytes, or <code>-1</code> if this cache is count-bounded.
+     *
+     * @return the total weight of open Foo files in bytes, or <code>-1</code>
+     */
+    long getFileWeight()
+    {
+        return isWeighted() ? weightedFileCache.getTotalWeight() : -1;
+    }
+
+    /**
+     * Returns the estimated weight of the given open Foo file (including
+     * its children) in bytes, or <code>-1</code> if this cache is
+     * count-bounded.
+     *
+     * @param element a Foo file (not <code>null</code>)
+     * @return the weight of the Foo file in bytes, or <code>-1</code>
+     */
+    long getFileWeight(IElement element)
+    {
+        return isWeighted() ? weightedFileCache.getWeight(element) : -1;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("FooModelCache [projects="); //$NON-NLS-1$
+        sb.append(projectCache.size());
+        sb.append(", files="); //$NON-NLS-1$
+        sb.append(files);
+        sb.append(", children="); //$NON-NLS-1$
+        sb.append(getChildCount());
+        if (softCache != null)
+        {
+            sb.append(", soft="); //$NON-NLS-1$
+            sb.append(softCache.size());
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+    private void initChildrenCache(boolean compact)
+    {
+        if (compact)
+            childTables = new HashMap<>(DEFAULT_FILE_SIZE);
         else
-            childrenCache.remove(element);
+            childrenCache = new HashMap<>(DEFAULT_CHILDREN_SIZE);
+    }
+
+    private Object undetach(IElement child)
+    {
+        IElement parent = Elements.getParent(child);
+        Map<IElement, Object> detached = detachedChildren.get(parent);
+        if (detached == null)
+            return null;
+        Object body = detached.remove(child);
+        if (detached.isEmpty())
+            detachedChildren.remove(parent);
+        return body;
+    }
+
+    private void archive(IElement file, Object body)
+    {
+        Map<IElement, Object> detached = detachedChildren.remove(file);
+        if (softCache == null || !(body instanceof SourceElementBody))
+            return;
+        SourceElementBody fileBody = (SourceElementBody)body;
+        Long stamp = fileBody.get(FooFile.MODIFICATION_STAMP);
+        byte[] contentsDigest = fileBody.get(FooFile.CONTENTS_DIGEST);
+        if (stamp == null || contentsDigest == null)
+            return;
+        IElement[] children = fileBody.getChildren();
+        Map<IElement, Object> childBodies = new HashMap<>(children.length * 4
+            / 3 + 1);
+        for (IElement child : children)
+        {
+            Object childBody = getChild(child);
+            if (childBody == null && detached != null)
+                childBody = detached.get(child);
+            if (childBody == null)
+                return; // incomplete structure
+            childBodies.put(child, childBody);
+        }
+        softCache.put(file, stamp, contentsDigest, body, childBodies);
+    }
+
+    private long weighFile(IElement element, Object body)
+    {
+        // children put before the file itself are accounted for here;
+        // children put afterwards are added via addChildWeight
+        long weight = FooBodyWeigher.weigh(element, body);
+        for (IElement child : ((Body)body).getChildren())
+        {
+            Object childBody = getChild(child);
+            if (childBody != null)
+                weight += weighChild(child, childBody);
+        }
+        return weight;
+    }
+
+    private long weighChild(IElement element, Object body)
+    {
+        if (isCompact())
+            return FooBodyWeigher.weighCompact(element, body);
+        return FooBodyWeigher.weigh(element, body);
+    }
+
+    private Object getChild(IElement element)
+    {
+        if (!isCompact())
+            return childrenCache.get(element);
+        CompactStructureTable table = childTables.get(Elements.getParent(
+            element));
+        if (table == null)
+            return null;
+        return table.get(element);
+    }
+
+    private Object putChild(IElement element, Object body)
+    {
+        if (!isCompact())
+            return childrenCache.put(element, body);
+        IElement parent = Elements.getParent(element);
+        CompactStructureTable table = childTables.get(parent);
+        if (table == null)
+        {
+            Object parentBody = peek(parent);
+            table = new CompactStructureTable(parentBody instanceof Body
+                ? ((Body)parentBody).getChildren().length : 0);
+            childTables.put(parent, table);
+        }
+        Object oldBody = table.get(element);
+        table.put(element, (SourceElementBody)body);
+        return oldBody;
+    }
+
+    private Object removeChild(IElement element)
+    {
+        if (!isCompact())
+            return childrenCache.remove(element);
+        IElement parent = Elements.getParent(element);
+        CompactStructureTable table = childTables.get(parent);
+        if (table == null)
+            return null;
+        Object oldBody = table.remove(element);
+        if (table.size() == 0)
+            childTables.remove(parent);
+        return oldBody;
     }
 }
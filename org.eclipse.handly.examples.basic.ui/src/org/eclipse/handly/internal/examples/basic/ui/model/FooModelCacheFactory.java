@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+/**
+ * Assembles the Foo Model cache according to the {@link FooModelOptions}.
+ * <p>
+ * The cache is a {@link FooModelCache} configured with the file cache
+ * budget, compact structure and soft structure cache options, which is
+ * decorated by an {@link InstrumentedFooModelCache} that records cache
+ * hits and misses, which in turn is decorated by a {@link
+ * ConcurrentReadFooModelCache} that is enabled according to the concurrent
+ * reads option.
+ * </p>
+ */
+final class FooModelCacheFactory
+{
+    /**
+     * Creates a new Foo Model cache.
+     *
+     * @param options the options of the Foo Model (not <code>null</code>)
+     * @param pinnedFiles the files that must not be evicted, or
+     *  <code>null</code> if the number of open Foo files is to be bounded
+     *  with an LRU policy; ignored if the file cache budget is set
+     * @param metrics the metrics to record cache hits and misses to
+     *  (not <code>null</code>)
+     * @return the outermost cache (never <code>null</code>)
+     */
+    static ConcurrentReadFooModelCache createCache(FooModelOptions options,
+        PinnedFiles pinnedFiles, FooModelMetrics metrics)
+    {
+        long fileBudget = options.getFileCacheBudget();
+        FooModelCache cache = new FooModelCache(fileBudget,
+            options.isCompactStructure(), fileBudget > 0 ? null : pinnedFiles);
+        if (!options.isSoftStructureCache())
+            cache.setSoftStructureCache(null);
+        return new ConcurrentReadFooModelCache(new InstrumentedFooModelCache(
+            cache, metrics), options.isConcurrentReads());
+    }
+
+    private FooModelCacheFactory()
+    {
+    }
+}
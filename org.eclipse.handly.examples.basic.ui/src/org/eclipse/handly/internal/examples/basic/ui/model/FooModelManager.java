@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -12,15 +12,37 @@
  *******************************************************************************/
 package org.eclipse.handly.internal.examples.basic.ui.model;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.handly.context.Context;
 import org.eclipse.handly.context.IContext;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
 import org.eclipse.handly.internal.examples.basic.ui.Activator;
 import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeListener;
 import org.eclipse.handly.model.IElementDelta;
-import org.eclipse.handly.model.impl.support.ElementChangeEvent;
+import org.eclipse.handly.model.impl.support.ElementDelta;
 import org.eclipse.handly.model.impl.support.ElementManager;
 import org.eclipse.handly.model.impl.support.IModelManager;
 import org.eclipse.handly.model.impl.support.INotificationManager;
@@ -39,29 +61,152 @@ public class FooModelManager
      */
     public static final FooModelManager INSTANCE = new FooModelManager();
 
+    private static final String STRUCTURE_STORE_FILE = "structure.dat"; //$NON-NLS-1$
+    private static final int MAX_PENDING_DIFFERENCERS = 1000;
+
+    private FooModelOptions options;
     private FooModel fooModel;
+    private FooProjectRegistry projectRegistry;
+    private FooModelMetrics metrics;
+    private PinnedFiles pinnedFiles;
+    private ResourceSetPool resourceSetPool;
+    private ForkJoinPool openPool;
+    private FooFileOpener fooFileOpener;
+    private IFooModelCache modelCache;
+    private ConcurrentReadFooModelCache concurrentReadCache;
+    private FooStructureStore structureStore;
+    private Job structureStoreLoadJob;
+    // differencers of changed Foo files that have not been opened since
+    private final Map<IFooFile, FooFileDifferencer> pendingDifferencers =
+        new ConcurrentHashMap<>();
+    // differencers of changed Foo files that have been opened since
+    private final Queue<FooFileDifferencer> openedDifferencers =
+        new ConcurrentLinkedQueue<>();
+    private Job differencingJob;
     private ElementManager elementManager;
-    private NotificationManager notificationManager;
+    private FooModelNotifier notifier;
+    private FooSymbolIndex symbolIndex;
     private Context modelContext;
 
     public void startup() throws Exception
     {
+        options = FooModelOptions.fromSystemProperties();
         fooModel = new FooModel();
-        elementManager = new ElementManager(new FooModelCache());
-        notificationManager = new NotificationManager();
+        projectRegistry = new FooProjectRegistry();
+        projectRegistry.initialize(fooModel.getWorkspace().getRoot());
+        metrics = new FooModelMetrics();
+        resourceSetPool = new ResourceSetPool();
+        openPool = new ForkJoinPool();
+        fooFileOpener = new FooFileOpener(openPool);
+        if (options.isFrequencyAwareCache())
+            pinnedFiles = new PinnedFiles();
+        modelCache = concurrentReadCache = FooModelCacheFactory.createCache(
+            options, pinnedFiles, metrics);
+        if (options.isStructureStore())
+        {
+            structureStore = new FooStructureStore();
+            loadStructureStore(structureStore);
+        }
+        elementManager = new ElementManager(modelCache);
+        notifier = new FooModelNotifier(options, metrics);
+        symbolIndex = new FooSymbolIndex(options.isSymbolIndexStore()
+            ? loadSymbolIndexFile() : null);
+        notifier.getNotificationManager().addElementChangeListener(
+            symbolIndex);
+        symbolIndex.initialize(fooModel);
+        if (options.isEagerSymbolIndex())
+            symbolIndex.build();
         modelContext = new Context();
-        modelContext.bind(INotificationManager.class).to(notificationManager);
+        modelContext.bind(INotificationManager.class).to(
+            notifier.getNotificationManager());
+        differencingJob = new Job("Computing Foo element deltas") //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                fireDifferencedDeltas();
+                return Status.OK_STATUS;
+            }
+        };
+        differencingJob.setSystem(true);
         fooModel.getWorkspace().addResourceChangeListener(this,
             IResourceChangeEvent.POST_CHANGE);
+        registerStatisticsMBean();
     }
 
     public void shutdown() throws Exception
     {
+        unregisterStatisticsMBean();
         fooModel.getWorkspace().removeResourceChangeListener(this);
+        differencingJob.cancel();
+        try
+        {
+            differencingJob.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        differencingJob = null;
+        pendingDifferencers.clear();
+        openedDifferencers.clear();
+        notifier.dispose();
+        if (structureStore != null)
+        {
+            try
+            {
+                structureStoreLoadJob.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            structureStoreLoadJob = null;
+            try
+            {
+                structureStore.save(getStructureStoreFile(),
+                    fooModel.getWorkspace().getRoot());
+            }
+            catch (IOException e)
+            {
+                Activator.log(Activator.createErrorStatus(e.getMessage(), e));
+            }
+            structureStore = null;
+        }
         modelContext = null;
-        notificationManager = null;
+        if (symbolIndex != null)
+        {
+            symbolIndex.dispose();
+            if (options.isSymbolIndexStore())
+            {
+                try
+                {
+                    symbolIndex.save(getSymbolIndexDirectory());
+                }
+                catch (IOException e)
+                {
+                    Activator.log(Activator.createErrorStatus(e.getMessage(),
+                        e));
+                }
+            }
+            symbolIndex = null;
+        }
+        notifier = null;
         elementManager = null;
+        modelCache = null;
+        concurrentReadCache = null;
+        metrics = null;
+        pinnedFiles = null;
+        resourceSetPool = null;
+        fooFileOpener = null;
+        if (openPool != null)
+        {
+            openPool.shutdownNow();
+            openPool = null;
+        }
+        projectRegistry = null;
         fooModel = null;
+        options = null;
     }
 
     @Override
@@ -78,13 +223,75 @@ public class FooModelManager
         }
         IElementDelta delta = deltaProcessor.getDelta();
         if (!ElementDeltas.isEmpty(delta))
+            getNotifier().deliverDelta(delta);
+        for (FooFileDifferencer differencer : deltaProcessor.getDifferencers())
         {
-            getNotificationManager().fireElementChangeEvent(
-                new ElementChangeEvent(ElementChangeEvent.POST_CHANGE,
-                    delta));
+            // the file is not re-opened just to report the changes
+            // in its children
+            if (pendingDifferencers.size() < MAX_PENDING_DIFFERENCERS)
+                pendingDifferencers.put(differencer.getFooFile(), differencer);
         }
     }
 
+    /**
+     * Notifies the manager that the given Foo file has been opened or
+     * reconciled. If the contents of the file changed while it was open
+     * and the file has not been opened since, the deltas for its children
+     * are built and fired in the background.
+     *
+     * @param fooFile the Foo file (not <code>null</code>)
+     */
+    void fileOpened(IFooFile fooFile)
+    {
+        if (pendingDifferencers.isEmpty())
+            return;
+        FooFileDifferencer differencer = pendingDifferencers.remove(fooFile);
+        Job differencingJob = this.differencingJob;
+        if (differencer != null && differencingJob != null)
+        {
+            openedDifferencers.add(differencer);
+            differencingJob.schedule();
+        }
+    }
+
+    /**
+     * Discards the recorded structure of the given Foo file, if any,
+     * so that no deltas will be fired for its children.
+     *
+     * @param fooFile the Foo file (not <code>null</code>)
+     */
+    void discardDifferencer(IFooFile fooFile)
+    {
+        pendingDifferencers.remove(fooFile);
+    }
+
+    /**
+     * Waits until the deltas for the children of changed Foo files that
+     * have been opened so far have been fired. Such deltas are built and
+     * fired in the background after the file is opened. Intended for tests.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void joinDifferencing() throws InterruptedException
+    {
+        Job differencingJob = this.differencingJob;
+        if (differencingJob != null)
+            differencingJob.join();
+    }
+
+    /**
+     * Fires any Foo element deltas held back by delta coalescing.
+     * Does nothing if delta coalescing is disabled.
+     *
+     * @see FooModelOptions#DELTA_QUIET_WINDOW_PROPERTY
+     */
+    public void flushDeltas()
+    {
+        FooModelNotifier notifier = this.notifier;
+        if (notifier != null)
+            notifier.flushDeltas();
+    }
+
     @Override
     public FooModel getModel()
     {
@@ -101,11 +308,257 @@ public class FooModelManager
         return elementManager;
     }
 
+    /**
+     * Returns the registry of known Foo projects.
+     *
+     * @return the Foo project registry (never <code>null</code>)
+     */
+    FooProjectRegistry getProjectRegistry()
+    {
+        if (projectRegistry == null)
+            throw new IllegalStateException();
+        return projectRegistry;
+    }
+
+    /**
+     * Returns the workspace-wide index of Foo symbols.
+     *
+     * @return the Foo symbol index (never <code>null</code>)
+     */
+    FooSymbolIndex getSymbolIndex()
+    {
+        if (symbolIndex == null)
+            throw new IllegalStateException();
+        return symbolIndex;
+    }
+
+    IFooModelCache getModelCache()
+    {
+        if (modelCache == null)
+            throw new IllegalStateException();
+        return modelCache;
+    }
+
+    /**
+     * Returns the body of the given element if it can be found without
+     * taking the element manager's lock.
+     *
+     * @param element a Foo element (not <code>null</code>)
+     * @return the body of the element, or <code>null</code> if the body
+     *  must be looked up under the lock
+     * @see FooModelOptions#CONCURRENT_READS_PROPERTY
+     */
+    Object findBodyConcurrently(IElement element)
+    {
+        ConcurrentReadFooModelCache concurrentReadCache =
+            this.concurrentReadCache;
+        if (concurrentReadCache == null)
+            return null;
+        return concurrentReadCache.getConcurrently(element);
+    }
+
+    /**
+     * Enables or disables reads of bodies without the element manager's
+     * lock, overriding the {@link FooModelOptions#CONCURRENT_READS_PROPERTY}.
+     * Intended for tests and benchmarks.
+     *
+     * @param enabled whether bodies should be read without the lock
+     *  when possible
+     */
+    void setConcurrentReads(boolean enabled)
+    {
+        ConcurrentReadFooModelCache concurrentReadCache =
+            this.concurrentReadCache;
+        if (concurrentReadCache == null)
+            throw new IllegalStateException();
+        concurrentReadCache.setEnabled(enabled);
+    }
+
+    /**
+     * Returns whether bodies are read without the element manager's lock
+     * when possible.
+     *
+     * @return <code>true</code> if concurrent reads are enabled,
+     *  and <code>false</code> otherwise
+     */
+    boolean isConcurrentReads()
+    {
+        ConcurrentReadFooModelCache concurrentReadCache =
+            this.concurrentReadCache;
+        return concurrentReadCache != null && concurrentReadCache.isEnabled();
+    }
+
+    /**
+     * Returns a snapshot of statistics of the Foo Model, such as cache
+     * hits and misses, cache sizes, and body build times. The same
+     * statistics are available through JMX under the {@link
+     * FooModelStatisticsMXBean#OBJECT_NAME}.
+     *
+     * @return a new statistics snapshot (never <code>null</code>)
+     */
+    public FooModelStatistics getStatistics()
+    {
+        if (metrics == null)
+            throw new IllegalStateException();
+        ElementManager elementManager = getElementManager();
+        synchronized (elementManager)
+        {
+            // the cache is guarded by the element manager
+            return metrics.snapshot(modelCache);
+        }
+    }
+
+    FooModelMetrics getMetrics()
+    {
+        if (metrics == null)
+            throw new IllegalStateException();
+        return metrics;
+    }
+
+    ResourceSetPool getResourceSetPool()
+    {
+        if (resourceSetPool == null)
+            throw new IllegalStateException();
+        return resourceSetPool;
+    }
+
+    /**
+     * Returns the opener used for bulk opening of Foo files.
+     *
+     * @return the Foo file opener (never <code>null</code>)
+     */
+    FooFileOpener getFooFileOpener()
+    {
+        if (fooFileOpener == null)
+            throw new IllegalStateException();
+        return fooFileOpener;
+    }
+
+    /**
+     * Ensures that the Foo Model cache has room for the given number of
+     * open Foo files on behalf of the given parent element.
+     *
+     * @param fileCount the number of Foo files
+     * @param parent a Foo project or the Foo model (not <code>null</code>)
+     * @see IFooModelCache#ensureFileCacheSize(int, IElement)
+     */
+    void ensureFileCacheSize(int fileCount, IElement parent)
+    {
+        ElementManager elementManager = getElementManager();
+        synchronized (elementManager)
+        {
+            // the cache is guarded by the element manager
+            getModelCache().ensureFileCacheSize(fileCount, parent);
+        }
+    }
+
+    /**
+     * Releases the room for open Foo files ensured on behalf of the given
+     * parent element.
+     *
+     * @param parent a Foo project or the Foo model (not <code>null</code>)
+     * @see IFooModelCache#releaseFileCacheSize(IElement)
+     */
+    void releaseFileCacheSize(IElement parent)
+    {
+        ElementManager elementManager = getElementManager();
+        synchronized (elementManager)
+        {
+            // the cache is guarded by the element manager
+            getModelCache().releaseFileCacheSize(parent);
+        }
+    }
+
+    /**
+     * Returns whether the structure of Foo files should be built by
+     * a {@link FooFileScanner} when possible.
+     *
+     * @return <code>true</code> if the fast scanner is enabled,
+     *  and <code>false</code> otherwise
+     */
+    boolean isFastScannerEnabled()
+    {
+        FooModelOptions options = this.options;
+        return options != null && options.isFastScanner();
+    }
+
+    /**
+     * Notifies the manager that the contents of the given Foo file
+     * have changed.
+     *
+     * @param fooFile the Foo file (not <code>null</code>)
+     */
+    void fileEdited(IFooFile fooFile)
+    {
+        PinnedFiles pinnedFiles = this.pinnedFiles;
+        if (pinnedFiles != null)
+            pinnedFiles.fileEdited(fooFile);
+    }
+
+    /**
+     * Returns the persistent store of the structure of Foo files.
+     *
+     * @return the structure store, or <code>null</code> if the structure
+     *  of Foo files is not persisted
+     */
+    FooStructureStore getStructureStore()
+    {
+        return structureStore;
+    }
+
     public NotificationManager getNotificationManager()
     {
-        if (notificationManager == null)
+        return getNotifier().getNotificationManager();
+    }
+
+    /**
+     * Adds the given element change listener. If {@link
+     * FooModelOptions#ASYNC_DISPATCH_PROPERTY asynchronous dispatch}
+     * is enabled, the listener will be notified in a dispatch thread.
+     *
+     * @param listener the listener (not <code>null</code>)
+     */
+    void addElementChangeListener(IElementChangeListener listener)
+    {
+        getNotifier().addElementChangeListener(listener);
+    }
+
+    /**
+     * Adds a filtered subscription for the given element change listener.
+     * If {@link FooModelOptions#ASYNC_DISPATCH_PROPERTY asynchronous
+     * dispatch} is enabled, the listener will be notified in a dispatch
+     * thread.
+     *
+     * @param listener the listener (not <code>null</code>)
+     * @param scope the scope element (not <code>null</code>)
+     * @param kinds a bit mask of delta kinds
+     * @param flags a bit mask of delta flags, or 0 for any flags
+     * @see org.eclipse.handly.examples.basic.ui.model.IFooModel#addElementChangeListener(IElementChangeListener,
+     *  org.eclipse.handly.examples.basic.ui.model.IFooElement, int, long)
+     */
+    void addElementChangeListener(IElementChangeListener listener,
+        IElement scope, int kinds, long flags)
+    {
+        getNotifier().addElementChangeListener(listener, scope, kinds, flags);
+    }
+
+    /**
+     * Removes the given element change listener, including its filtered
+     * subscriptions. Once this method returns, the listener is no longer
+     * notified, except for a notification that may already be in progress.
+     *
+     * @param listener the listener (not <code>null</code>)
+     */
+    void removeElementChangeListener(IElementChangeListener listener)
+    {
+        getNotifier().removeElementChangeListener(listener);
+    }
+
+    private FooModelNotifier getNotifier()
+    {
+        if (notifier == null)
             throw new IllegalStateException();
-        return notificationManager;
+        return notifier;
     }
 
     public IContext getModelContext()
@@ -118,4 +571,117 @@ public class FooModelManager
     private FooModelManager()
     {
     }
+
+    private void fireDifferencedDeltas()
+    {
+        ElementDelta.Builder builder = new ElementDelta.Builder(
+            new ElementDelta(getModel()));
+        FooFileDifferencer differencer;
+        while ((differencer = openedDifferencers.poll()) != null)
+        {
+            if (!differencer.getFooFile().exists())
+                continue; // the removal has already been reported
+            differencer.buildDelta(builder); // the change has been reported
+        }
+        IElementDelta delta = builder.getDelta();
+        if (!ElementDeltas.isEmpty(delta))
+            getNotifier().deliverDelta(delta);
+    }
+
+    private void registerStatisticsMBean()
+    {
+        // each attribute read takes a fresh snapshot
+        FooModelStatisticsMXBean mbean =
+            (FooModelStatisticsMXBean)Proxy.newProxyInstance(
+                FooModelStatisticsMXBean.class.getClassLoader(),
+                new Class<?>[] { FooModelStatisticsMXBean.class },
+                (proxy, method, args) ->
+                {
+                    try
+                    {
+                        return method.invoke(getStatistics(), args);
+                    }
+                    catch (InvocationTargetException e)
+                    {
+                        throw e.getCause();
+                    }
+                });
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                new StandardMBean(mbean, FooModelStatisticsMXBean.class,
+                    true), new ObjectName(
+                        FooModelStatisticsMXBean.OBJECT_NAME));
+        }
+        catch (JMException e)
+        {
+            Activator.log(Activator.createErrorStatus(e.getMessage(), e));
+        }
+    }
+
+    private static void unregisterStatisticsMBean()
+    {
+        try
+        {
+            ObjectName name = new ObjectName(
+                FooModelStatisticsMXBean.OBJECT_NAME);
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name))
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                    name);
+        }
+        catch (JMException e)
+        {
+            Activator.log(Activator.createErrorStatus(e.getMessage(), e));
+        }
+    }
+
+    private void loadStructureStore(FooStructureStore store)
+    {
+        // Foo files opened meanwhile just don't find their stored structure
+        structureStoreLoadJob = new Job("Loading Foo structure store") //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                try
+                {
+                    store.load(getStructureStoreFile(),
+                        fooModel.getWorkspace().getRoot());
+                }
+                catch (IOException e)
+                {
+                    Activator.log(Activator.createErrorStatus(e.getMessage(),
+                        e));
+                }
+                return Status.OK_STATUS;
+            }
+        };
+        structureStoreLoadJob.setSystem(true);
+        structureStoreLoadJob.schedule();
+    }
+
+    private static File getStructureStoreFile()
+    {
+        return Activator.getInstance().getStateLocation().append(
+            STRUCTURE_STORE_FILE).toFile();
+    }
+
+    private static FooSymbolIndexFile loadSymbolIndexFile()
+    {
+        try
+        {
+            return FooSymbolIndexFile.openGeneration(
+                getSymbolIndexDirectory());
+        }
+        catch (IOException e)
+        {
+            Activator.log(Activator.createErrorStatus(e.getMessage(), e));
+            return null;
+        }
+    }
+
+    private static File getSymbolIndexDirectory()
+    {
+        return Activator.getInstance().getStateLocation().toFile();
+    }
 }
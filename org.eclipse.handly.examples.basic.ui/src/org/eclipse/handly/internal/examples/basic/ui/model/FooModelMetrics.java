@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.IElement;
+
+/**
+ * Collects statistics of the Foo Model.
+ *
+ * @threadsafe This class is intended to be thread-safe
+ * @see FooModelStatistics
+ */
+final class FooModelMetrics
+{
+    final LongAdder projectHits = new LongAdder();
+    final LongAdder projectMisses = new LongAdder();
+    final LongAdder fileHits = new LongAdder();
+    final LongAdder fileMisses = new LongAdder();
+    final LongAdder childHits = new LongAdder();
+    final LongAdder childMisses = new LongAdder();
+    final LongAdder fileEvictions = new LongAdder();
+    final LongAdder fileStoreRestores = new LongAdder();
+    final LongAdder childBuilds = new LongAdder();
+    final LongAdder deltas = new LongAdder();
+    final LongAdder deltaEvents = new LongAdder();
+    final LatencyHistogram projectBuilds = new LatencyHistogram();
+    final LatencyHistogram fileParses = new LatencyHistogram();
+    final LatencyHistogram fileRestores = new LatencyHistogram();
+
+    /**
+     * Records a cache lookup of the body of the given element.
+     *
+     * @param element the element (not <code>null</code>)
+     * @param found whether the body was found in the cache
+     */
+    void bodyLookedUp(IElement element, boolean found)
+    {
+        if (element instanceof IFooModel)
+            return;
+        else if (element instanceof IFooProject)
+            (found ? projectHits : projectMisses).increment();
+        else if (element instanceof IFooFile)
+            (found ? fileHits : fileMisses).increment();
+        else
+            (found ? childHits : childMisses).increment();
+    }
+
+    /**
+     * Records the build of a Foo project body.
+     *
+     * @param nanos the build time in nanoseconds
+     */
+    void projectBuilt(long nanos)
+    {
+        projectBuilds.record(nanos);
+    }
+
+    /**
+     * Records the build of a Foo file structure by parsing.
+     *
+     * @param nanos the build time in nanoseconds
+     * @param childCount the number of children of the file
+     */
+    void fileParsed(long nanos, int childCount)
+    {
+        fileParses.record(nanos);
+        childBuilds.add(childCount);
+    }
+
+    /**
+     * Records the restore of a Foo file structure without parsing.
+     *
+     * @param nanos the restore time in nanoseconds
+     * @param childCount the number of children of the file
+     * @param fromStore whether the structure was restored from
+     *  the persistent structure store
+     */
+    void fileRestored(long nanos, int childCount, boolean fromStore)
+    {
+        fileRestores.record(nanos);
+        childBuilds.add(childCount);
+        if (fromStore)
+            fileStoreRestores.increment();
+    }
+
+    /**
+     * Records the eviction of a Foo file from the cache.
+     */
+    void fileEvicted()
+    {
+        fileEvictions.increment();
+    }
+
+    /**
+     * Records the delivery of Foo element deltas, which have been merged
+     * into one delta.
+     *
+     * @param deltaCount the number of merged deltas
+     * @param fired whether an event has been fired for the merged delta,
+     *  i.e. whether the merged delta is not empty
+     */
+    void deltasDelivered(int deltaCount, boolean fired)
+    {
+        deltas.add(deltaCount);
+        if (fired)
+            deltaEvents.increment();
+    }
+
+    /**
+     * Returns a snapshot of the statistics collected so far, along with
+     * the current sizes of the given cache. The caller must hold the lock
+     * guarding the cache.
+     *
+     * @param cache the Foo Model cache (not <code>null</code>)
+     * @return a new snapshot (never <code>null</code>)
+     */
+    FooModelStatistics snapshot(IFooModelCache cache)
+    {
+        return new FooModelStatistics(this, cache);
+    }
+}
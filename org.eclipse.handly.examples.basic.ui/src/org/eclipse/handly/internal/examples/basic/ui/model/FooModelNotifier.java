@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.impl.support.ElementChangeEvent;
+import org.eclipse.handly.model.impl.support.NotificationManager;
+
+/**
+ * Delivers Foo element deltas to element change listeners.
+ * <p>
+ * Wires together the notification manager of the Foo Model, the {@link
+ * FooElementChangeRouter} that serves filtered subscriptions and,
+ * according to the {@link FooModelOptions}, a {@link FooDeltaCoalescer}
+ * that merges deltas over a quiet window and an {@link
+ * AsyncElementChangeDispatcher} that notifies listeners in a dedicated
+ * thread pool.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooModelNotifier
+{
+    private final NotificationManager notificationManager =
+        new NotificationManager();
+    private final FooElementChangeRouter elementChangeRouter =
+        new FooElementChangeRouter();
+    private final FooModelMetrics metrics;
+    private final FooDeltaCoalescer deltaCoalescer;
+    private final ExecutorService dispatchExecutor;
+    private final AsyncElementChangeDispatcher dispatcher;
+
+    /**
+     * Constructs a new notifier.
+     *
+     * @param options the options of the Foo Model (not <code>null</code>)
+     * @param metrics the metrics to record delivered deltas to
+     *  (not <code>null</code>)
+     */
+    FooModelNotifier(FooModelOptions options, FooModelMetrics metrics)
+    {
+        if (options == null || metrics == null)
+            throw new IllegalArgumentException();
+        this.metrics = metrics;
+        long quietMillis = options.getDeltaQuietWindow();
+        if (quietMillis > 0)
+        {
+            deltaCoalescer = new FooDeltaCoalescer(quietMillis,
+                options.getDeltaBatchSize(), this::fireElementChangeEvent,
+                metrics);
+        }
+        else
+            deltaCoalescer = null;
+        if (options.isAsyncDispatch())
+        {
+            dispatchExecutor = createDispatchExecutor();
+            dispatcher = new AsyncElementChangeDispatcher(dispatchExecutor,
+                options.getDispatchQueueCapacity(),
+                options.getDispatchOverflowPolicy());
+        }
+        else
+        {
+            dispatchExecutor = null;
+            dispatcher = null;
+        }
+        notificationManager.addElementChangeListener(elementChangeRouter);
+    }
+
+    /**
+     * Returns the notification manager of the Foo Model. Listeners added
+     * directly to the notification manager are always notified in the
+     * thread that fires the event.
+     *
+     * @return the notification manager (never <code>null</code>)
+     */
+    NotificationManager getNotificationManager()
+    {
+        return notificationManager;
+    }
+
+    /**
+     * Adds the given element change listener. If asynchronous dispatch
+     * is enabled, the listener will be notified in a dispatch thread.
+     *
+     * @param listener the listener (not <code>null</code>)
+     */
+    void addElementChangeListener(IElementChangeListener listener)
+    {
+        notificationManager.addElementChangeListener(dispatcher == null
+            ? listener : dispatcher.wrap(listener));
+    }
+
+    /**
+     * Adds a filtered subscription for the given element change listener.
+     * If asynchronous dispatch is enabled, the listener will be notified
+     * in a dispatch thread.
+     *
+     * @param listener the listener (not <code>null</code>)
+     * @param scope the scope element (not <code>null</code>)
+     * @param kinds a bit mask of delta kinds
+     * @param flags a bit mask of delta flags, or 0 for any flags
+     */
+    void addElementChangeListener(IElementChangeListener listener,
+        IElement scope, int kinds, long flags)
+    {
+        elementChangeRouter.subscribe(listener, dispatcher == null ? listener
+            : dispatcher.wrap(listener), scope, kinds, flags);
+    }
+
+    /**
+     * Removes the given element change listener, including its filtered
+     * subscriptions. Once this method returns, the listener is no longer
+     * notified, except for a notification that may already be in progress.
+     *
+     * @param listener the listener (not <code>null</code>)
+     */
+    void removeElementChangeListener(IElementChangeListener listener)
+    {
+        elementChangeRouter.unsubscribe(listener);
+        if (dispatcher != null)
+        {
+            IElementChangeListener wrapper = dispatcher.unwrap(listener);
+            if (wrapper == null)
+                return;
+            listener = wrapper;
+        }
+        notificationManager.removeElementChangeListener(listener);
+    }
+
+    /**
+     * Fires the given delta, or queues it for delivery if delta
+     * coalescing is enabled.
+     *
+     * @param delta a Foo element delta (not <code>null</code>)
+     */
+    void deliverDelta(IElementDelta delta)
+    {
+        if (deltaCoalescer != null)
+            deltaCoalescer.add(delta);
+        else
+        {
+            metrics.deltasDelivered(1, true);
+            fireElementChangeEvent(delta);
+        }
+    }
+
+    /**
+     * Fires any deltas held back by delta coalescing. Does nothing
+     * if delta coalescing is disabled.
+     */
+    void flushDeltas()
+    {
+        if (deltaCoalescer != null)
+            deltaCoalescer.flush();
+    }
+
+    /**
+     * Fires any deltas held back by delta coalescing and stops
+     * asynchronous dispatch.
+     */
+    void dispose()
+    {
+        if (deltaCoalescer != null)
+            deltaCoalescer.dispose();
+        if (dispatcher != null)
+            dispatcher.dispose();
+        if (dispatchExecutor != null)
+            dispatchExecutor.shutdownNow();
+    }
+
+    private void fireElementChangeEvent(IElementDelta delta)
+    {
+        notificationManager.fireElementChangeEvent(new ElementChangeEvent(
+            ElementChangeEvent.POST_CHANGE, delta));
+    }
+
+    private static ExecutorService createDispatchExecutor()
+    {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.min(4,
+            Runtime.getRuntime().availableProcessors()), runnable ->
+            {
+                Thread thread = new Thread(runnable,
+                    "Foo Model Event Dispatcher-" //$NON-NLS-1$
+                        + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+}
@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Locale;
+import java.util.Properties;
+
+import org.eclipse.handly.internal.examples.basic.ui.Activator;
+import org.eclipse.handly.internal.examples.basic.ui.model.AsyncElementChangeDispatcher.OverflowPolicy;
+
+/**
+ * The tuning options of the Foo Model, as specified by system properties.
+ * <p>
+ * The options are read once, when the {@link FooModelManager} starts up.
+ * Values that are malformed or out of range are replaced with the nearest
+ * valid value, or with the default if there is none.
+ * </p>
+ *
+ * @threadsafe This class is immutable
+ */
+public final class FooModelOptions
+{
+    /**
+     * System property that specifies the budget for open Foo files
+     * in bytes. If the property is set to a positive value, open Foo files
+     * are evicted from the cache based on their estimated retained size
+     * (including their children) rather than on their number.
+     */
+    public static final String FILE_CACHE_BUDGET_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.fileCacheBudget"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the structure of Foo files
+     * evicted from the cache should be kept under soft references,
+     * so that it can be restored without reparsing. Enabled by default.
+     */
+    public static final String SOFT_STRUCTURE_CACHE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.softStructureCache"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the bodies of children
+     * of open Foo files should be kept in compact per-file tables
+     * and materialized on demand. Disabled by default.
+     */
+    public static final String COMPACT_STRUCTURE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.compactStructure"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the number of open Foo files
+     * should be bounded with a scan-resistant, frequency-aware policy
+     * rather than LRU. With this policy, working copies and recently
+     * edited files are never evicted. Ignored if the {@link
+     * #FILE_CACHE_BUDGET_PROPERTY file cache budget} is set.
+     * Disabled by default.
+     */
+    public static final String FREQUENCY_AWARE_CACHE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.frequencyAwareCache"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the structure of Foo files
+     * should be persisted across sessions in the plug-in state location,
+     * so that Foo files can be opened without parsing after a restart.
+     * Enabled by default.
+     */
+    public static final String STRUCTURE_STORE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.structureStore"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the Foo symbol index should be
+     * persisted across sessions in the plug-in state location, so that only
+     * the files changed since the last session need to be reindexed after
+     * a restart. Enabled by default.
+     */
+    public static final String SYMBOL_INDEX_STORE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.symbolIndexStore"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the Foo symbol index should be
+     * built as soon as the Foo Model starts up. By default, the index is
+     * built in the background when it is first queried, so that sessions
+     * without symbol queries do not pay for indexing the workspace.
+     */
+    public static final String EAGER_SYMBOL_INDEX_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.eagerSymbolIndex"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the structure of Foo files
+     * should be built by a fast scanner directly from the source text,
+     * rather than from an AST, and whether the structure of working copies
+     * should be updated incrementally on reconcile. The structure of files
+     * with syntax errors is always built from an AST. Enabled by default.
+     */
+    public static final String FAST_SCANNER_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.fastScanner"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies the quiet window for delta coalescing
+     * in milliseconds. If the property is set to a positive value, Foo
+     * element deltas are not fired as soon as they are produced from
+     * resource changes; instead, they are merged until no resource change
+     * has affected the Foo Model for the duration of the window, and then
+     * fired as one event, from a background job. Disabled by default.
+     */
+    public static final String DELTA_QUIET_WINDOW_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.deltaQuietWindow"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies the maximum number of Foo element
+     * deltas to merge when {@link #DELTA_QUIET_WINDOW_PROPERTY delta
+     * coalescing} is enabled. When this many deltas have been merged,
+     * they are fired without waiting for the quiet window to pass.
+     * The default is 100.
+     */
+    public static final String DELTA_BATCH_SIZE_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.deltaBatchSize"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether element change listeners
+     * should be notified asynchronously, by a dedicated thread pool,
+     * rather than in the thread that changed the Foo Model. Each listener
+     * receives events in order. Disabled by default.
+     */
+    public static final String ASYNC_DISPATCH_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.asyncDispatch"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies the capacity of the event queue
+     * of each listener when {@link #ASYNC_DISPATCH_PROPERTY asynchronous
+     * dispatch} is enabled. The default is 64.
+     */
+    public static final String DISPATCH_QUEUE_CAPACITY_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.dispatchQueueCapacity"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies what happens when an event is fired
+     * while the queue of a listener is full and {@link
+     * #ASYNC_DISPATCH_PROPERTY asynchronous dispatch} is enabled:
+     * <code>merge</code> (the default) merges the event with a queued event
+     * of the same type right away, <code>block</code> makes the firing
+     * thread wait for a while and then merges the events, and
+     * <code>drop</code> discards the event.
+     */
+    public static final String DISPATCH_OVERFLOW_POLICY_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.dispatchOverflowPolicy"; //$NON-NLS-1$
+
+    /**
+     * System property that specifies whether the bodies of the Foo model,
+     * Foo projects and Foo files should be read without taking the element
+     * manager's lock when they are in the cache, so that concurrent readers
+     * do not queue up behind the lock. The order of open Foo files in
+     * the cache is then only approximately LRU, and lock-free reads are
+     * counted as cache hits only when they are replayed to the cache.
+     * Disabled by default.
+     *
+     * @see ConcurrentReadFooModelCache
+     */
+    public static final String CONCURRENT_READS_PROPERTY =
+        "org.eclipse.handly.examples.basic.ui.concurrentReads"; //$NON-NLS-1$
+
+    private final long fileCacheBudget;
+    private final boolean softStructureCache;
+    private final boolean compactStructure;
+    private final boolean frequencyAwareCache;
+    private final boolean structureStore;
+    private final boolean symbolIndexStore;
+    private final boolean eagerSymbolIndex;
+    private final boolean fastScanner;
+    private final long deltaQuietWindow;
+    private final int deltaBatchSize;
+    private final boolean asyncDispatch;
+    private final int dispatchQueueCapacity;
+    private final OverflowPolicy dispatchOverflowPolicy;
+    private final boolean concurrentReads;
+
+    /**
+     * Reads the options from the given properties.
+     *
+     * @param properties the properties to read (not <code>null</code>)
+     */
+    FooModelOptions(Properties properties)
+    {
+        fileCacheBudget = Math.max(getLong(properties,
+            FILE_CACHE_BUDGET_PROPERTY, 0), 0);
+        softStructureCache = getBoolean(properties,
+            SOFT_STRUCTURE_CACHE_PROPERTY, true);
+        compactStructure = getBoolean(properties, COMPACT_STRUCTURE_PROPERTY,
+            false);
+        frequencyAwareCache = getBoolean(properties,
+            FREQUENCY_AWARE_CACHE_PROPERTY, false);
+        structureStore = getBoolean(properties, STRUCTURE_STORE_PROPERTY,
+            true);
+        symbolIndexStore = getBoolean(properties, SYMBOL_INDEX_STORE_PROPERTY,
+            true);
+        eagerSymbolIndex = getBoolean(properties, EAGER_SYMBOL_INDEX_PROPERTY,
+            false);
+        fastScanner = getBoolean(properties, FAST_SCANNER_PROPERTY, true);
+        deltaQuietWindow = Math.max(getLong(properties,
+            DELTA_QUIET_WINDOW_PROPERTY, 0), 0);
+        deltaBatchSize = Math.max(getInt(properties,
+            DELTA_BATCH_SIZE_PROPERTY, 100), 1);
+        asyncDispatch = getBoolean(properties, ASYNC_DISPATCH_PROPERTY, false);
+        dispatchQueueCapacity = Math.max(getInt(properties,
+            DISPATCH_QUEUE_CAPACITY_PROPERTY, 64), 1);
+        dispatchOverflowPolicy = getOverflowPolicy(properties);
+        concurrentReads = getBoolean(properties, CONCURRENT_READS_PROPERTY,
+            false);
+    }
+
+    /**
+     * Reads the options from the system properties.
+     *
+     * @return the options (never <code>null</code>)
+     */
+    static FooModelOptions fromSystemProperties()
+    {
+        return new FooModelOptions(System.getProperties());
+    }
+
+    /**
+     * Returns the budget for open Foo files in bytes.
+     *
+     * @return the file cache budget, or 0 if open Foo files are bounded
+     *  by their number
+     * @see #FILE_CACHE_BUDGET_PROPERTY
+     */
+    long getFileCacheBudget()
+    {
+        return fileCacheBudget;
+    }
+
+    /**
+     * Returns whether the structure of evicted Foo files is kept under
+     * soft references.
+     *
+     * @see #SOFT_STRUCTURE_CACHE_PROPERTY
+     */
+    boolean isSoftStructureCache()
+    {
+        return softStructureCache;
+    }
+
+    /**
+     * Returns whether the bodies of children of open Foo files are kept
+     * in compact tables.
+     *
+     * @see #COMPACT_STRUCTURE_PROPERTY
+     */
+    boolean isCompactStructure()
+    {
+        return compactStructure;
+    }
+
+    /**
+     * Returns whether the number of open Foo files is bounded with
+     * a frequency-aware policy. Always <code>false</code> if the {@link
+     * #getFileCacheBudget() file cache budget} is set.
+     *
+     * @see #FREQUENCY_AWARE_CACHE_PROPERTY
+     */
+    boolean isFrequencyAwareCache()
+    {
+        return frequencyAwareCache && fileCacheBudget == 0;
+    }
+
+    /**
+     * Returns whether the structure of Foo files is persisted across
+     * sessions.
+     *
+     * @see #STRUCTURE_STORE_PROPERTY
+     */
+    boolean isStructureStore()
+    {
+        return structureStore;
+    }
+
+    /**
+     * Returns whether the Foo symbol index is persisted across sessions.
+     *
+     * @see #SYMBOL_INDEX_STORE_PROPERTY
+     */
+    boolean isSymbolIndexStore()
+    {
+        return symbolIndexStore;
+    }
+
+    /**
+     * Returns whether the Foo symbol index is built on startup rather than
+     * on first query.
+     *
+     * @see #EAGER_SYMBOL_INDEX_PROPERTY
+     */
+    boolean isEagerSymbolIndex()
+    {
+        return eagerSymbolIndex;
+    }
+
+    /**
+     * Returns whether the structure of Foo files is built by a fast scanner
+     * when possible.
+     *
+     * @see #FAST_SCANNER_PROPERTY
+     */
+    boolean isFastScanner()
+    {
+        return fastScanner;
+    }
+
+    /**
+     * Returns the quiet window for delta coalescing in milliseconds.
+     *
+     * @return the quiet window, or 0 if delta coalescing is disabled
+     * @see #DELTA_QUIET_WINDOW_PROPERTY
+     */
+    long getDeltaQuietWindow()
+    {
+        return deltaQuietWindow;
+    }
+
+    /**
+     * Returns the maximum number of Foo element deltas to merge.
+     *
+     * @see #DELTA_BATCH_SIZE_PROPERTY
+     */
+    int getDeltaBatchSize()
+    {
+        return deltaBatchSize;
+    }
+
+    /**
+     * Returns whether element change listeners are notified
+     * asynchronously.
+     *
+     * @see #ASYNC_DISPATCH_PROPERTY
+     */
+    boolean isAsyncDispatch()
+    {
+        return asyncDispatch;
+    }
+
+    /**
+     * Returns the capacity of the event queue of each listener
+     * with asynchronous dispatch.
+     *
+     * @see #DISPATCH_QUEUE_CAPACITY_PROPERTY
+     */
+    int getDispatchQueueCapacity()
+    {
+        return dispatchQueueCapacity;
+    }
+
+    /**
+     * Returns the policy for a full event queue of a listener
+     * with asynchronous dispatch.
+     *
+     * @see #DISPATCH_OVERFLOW_POLICY_PROPERTY
+     */
+    OverflowPolicy getDispatchOverflowPolicy()
+    {
+        return dispatchOverflowPolicy;
+    }
+
+    /**
+     * Returns whether bodies are read without the element manager's lock
+     * when possible.
+     *
+     * @see #CONCURRENT_READS_PROPERTY
+     */
+    boolean isConcurrentReads()
+    {
+        return concurrentReads;
+    }
+
+    private static boolean getBoolean(Properties properties, String key,
+        boolean defaultValue)
+    {
+        String value = properties.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        return Boolean.parseBoolean(value);
+    }
+
+    private static long getLong(Properties properties, String key,
+        long defaultValue)
+    {
+        String value = properties.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        try
+        {
+            return Long.decode(value);
+        }
+        catch (NumberFormatException e)
+        {
+            return defaultValue;
+        }
+    }
+
+    private static int getInt(Properties properties, String key,
+        int defaultValue)
+    {
+        long value = getLong(properties, key, defaultValue);
+        if (value != (int)value)
+            return defaultValue;
+        return (int)value;
+    }
+
+    private static OverflowPolicy getOverflowPolicy(Properties properties)
+    {
+        String value = properties.getProperty(
+            DISPATCH_OVERFLOW_POLICY_PROPERTY);
+        if (value != null)
+        {
+            try
+            {
+                return OverflowPolicy.valueOf(
+                    value.toUpperCase(Locale.ENGLISH));
+            }
+            catch (IllegalArgumentException e)
+            {
+                Activator.log(Activator.createErrorStatus(e.getMessage(), e));
+            }
+        }
+        return OverflowPolicy.MERGE;
+    }
+}
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+/**
+ * An immutable snapshot of statistics of the Foo Model.
+ * <p>
+ * Counters are cumulative since the start of the Foo Model manager.
+ * Since they are read one after another while the model is in use,
+ * the values of a snapshot may be slightly inconsistent with each other.
+ * The cache sizes are read under the lock guarding the cache, though,
+ * and are consistent with each other.
+ * </p>
+ *
+ * @see FooModelManager#getStatistics()
+ */
+public final class FooModelStatistics
+    implements FooModelStatisticsMXBean
+{
+    private final long projectHits;
+    private final long projectMisses;
+    private final long fileHits;
+    private final long fileMisses;
+    private final long childHits;
+    private final long childMisses;
+    private final long fileEvictions;
+    private final int projectCacheSize;
+    private final int fileCacheSize;
+    private final int childrenCacheSize;
+    private final long projectBuildCount;
+    private final long projectBuildTotalNanos;
+    private final long[] projectBuildHistogram;
+    private final long fileParseCount;
+    private final long fileParseTotalNanos;
+    private final long[] fileParseHistogram;
+    private final long fileRestoreCount;
+    private final long fileStoreRestoreCount;
+    private final long fileRestoreTotalNanos;
+    private final long[] fileRestoreHistogram;
+    private final long childBuildCount;
+    private final long deltaCount;
+    private final long deltaEventCount;
+
+    FooModelStatistics(FooModelMetrics metrics, IFooModelCache cache)
+    {
+        projectHits = metrics.projectHits.sum();
+        projectMisses = metrics.projectMisses.sum();
+        fileHits = metrics.fileHits.sum();
+        fileMisses = metrics.fileMisses.sum();
+        childHits = metrics.childHits.sum();
+        childMisses = metrics.childMisses.sum();
+        fileEvictions = metrics.fileEvictions.sum();
+        projectCacheSize = cache.getProjectCount();
+        fileCacheSize = cache.getFileCount();
+        childrenCacheSize = cache.getChildCount();
+        projectBuildCount = metrics.projectBuilds.getCount();
+        projectBuildTotalNanos = metrics.projectBuilds.getTotalNanos();
+        projectBuildHistogram = metrics.projectBuilds.getBuckets();
+        fileParseCount = metrics.fileParses.getCount();
+        fileParseTotalNanos = metrics.fileParses.getTotalNanos();
+        fileParseHistogram = metrics.fileParses.getBuckets();
+        fileRestoreCount = metrics.fileRestores.getCount();
+        fileStoreRestoreCount = metrics.fileStoreRestores.sum();
+        fileRestoreTotalNanos = metrics.fileRestores.getTotalNanos();
+        fileRestoreHistogram = metrics.fileRestores.getBuckets();
+        childBuildCount = metrics.childBuilds.sum();
+        deltaCount = metrics.deltas.sum();
+        deltaEventCount = metrics.deltaEvents.sum();
+    }
+
+    @Override
+    public long getProjectHits()
+    {
+        return projectHits;
+    }
+
+    @Override
+    public long getProjectMisses()
+    {
+        return projectMisses;
+    }
+
+    @Override
+    public long getFileHits()
+    {
+        return fileHits;
+    }
+
+    @Override
+    public long getFileMisses()
+    {
+        return fileMisses;
+    }
+
+    @Override
+    public long getChildHits()
+    {
+        return childHits;
+    }
+
+    @Override
+    public long getChildMisses()
+    {
+        return childMisses;
+    }
+
+    @Override
+    public long getFileEvictions()
+    {
+        return fileEvictions;
+    }
+
+    @Override
+    public int getProjectCacheSize()
+    {
+        return projectCacheSize;
+    }
+
+    @Override
+    public int getFileCacheSize()
+    {
+        return fileCacheSize;
+    }
+
+    @Override
+    public int getChildrenCacheSize()
+    {
+        return childrenCacheSize;
+    }
+
+    @Override
+    public long getProjectBuildCount()
+    {
+        return projectBuildCount;
+    }
+
+    @Override
+    public long getProjectBuildTotalNanos()
+    {
+        return projectBuildTotalNanos;
+    }
+
+    @Override
+    public long[] getProjectBuildHistogram()
+    {
+        return projectBuildHistogram.clone();
+    }
+
+    @Override
+    public long getFileParseCount()
+    {
+        return fileParseCount;
+    }
+
+    @Override
+    public long getFileParseTotalNanos()
+    {
+        return fileParseTotalNanos;
+    }
+
+    @Override
+    public long[] getFileParseHistogram()
+    {
+        return fileParseHistogram.clone();
+    }
+
+    @Override
+    public long getFileRestoreCount()
+    {
+        return fileRestoreCount;
+    }
+
+    @Override
+    public long getFileStoreRestoreCount()
+    {
+        return fileStoreRestoreCount;
+    }
+
+    @Override
+    public long getFileRestoreTotalNanos()
+    {
+        return fileRestoreTotalNanos;
+    }
+
+    @Override
+    public long[] getFileRestoreHistogram()
+    {
+        return fileRestoreHistogram.clone();
+    }
+
+    @Override
+    public long getChildBuildCount()
+    {
+        return childBuildCount;
+    }
+
+    @Override
+    public long getDeltaCount()
+    {
+        return deltaCount;
+    }
+
+    @Override
+    public long getDeltaEventCount()
+    {
+        return deltaEventCount;
+    }
+
+    @Override
+    public long[] getHistogramBucketBounds()
+    {
+        return LatencyHistogram.getBucketBounds();
+    }
+
+    /**
+     * Returns the ratio of file cache hits to all file cache lookups.
+     *
+     * @return the file hit rate, or <code>Double.NaN</code> if there
+     *  were no lookups
+     */
+    public double getFileHitRate()
+    {
+        return (double)fileHits / (fileHits + fileMisses);
+    }
+
+    /**
+     * Returns the number of Foo element deltas that have been merged
+     * into other deltas rather than fired as separate events.
+     *
+     * @return the number of merged deltas
+     */
+    public long getMergedDeltaCount()
+    {
+        return deltaCount - deltaEventCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FooModelStatistics [projects=" + projectCacheSize //$NON-NLS-1$
+            + " (" + projectHits + '/' + projectMisses + "), files=" //$NON-NLS-1$ //$NON-NLS-2$
+            + fileCacheSize + " (" + fileHits + '/' + fileMisses //$NON-NLS-1$
+            + ", evictions=" + fileEvictions + "), children=" //$NON-NLS-1$ //$NON-NLS-2$
+            + childrenCacheSize + " (" + childHits + '/' + childMisses //$NON-NLS-1$
+            + "), parses=" + fileParseCount + ", restores=" //$NON-NLS-1$ //$NON-NLS-2$
+            + fileRestoreCount + ", deltas=" + deltaCount + '/' //$NON-NLS-1$
+            + deltaEventCount + ']';
+    }
+}
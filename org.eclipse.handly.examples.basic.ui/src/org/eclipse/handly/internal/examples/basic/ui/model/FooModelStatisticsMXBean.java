@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+/**
+ * Management interface for statistics of the Foo Model.
+ * <p>
+ * Latency histograms are reported as bucket counts; the bounds
+ * of the buckets are given by {@link #getHistogramBucketBounds()}.
+ * </p>
+ *
+ * @see FooModelManager#getStatistics()
+ */
+public interface FooModelStatisticsMXBean
+{
+    /**
+     * The object name under which the Foo Model statistics are registered
+     * with the platform MBean server.
+     */
+    String OBJECT_NAME =
+        "org.eclipse.handly.examples.basic.ui:type=FooModelStatistics"; //$NON-NLS-1$
+
+    /**
+     * Returns the number of cache lookups that found a Foo project body.
+     *
+     * @return the number of project cache hits
+     */
+    long getProjectHits();
+
+    /**
+     * Returns the number of cache lookups that did not find
+     * a Foo project body.
+     *
+     * @return the number of project cache misses
+     */
+    long getProjectMisses();
+
+    /**
+     * Returns the number of cache lookups that found a Foo file body.
+     *
+     * @return the number of file cache hits
+     */
+    long getFileHits();
+
+    /**
+     * Returns the number of cache lookups that did not find a Foo file body.
+     *
+     * @return the number of file cache misses
+     */
+    long getFileMisses();
+
+    /**
+     * Returns the number of cache lookups that found the body
+     * of a child of a Foo file.
+     *
+     * @return the number of child cache hits
+     */
+    long getChildHits();
+
+    /**
+     * Returns the number of cache lookups that did not find the body
+     * of a child of a Foo file.
+     *
+     * @return the number of child cache misses
+     */
+    long getChildMisses();
+
+    /**
+     * Returns the number of Foo files closed because the cache overflowed.
+     *
+     * @return the number of file evictions
+     */
+    long getFileEvictions();
+
+    /**
+     * Returns the number of Foo project bodies currently in the cache.
+     *
+     * @return the project cache size
+     */
+    int getProjectCacheSize();
+
+    /**
+     * Returns the number of Foo file bodies currently in the cache.
+     *
+     * @return the file cache size
+     */
+    int getFileCacheSize();
+
+    /**
+     * Returns the number of bodies of children of Foo files
+     * currently in the cache.
+     *
+     * @return the children cache size
+     */
+    int getChildrenCacheSize();
+
+    /**
+     * Returns the number of Foo project bodies built.
+     *
+     * @return the number of project builds
+     */
+    long getProjectBuildCount();
+
+    /**
+     * Returns the total time spent building Foo project bodies.
+     *
+     * @return the total project build time in nanoseconds
+     */
+    long getProjectBuildTotalNanos();
+
+    /**
+     * Returns the latency histogram for building Foo project bodies.
+     *
+     * @return the project build histogram
+     */
+    long[] getProjectBuildHistogram();
+
+    /**
+     * Returns the number of Foo file structures built by parsing.
+     *
+     * @return the number of file parses
+     */
+    long getFileParseCount();
+
+    /**
+     * Returns the total time spent building Foo file structures by parsing.
+     *
+     * @return the total file parse time in nanoseconds
+     */
+    long getFileParseTotalNanos();
+
+    /**
+     * Returns the latency histogram for building Foo file structures
+     * by parsing.
+     *
+     * @return the file parse histogram
+     */
+    long[] getFileParseHistogram();
+
+    /**
+     * Returns the number of Foo file structures restored without parsing,
+     * either from the soft structure cache or from the persistent
+     * structure store.
+     *
+     * @return the number of file restores
+     */
+    long getFileRestoreCount();
+
+    /**
+     * Returns the number of Foo file structures restored from
+     * the persistent structure store.
+     *
+     * @return the number of file restores from the structure store
+     */
+    long getFileStoreRestoreCount();
+
+    /**
+     * Returns the total time spent restoring Foo file structures.
+     *
+     * @return the total file restore time in nanoseconds
+     */
+    long getFileRestoreTotalNanos();
+
+    /**
+     * Returns the latency histogram for restoring Foo file structures.
+     *
+     * @return the file restore histogram
+     */
+    long[] getFileRestoreHistogram();
+
+    /**
+     * Returns the number of bodies of children of Foo files built,
+     * whether by parsing or by restoring. Child bodies are always built
+     * together with the body of their file.
+     *
+     * @return the number of child bodies built
+     */
+    long getChildBuildCount();
+
+    /**
+     * Returns the number of Foo element deltas produced from resource
+     * changes. With {@link FooModelOptions#DELTA_QUIET_WINDOW_PROPERTY
+     * delta coalescing}, several deltas may be merged and fired as
+     * one event.
+     *
+     * @return the number of deltas
+     */
+    long getDeltaCount();
+
+    /**
+     * Returns the number of Foo element change events fired.
+     *
+     * @return the number of delta events
+     */
+    long getDeltaEventCount();
+
+    /**
+     * Returns the exclusive upper bounds of the histogram buckets
+     * in microseconds. The last bucket of each histogram is unbounded.
+     *
+     * @return the histogram bucket bounds
+     */
+    long[] getHistogramBucketBounds();
+}
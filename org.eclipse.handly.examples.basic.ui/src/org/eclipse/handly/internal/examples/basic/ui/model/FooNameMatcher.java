@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+/**
+ * Matches Foo symbol names against a search pattern as the user types it.
+ * <p>
+ * A name matches the pattern if the pattern is a prefix of the name,
+ * either case-sensitively or not, if the pattern is a camel-case
+ * abbreviation of the name (e.g. <code>gFB</code> for <code>getFooBar</code>
+ * or <code>get_foo_bar</code>), or if the pattern is within a small edit
+ * distance of a prefix of the name, which tolerates typos. The edit
+ * distance allowed grows with the length of the pattern. Each kind of
+ * match has a quality, a smaller value meaning a better match.
+ * </p>
+ */
+class FooNameMatcher
+{
+    /**
+     * Match quality of a name equal to the pattern.
+     */
+    static final int EXACT = 0;
+
+    /**
+     * Match quality of a name the pattern is a prefix of.
+     */
+    static final int PREFIX = 1;
+
+    /**
+     * Match quality of a name the pattern is a case-insensitive prefix of.
+     */
+    static final int PREFIX_IGNORE_CASE = 2;
+
+    /**
+     * Match quality of a name the pattern is a camel-case abbreviation of.
+     */
+    static final int CAMEL_CASE = 3;
+
+    /**
+     * Match quality of a name that has a prefix one edit away from
+     * the pattern. The quality of a name that has a prefix <i>n</i> edits
+     * away is <code>FUZZY + n - 1</code>.
+     */
+    static final int FUZZY = 4;
+
+    /**
+     * Indicates that a name does not match the pattern.
+     */
+    static final int NO_MATCH = -1;
+
+    private final String pattern;
+    private final char[] lowerPattern;
+    private final boolean camelCase;
+    private final int firstSegmentLength;
+    private final long initials;
+    private final int maxEdits;
+    // DP rows for the edit distance; not thread-safe
+    private final int[] previousRow, currentRow;
+
+    /**
+     * Creates a new matcher for the given pattern.
+     *
+     * @param pattern the search pattern (not <code>null</code>)
+     */
+    FooNameMatcher(String pattern)
+    {
+        this.pattern = pattern;
+        int length = pattern.length();
+        lowerPattern = new char[length];
+        int segmentLength = length;
+        long segmentInitials = 0;
+        for (int i = 0; i < length; i++)
+        {
+            char c = pattern.charAt(i);
+            lowerPattern[i] = Character.toLowerCase(c);
+            if (i > 0 && Character.isUpperCase(c))
+            {
+                segmentLength = Math.min(segmentLength, i);
+                segmentInitials |= charBit(c);
+            }
+        }
+        camelCase = segmentLength < length;
+        firstSegmentLength = segmentLength;
+        initials = segmentInitials;
+        maxEdits = length < 3 ? 0 : length < 6 ? 1 : 2;
+        previousRow = new int[length + 1];
+        currentRow = new int[length + 1];
+    }
+
+    /**
+     * Returns the search pattern.
+     *
+     * @return the search pattern (never <code>null</code>)
+     */
+    String getPattern()
+    {
+        return pattern;
+    }
+
+    /**
+     * Returns whether only the names the pattern is a prefix of, either
+     * case-sensitively or not, can match the pattern.
+     *
+     * @return <code>true</code> if there can be no camel-case or fuzzy
+     *  matches, and <code>false</code> otherwise
+     */
+    boolean isPrefixOnly()
+    {
+        return !camelCase && maxEdits == 0;
+    }
+
+    /**
+     * Returns whether the pattern can be a camel-case abbreviation.
+     *
+     * @return <code>true</code> if there can be camel-case matches,
+     *  and <code>false</code> otherwise
+     */
+    boolean isCamelCase()
+    {
+        return camelCase;
+    }
+
+    /**
+     * Returns the length of the first segment of the pattern. A name must
+     * start with the first segment, ignoring case, to be a camel-case match.
+     *
+     * @return the length of the first segment of the pattern
+     */
+    int getFirstSegmentLength()
+    {
+        return firstSegmentLength;
+    }
+
+    /**
+     * Returns the initials of the segments of the pattern other than
+     * the first one, as a character mask. The {@link #initials(String)
+     * initials} of a name must include these to be a camel-case match.
+     *
+     * @return the initials of the pattern
+     * @see #charBit(char)
+     */
+    long getInitials()
+    {
+        return initials;
+    }
+
+    /**
+     * Returns the maximal edit distance of a fuzzy match.
+     *
+     * @return the maximal edit distance, or 0 if there can be
+     *  no fuzzy matches
+     */
+    int getMaxEdits()
+    {
+        return maxEdits;
+    }
+
+    /**
+     * Matches the given name against the pattern.
+     *
+     * @param name a symbol name (not <code>null</code>)
+     * @return the match quality, or {@link #NO_MATCH}
+     */
+    int match(String name)
+    {
+        if (pattern.isEmpty())
+            return NO_MATCH;
+        if (name.startsWith(pattern))
+            return name.length() == pattern.length() ? EXACT : PREFIX;
+        if (name.regionMatches(true, 0, pattern, 0, pattern.length()))
+            return PREFIX_IGNORE_CASE;
+        if (camelCase && matchCamelCase(name))
+            return CAMEL_CASE;
+        if (maxEdits > 0)
+        {
+            int edits = prefixDistance(name);
+            if (edits <= maxEdits)
+                return FUZZY + edits - 1;
+        }
+        return NO_MATCH;
+    }
+
+    /*
+     * Each segment of the pattern, which starts with its first character
+     * or with an upper-case letter, must be a prefix of a segment of
+     * the name, in order. A segment of the name starts with its first
+     * character, with an upper-case letter, or after an underscore.
+     * Only the first segments of the pattern and the name must coincide.
+     * Letters are compared ignoring case.
+     */
+    private boolean matchCamelCase(String name)
+    {
+        int p = 0, n = 0;
+        int patternLength = pattern.length(), nameLength = name.length();
+        while (p < patternLength)
+        {
+            // match the current pattern segment at position n
+            int segmentEnd = p + 1;
+            while (segmentEnd < patternLength && !Character.isUpperCase(
+                pattern.charAt(segmentEnd)))
+                segmentEnd++;
+            int segmentLength = segmentEnd - p;
+            if (n + segmentLength > nameLength
+                || !name.regionMatches(true, n, pattern, p, segmentLength))
+                return false;
+            p = segmentEnd;
+            n += segmentLength;
+            if (p == patternLength)
+                return true;
+            // find the next name segment starting with the pattern char
+            n = nextSegment(name, n);
+            while (n < nameLength && Character.toLowerCase(name.charAt(
+                n)) != Character.toLowerCase(pattern.charAt(p)))
+                n = nextSegment(name, n + 1);
+            if (n >= nameLength)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the initials of the segments of the given name other than
+     * the first one, as a character mask.
+     *
+     * @param name a symbol name (not <code>null</code>)
+     * @return the initials of the name
+     * @see #getInitials()
+     */
+    static long initials(String name)
+    {
+        long result = 0;
+        for (int n = nextSegment(name, 1); n < name.length(); n =
+            nextSegment(name, n + 1))
+            result |= charBit(name.charAt(n));
+        return result;
+    }
+
+    /**
+     * Returns the bit that represents the given character, ignoring case,
+     * in a character mask. Distinct characters may share a bit, so a mask
+     * may only tell for sure that a character is absent.
+     *
+     * @param c a character
+     * @return the bit of the character
+     */
+    static long charBit(char c)
+    {
+        c = Character.toLowerCase(c);
+        if (c >= 'a' && c <= 'z')
+            return 1L << (c - 'a');
+        if (c >= '0' && c <= '9')
+            return 1L << (26 + c - '0');
+        return 1L << (36 + c % 28);
+    }
+
+    private static int nextSegment(String name, int from)
+    {
+        for (int i = from; i < name.length(); i++)
+        {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c))
+                return i;
+            if (c != '_' && i > 0 && name.charAt(i - 1) == '_')
+                return i;
+        }
+        return name.length();
+    }
+
+    /*
+     * Returns the minimal case-insensitive edit distance between
+     * the pattern and a prefix of the name, or a value greater than
+     * maxEdits if the distance exceeds it. The pattern is the row
+     * dimension, and the rows are computed for each name character.
+     */
+    private int prefixDistance(String name)
+    {
+        int m = lowerPattern.length;
+        for (int i = 0; i <= m; i++)
+            previousRow[i] = i;
+        int best = previousRow[m];
+        int limit = Math.min(name.length(), m + maxEdits);
+        for (int j = 1; j <= limit; j++)
+        {
+            char c = Character.toLowerCase(name.charAt(j - 1));
+            currentRow[0] = j;
+            int rowMin = currentRow[0];
+            for (int i = 1; i <= m; i++)
+            {
+                int cost = lowerPattern[i - 1] == c ? 0 : 1;
+                currentRow[i] = Math.min(Math.min(currentRow[i - 1] + 1,
+                    previousRow[i] + 1), previousRow[i - 1] + cost);
+                rowMin = Math.min(rowMin, currentRow[i]);
+            }
+            best = Math.min(best, currentRow[m]);
+            if (rowMin > maxEdits)
+                break; // no prefix can be any closer
+            System.arraycopy(currentRow, 0, previousRow, 0, m + 1);
+        }
+        return best;
+    }
+}
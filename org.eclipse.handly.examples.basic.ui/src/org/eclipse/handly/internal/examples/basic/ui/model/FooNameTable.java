@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of distinct Foo symbol names sorted ignoring case, which
+ * finds the names that may match a {@link FooNameMatcher} without
+ * matching every name.
+ * <p>
+ * The names the pattern is a prefix of, ignoring case, are contiguous
+ * in the table and are found by binary search. So are the candidates
+ * for a camel-case match, since they start with the first segment of
+ * the pattern; they are further filtered by the initials of their
+ * segments. The candidates for a fuzzy match are found through posting
+ * lists of the character bigrams within the first {@value #PREFIX_LENGTH}
+ * characters of each name: a name that has a prefix <i>k</i> edits away
+ * from the pattern contains all but at most <i>2k</i> of the distinct
+ * bigrams of the pattern, since an edit breaks at most two bigrams.
+ * If that leaves no bigram to require, the names are filtered by
+ * the characters they start with instead. A pattern longer than
+ * the indexed prefixes is only filtered by its leading characters.
+ * </p>
+ *
+ * @threadsafe This class is immutable
+ */
+final class FooNameTable
+{
+    /**
+     * The number of leading characters of a name indexed for fuzzy search.
+     */
+    static final int PREFIX_LENGTH = 16;
+
+    private final int version;
+    private final String[] names;
+    // the initials of the names, as character masks
+    private final long[] initials;
+    // the characters the names start with, as character masks
+    private final long[] prefixChars;
+    // for each bigram, the entries (index * PREFIX_LENGTH + position)
+    // of the names that contain it, with the position of its first
+    // occurrence; in ascending order
+    private final Map<Integer, int[]> postings;
+
+    /**
+     * Constructs a new name table.
+     *
+     * @param version the version of the names, as defined by the client
+     * @param names distinct names sorted by {@link
+     *  String#CASE_INSENSITIVE_ORDER} (not <code>null</code>); the array
+     *  must not be modified afterwards
+     */
+    FooNameTable(int version, String[] names)
+    {
+        this.version = version;
+        this.names = names;
+        initials = new long[names.length];
+        prefixChars = new long[names.length];
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (int i = 0; i < names.length; i++)
+        {
+            String name = names[i];
+            initials[i] = FooNameMatcher.initials(name);
+            int length = Math.min(name.length(), PREFIX_LENGTH);
+            long chars = 0;
+            for (int j = 0; j < length; j++)
+            {
+                chars |= FooNameMatcher.charBit(name.charAt(j));
+                if (j > 0 && isFirstBigram(name, j - 1))
+                    counts.computeIfAbsent(bigram(name, j - 1),
+                        k -> new int[1])[0]++;
+            }
+            prefixChars[i] = chars;
+        }
+        postings = new HashMap<>(counts.size() * 4 / 3 + 1);
+        for (Map.Entry<Integer, int[]> entry : counts.entrySet())
+        {
+            postings.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0; // from now on, the fill position
+        }
+        for (int i = 0; i < names.length; i++)
+        {
+            String name = names[i];
+            int length = Math.min(name.length(), PREFIX_LENGTH);
+            for (int j = 0; j + 1 < length; j++)
+            {
+                if (isFirstBigram(name, j))
+                {
+                    Integer key = bigram(name, j);
+                    postings.get(key)[counts.get(key)[0]++] = i
+                        * PREFIX_LENGTH + j;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the version of the names in this table.
+     *
+     * @return the version given on construction
+     */
+    int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Returns the number of names in this table.
+     *
+     * @return the number of names
+     */
+    int size()
+    {
+        return names.length;
+    }
+
+    /**
+     * Returns the name at the given index.
+     *
+     * @param index the index of the name
+     * @return the name (never <code>null</code>)
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    String getName(int index)
+    {
+        return names[index];
+    }
+
+    /**
+     * Returns whether this table contains the given name.
+     *
+     * @param name a name (not <code>null</code>)
+     * @return <code>true</code> if the table contains the name,
+     *  and <code>false</code> otherwise
+     */
+    boolean contains(String name)
+    {
+        int i = Arrays.binarySearch(names, name,
+            String.CASE_INSENSITIVE_ORDER);
+        if (i < 0)
+            return false;
+        // look through the names that differ from the name in case only
+        while (i > 0 && names[i - 1].equalsIgnoreCase(name))
+            i--;
+        for (; i < names.length && names[i].equalsIgnoreCase(name); i++)
+        {
+            if (names[i].equals(name))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the index of the first name whose prefix of the given
+     * prefix's length is not less than (if <code>upper</code> is
+     * <code>false</code>) or greater than (if <code>upper</code> is
+     * <code>true</code>) the given prefix, ignoring case. The names
+     * between the lower and the upper bound start with the prefix.
+     *
+     * @param prefix a prefix (not <code>null</code>)
+     * @param upper whether to return the upper bound
+     * @return the bound
+     */
+    int findPrefixBound(String prefix, boolean upper)
+    {
+        int low = 0, high = names.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            String name = names[mid];
+            if (name.length() > prefix.length())
+                name = name.substring(0, prefix.length());
+            int result = String.CASE_INSENSITIVE_ORDER.compare(name, prefix);
+            if (result < 0 || upper && result == 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the indices of the names outside the given range that may
+     * be camel-case or fuzzy matches for the given matcher. Every such
+     * match is included, but not every name included is a match.
+     *
+     * @param matcher a name matcher (not <code>null</code>)
+     * @param from the start of the range to exclude (inclusive)
+     * @param to the end of the range to exclude (exclusive)
+     * @return the indices of the candidate names (never <code>null</code>)
+     */
+    BitSet findCandidates(FooNameMatcher matcher, int from, int to)
+    {
+        BitSet candidates = new BitSet();
+        String pattern = matcher.getPattern();
+        if (matcher.isCamelCase())
+        {
+            String segment = pattern.substring(0,
+                matcher.getFirstSegmentLength());
+            long required = matcher.getInitials();
+            int end = findPrefixBound(segment, true);
+            for (int i = findPrefixBound(segment, false); i < end; i++)
+            {
+                if ((initials[i] & required) == required)
+                    candidates.set(i);
+            }
+        }
+        int maxEdits = matcher.getMaxEdits();
+        if (maxEdits > 0)
+        {
+            // an indexed bigram or character of the name is matched
+            // by one of the pattern that is at most maxEdits farther
+            int length = Math.min(pattern.length(), PREFIX_LENGTH - maxEdits);
+            int reach = Math.min(pattern.length() + maxEdits, PREFIX_LENGTH);
+            if (!addBigramCandidates(pattern.substring(0, length), maxEdits,
+                reach, candidates))
+                addCharCandidates(pattern.substring(0, length), maxEdits,
+                    candidates);
+        }
+        candidates.clear(from, to);
+        return candidates;
+    }
+
+    /*
+     * Adds the names that contain, within the given number of leading
+     * characters, all but at most 2 * maxEdits of the distinct bigrams
+     * of the pattern. Returns false if that does not rule out any names.
+     */
+    private boolean addBigramCandidates(String pattern, int maxEdits,
+        int reach, BitSet candidates)
+    {
+        List<int[]> lists = new ArrayList<>();
+        int distinct = 0;
+        for (int j = 0; j + 1 < pattern.length(); j++)
+        {
+            if (isFirstBigram(pattern, j))
+            {
+                distinct++;
+                int[] list = postings.get(bigram(pattern, j));
+                if (list != null)
+                    lists.add(list);
+            }
+        }
+        int threshold = distinct - 2 * maxEdits;
+        if (threshold < 1)
+            return false;
+        int maxPosition = reach - 2;
+        byte[] counts = new byte[names.length];
+        for (int[] list : lists)
+        {
+            for (int entry : list)
+            {
+                if (entry % PREFIX_LENGTH <= maxPosition
+                    && ++counts[entry / PREFIX_LENGTH] == threshold)
+                    candidates.set(entry / PREFIX_LENGTH);
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Adds the names that start with the characters of all but at most
+     * maxEdits positions of the pattern, since an edit leaves at most
+     * one position of the pattern unmatched.
+     */
+    private void addCharCandidates(String pattern, int maxEdits,
+        BitSet candidates)
+    {
+        long[] chars = new long[pattern.length()];
+        for (int j = 0; j < chars.length; j++)
+            chars[j] = FooNameMatcher.charBit(pattern.charAt(j));
+        for (int i = 0; i < names.length; i++)
+        {
+            int missing = 0;
+            for (int j = 0; j < chars.length && missing <= maxEdits; j++)
+            {
+                if ((prefixChars[i] & chars[j]) == 0)
+                    missing++;
+            }
+            if (missing <= maxEdits)
+                candidates.set(i);
+        }
+    }
+
+    private static boolean isFirstBigram(String s, int position)
+    {
+        int bigram = bigram(s, position);
+        for (int j = 0; j < position; j++)
+        {
+            if (bigram(s, j) == bigram)
+                return false;
+        }
+        return true;
+    }
+
+    private static int bigram(String s, int position)
+    {
+        return Character.toLowerCase(s.charAt(position)) << 16
+            | Character.toLowerCase(s.charAt(position + 1));
+    }
+}
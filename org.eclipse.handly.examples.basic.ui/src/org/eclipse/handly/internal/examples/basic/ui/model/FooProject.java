@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2017 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -75,6 +75,25 @@ public class FooProject
         return result;
     }
 
+    @Override
+    public int getFooFileCount() throws CoreException
+    {
+        return getChildren().length;
+    }
+
+    @Override
+    public IFooFile getFooFileAt(int index) throws CoreException
+    {
+        return (IFooFile)getChildren()[index];
+    }
+
+    @Override
+    public void openFooFiles(IProgressMonitor monitor) throws CoreException
+    {
+        FooModelManager.INSTANCE.getFooFileOpener().open(getFooFiles(), this,
+            monitor);
+    }
+
     @Override
     public IProject getProject()
     {
@@ -87,6 +106,14 @@ public class FooProject
         return project;
     }
 
+    @Override
+    public Object findBody_()
+    {
+        // avoid the element manager's lock if possible
+        Object body = FooModelManager.INSTANCE.findBodyConcurrently(this);
+        return body != null ? body : super.findBody_();
+    }
+
     @Override
 	public void validateExistence_(IContext context) throws CoreException
     {
@@ -98,6 +125,7 @@ public class FooProject
 	public void buildStructure_(IContext context, IProgressMonitor monitor)
         throws CoreException
     {
+        long start = System.nanoTime();
         IResource[] members = project.members();
         List<IFooFile> fooFiles = new ArrayList<>(members.length);
         for (IResource member : members)
@@ -116,5 +144,7 @@ public class FooProject
         Body body = new Body();
         body.setChildren(fooFiles.toArray(Elements.EMPTY_ARRAY));
         context.get(NEW_ELEMENTS).put(this, body);
+        FooModelManager.INSTANCE.getMetrics().projectBuilt(System.nanoTime()
+            - start);
     }
 }
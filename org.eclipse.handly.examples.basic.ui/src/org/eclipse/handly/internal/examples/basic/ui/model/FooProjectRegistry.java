@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+
+/**
+ * Keeps track of the projects known to be Foo projects, and caches
+ * the results of Foo nature checks.
+ * <p>
+ * The set of known Foo projects is initialized from the workspace
+ * and then updated by the <code>FooDeltaProcessor</code> as Foo projects
+ * are added to and removed from the Foo Model, so that it reflects
+ * the state of the workspace before the resource change being processed.
+ * A cached nature check result is invalidated when the project is added,
+ * removed, opened, closed, or its description changes.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooProjectRegistry
+{
+    private final Set<String> fooProjectNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> natures = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Initializes the set of known Foo projects with the accessible
+     * projects of the given workspace root that have the Foo nature.
+     *
+     * @param root the workspace root (not <code>null</code>)
+     * @throws CoreException if a nature check fails
+     */
+    void initialize(IWorkspaceRoot root) throws CoreException
+    {
+        for (IProject project : root.getProjects())
+        {
+            if (hasFooNature(project))
+                fooProjectNames.add(project.getName());
+        }
+    }
+
+    /**
+     * Returns whether the project with the given name is known
+     * to be a Foo project.
+     *
+     * @param name a project name (not <code>null</code>)
+     * @return <code>true</code> if the project is a known Foo project,
+     *  and <code>false</code> otherwise
+     */
+    boolean isFooProject(String name)
+    {
+        return fooProjectNames.contains(name);
+    }
+
+    /**
+     * Records that the given project is a Foo project.
+     *
+     * @param project a project (not <code>null</code>)
+     */
+    void fooProjectAdded(IProject project)
+    {
+        fooProjectNames.add(project.getName());
+    }
+
+    /**
+     * Records that the given project is no longer a Foo project.
+     *
+     * @param project a project (not <code>null</code>)
+     */
+    void fooProjectRemoved(IProject project)
+    {
+        fooProjectNames.remove(project.getName());
+    }
+
+    /**
+     * Returns whether the given project is accessible and has the Foo
+     * nature. The result is cached until the project is {@link
+     * #invalidate(IProject) invalidated}.
+     *
+     * @param project a project (not <code>null</code>)
+     * @return <code>true</code> if the project is a Foo project,
+     *  and <code>false</code> otherwise
+     * @throws CoreException if the nature check fails
+     */
+    boolean hasFooNature(IProject project) throws CoreException
+    {
+        String name = project.getName();
+        Boolean result = natures.get(name);
+        if (result == null)
+        {
+            long stamp = invalidations.get();
+            result = project.isAccessible() && project.hasNature(
+                IFooProject.NATURE_ID);
+            natures.put(name, result);
+            if (invalidations.get() != stamp)
+                natures.remove(name); // the result may be stale
+        }
+        return result;
+    }
+
+    /**
+     * Discards the cached nature check result for the given project.
+     *
+     * @param project a project (not <code>null</code>)
+     */
+    void invalidate(IProject project)
+    {
+        invalidations.incrementAndGet();
+        natures.remove(project.getName());
+    }
+}
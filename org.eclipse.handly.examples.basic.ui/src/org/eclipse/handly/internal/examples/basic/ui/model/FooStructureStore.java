@@ -0,0 +1,404 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * Persistent store of the structure of Foo files, which allows to open
+ * Foo files without parsing after a restart.
+ * <p>
+ * The structure of each file is kept in encoded form, keyed by
+ * the full path of the file and validated against the modification stamp
+ * of the file and the digest of the file's contents at the time
+ * the structure was built (see {@link FooFile#digest(String)}).
+ * The store can be saved to and loaded from a binary file with a version
+ * header; a file with an unknown version is ignored. Loading can proceed
+ * in the background while the store is in use: structures stored or
+ * removed in the meantime take precedence over the loaded ones, and
+ * a structure that has not been loaded yet is just not found.
+ * </p>
+ * <p>
+ * Entries for Foo files that no longer exist are dropped when the store
+ * is loaded or saved.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooStructureStore
+{
+    private static final int MAGIC = 0x464F4F53; // "FOOS"
+    private static final int VERSION = 2;
+
+    private static final byte VAR = 0;
+    private static final byte DEF = 1;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean loading; // guarded by this
+    private final Set<String> removedWhileLoading = new HashSet<>(); // guarded by this
+
+    /**
+     * Stores the given structure of the given Foo file, replacing
+     * the previously stored structure of the file if any.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the modification stamp of the underlying file
+     *  at the time the structure was built
+     * @param contentsDigest the digest of the file's contents
+     *  at the time the structure was built (not <code>null</code>)
+     * @param body the body of the Foo file (not <code>null</code>)
+     * @param newElements the map containing the bodies of the file's
+     *  children (not <code>null</code>)
+     */
+    void put(FooFile file, long stamp, byte[] contentsDigest,
+        SourceElementBody body, Map<IElement, Object> newElements)
+    {
+        byte[] data;
+        try
+        {
+            data = encode(body, newElements);
+        }
+        catch (IOException e)
+        {
+            throw new AssertionError(e); // cannot happen for a byte array
+        }
+        Entry entry = new Entry(stamp, contentsDigest, data);
+        synchronized (this)
+        {
+            entries.put(keyOf(file), entry);
+        }
+    }
+
+    /**
+     * Rebuilds the stored structure of the given Foo file if it is
+     * still valid for the given modification stamp and contents digest.
+     * On success, the file body and the bodies of its children are put
+     * into the given map.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the current modification stamp of the underlying file
+     * @param contentsDigest the digest of the current contents of the file
+     *  (not <code>null</code>)
+     * @param newElements the map to populate with the restored bodies
+     *  (not <code>null</code>)
+     * @return <code>true</code> if the structure was restored,
+     *  and <code>false</code> otherwise
+     */
+    boolean restore(FooFile file, long stamp, byte[] contentsDigest,
+        Map<IElement, Object> newElements)
+    {
+        String key = keyOf(file);
+        Entry entry;
+        synchronized (this)
+        {
+            entry = entries.get(key);
+        }
+        if (entry == null || entry.stamp != stamp
+            || !Arrays.equals(entry.contentsDigest, contentsDigest))
+            return false;
+        Map<IElement, Object> elements = new HashMap<>();
+        try
+        {
+            decode(file, stamp, contentsDigest, entry.data, elements);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            synchronized (this)
+            {
+                entries.remove(key, entry); // corrupt entry
+            }
+            return false;
+        }
+        newElements.putAll(elements);
+        return true;
+    }
+
+    /**
+     * Returns the number of children in the stored structure of the given
+     * Foo file without restoring the structure, provided that the structure
+     * was built at the given modification stamp. Since the contents digest
+     * is not checked, the result is only a hint.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the current modification stamp of the underlying file
+     * @return the number of stored children, or -1 if there is no stored
+     *  structure for the given modification stamp
+     */
+    int getChildCount(FooFile file, long stamp)
+    {
+        Entry entry;
+        synchronized (this)
+        {
+            entry = entries.get(keyOf(file));
+        }
+        if (entry == null || entry.stamp != stamp || entry.data.length < 4)
+            return -1;
+        byte[] data = entry.data; // starts with the child count
+        return ((data[0] & 0xFF) << 24) | ((data[1] & 0xFF) << 16)
+            | ((data[2] & 0xFF) << 8) | (data[3] & 0xFF);
+    }
+
+    /**
+     * Removes the stored structure of the given Foo file.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     */
+    synchronized void remove(FooFile file)
+    {
+        String key = keyOf(file);
+        entries.remove(key);
+        if (loading)
+            removedWhileLoading.add(key);
+    }
+
+    /**
+     * Returns the number of Foo files whose structure is stored.
+     *
+     * @return the number of stored structures
+     */
+    synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Adds the contents of the given file to this store, dropping
+     * the entries for Foo files that no longer exist in the given
+     * workspace root. Entries stored or removed while loading take
+     * precedence over the loaded ones. If the file does not exist
+     * or has an unknown version, nothing is added.
+     *
+     * @param file the file to load from (not <code>null</code>)
+     * @param root the workspace root (not <code>null</code>)
+     * @throws IOException if the file could not be read
+     */
+    void load(File file, IWorkspaceRoot root) throws IOException
+    {
+        synchronized (this)
+        {
+            loading = true;
+        }
+        Map<String, Entry> loaded = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            new FileInputStream(file))))
+        {
+            if (in.readInt() == MAGIC && in.readInt() == VERSION)
+            {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++)
+                {
+                    String key = in.readUTF();
+                    long stamp = in.readLong();
+                    byte[] contentsDigest = new byte[in.readInt()];
+                    in.readFully(contentsDigest);
+                    byte[] data = new byte[in.readInt()];
+                    in.readFully(data);
+                    if (root.getFile(new Path(key)).exists())
+                        loaded.put(key, new Entry(stamp, contentsDigest,
+                            data));
+                }
+            }
+        }
+        catch (FileNotFoundException e)
+        {
+            // nothing to load
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                loaded.keySet().removeAll(removedWhileLoading);
+                for (Map.Entry<String, Entry> entry : loaded.entrySet())
+                    entries.putIfAbsent(entry.getKey(), entry.getValue());
+                removedWhileLoading.clear();
+                loading = false;
+            }
+        }
+    }
+
+    /**
+     * Saves the contents of this store to the given file, dropping
+     * the entries for Foo files that no longer exist in the given
+     * workspace root. The contents are written to a temporary file first,
+     * which then replaces the given file.
+     *
+     * @param file the file to save to (not <code>null</code>)
+     * @param root the workspace root (not <code>null</code>)
+     * @throws IOException if the file could not be written
+     */
+    void save(File file, IWorkspaceRoot root) throws IOException
+    {
+        Map<String, Entry> snapshot;
+        synchronized (this)
+        {
+            Iterator<String> it = entries.keySet().iterator();
+            while (it.hasNext())
+            {
+                if (!root.getFile(new Path(it.next())).exists())
+                    it.remove();
+            }
+            snapshot = new HashMap<>(entries);
+        }
+        File tempFile = new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet())
+            {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.stamp);
+                out.writeInt(entry.contentsDigest.length);
+                out.write(entry.contentsDigest);
+                out.writeInt(entry.data.length);
+                out.write(entry.data);
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String keyOf(FooFile file)
+    {
+        return file.getFile().getFullPath().toString();
+    }
+
+    private static byte[] encode(SourceElementBody body,
+        Map<IElement, Object> newElements) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        IElement[] children = body.getChildren();
+        out.writeInt(children.length);
+        for (IElement child : children)
+        {
+            SourceElementBody childBody =
+                (SourceElementBody)newElements.get(child);
+            if (child instanceof FooDef)
+            {
+                out.writeByte(DEF);
+                out.writeUTF(Elements.getName(child));
+                String[] parameterNames = childBody.get(
+                    FooDef.PARAMETER_NAMES);
+                out.writeInt(parameterNames.length);
+                for (String parameterName : parameterNames)
+                    out.writeUTF(parameterName);
+            }
+            else
+            {
+                out.writeByte(VAR);
+                out.writeUTF(Elements.getName(child));
+            }
+            writeRange(out, childBody.getFullRange());
+            writeRange(out, childBody.getIdentifyingRange());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void decode(FooFile file, long stamp,
+        byte[] contentsDigest, byte[] data, Map<IElement, Object> newElements)
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+            data));
+        FooFileStructureBuilder builder = new FooFileStructureBuilder(
+            newElements);
+        SourceElementBody body = new SourceElementBody();
+        body.set(FooFile.MODIFICATION_STAMP, stamp);
+        body.set(FooFile.CONTENTS_DIGEST, contentsDigest);
+        int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++)
+        {
+            byte kind = in.readByte();
+            String name = in.readUTF();
+            if (kind == DEF)
+            {
+                String[] parameterNames = new String[in.readInt()];
+                for (int j = 0; j < parameterNames.length; j++)
+                    parameterNames[j] = in.readUTF();
+                builder.addDef(file, body, name, parameterNames, readRange(
+                    in), readRange(in));
+            }
+            else if (kind == VAR)
+                builder.addVar(file, body, name, readRange(in), readRange(
+                    in));
+            else
+                throw new IOException("Unknown element kind: " + kind); //$NON-NLS-1$
+        }
+        builder.complete(body);
+        newElements.put(file, body);
+    }
+
+    private static void writeRange(DataOutputStream out, TextRange range)
+        throws IOException
+    {
+        if (range == null)
+            out.writeInt(-1);
+        else
+        {
+            out.writeInt(range.getOffset());
+            out.writeInt(range.getLength());
+        }
+    }
+
+    private static TextRange readRange(DataInputStream in) throws IOException
+    {
+        int offset = in.readInt();
+        if (offset < 0)
+            return null;
+        return new TextRange(offset, in.readInt());
+    }
+
+    private static class Entry
+    {
+        final long stamp;
+        final byte[] contentsDigest;
+        final byte[] data;
+
+        Entry(long stamp, byte[] contentsDigest, byte[] data)
+        {
+            this.stamp = stamp;
+            this.contentsDigest = contentsDigest;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,953 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.examples.basic.ui.model.IFooDef;
+import org.eclipse.handly.examples.basic.ui.model.IFooElement;
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.examples.basic.ui.model.IFooVar;
+import org.eclipse.handly.internal.examples.basic.ui.Activator;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.handly.model.impl.support.SourceElementBody;
+import org.eclipse.handly.util.TextRange;
+
+/**
+ * Workspace-wide index of the functions and variables declared
+ * in Foo files.
+ * <p>
+ * The index maps names, and names with arities, to the handles of
+ * the declared functions and variables. It is built in a background job
+ * when it is first queried (or when {@link #build()} is called), and is
+ * then kept up to date by Foo element deltas, which schedule the changed
+ * files and projects for reindexing by the same job. A file is indexed
+ * from its body if the file is open (so that a working copy is indexed
+ * with its current contents), and is scanned from its underlying file
+ * otherwise; in either case, the Foo Model cache is not affected.
+ * Queries are answered from in-memory hash maps and the mapped base
+ * (see below), and do not touch the Foo Model at all. While the index
+ * is being built or updated, query results may be incomplete or out
+ * of date.
+ * </p>
+ * <p>
+ * The index may be based on a {@link FooSymbolIndexFile} saved in
+ * a previous session. The files recorded in the base are not reindexed
+ * when this index is built unless their modification stamp has changed;
+ * the in-memory maps only hold the files indexed in this session, and
+ * shadow the base entries of those files. A base entry found stale by a query is skipped,
+ * and remembered as stale, and its file is scheduled for reindexing once.
+ * </p>
+ * <p>
+ * For search by pattern, the index keeps a {@link FooNameTable} of all
+ * distinct symbol names, which is rebuilt on the next search after a name
+ * missing from it has been indexed. The names the pattern is a prefix of
+ * are found in the table by binary search; only if the prefix matches
+ * are not enough, the table is asked for the candidates for a camel-case
+ * or fuzzy match, which are then matched by a {@link FooNameMatcher}.
+ * Only the best matching names are resolved to symbols.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooSymbolIndex
+    implements IElementChangeListener
+{
+    private static final IFooDef[] NO_DEFS = new IFooDef[0];
+    private static final IFooVar[] NO_VARS = new IFooVar[0];
+    private static final IFooElement[] NO_ELEMENTS = new IFooElement[0];
+
+    private final FooSymbolIndexFile base;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by lock
+    private final Map<IFooFile, IndexedFile> filesByHandle = new HashMap<>();
+    private final Map<String, Set<IFooDef>> defsByName = new HashMap<>();
+    private final Map<DefKey, Set<IFooDef>> defsByKey = new HashMap<>();
+    private final Map<String, Set<IFooVar>> varsByName = new HashMap<>();
+    // ids of the base files that are reindexed or removed; guarded by lock
+    private final BitSet shadowed = new BitSet();
+    // ids of the base files found stale by a query; guarded by itself
+    private final BitSet staleInBase = new BitSet();
+    private boolean dirty; // guarded by lock
+    private int namesVersion; // guarded by lock
+    private volatile FooNameTable nameTable;
+
+    // files, projects, or the model to (re)index; guarded by this
+    private final Set<IElement> pending = new LinkedHashSet<>();
+    // the model to build this index for, or null if the build has started
+    private volatile IFooModel unbuiltModel;
+    private final Job indexJob;
+
+    /**
+     * Constructs a new, empty symbol index.
+     */
+    FooSymbolIndex()
+    {
+        this(null);
+    }
+
+    /**
+     * Constructs a new symbol index based on the given index file.
+     *
+     * @param base the index file saved in a previous session,
+     *  or <code>null</code> if none
+     */
+    FooSymbolIndex(FooSymbolIndexFile base)
+    {
+        this.base = base;
+        indexJob = new Job("Foo symbol indexing") //$NON-NLS-1$
+        {
+            @Override
+            protected IStatus run(IProgressMonitor monitor)
+            {
+                processPending(monitor);
+                return Status.OK_STATUS;
+            }
+        };
+        indexJob.setSystem(true);
+    }
+
+    /**
+     * Sets up this index for all Foo projects of the given Foo Model.
+     * The index will be built when it is first queried, or when {@link
+     * #build()} or {@link #awaitIdle()} is called. Until then, this index
+     * ignores element change events.
+     *
+     * @param fooModel the Foo Model (not <code>null</code>)
+     */
+    void initialize(IFooModel fooModel)
+    {
+        if (fooModel == null)
+            throw new IllegalArgumentException();
+        unbuiltModel = fooModel;
+    }
+
+    /**
+     * Schedules building of this index, unless it has already been
+     * scheduled or this index has not been initialized.
+     */
+    void build()
+    {
+        if (unbuiltModel == null)
+            return;
+        IFooModel fooModel;
+        synchronized (this)
+        {
+            fooModel = unbuiltModel;
+            if (fooModel == null)
+                return;
+            unbuiltModel = null;
+        }
+        schedule(fooModel);
+    }
+
+    /**
+     * Cancels indexing and waits for the indexing job to stop.
+     * Files that remain unprocessed will be found stale next time
+     * this index is loaded.
+     */
+    void dispose()
+    {
+        synchronized (this)
+        {
+            unbuiltModel = null;
+            pending.clear();
+        }
+        indexJob.cancel();
+        try
+        {
+            indexJob.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Saves this index as the next generation of the index file in
+     * the given directory, unless nothing has changed since the base
+     * of this index was written or this index has not been built.
+     *
+     * @param directory the directory to save to (not <code>null</code>)
+     * @throws IOException if the index could not be saved
+     * @see FooSymbolIndexFile#writeGeneration(File, Map)
+     */
+    void save(File directory) throws IOException
+    {
+        if (unbuiltModel != null)
+            return;
+        Map<String, FooSymbolIndexFile.FileEntry> entries = new HashMap<>();
+        lock.readLock().lock();
+        try
+        {
+            if (base != null && !dirty)
+                return;
+            if (base != null)
+                base.exportTo(entries, shadowed);
+            for (Map.Entry<IFooFile, IndexedFile> entry : filesByHandle
+                .entrySet())
+            {
+                entries.put(entry.getKey().getFile().getFullPath().toString(),
+                    entry.getValue().toFileEntry());
+            }
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+        FooSymbolIndexFile.writeGeneration(directory, entries);
+    }
+
+    /**
+     * Waits until all scheduled indexing is complete, building this index
+     * if it has not been built yet.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void awaitIdle() throws InterruptedException
+    {
+        build();
+        indexJob.join();
+    }
+
+    /**
+     * Returns the indexed functions with the given name.
+     *
+     * @param name a function name (not <code>null</code>)
+     * @return the functions with the given name (never <code>null</code>)
+     */
+    IFooDef[] findDefs(String name)
+    {
+        build();
+        lock.readLock().lock();
+        try
+        {
+            List<IFooDef> result = new ArrayList<>(defsByName.getOrDefault(
+                name, Collections.emptySet()));
+            findInBase(name, (fooFile, arity) ->
+            {
+                if (arity != FooSymbolIndexFile.VAR)
+                    result.add(fooFile.getDef(name, arity));
+            });
+            return result.toArray(NO_DEFS);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed functions with the given name and arity.
+     *
+     * @param name a function name (not <code>null</code>)
+     * @param arity a function arity
+     * @return the functions with the given name and arity
+     *  (never <code>null</code>)
+     */
+    IFooDef[] findDefs(String name, int arity)
+    {
+        build();
+        lock.readLock().lock();
+        try
+        {
+            List<IFooDef> result = new ArrayList<>(defsByKey.getOrDefault(
+                new DefKey(name, arity), Collections.emptySet()));
+            if (arity != FooSymbolIndexFile.VAR)
+            {
+                findInBase(name, (fooFile, a) ->
+                {
+                    if (a == arity)
+                        result.add(fooFile.getDef(name, arity));
+                });
+            }
+            return result.toArray(NO_DEFS);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed variables with the given name.
+     *
+     * @param name a variable name (not <code>null</code>)
+     * @return the variables with the given name (never <code>null</code>)
+     */
+    IFooVar[] findVars(String name)
+    {
+        build();
+        lock.readLock().lock();
+        try
+        {
+            List<IFooVar> result = new ArrayList<>(varsByName.getOrDefault(
+                name, Collections.emptySet()));
+            findInBase(name, (fooFile, arity) ->
+            {
+                if (arity == FooSymbolIndexFile.VAR)
+                    result.add(fooFile.getVar(name));
+            });
+            return result.toArray(NO_VARS);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed functions and variables whose names match
+     * the given pattern, best matches first. Symbols with names of
+     * the same match quality and length are ordered by the time
+     * their file was last modified, most recent first.
+     *
+     * @param pattern a search pattern (not <code>null</code>)
+     * @param maxResults the maximum number of symbols to return
+     * @return the matching symbols (never <code>null</code>)
+     * @see FooNameMatcher
+     */
+    IFooElement[] search(String pattern, int maxResults)
+    {
+        build();
+        FooNameMatcher matcher = new FooNameMatcher(pattern);
+        List<IFooElement> result = new ArrayList<>();
+        lock.readLock().lock();
+        try
+        {
+            if (pattern.isEmpty())
+                return NO_ELEMENTS;
+            Map<IFooFile, Long> timeStamps = new HashMap<>();
+            Comparator<IFooElement> byRecency = Comparator.comparingLong(
+                symbol -> -timeStamps.computeIfAbsent(
+                    (IFooFile)symbol.getParent(),
+                    fooFile -> fooFile.getFile().getLocalTimeStamp()));
+            FooNameTable names = getNameTable();
+            // the prefix matches rank above the others and are contiguous
+            int start = names.findPrefixBound(pattern, false);
+            int end = names.findPrefixBound(pattern, true);
+            List<NameMatch> matches = new ArrayList<>();
+            for (int i = start; i < end; i++)
+                addMatch(matcher, names.getName(i), matches);
+            resolve(matches, maxResults, byRecency, result);
+            if (result.size() < maxResults && !matcher.isPrefixOnly())
+            {
+                matches.clear();
+                BitSet candidates = names.findCandidates(matcher, start, end);
+                for (int i = candidates.nextSetBit(0); i >= 0;
+                    i = candidates.nextSetBit(i + 1))
+                    addMatch(matcher, names.getName(i), matches);
+                resolve(matches, maxResults, byRecency, result);
+            }
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+        return result.toArray(NO_ELEMENTS);
+    }
+
+    private static void addMatch(FooNameMatcher matcher, String name,
+        List<NameMatch> matches)
+    {
+        int quality = matcher.match(name);
+        if (quality != FooNameMatcher.NO_MATCH)
+            matches.add(new NameMatch(name, quality));
+    }
+
+    /*
+     * Resolves the given matches to symbols, best ranks first, until
+     * the result is full. Must be called under the lock.
+     */
+    private void resolve(List<NameMatch> matches, int maxResults,
+        Comparator<IFooElement> byRecency, List<IFooElement> result)
+    {
+        matches.sort(null);
+        int i = 0;
+        while (i < matches.size() && result.size() < maxResults)
+        {
+            // resolve the names of the next rank only
+            NameMatch first = matches.get(i);
+            List<IFooElement> symbols = new ArrayList<>();
+            for (; i < matches.size() && matches.get(i).compareRank(
+                first) == 0; i++)
+            {
+                collectSymbols(matches.get(i).name, symbols);
+            }
+            symbols.sort(byRecency);
+            result.addAll(symbols.subList(0, Math.min(symbols.size(),
+                maxResults - result.size())));
+        }
+    }
+
+    /**
+     * Returns the number of indexed Foo files.
+     *
+     * @return the number of indexed files
+     */
+    int getFileCount()
+    {
+        lock.readLock().lock();
+        try
+        {
+            int count = filesByHandle.size();
+            if (base != null)
+                count += base.getFileCount() - shadowed.cardinality();
+            return count;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Returns the table of the distinct names in this index, rebuilding it
+     * if a name has been added since it was built.
+     * Must be called under the lock.
+     */
+    private FooNameTable getNameTable()
+    {
+        FooNameTable table = nameTable;
+        if (table != null && table.getVersion() == namesVersion)
+            return table;
+        Set<String> names = new HashSet<>(defsByName.keySet());
+        names.addAll(varsByName.keySet());
+        if (base != null)
+        {
+            for (int i = 0, n = base.getNameCount(); i < n; i++)
+                names.add(base.getName(i));
+        }
+        String[] sorted = names.toArray(new String[names.size()]);
+        Arrays.sort(sorted, String.CASE_INSENSITIVE_ORDER);
+        // concurrent readers may rebuild the same table; that is harmless
+        table = new FooNameTable(namesVersion, sorted);
+        nameTable = table;
+        return table;
+    }
+
+    private void collectSymbols(String name, List<IFooElement> symbols)
+    {
+        symbols.addAll(defsByName.getOrDefault(name, Collections.emptySet()));
+        symbols.addAll(varsByName.getOrDefault(name, Collections.emptySet()));
+        findInBase(name, (fooFile, arity) ->
+        {
+            if (arity == FooSymbolIndexFile.VAR)
+                symbols.add(fooFile.getVar(name));
+            else
+                symbols.add(fooFile.getDef(name, arity));
+        });
+    }
+
+    /*
+     * Passes the symbols with the given name recorded in the base
+     * for the files that are neither shadowed nor stale to the given
+     * consumer, and schedules stale files for reindexing.
+     * Must be called under the lock.
+     */
+    private void findInBase(String name, BaseSymbolConsumer consumer)
+    {
+        if (base == null)
+            return;
+        IWorkspaceRoot root = FooModelCore.getFooModel().getWorkspace()
+            .getRoot();
+        // the up-to-date files, or null for stale ones, checked once per query
+        Map<Integer, IFooFile> files = new HashMap<>();
+        base.findPostings(name, (fileId, arity, offset) ->
+        {
+            if (shadowed.get(fileId))
+                return;
+            IFooFile fooFile;
+            if (files.containsKey(fileId))
+                fooFile = files.get(fileId);
+            else
+            {
+                fooFile = getCurrentInBase(root, fileId);
+                files.put(fileId, fooFile);
+            }
+            if (fooFile != null)
+                consumer.accept(fooFile, arity);
+        });
+    }
+
+    /*
+     * Returns the file with the given id in the base if its base entry
+     * is up to date, and null otherwise. A stale file is scheduled for
+     * reindexing when it is first found to be stale; it stays stale,
+     * since modification stamps only grow, until it is shadowed.
+     */
+    private IFooFile getCurrentInBase(IWorkspaceRoot root, int fileId)
+    {
+        synchronized (staleInBase)
+        {
+            if (staleInBase.get(fileId))
+                return null;
+        }
+        IFile file = root.getFile(new Path(base.getPath(fileId)));
+        IFooFile fooFile = FooModelCore.create(file);
+        if (fooFile == null)
+            return null;
+        if (isFooProject(file.getProject())
+            && file.getModificationStamp() == base.getStamp(fileId))
+            return fooFile;
+        boolean first;
+        synchronized (staleInBase)
+        {
+            first = !staleInBase.get(fileId);
+            staleInBase.set(fileId);
+        }
+        if (first)
+            schedule(fooFile);
+        return null;
+    }
+
+    @Override
+    public void elementChanged(IElementChangeEvent event)
+    {
+        if (unbuiltModel != null)
+            return; // the build will index the current state
+        for (IElementDelta delta : event.getDeltas())
+            scheduleAffected(delta);
+    }
+
+    private void scheduleAffected(IElementDelta delta)
+    {
+        IElement element = ElementDeltas.getElement(delta);
+        if (element instanceof IFooFile)
+            schedule(element);
+        else if (element instanceof IFooProject && ElementDeltas.getKind(
+            delta) != IElementDeltaConstants.CHANGED)
+            schedule(element);
+        else if (element instanceof IFooProject || element instanceof IFooModel)
+        {
+            for (IElementDelta child : ElementDeltas.getAffectedChildren(
+                delta))
+                scheduleAffected(child);
+        }
+    }
+
+    private void schedule(IElement element)
+    {
+        synchronized (this)
+        {
+            pending.add(element);
+        }
+        indexJob.schedule();
+    }
+
+    private void processPending(IProgressMonitor monitor)
+    {
+        while (!monitor.isCanceled())
+        {
+            List<IElement> elements;
+            synchronized (this)
+            {
+                if (pending.isEmpty())
+                    return;
+                elements = new ArrayList<>(pending);
+                pending.clear();
+            }
+            for (IElement element : elements)
+            {
+                if (monitor.isCanceled())
+                    return;
+                try
+                {
+                    if (element instanceof IFooFile)
+                        reindexFile((IFooFile)element);
+                    else if (element instanceof IFooProject)
+                        reindexProject((IFooProject)element, monitor);
+                    else if (element instanceof IFooModel)
+                        indexModel((IFooModel)element, monitor);
+                }
+                catch (CoreException e)
+                {
+                    Activator.log(e.getStatus());
+                }
+            }
+        }
+    }
+
+    private void indexModel(IFooModel fooModel, IProgressMonitor monitor)
+        throws CoreException
+    {
+        BitSet current = new BitSet();
+        for (IProject project : fooModel.getWorkspace().getRoot().getProjects())
+        {
+            if (monitor.isCanceled())
+                return;
+            if (!isFooProject(project))
+                continue;
+            for (IResource member : project.members())
+            {
+                if (monitor.isCanceled())
+                    return;
+                if (member instanceof IFile)
+                {
+                    IFooFile fooFile = FooModelCore.create((IFile)member);
+                    if (fooFile == null)
+                        continue;
+                    int fileId = findCurrentInBase(fooFile);
+                    if (fileId >= 0)
+                        current.set(fileId);
+                    else
+                        reindexFile(fooFile);
+                }
+            }
+        }
+        if (base == null)
+            return;
+        // the base files that no longer exist
+        current.flip(0, base.getFileCount());
+        lock.writeLock().lock();
+        try
+        {
+            shadow(current);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int findCurrentInBase(IFooFile fooFile)
+    {
+        if (base == null)
+            return -1;
+        IFile file = fooFile.getFile();
+        int fileId = base.findFile(file.getFullPath().toString());
+        if (fileId < 0
+            || file.getModificationStamp() != base.getStamp(fileId))
+            return -1;
+        lock.readLock().lock();
+        try
+        {
+            if (shadowed.get(fileId))
+                return -1;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+        return fileId;
+    }
+
+    private void reindexProject(IFooProject fooProject,
+        IProgressMonitor monitor) throws CoreException
+    {
+        removeProject(fooProject);
+        IProject project = fooProject.getProject();
+        if (!isFooProject(project))
+            return;
+        for (IResource member : project.members())
+        {
+            if (monitor.isCanceled())
+                return;
+            if (member instanceof IFile)
+            {
+                IFooFile fooFile = FooModelCore.create((IFile)member);
+                if (fooFile != null)
+                    reindexFile(fooFile);
+            }
+        }
+    }
+
+    private void reindexFile(IFooFile fooFile) throws CoreException
+    {
+        IndexedFile indexedFile = null;
+        IFile file = fooFile.getFile();
+        if (isFooProject(fooFile.getParent().getProject()) && file.exists())
+        {
+            FooFile handle = (FooFile)fooFile;
+            Object body = handle.peekAtBody_();
+            if (body instanceof Body)
+            {
+                IElement[] symbols = ((Body)body).getChildren();
+                int[] offsets = new int[symbols.length];
+                for (int i = 0; i < symbols.length; i++)
+                {
+                    offsets[i] = getOffset(((Element)symbols[i])
+                        .peekAtBody_());
+                }
+                // the contents of a working copy are not on disk
+                indexedFile = new IndexedFile(fooFile.isWorkingCopy()
+                    ? IResource.NULL_STAMP : file.getModificationStamp(),
+                    symbols, offsets);
+            }
+            else
+            {
+                long stamp = file.getModificationStamp();
+                Map<IElement, Object> newElements = new HashMap<>();
+                IElement[] symbols = handle.scanChildren(newElements);
+                int[] offsets = new int[symbols.length];
+                for (int i = 0; i < symbols.length; i++)
+                    offsets[i] = getOffset(newElements.get(symbols[i]));
+                indexedFile = new IndexedFile(stamp, symbols, offsets);
+            }
+        }
+        lock.writeLock().lock();
+        try
+        {
+            remove(fooFile);
+            if (base != null)
+            {
+                int fileId = base.findFile(file.getFullPath().toString());
+                if (fileId >= 0)
+                    shadowed.set(fileId);
+            }
+            if (indexedFile != null)
+                add(fooFile, indexedFile);
+            dirty = true;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeProject(IFooProject fooProject)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            List<IFooFile> files = new ArrayList<>();
+            for (IFooFile fooFile : filesByHandle.keySet())
+            {
+                if (fooProject.equals(Elements.getParent(fooFile)))
+                    files.add(fooFile);
+            }
+            for (IFooFile fooFile : files)
+                remove(fooFile);
+            if (base != null)
+            {
+                int[] range = base.findFiles(
+                    fooProject.getProject().getFullPath().toString() + '/');
+                BitSet projectFiles = new BitSet();
+                projectFiles.set(range[0], range[1]);
+                shadow(projectFiles);
+            }
+            dirty = true;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void shadow(BitSet fileIds)
+    {
+        if (!fileIds.isEmpty())
+        {
+            shadowed.or(fileIds);
+            dirty = true;
+        }
+    }
+
+    private void add(IFooFile fooFile, IndexedFile indexedFile)
+    {
+        filesByHandle.put(fooFile, indexedFile);
+        for (IElement symbol : indexedFile.symbols)
+        {
+            if (symbol instanceof IFooDef)
+            {
+                IFooDef def = (IFooDef)symbol;
+                defsByName.computeIfAbsent(def.getName(),
+                    this::newNameEntry).add(def);
+                defsByKey.computeIfAbsent(new DefKey(def.getName(),
+                    def.getArity()), k -> new HashSet<>()).add(def);
+            }
+            else if (symbol instanceof IFooVar)
+            {
+                varsByName.computeIfAbsent(Elements.getName(symbol),
+                    this::newNameEntry).add((IFooVar)symbol);
+            }
+        }
+    }
+
+    private void remove(IFooFile fooFile)
+    {
+        IndexedFile indexedFile = filesByHandle.remove(fooFile);
+        if (indexedFile == null)
+            return;
+        for (IElement symbol : indexedFile.symbols)
+        {
+            if (symbol instanceof IFooDef)
+            {
+                IFooDef def = (IFooDef)symbol;
+                remove(defsByName, def.getName(), def);
+                remove(defsByKey, new DefKey(def.getName(), def.getArity()),
+                    def);
+            }
+            else if (symbol instanceof IFooVar)
+                remove(varsByName, Elements.getName(symbol), (IFooVar)symbol);
+        }
+    }
+
+    private <V> Set<V> newNameEntry(String name)
+    {
+        // a removed name is left in the name table, so a name that is
+        // indexed again does not make the table stale
+        FooNameTable table = nameTable;
+        if (table == null || !table.contains(name))
+            namesVersion++;
+        return new HashSet<>();
+    }
+
+    private static <K, V> void remove(Map<K, Set<V>> map, K key, V value)
+    {
+        Set<V> values = map.get(key);
+        if (values != null && values.remove(value) && values.isEmpty())
+            map.remove(key);
+    }
+
+    private static int getOffset(Object body)
+    {
+        if (!(body instanceof SourceElementBody))
+            return -1;
+        TextRange range = ((SourceElementBody)body).getIdentifyingRange();
+        return range != null ? range.getOffset() : -1;
+    }
+
+    private static boolean isFooProject(IProject project)
+    {
+        return FooModelManager.INSTANCE.getProjectRegistry().isFooProject(
+            project.getName());
+    }
+
+    private interface BaseSymbolConsumer
+    {
+        void accept(IFooFile fooFile, int arity);
+    }
+
+    private static class IndexedFile
+    {
+        final long stamp;
+        final IElement[] symbols;
+        final int[] offsets;
+
+        IndexedFile(long stamp, IElement[] symbols, int[] offsets)
+        {
+            this.stamp = stamp;
+            this.symbols = symbols;
+            this.offsets = offsets;
+        }
+
+        FooSymbolIndexFile.FileEntry toFileEntry()
+        {
+            FooSymbolIndexFile.FileEntry entry =
+                new FooSymbolIndexFile.FileEntry(stamp);
+            for (int i = 0; i < symbols.length; i++)
+            {
+                int arity = symbols[i] instanceof IFooDef
+                    ? ((IFooDef)symbols[i]).getArity() : FooSymbolIndexFile.VAR;
+                entry.symbols.add(new FooSymbolIndexFile.Symbol(
+                    Elements.getName(symbols[i]), arity, offsets[i]));
+            }
+            return entry;
+        }
+    }
+
+    private static class NameMatch
+        implements Comparable<NameMatch>
+    {
+        final String name;
+        final int quality;
+
+        NameMatch(String name, int quality)
+        {
+            this.name = name;
+            this.quality = quality;
+        }
+
+        /*
+         * Orders matches by quality and then by length of the name,
+         * a shorter name being a closer match.
+         */
+        int compareRank(NameMatch other)
+        {
+            if (quality != other.quality)
+                return Integer.compare(quality, other.quality);
+            return Integer.compare(name.length(), other.name.length());
+        }
+
+        @Override
+        public int compareTo(NameMatch other)
+        {
+            int result = compareRank(other);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
+    }
+
+    private static class DefKey
+    {
+        private final String name;
+        private final int arity;
+
+        DefKey(String name, int arity)
+        {
+            this.name = name;
+            this.arity = arity;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof DefKey))
+                return false;
+            DefKey other = (DefKey)obj;
+            return arity == other.arity && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * name.hashCode() + arity;
+        }
+    }
+}
@@ -0,0 +1,590 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent, memory-mapped form of the Foo symbol index.
+ * <p>
+ * The file consists of a header with a version, a table of the indexed
+ * files with their modification stamps sorted by full path, a dictionary
+ * of symbol names sorted by their UTF-8 bytes, the postings of each name
+ * (file, arity, and offset of the declaration), and a pool of the UTF-8
+ * encoded paths and names. All records have a fixed size, so the file is
+ * queried directly in the mapped buffer by binary search, without being
+ * deserialized. A file with an unknown version or an inconsistent header
+ * is ignored.
+ * </p>
+ * <p>
+ * Since a mapped file cannot be replaced or deleted on some platforms,
+ * notably Windows, the index is saved in generations: each save writes
+ * a new file <code>symbols.&lt;n&gt;.idx</code> and then points
+ * <code>symbols.gen</code> at it. The older generations are deleted
+ * when the index is opened in the next session.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class FooSymbolIndexFile
+{
+    /**
+     * The arity recorded for a variable.
+     */
+    static final int VAR = -1;
+
+    private static final String PREFIX = "symbols."; //$NON-NLS-1$
+    private static final String SUFFIX = ".idx"; //$NON-NLS-1$
+    private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+    private static final String GENERATION_FILE = "symbols.gen"; //$NON-NLS-1$
+
+    private static final int MAGIC = 0x464F4F58; // "FOOX"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 20;
+    private static final int FILE_RECORD_SIZE = 16;
+    private static final int NAME_RECORD_SIZE = 16;
+    private static final int POSTING_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int fileCount;
+    private final int nameCount;
+    private final int filesStart;
+    private final int namesStart;
+    private final int postingsStart;
+    private final int poolStart;
+
+    private FooSymbolIndexFile(ByteBuffer buffer, int fileCount, int nameCount,
+        int postingCount)
+    {
+        this.buffer = buffer;
+        this.fileCount = fileCount;
+        this.nameCount = nameCount;
+        filesStart = HEADER_SIZE;
+        namesStart = filesStart + fileCount * FILE_RECORD_SIZE;
+        postingsStart = namesStart + nameCount * NAME_RECORD_SIZE;
+        poolStart = postingsStart + postingCount * POSTING_SIZE;
+    }
+
+    /**
+     * Maps the given index file into memory.
+     *
+     * @param file the file to map (not <code>null</code>)
+     * @return the mapped index, or <code>null</code> if the file does not
+     *  exist, has an unknown version, or is inconsistent
+     * @throws IOException if the file could not be mapped
+     */
+    static FooSymbolIndexFile open(File file) throws IOException
+    {
+        if (!file.isFile())
+            return null;
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+                return null;
+            // the mapping remains valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            return null;
+        int fileCount = buffer.getInt(8);
+        int nameCount = buffer.getInt(12);
+        int postingCount = buffer.getInt(16);
+        if (fileCount < 0 || nameCount < 0 || postingCount < 0
+            || HEADER_SIZE + (long)fileCount * FILE_RECORD_SIZE
+                + (long)nameCount * NAME_RECORD_SIZE
+                + (long)postingCount * POSTING_SIZE > buffer.capacity())
+            return null;
+        return new FooSymbolIndexFile(buffer, fileCount, nameCount,
+            postingCount);
+    }
+
+    /**
+     * Maps the current generation of the index saved in the given directory
+     * into memory, and deletes the other generations, which are not mapped
+     * at this point.
+     *
+     * @param directory the directory of the index (not <code>null</code>)
+     * @return the mapped index, or <code>null</code> if there is no saved
+     *  index or it cannot be used
+     * @throws IOException if the file could not be mapped
+     * @see #writeGeneration(File, Map)
+     */
+    static FooSymbolIndexFile openGeneration(File directory) throws IOException
+    {
+        int generation = readGeneration(directory);
+        File current = getGenerationFile(directory, generation);
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(
+            PREFIX) && (name.endsWith(SUFFIX) || name.endsWith(TEMP_SUFFIX)));
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                if (!file.equals(current))
+                    file.delete();
+            }
+        }
+        if (generation < 0)
+            return null;
+        return open(current);
+    }
+
+    /**
+     * Writes an index file with the given entries as the next generation
+     * of the index in the given directory, and makes it current. The file
+     * of the previous generation, which may still be mapped, is left intact.
+     *
+     * @param directory the directory of the index (not <code>null</code>)
+     * @param entries the symbols of the indexed files keyed by the full path
+     *  of the file (not <code>null</code>)
+     * @throws IOException if the index could not be written
+     * @see #openGeneration(File)
+     */
+    static void writeGeneration(File directory, Map<String, FileEntry> entries)
+        throws IOException
+    {
+        int generation = readGeneration(directory) + 1;
+        write(getGenerationFile(directory, generation), entries);
+        File tempFile = new File(directory, GENERATION_FILE + TEMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(
+            tempFile)))
+        {
+            out.writeInt(generation);
+        }
+        Files.move(tempFile.toPath(), new File(directory,
+            GENERATION_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes an index file with the given entries. The contents are written
+     * to a temporary file first, which then replaces the given file.
+     *
+     * @param file the file to write (not <code>null</code>)
+     * @param entries the symbols of the indexed files keyed by the full path
+     *  of the file (not <code>null</code>)
+     * @throws IOException if the file could not be written
+     */
+    static void write(File file, Map<String, FileEntry> entries)
+        throws IOException
+    {
+        byte[][] paths = new byte[entries.size()][];
+        FileEntry[] fileEntries = new FileEntry[paths.length];
+        int i = 0;
+        for (Map.Entry<String, FileEntry> entry : entries.entrySet())
+            paths[i++] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        Arrays.sort(paths, FooSymbolIndexFile::compare);
+        Map<String, List<long[]>> postingsByName = new HashMap<>();
+        for (i = 0; i < paths.length; i++)
+        {
+            fileEntries[i] = entries.get(new String(paths[i],
+                StandardCharsets.UTF_8));
+            for (Symbol symbol : fileEntries[i].symbols)
+            {
+                postingsByName.computeIfAbsent(symbol.name,
+                    k -> new ArrayList<>()).add(new long[] { i, symbol.arity,
+                        symbol.offset });
+            }
+        }
+        byte[][] names = new byte[postingsByName.size()][];
+        i = 0;
+        for (String name : postingsByName.keySet())
+            names[i++] = name.getBytes(StandardCharsets.UTF_8);
+        Arrays.sort(names, FooSymbolIndexFile::compare);
+
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        File tempFile = new File(file.getPath() + TEMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(tempFile))))
+        {
+            int postingCount = 0;
+            for (List<long[]> postings : postingsByName.values())
+                postingCount += postings.size();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(paths.length);
+            out.writeInt(names.length);
+            out.writeInt(postingCount);
+            for (i = 0; i < paths.length; i++)
+            {
+                out.writeInt(pool.size());
+                out.writeInt(paths[i].length);
+                out.writeLong(fileEntries[i].stamp);
+                pool.write(paths[i]);
+            }
+            int firstPosting = 0;
+            for (byte[] name : names)
+            {
+                int count = postingsByName.get(new String(name,
+                    StandardCharsets.UTF_8)).size();
+                out.writeInt(pool.size());
+                out.writeInt(name.length);
+                out.writeInt(firstPosting);
+                out.writeInt(count);
+                pool.write(name);
+                firstPosting += count;
+            }
+            for (byte[] name : names)
+            {
+                for (long[] posting : postingsByName.get(new String(name,
+                    StandardCharsets.UTF_8)))
+                {
+                    out.writeInt((int)posting[0]);
+                    out.writeInt((int)posting[1]);
+                    out.writeInt((int)posting[2]);
+                }
+            }
+            pool.writeTo(out);
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /*
+     * Returns the current generation, or -1 if there is none.
+     */
+    private static int readGeneration(File directory)
+    {
+        File file = new File(directory, GENERATION_FILE);
+        if (!file.isFile())
+            return -1;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(
+            file)))
+        {
+            return Math.max(in.readInt(), -1);
+        }
+        catch (IOException e)
+        {
+            return -1;
+        }
+    }
+
+    private static File getGenerationFile(File directory, int generation)
+    {
+        return new File(directory, PREFIX + generation + SUFFIX);
+    }
+
+    /**
+     * Returns the number of indexed files.
+     *
+     * @return the number of files
+     */
+    int getFileCount()
+    {
+        return fileCount;
+    }
+
+    /**
+     * Returns the number of distinct symbol names.
+     *
+     * @return the number of names
+     */
+    int getNameCount()
+    {
+        return nameCount;
+    }
+
+    /**
+     * Returns the symbol name with the given id. Names are ordered
+     * by their UTF-8 bytes, which is the order of their code points.
+     *
+     * @param nameId a name id, between 0 and the name count
+     * @return the symbol name (never <code>null</code>)
+     */
+    String getName(int nameId)
+    {
+        int record = namesStart + nameId * NAME_RECORD_SIZE;
+        return getString(buffer.getInt(record), buffer.getInt(record + 4));
+    }
+
+    /**
+     * Returns the full path of the file with the given id.
+     *
+     * @param fileId a file id, between 0 and the file count
+     * @return the full path of the file (never <code>null</code>)
+     */
+    String getPath(int fileId)
+    {
+        int record = filesStart + fileId * FILE_RECORD_SIZE;
+        return getString(buffer.getInt(record), buffer.getInt(record + 4));
+    }
+
+    /**
+     * Returns the modification stamp of the file with the given id
+     * at the time it was indexed.
+     *
+     * @param fileId a file id, between 0 and the file count
+     * @return the modification stamp of the file
+     */
+    long getStamp(int fileId)
+    {
+        return buffer.getLong(filesStart + fileId * FILE_RECORD_SIZE + 8);
+    }
+
+    /**
+     * Returns the id of the file with the given full path.
+     *
+     * @param path a full path (not <code>null</code>)
+     * @return the file id, or -1 if the file is not indexed
+     */
+    int findFile(String path)
+    {
+        byte[] key = path.getBytes(StandardCharsets.UTF_8);
+        int low = 0, high = fileCount - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int record = filesStart + mid * FILE_RECORD_SIZE;
+            int c = compare(buffer.getInt(record), buffer.getInt(record + 4),
+                key);
+            if (c < 0)
+                low = mid + 1;
+            else if (c > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the range of ids of the files whose full path starts with
+     * the given prefix.
+     *
+     * @param prefix a path prefix (not <code>null</code>)
+     * @return the range as a two-element array: the first id,
+     *  and the id after the last one (never <code>null</code>)
+     */
+    int[] findFiles(String prefix)
+    {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        int from = lowerBound(key, false);
+        int to = lowerBound(key, true);
+        return new int[] { from, to };
+    }
+
+    /**
+     * Passes the postings of the given name to the given visitor.
+     *
+     * @param name a symbol name (not <code>null</code>)
+     * @param visitor the posting visitor (not <code>null</code>)
+     */
+    void findPostings(String name, PostingVisitor visitor)
+    {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0, high = nameCount - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int record = namesStart + mid * NAME_RECORD_SIZE;
+            int c = compare(buffer.getInt(record), buffer.getInt(record + 4),
+                key);
+            if (c < 0)
+                low = mid + 1;
+            else if (c > 0)
+                high = mid - 1;
+            else
+            {
+                visitPostings(record, visitor);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the entries of the files that are not excluded to the given map.
+     *
+     * @param entries the map to add the entries to, keyed by the full path
+     *  of the file (not <code>null</code>)
+     * @param excluded the ids of the files to exclude (not <code>null</code>)
+     */
+    void exportTo(Map<String, FileEntry> entries, BitSet excluded)
+    {
+        FileEntry[] fileEntries = new FileEntry[fileCount];
+        for (int i = 0; i < fileCount; i++)
+        {
+            if (!excluded.get(i))
+                fileEntries[i] = new FileEntry(getStamp(i));
+        }
+        for (int i = 0; i < nameCount; i++)
+        {
+            int record = namesStart + i * NAME_RECORD_SIZE;
+            String name = getString(buffer.getInt(record), buffer.getInt(
+                record + 4));
+            visitPostings(record, (fileId, arity, offset) ->
+            {
+                if (fileEntries[fileId] != null)
+                    fileEntries[fileId].symbols.add(new Symbol(name, arity,
+                        offset));
+            });
+        }
+        for (int i = 0; i < fileCount; i++)
+        {
+            if (fileEntries[i] != null)
+                entries.put(getPath(i), fileEntries[i]);
+        }
+    }
+
+    private void visitPostings(int nameRecord, PostingVisitor visitor)
+    {
+        int first = buffer.getInt(nameRecord + 8);
+        int count = buffer.getInt(nameRecord + 12);
+        for (int i = 0; i < count; i++)
+        {
+            int posting = postingsStart + (first + i) * POSTING_SIZE;
+            visitor.visit(buffer.getInt(posting), buffer.getInt(posting + 4),
+                buffer.getInt(posting + 8));
+        }
+    }
+
+    /*
+     * Returns the first file id whose path is not less than the given key,
+     * or, if afterPrefix is true, the first file id whose path neither is
+     * less than the key nor starts with it.
+     */
+    private int lowerBound(byte[] key, boolean afterPrefix)
+    {
+        int low = 0, high = fileCount;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            int record = filesStart + mid * FILE_RECORD_SIZE;
+            int offset = buffer.getInt(record);
+            int length = buffer.getInt(record + 4);
+            int c = compare(offset, length, key);
+            if (c < 0 || (afterPrefix && startsWith(offset, length, key)))
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private String getString(int offset, int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = buffer.get(poolStart + offset + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean startsWith(int offset, int length, byte[] prefix)
+    {
+        if (length < prefix.length)
+            return false;
+        for (int i = 0; i < prefix.length; i++)
+        {
+            if (buffer.get(poolStart + offset + i) != prefix[i])
+                return false;
+        }
+        return true;
+    }
+
+    /*
+     * Compares the pooled string at the given offset with the given key
+     * as unsigned bytes.
+     */
+    private int compare(int offset, int length, byte[] key)
+    {
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++)
+        {
+            int c = (buffer.get(poolStart + offset + i) & 0xFF)
+                - (key[i] & 0xFF);
+            if (c != 0)
+                return c;
+        }
+        return length - key.length;
+    }
+
+    private static int compare(byte[] a, byte[] b)
+    {
+        int n = Math.min(a.length, b.length);
+        for (int i = 0; i < n; i++)
+        {
+            int c = (a[i] & 0xFF) - (b[i] & 0xFF);
+            if (c != 0)
+                return c;
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Receives postings of a symbol name.
+     */
+    interface PostingVisitor
+    {
+        /**
+         * Visits a posting.
+         *
+         * @param fileId the id of the file that declares the symbol
+         * @param arity the arity of the function, or {@link #VAR}
+         *  for a variable
+         * @param offset the offset of the declaration's identifier
+         *  in the file, or -1 if unknown
+         */
+        void visit(int fileId, int arity, int offset);
+    }
+
+    /**
+     * The indexed symbols of a file.
+     */
+    static class FileEntry
+    {
+        final long stamp;
+        final List<Symbol> symbols = new ArrayList<>();
+
+        FileEntry(long stamp)
+        {
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * An indexed symbol.
+     */
+    static class Symbol
+    {
+        final String name;
+        final int arity;
+        final int offset;
+
+        Symbol(String name, int arity, int offset)
+        {
+            this.name = name;
+            this.arity = arity;
+            this.offset = offset;
+        }
+    }
+}
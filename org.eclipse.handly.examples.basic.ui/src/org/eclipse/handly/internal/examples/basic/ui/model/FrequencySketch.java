@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+/**
+ * A probabilistic estimate of the access frequency of elements within
+ * a recent time window.
+ * <p>
+ * This is a count-min sketch with four hash functions and 4-bit counters,
+ * sixteen of which are packed into each <code>long</code>. Once the number
+ * of recorded accesses reaches a sample size proportional to the size
+ * of the sketch, all counters are halved, so that the sketch favors
+ * recent history.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class FrequencySketch
+{
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L,
+        0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private long[] table;
+    private int sampleSize;
+    private int size;
+
+    /**
+     * Constructs a new sketch for a cache of the given maximum size.
+     *
+     * @param maxSize the maximum number of elements in the cache
+     *  (must be positive)
+     */
+    FrequencySketch(int maxSize)
+    {
+        ensureCapacity(maxSize);
+    }
+
+    /**
+     * Grows the sketch if necessary to accommodate a cache of the given
+     * maximum size. Recorded frequencies are retained.
+     *
+     * @param maxSize the maximum number of elements in the cache
+     *  (must be positive)
+     */
+    void ensureCapacity(int maxSize)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException();
+        int length = Integer.highestOneBit(Math.max(maxSize, 16) - 1) << 1;
+        if (table != null && table.length >= length)
+            return;
+        long[] oldTable = table;
+        table = new long[length];
+        if (oldTable != null)
+        {
+            // an index into the grown table is an index into the old table
+            // plus a multiple of its length, so each copy of the old table
+            // keeps the counters for the same hashes
+            for (int i = 0; i < length; i += oldTable.length)
+                System.arraycopy(oldTable, 0, table, i, oldTable.length);
+        }
+        sampleSize = 10 * length;
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the given element.
+     *
+     * @param element the element (not <code>null</code>)
+     * @return the estimated frequency, between <code>0</code>
+     *  and <code>15</code>
+     */
+    int frequency(Object element)
+    {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++)
+        {
+            int index = indexOf(hash, i);
+            int count = (int)((table[index] >>> ((start + i) << 2)) & 0xf);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the given element.
+     *
+     * @param element the element (not <code>null</code>)
+     */
+    void increment(Object element)
+    {
+        int hash = spread(element.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++)
+            added |= incrementAt(indexOf(hash, i), start + i);
+        if (added && ++size >= sampleSize)
+            reset();
+    }
+
+    private boolean incrementAt(int index, int counter)
+    {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) == mask)
+            return false;
+        table[index] += 1L << offset;
+        return true;
+    }
+
+    private void reset()
+    {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++)
+        {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int i)
+    {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int)h & (table.length - 1);
+    }
+
+    private static int spread(int h)
+    {
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Map;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.IBodyCache;
+
+/**
+ * Common protocol for body caches of the Foo Model.
+ */
+interface IFooModelCache
+    extends IBodyCache
+{
+    /**
+     * Attempts to restore the structure of the given Foo file that was
+     * previously removed from this cache. The structure is restored only
+     * if it is still valid for the given modification stamp and contents
+     * digest. Caches that do not keep the structure of removed files
+     * always return <code>false</code>.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the current modification stamp of the underlying file
+     * @param contentsDigest the digest of the current contents of the file
+     *  (not <code>null</code>)
+     * @param newElements the map to populate with the restored bodies
+     *  (not <code>null</code>)
+     * @return <code>true</code> if the structure was restored,
+     *  and <code>false</code> otherwise
+     * @threadsafe This method may be called without holding
+     *  the element manager's lock
+     */
+    boolean restoreStructure(IElement file, long stamp,
+        byte[] contentsDigest, Map<IElement, Object> newElements);
+
+    /**
+     * Ensures that this cache has room for the given number of open
+     * Foo files on behalf of the given parent element (a Foo project or
+     * the Foo model). The room is released when the body of the parent
+     * element is removed from this cache. Caches that bound open Foo files
+     * by their estimated retained size ignore this request.
+     *
+     * @param fileCount the number of Foo files
+     * @param parent the parent element (not <code>null</code>)
+     */
+    void ensureFileCacheSize(int fileCount, IElement parent);
+
+    /**
+     * Releases the room for open Foo files ensured on behalf of the given
+     * parent element before its body is removed from this cache.
+     *
+     * @param parent the parent element (not <code>null</code>)
+     * @see #ensureFileCacheSize(int, IElement)
+     */
+    void releaseFileCacheSize(IElement parent);
+
+    /**
+     * Returns the number of Foo project bodies in this cache.
+     *
+     * @return the number of project bodies
+     */
+    int getProjectCount();
+
+    /**
+     * Returns the number of Foo file bodies in this cache.
+     *
+     * @return the number of file bodies
+     */
+    int getFileCount();
+
+    /**
+     * Returns the number of bodies of children of Foo files in this cache.
+     *
+     * @return the number of child bodies
+     */
+    int getChildCount();
+}
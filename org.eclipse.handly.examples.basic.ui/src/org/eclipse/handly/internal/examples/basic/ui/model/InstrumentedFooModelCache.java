@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Map;
+
+import org.eclipse.handly.model.IElement;
+
+/**
+ * A Foo Model cache that records hits and misses of another cache.
+ * Only {@link #get(IElement) get} is counted; {@link #peek(IElement) peek}
+ * does not represent a use of the body.
+ *
+ * @threadsafe This class is thread-safe if the underlying cache is
+ */
+class InstrumentedFooModelCache
+    implements IFooModelCache
+{
+    private final IFooModelCache cache;
+    private final FooModelMetrics metrics;
+
+    /**
+     * Constructs an instrumented cache on top of the given cache.
+     *
+     * @param cache the underlying cache (not <code>null</code>)
+     * @param metrics the metrics to record to (not <code>null</code>)
+     */
+    InstrumentedFooModelCache(IFooModelCache cache, FooModelMetrics metrics)
+    {
+        if (cache == null)
+            throw new IllegalArgumentException();
+        if (metrics == null)
+            throw new IllegalArgumentException();
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object get(IElement element)
+    {
+        Object body = cache.get(element);
+        metrics.bodyLookedUp(element, body != null);
+        return body;
+    }
+
+    @Override
+    public Object peek(IElement element)
+    {
+        return cache.peek(element);
+    }
+
+    @Override
+    public void put(IElement element, Object body)
+    {
+        cache.put(element, body);
+    }
+
+    @Override
+    public void remove(IElement element)
+    {
+        cache.remove(element);
+    }
+
+    @Override
+    public boolean restoreStructure(IElement file, long stamp,
+        byte[] contentsDigest, Map<IElement, Object> newElements)
+    {
+        return cache.restoreStructure(file, stamp, contentsDigest,
+            newElements);
+    }
+
+    @Override
+    public void ensureFileCacheSize(int fileCount, IElement parent)
+    {
+        cache.ensureFileCacheSize(fileCount, parent);
+    }
+
+    @Override
+    public void releaseFileCacheSize(IElement parent)
+    {
+        cache.releaseFileCacheSize(parent);
+    }
+
+    @Override
+    public int getProjectCount()
+    {
+        return cache.getProjectCount();
+    }
+
+    @Override
+    public int getFileCount()
+    {
+        return cache.getFileCount();
+    }
+
+    @Override
+    public int getChildCount()
+    {
+        return cache.getChildCount();
+    }
+
+    @Override
+    public String toString()
+    {
+        return cache.toString();
+    }
+}
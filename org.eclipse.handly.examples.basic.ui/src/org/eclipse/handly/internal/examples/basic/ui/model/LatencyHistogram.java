@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with exponentially growing buckets.
+ * <p>
+ * Bucket <code>0</code> counts latencies below 1 microsecond; bucket
+ * <code>i</code> (<code>0 &lt; i &lt; BUCKET_COUNT - 1</code>) counts
+ * latencies of at least <code>2<sup>i-1</sup></code> and below
+ * <code>2<sup>i</sup></code> microseconds; the last bucket counts
+ * all longer latencies.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+final class LatencyHistogram
+{
+    /**
+     * The number of buckets. The last regular bucket ends at about
+     * 8.4 seconds.
+     */
+    static final int BUCKET_COUNT = 25;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max,
+        0);
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return the number of recorded latencies
+     */
+    long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of recorded latencies.
+     *
+     * @return the total latency in nanoseconds
+     */
+    long getTotalNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Returns the maximum recorded latency.
+     *
+     * @return the maximum latency in nanoseconds, or <code>0</code>
+     *  if no latencies have been recorded
+     */
+    long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the bucket counts of this histogram. The counts are
+     * not guaranteed to be consistent with each other or with
+     * {@link #getCount()} while latencies are being recorded.
+     *
+     * @return a new array of bucket counts (never <code>null</code>)
+     */
+    long[] getBuckets()
+    {
+        long[] result = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            result[i] = buckets.get(i);
+        return result;
+    }
+
+    /**
+     * Returns the exclusive upper bounds of the buckets except
+     * the last one, which is unbounded.
+     *
+     * @return a new array of bucket bounds in microseconds
+     *  (never <code>null</code>)
+     */
+    static long[] getBucketBounds()
+    {
+        long[] result = new long[BUCKET_COUNT - 1];
+        for (int i = 0; i < result.length; i++)
+            result[i] = 1L << i;
+        return result;
+    }
+
+    private static int bucketOf(long nanos)
+    {
+        long micros = nanos / 1000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.model.IElement;
+
+/**
+ * Tells which Foo files should stay in the cache: working copies and
+ * files edited within a recent period of time.
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class PinnedFiles
+    implements Predicate<IElement>
+{
+    private static final long DEFAULT_PIN_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<IElement, Long> editTimes = new ConcurrentHashMap<>();
+    private final long pinNanos;
+
+    /**
+     * Constructs a new instance that pins edited files for five minutes.
+     */
+    PinnedFiles()
+    {
+        this(DEFAULT_PIN_NANOS);
+    }
+
+    /**
+     * Constructs a new instance that pins edited files for the given time.
+     *
+     * @param pinNanos the time to pin edited files for, in nanoseconds
+     */
+    PinnedFiles(long pinNanos)
+    {
+        this.pinNanos = pinNanos;
+    }
+
+    /**
+     * Records that the given Foo file has been edited.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     */
+    void fileEdited(IElement file)
+    {
+        long now = System.nanoTime();
+        editTimes.put(file, now);
+        Iterator<Long> it = editTimes.values().iterator();
+        while (it.hasNext())
+        {
+            if (now - it.next() > pinNanos)
+                it.remove();
+        }
+    }
+
+    @Override
+    public boolean test(IElement element)
+    {
+        if (element instanceof IFooFile && ((IFooFile)element).isWorkingCopy())
+            return true;
+        Long editTime = editTimes.get(element);
+        return editTime != null && System.nanoTime() - editTime <= pinNanos;
+    }
+}
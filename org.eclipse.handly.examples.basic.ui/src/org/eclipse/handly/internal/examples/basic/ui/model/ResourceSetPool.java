@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.ui.resource.IResourceSetProvider;
+
+/**
+ * A pool of resource sets used for parsing Foo files.
+ * <p>
+ * Resource sets are configured per project by an {@link IResourceSetProvider},
+ * which is relatively expensive, so they are reused: a resource set is
+ * acquired for a parse and released when the structure has been built.
+ * Releasing a resource set unloads and removes all of its resources,
+ * so that no node models are kept alive by the pool. At most a few idle
+ * resource sets are kept for each of a bounded number of projects.
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class ResourceSetPool
+{
+    private static final int MAX_IDLE_PER_PROJECT = 2;
+    private static final int MAX_PROJECTS = 16;
+
+    private final Map<IProject, ArrayDeque<ResourceSet>> idle =
+        new LinkedHashMap<IProject, ArrayDeque<ResourceSet>>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<IProject, ArrayDeque<ResourceSet>> eldest)
+            {
+                return size() > MAX_PROJECTS;
+            }
+        };
+
+    /**
+     * Returns an empty resource set for the given project, reusing
+     * an idle one if possible.
+     *
+     * @param project the project (not <code>null</code>)
+     * @param provider the provider to create a new resource set with
+     *  (not <code>null</code>)
+     * @return an empty resource set (never <code>null</code>)
+     */
+    ResourceSet acquire(IProject project, IResourceSetProvider provider)
+    {
+        synchronized (this)
+        {
+            ArrayDeque<ResourceSet> sets = idle.get(project);
+            if (sets != null && !sets.isEmpty())
+                return sets.pop();
+        }
+        return provider.get(project);
+    }
+
+    /**
+     * Unloads and removes all resources of the given resource set and
+     * returns it to this pool.
+     *
+     * @param project the project the resource set was acquired for
+     *  (not <code>null</code>)
+     * @param resourceSet the resource set (not <code>null</code>)
+     */
+    void release(IProject project, ResourceSet resourceSet)
+    {
+        List<Resource> resources = new ArrayList<>(
+            resourceSet.getResources());
+        for (Resource resource : resources)
+            resource.unload();
+        resourceSet.getResources().clear();
+        synchronized (this)
+        {
+            ArrayDeque<ResourceSet> sets = idle.computeIfAbsent(project,
+                k -> new ArrayDeque<>(MAX_IDLE_PER_PROJECT));
+            if (sets.size() < MAX_IDLE_PER_PROJECT)
+                sets.push(resourceSet);
+        }
+    }
+
+    /**
+     * Returns the number of idle resource sets in this pool.
+     *
+     * @return the number of idle resource sets
+     */
+    synchronized int idleCount()
+    {
+        int count = 0;
+        for (ArrayDeque<ResourceSet> sets : idle.values())
+            count += sets.size();
+        return count;
+    }
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.handly.model.IElement;
+
+/**
+ * A second-tier cache that keeps the structure of Foo files evicted
+ * from the {@link FooModelCache} under soft references. A file that
+ * is reopened after eviction can then get its structure back without
+ * reparsing, unless the garbage collector has reclaimed it in the meantime.
+ * <p>
+ * Each structure is validated against the modification stamp of
+ * the underlying file and the digest of the file's contents at
+ * the time the structure was built (see {@link FooFile#digest(String)}).
+ * </p>
+ *
+ * @threadsafe This class is intended to be thread-safe
+ */
+class SoftStructureCache
+{
+    private static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final Map<IElement, StructureRef> refs;
+    private final ReferenceQueue<Structure> queue = new ReferenceQueue<>();
+
+    /**
+     * Constructs a new soft structure cache.
+     */
+    SoftStructureCache()
+    {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a new soft structure cache that keeps at most
+     * the given number of entries.
+     *
+     * @param maxSize the maximum number of entries (must be positive)
+     */
+    SoftStructureCache(int maxSize)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException();
+        refs = new LinkedHashMap<IElement, StructureRef>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<IElement, StructureRef> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Keeps the given structure of the given Foo file under a soft reference.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the modification stamp of the underlying file
+     *  at the time the structure was built
+     * @param contentsDigest the digest of the file's contents
+     *  at the time the structure was built (not <code>null</code>)
+     * @param body the body of the Foo file (not <code>null</code>)
+     * @param children the bodies of the file's children keyed by
+     *  the child elements (not <code>null</code>)
+     */
+    synchronized void put(IElement file, long stamp, byte[] contentsDigest,
+        Object body, Map<IElement, Object> children)
+    {
+        expungeStaleEntries();
+        refs.put(file, new StructureRef(file, new Structure(stamp,
+            contentsDigest, body, children), queue));
+    }
+
+    /**
+     * Removes the structure of the given Foo file from this cache and,
+     * if the structure is still valid for the given modification stamp and
+     * contents digest, puts the file body and the bodies of its children
+     * into the given map.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     * @param stamp the current modification stamp of the underlying file
+     * @param contentsDigest the digest of the current contents of the file
+     *  (not <code>null</code>)
+     * @param newElements the map to populate with the restored bodies
+     *  (not <code>null</code>)
+     * @return <code>true</code> if the structure was restored,
+     *  and <code>false</code> otherwise
+     */
+    synchronized boolean restore(IElement file, long stamp,
+        byte[] contentsDigest, Map<IElement, Object> newElements)
+    {
+        expungeStaleEntries();
+        StructureRef ref = refs.remove(file);
+        if (ref == null)
+            return false;
+        Structure structure = ref.get();
+        if (structure == null || structure.stamp != stamp
+            || !Arrays.equals(structure.contentsDigest, contentsDigest))
+            return false;
+        newElements.putAll(structure.children);
+        newElements.put(file, structure.body);
+        return true;
+    }
+
+    /**
+     * Removes the structure of the given Foo file from this cache.
+     *
+     * @param file the Foo file (not <code>null</code>)
+     */
+    synchronized void remove(IElement file)
+    {
+        refs.remove(file);
+    }
+
+    /**
+     * Returns the number of entries in this cache. Some of the entries
+     * may have already been reclaimed by the garbage collector.
+     *
+     * @return the number of entries
+     */
+    synchronized int size()
+    {
+        expungeStaleEntries();
+        return refs.size();
+    }
+
+    private void expungeStaleEntries()
+    {
+        StructureRef ref;
+        while ((ref = (StructureRef)queue.poll()) != null)
+            refs.remove(ref.file, ref); // does not affect the access order
+    }
+
+    private static class Structure
+    {
+        final long stamp;
+        final byte[] contentsDigest;
+        final Object body;
+        final Map<IElement, Object> children;
+
+        Structure(long stamp, byte[] contentsDigest, Object body,
+            Map<IElement, Object> children)
+        {
+            this.stamp = stamp;
+            this.contentsDigest = contentsDigest;
+            this.body = body;
+            this.children = children;
+        }
+    }
+
+    private static class StructureRef
+        extends SoftReference<Structure>
+    {
+        final IElement file;
+
+        StructureRef(IElement file, Structure structure,
+            ReferenceQueue<Structure> queue)
+        {
+            super(structure, queue);
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import static org.eclipse.handly.context.Contexts.of;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CLOSE_HINT;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CloseHint.CACHE_OVERFLOW;
+
+import java.util.HashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.handly.model.impl.support.IBodyCache;
+
+/**
+ * A count-bounded cache of element bodies with a scan-resistant,
+ * frequency-aware eviction policy (W-TinyLFU).
+ * <p>
+ * New elements enter a small LRU <i>window</i>. Elements that overflow
+ * the window become candidates for the <i>main</i> space, a segmented LRU
+ * of a <i>probation</i> and a <i>protected</i> segment. When the main space
+ * is full, a candidate is admitted only if it has been accessed more often
+ * recently than the probation victim it would replace, as estimated by
+ * a {@link FrequencySketch}; otherwise the candidate itself is evicted.
+ * Elements accessed while on probation are promoted to the protected
+ * segment. Thus, a one-time scan over many elements cannot flush
+ * frequently used elements out of the cache.
+ * </p>
+ * <p>
+ * Elements accepted by the given <i>pinned</i> predicate, such as working
+ * copies, are never chosen for eviction. A pinned element met while
+ * looking for a victim is moved out of the main space to a separate list,
+ * so that it is not looked at again on each eviction. The list is
+ * rechecked one element per eviction, and an element that is no longer
+ * pinned returns to the main space. Evicted elements are closed
+ * (with the {@link
+ * org.eclipse.handly.model.impl.IElementImplExtension.CloseHint#CACHE_OVERFLOW
+ * CACHE_OVERFLOW} hint).
+ * </p>
+ * <p>
+ * This class is not thread-safe; like other body caches it is guarded
+ * by the element manager.
+ * </p>
+ */
+class TinyLfuElementCache
+    implements IBodyCache
+{
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int PINNED = 3;
+
+    private final HashMap<IElement, Node> nodes = new HashMap<>();
+    private final Node[] heads = { new Node(null, null), new Node(null, null),
+        new Node(null, null), new Node(null, null) }; // sentinels; head.next is the most recently used node
+    private final int[] sizes = new int[4];
+    private final Predicate<IElement> pinned;
+    private final FrequencySketch sketch;
+    private int maxSize;
+    private int windowMaxSize;
+    private int protectedMaxSize;
+    private IElement spaceLimitParent;
+    private boolean evicting;
+
+    /**
+     * Constructs a new cache with the given maximum size.
+     *
+     * @param maxSize the maximum number of elements (must be positive)
+     * @param pinned the predicate for elements that must not be evicted,
+     *  or <code>null</code> if all elements can be evicted
+     */
+    TinyLfuElementCache(int maxSize, Predicate<IElement> pinned)
+    {
+        for (Node head : heads)
+            head.next = head.prev = head;
+        this.pinned = pinned;
+        sketch = new FrequencySketch(maxSize);
+        setMaxSize(maxSize);
+    }
+
+    @Override
+    public Object get(IElement element)
+    {
+        sketch.increment(element);
+        Node node = nodes.get(element);
+        if (node == null)
+            return null;
+        onAccess(node);
+        return node.body;
+    }
+
+    @Override
+    public Object peek(IElement element)
+    {
+        Node node = nodes.get(element);
+        if (node == null)
+            return null;
+        return node.body;
+    }
+
+    @Override
+    public void put(IElement element, Object body)
+    {
+        Node node = nodes.get(element);
+        if (node != null)
+        {
+            node.body = body;
+            onAccess(node);
+            return;
+        }
+        node = new Node(element, body);
+        nodes.put(element, node);
+        link(node, WINDOW);
+        makeSpace();
+    }
+
+    @Override
+    public void remove(IElement element)
+    {
+        Node node = nodes.remove(element);
+        if (node != null)
+            unlink(node);
+    }
+
+    /**
+     * Ensures that this cache has room for the given number of children
+     * of the given parent element, increasing the maximum size if necessary.
+     *
+     * @param childCount the number of children
+     * @param parent the parent element (not <code>null</code>)
+     * @see #resetMaxSize(int, IElement)
+     */
+    void ensureMaxSize(int childCount, IElement parent)
+    {
+        int targetSize = childCount + childCount / 3;
+        if (targetSize > maxSize)
+        {
+            setMaxSize(targetSize);
+            spaceLimitParent = parent;
+        }
+    }
+
+    /**
+     * Resets the maximum size of this cache to the given value if it was
+     * increased on behalf of the given parent element.
+     *
+     * @param maxSize the new maximum size (must be positive)
+     * @param parent the parent element (not <code>null</code>)
+     * @see #ensureMaxSize(int, IElement)
+     */
+    void resetMaxSize(int maxSize, IElement parent)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException();
+        if (parent.equals(spaceLimitParent))
+        {
+            setMaxSize(maxSize);
+            spaceLimitParent = null;
+        }
+    }
+
+    /**
+     * Returns the maximum size of this cache.
+     *
+     * @return the maximum number of elements
+     */
+    int maxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of elements in this cache.
+     *
+     * @return the number of elements
+     */
+    int size()
+    {
+        return nodes.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TinyLfuElementCache [size=" + nodes.size() + ", maxSize=" //$NON-NLS-1$ //$NON-NLS-2$
+            + maxSize + ", window=" + sizes[WINDOW] + ", probation=" //$NON-NLS-1$ //$NON-NLS-2$
+            + sizes[PROBATION] + ", protected=" + sizes[PROTECTED] //$NON-NLS-1$
+            + ", pinned=" + sizes[PINNED] + ']'; //$NON-NLS-1$
+    }
+
+    /**
+     * Closes the given element, which is expected to remove it from
+     * this cache.
+     *
+     * @param element the element to evict (never <code>null</code>)
+     */
+    void evict(IElement element)
+    {
+        // the element removes its body from the cache if it can be closed
+        ((Element)element).close_(of(CLOSE_HINT, CACHE_OVERFLOW));
+    }
+
+    private void setMaxSize(int maxSize)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException();
+        this.maxSize = maxSize;
+        windowMaxSize = Math.max(1, maxSize / 100);
+        protectedMaxSize = (maxSize - windowMaxSize) * 4 / 5;
+        sketch.ensureCapacity(maxSize);
+        makeSpace();
+    }
+
+    private void onAccess(Node node)
+    {
+        if (node.segment == PROBATION)
+        {
+            relink(node, PROTECTED);
+            // demote protected elements that no longer fit
+            while (sizes[PROTECTED] > protectedMaxSize)
+                relink(heads[PROTECTED].prev, PROBATION);
+        }
+        else if (node.segment == PINNED && !isPinned(node))
+            relink(node, PROBATION);
+        else
+            relink(node, node.segment);
+    }
+
+    private void makeSpace()
+    {
+        if (evicting)
+            return;
+        evicting = true;
+        try
+        {
+            // candidates leave the window for the probation segment
+            while (sizes[WINDOW] > windowMaxSize)
+                relink(heads[WINDOW].prev, PROBATION);
+            int attempts = nodes.size();
+            while (nodes.size() > maxSize && attempts-- > 0)
+            {
+                recheckPinned();
+                Node victim = oldestUnpinned(PROBATION);
+                if (victim == null)
+                    victim = oldestUnpinned(PROTECTED);
+                if (victim == null && unpin())
+                    victim = oldestUnpinned(PROBATION);
+                if (victim == null)
+                    return; // the main space is pinned; keep the window intact
+                Node candidate = newestUnpinned(PROBATION);
+                if (victim.segment == PROBATION && candidate != victim
+                    && sketch.frequency(candidate.element) <= sketch.frequency(
+                        victim.element))
+                {
+                    victim = candidate; // reject the candidate
+                }
+                evict(victim.element);
+                if (nodes.get(victim.element) == victim)
+                {
+                    // the element could not be closed; give it another chance
+                    relink(victim, PROTECTED);
+                }
+            }
+        }
+        finally
+        {
+            evicting = false;
+        }
+    }
+
+    private Node oldestUnpinned(int segment)
+    {
+        Node head = heads[segment];
+        for (Node node = head.prev; node != head; node = head.prev)
+        {
+            if (!isPinned(node))
+                return node;
+            relink(node, PINNED);
+        }
+        return null;
+    }
+
+    private Node newestUnpinned(int segment)
+    {
+        Node head = heads[segment];
+        for (Node node = head.next; node != head; node = head.next)
+        {
+            if (!isPinned(node))
+                return node;
+            relink(node, PINNED);
+        }
+        return null;
+    }
+
+    /*
+     * Rechecks the element kept in the pinned list for the longest time.
+     * If it is no longer pinned, it becomes the oldest element on probation;
+     * otherwise, it goes to the end of the list.
+     */
+    private void recheckPinned()
+    {
+        Node head = heads[PINNED];
+        Node node = head.prev;
+        if (node == head)
+            return;
+        if (isPinned(node))
+            relink(node, PINNED);
+        else
+        {
+            unlink(node);
+            linkOldest(node, PROBATION);
+        }
+    }
+
+    /*
+     * Moves all elements that are no longer pinned back to the probation
+     * segment. Returns whether any element has been moved.
+     */
+    private boolean unpin()
+    {
+        boolean unpinned = false;
+        Node head = heads[PINNED];
+        Node node = head.prev;
+        while (node != head)
+        {
+            Node prev = node.prev;
+            if (!isPinned(node))
+            {
+                relink(node, PROBATION);
+                unpinned = true;
+            }
+            node = prev;
+        }
+        return unpinned;
+    }
+
+    private boolean isPinned(Node node)
+    {
+        return pinned != null && pinned.test(node.element);
+    }
+
+    private void relink(Node node, int segment)
+    {
+        unlink(node);
+        link(node, segment);
+    }
+
+    private void link(Node node, int segment)
+    {
+        Node head = heads[segment];
+        node.segment = segment;
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+        sizes[segment]++;
+    }
+
+    private void linkOldest(Node node, int segment)
+    {
+        Node head = heads[segment];
+        node.segment = segment;
+        node.next = head;
+        node.prev = head.prev;
+        head.prev.next = node;
+        head.prev = node;
+        sizes[segment]++;
+    }
+
+    private void unlink(Node node)
+    {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.next = node.prev = null;
+        sizes[node.segment]--;
+    }
+
+    private static class Node
+    {
+        final IElement element;
+        Object body;
+        int segment;
+        Node prev, next;
+
+        Node(IElement element, Object body)
+        {
+            this.element = element;
+            this.body = body;
+        }
+    }
+}
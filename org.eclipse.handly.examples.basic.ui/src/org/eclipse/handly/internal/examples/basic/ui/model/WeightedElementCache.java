@@ -0,0 +1,292 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.model;
+
+import static org.eclipse.handly.context.Contexts.of;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CLOSE_HINT;
+import static org.eclipse.handly.model.impl.IElementImplExtension.CloseHint.CACHE_OVERFLOW;
+
+import java.util.HashMap;
+
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.handly.model.impl.support.IBodyCache;
+
+/**
+ * An LRU cache of element bodies that is bounded by the estimated
+ * retained size of the bodies rather than by their number.
+ * <p>
+ * Each entry is weighed as the element's own body plus the bodies of
+ * its children reported via {@link #addChildWeight(IElement, long)}.
+ * When the total weight exceeds the budget, least recently used elements
+ * are closed (with the {@link
+ * org.eclipse.handly.model.impl.IElementImplExtension.CloseHint#CACHE_OVERFLOW
+ * CACHE_OVERFLOW} hint) until the cache fits the budget again. Elements
+ * that refuse to be closed, such as working copies, remain in the cache.
+ * </p>
+ * <p>
+ * This class is not thread-safe; like other body caches it is guarded
+ * by the element manager.
+ * </p>
+ */
+class WeightedElementCache
+    implements IBodyCache
+{
+    private final HashMap<IElement, Entry> entries = new HashMap<>();
+    private final Entry head = new Entry(null, null); // sentinel; head.next is the most recently used entry
+    private long budget;
+    private long totalWeight;
+    private boolean evicting;
+
+    /**
+     * Constructs a new cache with the given budget.
+     *
+     * @param budget the maximum total weight of the cache in bytes
+     *  (must be positive)
+     */
+    WeightedElementCache(long budget)
+    {
+        setBudget(budget);
+        head.next = head.prev = head;
+    }
+
+    @Override
+    public Object get(IElement element)
+    {
+        Entry entry = entries.get(element);
+        if (entry == null)
+            return null;
+        moveToFront(entry);
+        return entry.body;
+    }
+
+    @Override
+    public Object peek(IElement element)
+    {
+        Entry entry = entries.get(element);
+        if (entry == null)
+            return null;
+        return entry.body;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The initial weight of the entry is computed from the given body
+     * by {@link FooBodyWeigher}. Weights of children should be added
+     * separately via {@link #addChildWeight(IElement, long)}.
+     * </p>
+     */
+    @Override
+    public void put(IElement element, Object body)
+    {
+        put(element, body, FooBodyWeigher.weigh(element, body));
+    }
+
+    /**
+     * Puts the given body into the cache with the given initial weight.
+     *
+     * @param element the element (not <code>null</code>)
+     * @param body the element's body (not <code>null</code>)
+     * @param weight the initial weight of the entry in bytes
+     */
+    void put(IElement element, Object body, long weight)
+    {
+        Entry entry = entries.get(element);
+        if (entry == null)
+        {
+            entry = new Entry(element, body);
+            entries.put(element, entry);
+            link(entry);
+        }
+        else
+        {
+            entry.body = body;
+            totalWeight -= entry.weight;
+            moveToFront(entry);
+        }
+        entry.weight = weight;
+        totalWeight += weight;
+        makeSpace();
+    }
+
+    @Override
+    public void remove(IElement element)
+    {
+        Entry entry = entries.remove(element);
+        if (entry == null)
+            return;
+        unlink(entry);
+        totalWeight -= entry.weight;
+    }
+
+    /**
+     * Adds the given weight to the entry for the given element.
+     * Has no effect if the element is not in the cache.
+     * A negative weight may be given to subtract the weight
+     * of a removed child.
+     *
+     * @param element the element (not <code>null</code>)
+     * @param weight the weight to add, in bytes
+     */
+    void addChildWeight(IElement element, long weight)
+    {
+        Entry entry = entries.get(element);
+        if (entry == null)
+            return;
+        if (entry.weight + weight < 0)
+            weight = -entry.weight;
+        entry.weight += weight;
+        totalWeight += weight;
+        if (weight > 0)
+            makeSpace();
+    }
+
+    /**
+     * Returns the current weight of the entry for the given element.
+     *
+     * @param element the element (not <code>null</code>)
+     * @return the weight of the entry in bytes, or <code>0</code>
+     *  if the element is not in the cache
+     */
+    long getWeight(IElement element)
+    {
+        Entry entry = entries.get(element);
+        if (entry == null)
+            return 0;
+        return entry.weight;
+    }
+
+    /**
+     * Returns the total weight of all entries in this cache.
+     *
+     * @return the total weight in bytes
+     */
+    long getTotalWeight()
+    {
+        return totalWeight;
+    }
+
+    /**
+     * Returns the budget of this cache.
+     *
+     * @return the maximum total weight in bytes
+     */
+    long getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Changes the budget of this cache. If the cache no longer fits
+     * the new budget, least recently used entries are evicted.
+     *
+     * @param budget the maximum total weight in bytes (must be positive)
+     */
+    void setBudget(long budget)
+    {
+        if (budget <= 0)
+            throw new IllegalArgumentException();
+        this.budget = budget;
+        makeSpace();
+    }
+
+    /**
+     * Returns the number of entries in this cache.
+     *
+     * @return the number of entries
+     */
+    int size()
+    {
+        return entries.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WeightedElementCache [size=" + entries.size() + ", weight=" //$NON-NLS-1$ //$NON-NLS-2$
+            + totalWeight + ", budget=" + budget + " (" //$NON-NLS-1$ //$NON-NLS-2$
+            + (totalWeight * 100 / budget) + "% full)]"; //$NON-NLS-1$
+    }
+
+    private void makeSpace()
+    {
+        if (evicting || totalWeight <= budget)
+            return;
+        evicting = true;
+        try
+        {
+            // never evict the most recently used entry; it is being added
+            Entry entry = head.prev;
+            while (totalWeight > budget && entry != head.next)
+            {
+                Entry prev = entry.prev;
+                evict(entry.element);
+                entry = prev;
+            }
+        }
+        finally
+        {
+            evicting = false;
+        }
+    }
+
+    private void moveToFront(Entry entry)
+    {
+        unlink(entry);
+        link(entry);
+    }
+
+    private void link(Entry entry)
+    {
+        entry.prev = head;
+        entry.next = head.next;
+        head.next.prev = entry;
+        head.next = entry;
+    }
+
+    private static void unlink(Entry entry)
+    {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.next = entry.prev = null;
+    }
+
+    /**
+     * Evicts the given element from this cache. This implementation
+     * closes the element with the {@link
+     * org.eclipse.handly.model.impl.IElementImplExtension.CloseHint#CACHE_OVERFLOW
+     * CACHE_OVERFLOW} hint; the element removes its body from the cache
+     * if it can be closed.
+     *
+     * @param element the element to evict (never <code>null</code>)
+     */
+    void evict(IElement element)
+    {
+        ((Element)element).close_(of(CLOSE_HINT, CACHE_OVERFLOW));
+    }
+
+    private static class Entry
+    {
+        final IElement element;
+        Object body;
+        long weight;
+        Entry prev, next;
+
+        Entry(IElement element, Object body)
+        {
+            this.element = element;
+            this.body = body;
+        }
+    }
+}
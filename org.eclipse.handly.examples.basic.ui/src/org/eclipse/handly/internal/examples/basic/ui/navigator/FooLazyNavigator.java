@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.navigator;
+
+import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
+import org.eclipse.handly.internal.examples.basic.ui.FooLabelProvider;
+import org.eclipse.handly.internal.examples.basic.ui.FooLazyContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Foo Navigator view in the lazy mode.
+ * <p>
+ * The view shows the Foo Model in a plain virtual tree viewer with
+ * a {@link FooLazyContentProvider}, since the content extensions of
+ * the Common Navigator Framework cannot be lazy. Lazy viewers do not
+ * support sorters and filters, and this view has none.
+ * </p>
+ *
+ * @see FooNavigatorFactory
+ */
+public class FooLazyNavigator
+    extends ViewPart
+{
+    private TreeViewer viewer;
+    private FooNavigatorUpdater updater;
+
+    @Override
+    public void createPartControl(Composite parent)
+    {
+        viewer = new TreeViewer(parent, SWT.MULTI | SWT.H_SCROLL
+            | SWT.V_SCROLL | SWT.VIRTUAL);
+        viewer.setUseHashlookup(true);
+        viewer.setContentProvider(new FooLazyContentProvider());
+        viewer.setLabelProvider(new FooLabelProvider());
+        viewer.setInput(FooModelCore.getFooModel());
+        getSite().setSelectionProvider(viewer);
+        updater = new FooNavigatorUpdater(viewer, true);
+        FooModelCore.getFooModel().addElementChangeListener(updater);
+    }
+
+    @Override
+    public void setFocus()
+    {
+        viewer.getControl().setFocus();
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (updater != null)
+            FooModelCore.getFooModel().removeElementChangeListener(updater);
+        super.dispose();
+    }
+}
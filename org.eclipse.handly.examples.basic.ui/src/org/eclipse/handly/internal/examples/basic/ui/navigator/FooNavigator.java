@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014 1C LLC.
+ * Copyright (c) 2014, 2026 1C LLC.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,21 +13,16 @@
 package org.eclipse.handly.internal.examples.basic.ui.navigator;
 
 import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
-import org.eclipse.handly.model.IElementChangeEvent;
-import org.eclipse.handly.model.IElementChangeListener;
-import org.eclipse.jface.viewers.TreePath;
-import org.eclipse.swt.custom.BusyIndicator;
-import org.eclipse.swt.widgets.Control;
-import org.eclipse.ui.IViewSite;
-import org.eclipse.ui.PartInitException;
+import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.navigator.CommonNavigator;
 
 /**
  * Foo Navigator view.
+ *
+ * @see FooNavigatorFactory
  */
 public class FooNavigator
     extends CommonNavigator
-    implements IElementChangeListener
 {
     /**
      * Foo Navigator view id.
@@ -35,58 +30,27 @@ public class FooNavigator
     public static final String ID =
         "org.eclipse.handly.examples.basic.ui.views.fooNavigator"; //$NON-NLS-1$
 
+    private FooNavigatorUpdater updater;
+
     @Override
-    public void init(IViewSite site) throws PartInitException
+    public void createPartControl(Composite aParent)
     {
-        super.init(site);
-        FooModelCore.getFooModel().addElementChangeListener(this);
+        super.createPartControl(aParent);
+        updater = new FooNavigatorUpdater(getCommonViewer(), false);
+        FooModelCore.getFooModel().addElementChangeListener(updater);
     }
 
     @Override
     public void dispose()
     {
-        FooModelCore.getFooModel().removeElementChangeListener(this);
+        if (updater != null)
+            FooModelCore.getFooModel().removeElementChangeListener(updater);
         super.dispose();
     }
 
-    @Override
-    public void elementChanged(IElementChangeEvent event)
-    {
-        // NOTE: don't hold on the event or its delta.
-        // The delta is only valid during the dynamic scope of the notification.
-        // In particular, don't pass it to another thread (e.g. via asyncExec). 
-        final Control control = getCommonViewer().getControl();
-        control.getDisplay().asyncExec(new Runnable()
-        {
-            public void run()
-            {
-                if (!control.isDisposed())
-                {
-                    refresh(); // full refresh should suffice for our example (but not for production code)
-                }
-            }
-        });
-    }
-
     @Override
     protected Object getInitialInput()
     {
         return FooModelCore.getFooModel();
     }
-
-    private void refresh()
-    {
-        Control control = getCommonViewer().getControl();
-        control.setRedraw(false);
-        BusyIndicator.showWhile(control.getDisplay(), new Runnable()
-        {
-            public void run()
-            {
-                TreePath[] treePaths = getCommonViewer().getExpandedTreePaths();
-                getCommonViewer().refresh();
-                getCommonViewer().setExpandedTreePaths(treePaths);
-            }
-        });
-        control.setRedraw(true);
-    }
 }
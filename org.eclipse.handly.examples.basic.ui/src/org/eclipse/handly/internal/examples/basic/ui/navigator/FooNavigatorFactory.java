@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.navigator;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExecutableExtension;
+import org.eclipse.core.runtime.IExecutableExtensionFactory;
+import org.eclipse.handly.internal.examples.basic.ui.FooLazyContentProvider;
+
+/**
+ * Creates the Foo Navigator view: a {@link FooLazyNavigator} if the lazy
+ * mode is {@link FooLazyContentProvider#isEnabled() enabled}, and
+ * a {@link FooNavigator} otherwise.
+ */
+public class FooNavigatorFactory
+    implements IExecutableExtensionFactory, IExecutableExtension
+{
+    private IConfigurationElement config;
+    private String propertyName;
+    private Object data;
+
+    @Override
+    public void setInitializationData(IConfigurationElement config,
+        String propertyName, Object data) throws CoreException
+    {
+        this.config = config;
+        this.propertyName = propertyName;
+        this.data = data;
+    }
+
+    @Override
+    public Object create() throws CoreException
+    {
+        IExecutableExtension view;
+        if (FooLazyContentProvider.isEnabled())
+            view = new FooLazyNavigator();
+        else
+            view = new FooNavigator();
+        view.setInitializationData(config, propertyName, data);
+        return view;
+    }
+}
@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * Copyright (c) 2026 1C-Soft LLC and others.
+ *
+ * This program and the accompanying materials are made available under
+ * the terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Vladimir Piskarev (1C) - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.handly.internal.examples.basic.ui.navigator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.handly.examples.basic.ui.model.IFooFile;
+import org.eclipse.handly.examples.basic.ui.model.IFooModel;
+import org.eclipse.handly.examples.basic.ui.model.IFooProject;
+import org.eclipse.handly.model.ElementDeltas;
+import org.eclipse.handly.model.Elements;
+import org.eclipse.handly.model.IElement;
+import org.eclipse.handly.model.IElementChangeEvent;
+import org.eclipse.handly.model.IElementChangeListener;
+import org.eclipse.handly.model.IElementDelta;
+import org.eclipse.handly.model.IElementDeltaConstants;
+import org.eclipse.handly.model.impl.support.Body;
+import org.eclipse.handly.model.impl.support.Element;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.custom.BusyIndicator;
+import org.eclipse.swt.widgets.Control;
+
+/**
+ * Updates a Foo Navigator tree viewer from Foo element deltas.
+ */
+class FooNavigatorUpdater
+    implements IElementChangeListener
+{
+    private final TreeViewer viewer;
+    private final boolean lazy;
+    // guarded by this
+    private final List<IElementDelta> pendingDeltas = new ArrayList<>();
+    private boolean updateScheduled;
+
+    /**
+     * Creates a new updater for the given viewer.
+     *
+     * @param viewer the viewer to update (not <code>null</code>)
+     * @param lazy whether the viewer has a lazy content provider
+     */
+    FooNavigatorUpdater(TreeViewer viewer, boolean lazy)
+    {
+        this.viewer = viewer;
+        this.lazy = lazy;
+    }
+
+    @Override
+    public void elementChanged(IElementChangeEvent event)
+    {
+        // NOTE: Foo element deltas may be held and passed to another thread,
+        // since they don't refer to resource deltas and are not modified after
+        // they have been fired. This listener may also be notified in a thread
+        // other than the one that changed the Foo Model.
+        synchronized (this)
+        {
+            pendingDeltas.addAll(Arrays.asList(event.getDeltas()));
+            if (updateScheduled)
+                return; // the pending update will process the deltas
+            updateScheduled = true;
+        }
+        final Control control = viewer.getControl();
+        control.getDisplay().asyncExec(new Runnable()
+        {
+            public void run()
+            {
+                if (!control.isDisposed())
+                {
+                    processPendingDeltas();
+                }
+            }
+        });
+    }
+
+    /*
+     * Processes all the deltas received since the last update in one go,
+     * so that a burst of change events results in a single UI update.
+     * Must be called in the UI thread.
+     */
+    private void processPendingDeltas()
+    {
+        IElementDelta[] deltas;
+        synchronized (this)
+        {
+            deltas = pendingDeltas.toArray(new IElementDelta[0]);
+            pendingDeltas.clear();
+            updateScheduled = false;
+        }
+        for (IElementDelta delta : deltas)
+        {
+            if (isStructuralRootChange(delta))
+            {
+                refresh();
+                return;
+            }
+        }
+        ViewerUpdate update = new ViewerUpdate(lazy);
+        for (IElementDelta delta : deltas)
+        {
+            if (ElementDeltas.getElement(delta) instanceof IFooModel)
+            {
+                for (IElementDelta child : ElementDeltas.getAffectedChildren(
+                    delta))
+                    update.process(child);
+            }
+            else
+                update.process(delta); // e.g. a reconcile delta
+        }
+        if (!update.isEmpty())
+        {
+            Control control = viewer.getControl();
+            control.setRedraw(false);
+            try
+            {
+                update.apply(viewer);
+            }
+            finally
+            {
+                control.setRedraw(true);
+            }
+        }
+    }
+
+    /*
+     * Returns whether the given delta describes a change in the set of
+     * Foo projects (or any other change of the Foo Model itself) that
+     * calls for a full refresh of the tree.
+     */
+    private static boolean isStructuralRootChange(IElementDelta delta)
+    {
+        if (!(ElementDeltas.getElement(delta) instanceof IFooModel))
+            return false;
+        if (ElementDeltas.getKind(delta) != IElementDeltaConstants.CHANGED
+            || (ElementDeltas.getFlags(delta)
+                & ~IElementDeltaConstants.F_CHILDREN) != 0)
+            return true;
+        for (IElementDelta child : ElementDeltas.getAffectedChildren(delta))
+        {
+            if (ElementDeltas.getKind(child) != IElementDeltaConstants.CHANGED)
+                return true; // a Foo project has been added or removed
+        }
+        return false;
+    }
+
+    private void refresh()
+    {
+        Control control = viewer.getControl();
+        control.setRedraw(false);
+        BusyIndicator.showWhile(control.getDisplay(), new Runnable()
+        {
+            public void run()
+            {
+                TreePath[] treePaths = viewer.getExpandedTreePaths();
+                viewer.refresh();
+                viewer.setExpandedTreePaths(treePaths);
+            }
+        });
+        control.setRedraw(true);
+    }
+
+    /*
+     * Maps element deltas to targeted viewer operations. For a lazy viewer,
+     * the parent of an added or removed element is refreshed.
+     */
+    private static class ViewerUpdate
+    {
+        private final boolean lazy;
+        private final Set<IElement> removed = new LinkedHashSet<>();
+        private final Map<IElement, List<IElement>> added =
+            new LinkedHashMap<>();
+        private final Set<IElement> refreshed = new LinkedHashSet<>();
+        private final Set<IElement> updated = new LinkedHashSet<>();
+
+        ViewerUpdate(boolean lazy)
+        {
+            this.lazy = lazy;
+        }
+
+        void process(IElementDelta delta)
+        {
+            IElement element = ElementDeltas.getElement(delta);
+            switch (ElementDeltas.getKind(delta))
+            {
+            case IElementDeltaConstants.ADDED:
+                if (lazy) // a lazy viewer is updated by index
+                    refreshed.add(Elements.getParent(element));
+                else
+                    added.computeIfAbsent(Elements.getParent(element),
+                        k -> new ArrayList<>()).add(element);
+                break;
+            case IElementDeltaConstants.REMOVED:
+                if (lazy)
+                    refreshed.add(Elements.getParent(element));
+                else
+                    removed.add(element);
+                break;
+            case IElementDeltaConstants.CHANGED:
+                long flags = ElementDeltas.getFlags(delta);
+                if (element instanceof IFooFile
+                    && (flags & IElementDeltaConstants.F_CONTENT) != 0
+                    && (flags & IElementDeltaConstants.F_FINE_GRAINED) == 0)
+                {
+                    // the file has changed, but it is not known how
+                    refreshed.add(element);
+                    return;
+                }
+                if ((flags & IElementDeltaConstants.F_REORDER) != 0)
+                    refreshed.add(Elements.getParent(element));
+                if (affectsLabel(element, flags))
+                    updated.add(element);
+                for (IElementDelta child : ElementDeltas.getAffectedChildren(
+                    delta))
+                    process(child);
+                break;
+            default:
+                break;
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return removed.isEmpty() && added.isEmpty() && refreshed.isEmpty()
+                && updated.isEmpty();
+        }
+
+        void apply(TreeViewer viewer)
+        {
+            if (!removed.isEmpty())
+                viewer.remove(removed.toArray());
+            for (Map.Entry<IElement, List<IElement>> entry : added.entrySet())
+            {
+                IElement parent = entry.getKey();
+                if (!isRefreshed(parent))
+                    insert(viewer, parent, entry.getValue());
+            }
+            for (IElement element : refreshed)
+            {
+                if (!isRefreshed(Elements.getParent(element)))
+                    viewer.refresh(element);
+            }
+            List<IElement> toUpdate = new ArrayList<>(updated.size());
+            for (IElement element : updated)
+            {
+                if (!isRefreshed(element))
+                    toUpdate.add(element);
+            }
+            if (!toUpdate.isEmpty())
+                viewer.update(toUpdate.toArray(), null);
+        }
+
+        /*
+         * Inserts the added elements at their positions in the model order,
+         * since the viewer has no sorter and would append them otherwise.
+         * If the parent is not open, it is refreshed instead. Elements that
+         * are already shown are skipped: the deltas for the children of a
+         * changed Foo file arrive only after the file has been opened again,
+         * which a refresh of the file may have done.
+         */
+        private void insert(TreeViewer viewer, IElement parent,
+            List<IElement> elements)
+        {
+            // don't open the parent in the UI thread
+            Object body = ((Element)parent).peekAtBody_();
+            if (!(body instanceof Body))
+            {
+                viewer.refresh(parent);
+                return;
+            }
+            ChildPositions positions = new ChildPositions(
+                ((Body)body).getChildren());
+            elements.sort(Comparator.comparingInt(positions::of));
+            for (IElement element : elements)
+            {
+                int position = positions.of(element);
+                // may have been removed in the meantime
+                if (position >= 0 && viewer.testFindItem(element) == null)
+                    viewer.insert(parent, element, position);
+            }
+        }
+
+        /*
+         * Returns whether the given element is to be refreshed,
+         * either by itself or as part of an ancestor.
+         */
+        private boolean isRefreshed(IElement element)
+        {
+            for (; element != null; element = Elements.getParent(element))
+            {
+                if (refreshed.contains(element))
+                    return true;
+            }
+            return false;
+        }
+
+        /*
+         * The positions of the children of an element, indexed once per
+         * update. Children are looked up by identity, since the elements
+         * in deltas are usually the very handles held by the body; an equal
+         * handle from an earlier body is looked up by equality.
+         */
+        private static class ChildPositions
+        {
+            private final IElement[] children;
+            private final Map<Object, Integer> byIdentity;
+            private Map<Object, Integer> byEquality;
+
+            ChildPositions(IElement[] children)
+            {
+                this.children = children;
+                byIdentity = new IdentityHashMap<>(children.length);
+                for (int i = 0; i < children.length; i++)
+                    byIdentity.put(children[i], i);
+            }
+
+            int of(IElement element)
+            {
+                Integer position = byIdentity.get(element);
+                if (position == null)
+                {
+                    if (byEquality == null)
+                    {
+                        byEquality = new HashMap<>(children.length * 2);
+                        for (int i = 0; i < children.length; i++)
+                            byEquality.put(children[i], i);
+                    }
+                    position = byEquality.get(element);
+                }
+                return position != null ? position : -1;
+            }
+        }
+
+        private static boolean affectsLabel(IElement element, long flags)
+        {
+            if (element instanceof IFooProject || element instanceof IFooFile)
+                flags &= ~(IElementDeltaConstants.F_CHILDREN
+                    | IElementDeltaConstants.F_CONTENT
+                    | IElementDeltaConstants.F_FINE_GRAINED);
+            else
+                flags &= ~(IElementDeltaConstants.F_CHILDREN
+                    | IElementDeltaConstants.F_REORDER);
+            return flags != 0;
+        }
+    }
+}
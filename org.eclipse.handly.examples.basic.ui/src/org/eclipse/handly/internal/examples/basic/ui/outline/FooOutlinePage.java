@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 1C-Soft LLC and others.
+ * Copyright (c) 2014, 2026 1C-Soft LLC and others.
  *
  * This program and the accompanying materials are made available under
  * the terms of the Eclipse Public License 2.0 which is available at
@@ -13,12 +13,16 @@
 package org.eclipse.handly.internal.examples.basic.ui.outline;
 
 import org.eclipse.handly.examples.basic.ui.model.FooModelCore;
-import org.eclipse.handly.internal.examples.basic.ui.FooContentProvider;
+import org.eclipse.handly.internal.examples.basic.ui.FooDeferredContentProvider;
 import org.eclipse.handly.internal.examples.basic.ui.FooLabelProvider;
+import org.eclipse.handly.internal.examples.basic.ui.FooLazyContentProvider;
 import org.eclipse.handly.model.IElementChangeListener;
 import org.eclipse.handly.xtext.ui.outline.HandlyXtextOutlinePage;
 import org.eclipse.jface.viewers.IBaseLabelProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
 
 import com.google.inject.Inject;
 
@@ -29,16 +33,29 @@ public class FooOutlinePage
     extends HandlyXtextOutlinePage
 {
     @Inject
-    private FooContentProvider contentProvider;
+    private FooDeferredContentProvider contentProvider;
+    @Inject
+    private FooLazyContentProvider lazyContentProvider;
     @Inject
     private FooLabelProvider labelProvider;
 
     @Override
     protected ITreeContentProvider getContentProvider()
     {
+        if (FooLazyContentProvider.isEnabled())
+            return lazyContentProvider;
         return contentProvider;
     }
 
+    @Override
+    protected TreeViewer createTreeViewer(Composite parent)
+    {
+        if (!FooLazyContentProvider.isEnabled())
+            return super.createTreeViewer(parent);
+        return new TreeViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL
+            | SWT.VIRTUAL);
+    }
+
     @Override
     protected IBaseLabelProvider getLabelProvider()
     {